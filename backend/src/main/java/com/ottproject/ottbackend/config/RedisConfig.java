@@ -4,7 +4,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -13,6 +15,8 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * 큰 흐름
  * - Redis 연결 및 템플릿 설정
  * - 개인화 추천 시스템용 Redis 키 관리
+ * - 바이트 배열 템플릿: 진행률 버퍼(ProgressBufferService)처럼 값을 직접 인코딩하는 곳에서 쓴다
+ * - pub/sub 리스너 컨테이너: 인스턴스 간 캐시 무효화 전파(AnimeCacheInvalidationSubscriber)
  */
 @Configuration
 public class RedisConfig {
@@ -33,4 +37,32 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 키·값 모두 바이트 배열 그대로 주고받는 템플릿. 직렬화기가 아무것도 하지 않는다.
+     * 진행률 버퍼가 고정 폭 바이너리로 직접 인코딩한 값을 그대로 싣기 위해 쓴다.
+     */
+    @Bean
+    public RedisTemplate<byte[], byte[]> byteRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setEnableDefaultSerializer(false);
+        template.setKeySerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.byteArray());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * pub/sub 구독용 컨테이너. 구독자는 각자 @PostConstruct 에서 채널을 등록한다.
+     * 구독 연결은 컨테이너가 하나 따로 잡는다(요청 경로의 커넥션과 섞이지 않는다).
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -173,8 +173,8 @@ public class SecurityConfig {
                                 .permitAll() // 루트 경로 허용 (헬스체크용)
                                 .requestMatchers("/health")
                                 .permitAll() // 헬스체크 경로 허용
-                                .requestMatchers("/actuator/health")
-                                .permitAll() // Spring Actuator 헬스체크 (모니터링용)
+                                .requestMatchers("/actuator/health", "/actuator/health/**")
+                                .permitAll() // Spring Actuator 헬스체크 (모니터링용, 롤링 배포가 /actuator/health/readiness 를 기다린다)
                                 .requestMatchers("/actuator/prometheus")
                                 .permitAll() // Prometheus 스크레이프용 (도커 내부망 전용, nginx 미공개)
                                 .requestMatchers("/api/search/**")
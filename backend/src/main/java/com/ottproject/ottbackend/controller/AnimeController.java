@@ -1,20 +1,31 @@
 package com.ottproject.ottbackend.controller;
 
 import com.ottproject.ottbackend.dto.AnimeDetailDto;
+import com.ottproject.ottbackend.dto.AnimeFacetsDto;
 import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.CursorPagedResponse;
 import com.ottproject.ottbackend.dto.PagedResponse;
 import com.ottproject.ottbackend.enums.AnimeStatus;
 import com.ottproject.ottbackend.service.AnimeCacheService;
+import com.ottproject.ottbackend.service.AnimeFacetService;
 import com.ottproject.ottbackend.service.AnimeQueryService;
 import com.ottproject.ottbackend.service.FavoriteAnimeService;
 import com.ottproject.ottbackend.service.PersonalizedRecommendationService;
+import com.ottproject.ottbackend.util.CatalogHttpCache;
+import com.ottproject.ottbackend.util.CatalogHttpCache.Policy;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
 import com.ottproject.ottbackend.util.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.servlet.http.HttpSession;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.web.bind.annotation.*;
@@ -27,7 +38,19 @@ import org.springframework.web.bind.annotation.*;
  *
  * 엔드포인트 개요
  * - GET /api/anime: 목록 조회(필터/정렬/페이지)
+ * - GET /api/anime/scroll: 같은 필터의 커서 기반 목록(깊이와 무관한 비용, 다음 페이지는 nextCursor)
  * - GET /api/anime/{aniId}: 상세 조회(로그인 시 isFavorited 포함)
+ * - GET /api/anime/facets: 목록 필터 옵션 전체 + 현재 필터 기준 옵션별 개수(개별 옵션 엔드포인트 6개를 한 번에)
+ *
+ * 미리 만든 gzip 본문
+ * - 상세/인기/장르/필터 옵션은 캐시(AnimeCacheService)가 만들어 둔 gzip 응답 바이트 + ETag 를 그대로 내보낸다
+ *   (Accept-Encoding 에 gzip 이 있을 때만). 그 외 클라이언트는 예전처럼 객체를 반환해 메시지 컨버터가 쓴다.
+ * - If-None-Match 가 ETag 와 같으면 본문 없이 304 를 준다.
+ *
+ * HTTP 캐시(CatalogHttpCache)
+ * - 공개 읽기(목록/스크롤/상세/인기/요일별/장르/필터 옵션)는 엔드포인트별 Cache-Control + Surrogate-Key 를 단다.
+ * - 미리 만든 본문이 없는 응답은 카탈로그 버전 ETag 로 조건부 처리한다(맞으면 조회 없이 304).
+ * - 로그인 사용자의 상세는 isFavorited 가 사용자별이라 private, no-cache 로 내보낸다(공유 캐시에 남기지 않는다).
  */
 @RequiredArgsConstructor
 @RestController
@@ -40,6 +63,8 @@ public class AnimeController {
     private final RedisTemplate<String, Object> redisTemplate;
     private final AnimeCacheService animeCacheService;
     private final FavoriteAnimeService favoriteAnimeService;
+    private final AnimeFacetService animeFacetService;
+    private final CatalogHttpCache catalogHttpCache;
 
     /**
      * 애니 목록 조회(페이지네이션)
@@ -47,7 +72,7 @@ public class AnimeController {
     @Operation(summary = "애니 목록 조회", description = "필터/정렬/페이지네이션을 적용해 애니 목록을 반환합니다.")
     @ApiResponse(responseCode = "200", description = "조회 성공")
     @GetMapping
-    public PagedResponse<AnimeListDto> list(
+    public ResponseEntity<PagedResponse<AnimeListDto>> list(
             @RequestParam(required = false) AnimeStatus status,
             @RequestParam(required = false, name = "genreIds") List<Long> genreIds,
             @RequestParam(required = false) Double minRating,
@@ -63,9 +88,10 @@ public class AnimeController {
             @RequestParam(defaultValue = "id") String sort,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false, name = "tagIds") List<Long> tagIds) {
+            @RequestParam(required = false, name = "tagIds") List<Long> tagIds,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        return queryService.list(
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.LIST, "anime-list", () -> queryService.list(
                 status,
                 genreIds,
                 minRating,
@@ -81,22 +107,90 @@ public class AnimeController {
                 sort,
                 page,
                 size,
-                tagIds);
+                tagIds));
+    }
+
+    /**
+     * 애니 목록 조회(커서 기반, 무한 스크롤)
+     */
+    @Operation(summary = "애니 목록 커서 조회",
+            description = "list 와 같은 필터/정렬로 커서 기반 목록을 반환합니다. 다음 페이지는 응답의 nextCursor 를 cursor 로 넘깁니다. "
+                    + "sort: rating | popular(popularity) | year | title | id(latest)")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @ApiResponse(responseCode = "400", description = "cursor 가 깨졌거나 정렬과 맞지 않음")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<AnimeListDto>> scroll(
+            @RequestParam(required = false) AnimeStatus status,
+            @RequestParam(required = false, name = "genreIds") List<Long> genreIds,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer quarter,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Boolean isDub,
+            @RequestParam(required = false) Boolean isSubtitle,
+            @RequestParam(required = false) Boolean isExclusive,
+            @RequestParam(required = false) Boolean isCompleted,
+            @RequestParam(required = false) Boolean isNew,
+            @RequestParam(required = false) Boolean isPopular,
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "직전 응답의 nextCursor(첫 페이지는 생략)") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false, name = "tagIds") List<Long> tagIds,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.LIST, "anime-list", () -> queryService.scroll(
+                status,
+                genreIds,
+                minRating,
+                year,
+                quarter,
+                type,
+                isDub,
+                isSubtitle,
+                isExclusive,
+                isCompleted,
+                isNew,
+                isPopular,
+                sort,
+                cursor,
+                size,
+                tagIds));
     }
 
     /**
      * 애니 상세 조회
      */
     @Operation(summary = "애니 상세 조회", description = "에피소드/장르/제작사 포함 단건 상세 정보를 반환합니다. 로그인 시 isFavorited 포함")
-    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @ApiResponse(
+            responseCode = "200",
+            description = "조회 성공",
+            content = @Content(schema = @Schema(implementation = AnimeDetailDto.class)))
     @GetMapping("/{aniId}")
-    public AnimeDetailDto detail(
-            @Parameter(description = "애니 ID", required = true) @PathVariable Long aniId, HttpSession session) {
+    public ResponseEntity<?> detail(
+            @Parameter(description = "애니 ID", required = true) @PathVariable Long aniId,
+            HttpSession session,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Long userId = securityUtil.getCurrentUserIdOrNull(session);
+        HttpHeaders cacheHeaders = userId == null
+                ? catalogHttpCache.headers(Policy.DETAIL, "anime-" + aniId)
+                : catalogHttpCache.personal(); // 찜여부가 들어간 응답은 공유 캐시 금지
+        if (PreparedJsonBody.acceptsGzip(acceptEncoding)) {
+            PreparedJsonBody body = animeCacheService.getDetailBody( // 찜여부 변형별 본문(작품이 있을 때만 찜 조회)
+                    aniId, () -> favoriteAnimeService.isFavorited(aniId, userId)); // 비로그인은 false
+            return body == null ? ResponseEntity.ok().build() : body.toResponse(ifNoneMatch, cacheHeaders); // null = 작품 없음
+        }
+        if (userId == null) { // 비로그인: 버전 ETag 가 맞으면 상세를 읽지 않는다
+            return catalogHttpCache.conditional(ifNoneMatch, Policy.DETAIL, "anime-" + aniId, () -> {
+                AnimeDetailDto dto = animeCacheService.getDetailPublic(aniId);
+                if (dto != null) dto.setIsFavorited(favoriteAnimeService.isFavorited(aniId, null)); // false
+                return dto; // null = 작품 없음(빈 200)
+            });
+        }
         AnimeDetailDto dto = animeCacheService.getDetailPublic(aniId); // 공용부는 캐시에서
-        if (dto == null) return null; // 작품 없음
-        dto.setIsFavorited(favoriteAnimeService.isFavorited(aniId, userId)); // 찜여부는 요청마다 합성(비로그인은 false)
-        return dto;
+        if (dto == null) return ResponseEntity.ok().build(); // 작품 없음
+        dto.setIsFavorited(favoriteAnimeService.isFavorited(aniId, userId)); // 찜여부는 요청마다 합성
+        return ResponseEntity.ok().headers(cacheHeaders).body(dto);
     }
 
     /**
@@ -138,10 +232,19 @@ public class AnimeController {
      * 인기 애니메이션 조회
      */
     @Operation(summary = "인기 애니메이션 조회", description = "평점과 조회수를 기준으로 인기 애니메이션 목록을 반환합니다.")
-    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @ApiResponse(
+            responseCode = "200",
+            description = "조회 성공",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AnimeListDto.class))))
     @GetMapping("/popular")
-    public List<AnimeListDto> getPopular() {
-        return animeCacheService.getPopular();
+    public ResponseEntity<?> getPopular(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (PreparedJsonBody.acceptsGzip(acceptEncoding)) {
+            return animeCacheService.getPopularBody()
+                    .toResponse(ifNoneMatch, catalogHttpCache.headers(Policy.POPULAR, "anime-popular"));
+        }
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.POPULAR, "anime-popular", animeCacheService::getPopular);
     }
 
     /**
@@ -180,20 +283,69 @@ public class AnimeController {
     @Operation(summary = "요일별 신작 조회", description = "broadcast_day 기준으로 요일별 애니 목록을 반환합니다.")
     @ApiResponse(responseCode = "200", description = "조회 성공")
     @GetMapping("/weekly/{day}")
-    public List<AnimeListDto> getWeeklyByDay(
+    public ResponseEntity<List<AnimeListDto>> getWeeklyByDay(
             @Parameter(description = "요일 (monday..sunday)", required = true) @PathVariable String day,
-            @RequestParam(defaultValue = "50") int limit) {
-        return queryService.getWeeklyByDay(day, limit);
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.WEEKLY, "anime-weekly",
+                () -> queryService.getWeeklyByDay(day, limit));
     }
 
     /**
      * 전체 장르/태그 마스터 목록 반환
      */
     @Operation(summary = "장르 목록", description = "활성 장르 전체를 반환합니다.")
-    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @ApiResponse(
+            responseCode = "200",
+            description = "조회 성공",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = com.ottproject.ottbackend.dto.GenreSimpleDto.class))))
     @GetMapping("/genres")
-    public List<com.ottproject.ottbackend.dto.GenreSimpleDto> getGenres() {
-        return animeCacheService.getGenres();
+    public ResponseEntity<?> getGenres(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (PreparedJsonBody.acceptsGzip(acceptEncoding)) {
+            return animeCacheService.getGenresBody()
+                    .toResponse(ifNoneMatch, catalogHttpCache.headers(Policy.OPTIONS, "anime-genres"));
+        }
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.OPTIONS, "anime-genres", animeCacheService::getGenres);
+    }
+
+    /**
+     * 목록 필터 옵션 묶음 + 옵션별 개수
+     */
+    @Operation(summary = "필터 옵션 묶음",
+            description = "장르/태그/시즌/연도·분기/상태/타입 옵션을 한 번에 반환합니다. 필터 파라미터는 목록과 같고, "
+                    + "counts 는 그 필터 기준 옵션별 작품 수입니다(집계 준비 전이면 null).")
+    @ApiResponse(
+            responseCode = "200",
+            description = "조회 성공",
+            content = @Content(schema = @Schema(implementation = AnimeFacetsDto.class)))
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(
+            @RequestParam(required = false) AnimeStatus status,
+            @RequestParam(required = false, name = "genreIds") List<Long> genreIds,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer quarter,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Boolean isDub,
+            @RequestParam(required = false) Boolean isSubtitle,
+            @RequestParam(required = false) Boolean isExclusive,
+            @RequestParam(required = false) Boolean isCompleted,
+            @RequestParam(required = false) Boolean isNew,
+            @RequestParam(required = false) Boolean isPopular,
+            @RequestParam(required = false, name = "tagIds") List<Long> tagIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (PreparedJsonBody.acceptsGzip(acceptEncoding)) {
+            return animeFacetService
+                    .facetsBody(status, genreIds, minRating, year, quarter, type,
+                            isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds)
+                    .toResponse(ifNoneMatch, catalogHttpCache.headers(Policy.OPTIONS, "anime-facets"));
+        }
+        return catalogHttpCache.conditional(ifNoneMatch, Policy.OPTIONS, "anime-facets",
+                () -> animeFacetService.facets(status, genreIds, minRating, year, quarter, type,
+                        isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds));
     }
 
     @Operation(summary = "태그 목록", description = "전체 태그를 반환합니다.")
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -133,16 +134,21 @@ public class EpisodeController {
         return ResponseEntity.ok(progress);
     }
 
-    @Operation(summary = "마이페이지 시청 기록 조회", description = "사용자의 시청 기록을 페이지네이션으로 조회합니다.")
+    @Operation(
+            summary = "마이페이지 시청 기록 조회",
+            description = "사용자의 시청 기록을 최신순으로 조회합니다. 다음 페이지는 응답의 nextCursor 값을 넘겨 받습니다.")
     @ApiResponse(responseCode = "200", description = "조회 성공")
     @GetMapping("/mypage/watch-history")
     public ResponseEntity<Map<String, Object>> getWatchHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) // 응답의 nextCursorUpdatedAt(ISO 문자열)을 그대로 받는다
+            @RequestParam(required = false) java.time.LocalDateTime cursorUpdatedAt,
+            @RequestParam(required = false) Long cursorEpisodeId,
             HttpSession session) {
         Long userId = securityUtil.requireCurrentUserId(session);
 
-        var watchHistory = playerService.getWatchHistory(userId, page, size);
+        var watchHistory = playerService.getWatchHistory(userId, page, size, cursorUpdatedAt, cursorEpisodeId);
         return ResponseEntity.ok(watchHistory);
     }
 
@@ -2,9 +2,12 @@ package com.ottproject.ottbackend.controller;
 
 import com.ottproject.ottbackend.dto.AnimeListDto;
 import com.ottproject.ottbackend.dto.PagedResponse;
+import com.ottproject.ottbackend.dto.SearchAllDto;
+import com.ottproject.ottbackend.dto.SearchSuggestPersonDto;
 import com.ottproject.ottbackend.dto.SearchSuggestTitleDto;
 import com.ottproject.ottbackend.service.RecentSearchService;
 import com.ottproject.ottbackend.service.SearchService;
+import com.ottproject.ottbackend.util.CatalogHttpCache;
 import com.ottproject.ottbackend.util.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +21,7 @@ import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,8 +32,10 @@ import org.springframework.web.bind.annotation.*;
  * - 자동완성과 통합 검색을 제공한다.
  *
  * 엔드포인트 개요
- * - GET /api/search/suggest: 자동완성
- * - GET /api/search: 통합 검색(키워드/장르AND/태그OR/정렬/페이지)
+ * - GET /api/search/suggest: 자동완성(카탈로그 버전 ETag + 공유 캐시 헤더, CatalogHttpCache). 초성/조합 중 음절/오타 허용
+ * - GET /api/search/suggest/people: 인물(성우/감독) 자동완성(같은 캐시 규칙)
+ * - GET /api/search/all: 작품 + 성우/캐릭터/감독/제작사 통합 검색(종류별 상위 결과, 같은 캐시 규칙)
+ * - GET /api/search: 통합 검색(키워드/장르AND/태그OR/정렬/페이지). 기본 정렬은 관련도(relevance)
  */
 @Tag(name = "검색", description = "자동완성 및 통합 검색 API")
 @RestController // REST 컨트롤러 선언
@@ -39,11 +45,12 @@ public class SearchController {
     private final SearchService searchService; // 검색 서비스 의존성
     private final RecentSearchService recentSearchService; // 최근 검색어 서비스 의존성
     private final SecurityUtil securityUtil; // 보안 유틸 의존성
+    private final CatalogHttpCache catalogHttpCache; // 공개 카탈로그 응답 캐시 헤더
 
     @Operation(summary = "자동완성 검색", description = "제목 기반 자동완성 검색 결과를 반환합니다.")
     @ApiResponse(responseCode = "200", description = "검색 성공")
     @GetMapping("/suggest") // 자동완성 엔드포인트
-    public List<SearchSuggestTitleDto> suggest( // 제목만 응답
+    public ResponseEntity<List<SearchSuggestTitleDto>> suggest( // 제목만 응답
             @Parameter(description = "검색 키워드 (q 또는 query 파라미터 사용)", required = false)
                     @RequestParam(value = "q", required = false)
                     String q, // 키워드 별칭 1
@@ -51,17 +58,46 @@ public class SearchController {
                     @RequestParam(value = "query", required = false)
                     String query, // 키워드 별칭 2
             @Parameter(description = "최대 반환 건수", required = false) @RequestParam(defaultValue = "10")
-                    int limit // 최대 건수(기본 10)
+                    int limit, // 최대 건수(기본 10)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch // 조건부 요청
             ) {
         String keyword = (q != null && !q.isBlank()) ? q : query; // q 우선, 없으면 query 사용
-        return searchService.suggest(keyword, limit); // 서비스 호출
+        return catalogHttpCache.conditional(ifNoneMatch, CatalogHttpCache.Policy.SUGGEST, "search-suggest",
+                () -> searchService.suggest(keyword, limit)); // 버전이 같으면 서비스 호출 없이 304
+    }
+
+    @Operation(summary = "인물 자동완성", description = "성우/감독 이름 자동완성 결과를 반환합니다(초성 검색 지원).")
+    @ApiResponse(responseCode = "200", description = "검색 성공")
+    @GetMapping("/suggest/people")
+    public ResponseEntity<List<SearchSuggestPersonDto>> suggestPeople(
+            @Parameter(description = "검색 키워드", required = false) @RequestParam(value = "q", required = false)
+                    String q,
+            @Parameter(description = "최대 반환 건수", required = false) @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogHttpCache.conditional(ifNoneMatch, CatalogHttpCache.Policy.SUGGEST, "search-suggest",
+                () -> searchService.suggestPeople(q, limit)); // 제목 자동완성과 같은 버전 ETag
+    }
+
+    @Operation(summary = "작품·인물·제작사 통합 검색",
+            description = "작품 제목과 성우/캐릭터/감독/제작사 이름을 한 번에 찾아 종류별 상위 결과를 묶어 반환합니다. "
+                    + "작품 그룹에는 이름이 맞은 성우/캐릭터/감독/제작사에 연결된 작품도 포함됩니다.")
+    @ApiResponse(responseCode = "200", description = "검색 성공")
+    @GetMapping("/all")
+    public ResponseEntity<SearchAllDto> searchAll(
+            @Parameter(description = "검색 키워드", required = false) @RequestParam(value = "q", required = false)
+                    String q,
+            @Parameter(description = "종류별 최대 반환 건수", required = false) @RequestParam(defaultValue = "5") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogHttpCache.conditional(ifNoneMatch, CatalogHttpCache.Policy.SUGGEST, "search-suggest",
+                () -> searchService.searchAll(q, limit)); // 자동완성과 같은 인덱스·같은 버전 ETag
     }
 
     @Operation(summary = "통합 검색", description = "키워드, 장르, 태그, 정렬, 페이지네이션을 지원하는 통합 검색을 제공합니다.")
     @ApiResponse(responseCode = "200", description = "검색 성공")
     @GetMapping // 통합 검색 엔드포인트
     public PagedResponse<AnimeListDto> search( // 페이지 응답
-            @Parameter(description = "검색 키워드 (제목 부분일치)", required = false) @RequestParam(required = false)
+            @Parameter(description = "검색 키워드 (제목 전문 검색: 단어 첫머리 일치, 3글자 이상은 부분일치/오타 포함)", required = false)
+                    @RequestParam(required = false)
                     String query, // 키워드(부분일치)
             @Parameter(description = "장르 ID 목록 (AND 조건, 모든 장르를 포함하는 작품만)", required = false)
                     @RequestParam(required = false, name = "genreIds")
@@ -69,8 +105,8 @@ public class SearchController {
             @Parameter(description = "태그 ID 목록 (OR 조건, 하나라도 포함하는 작품)", required = false)
                     @RequestParam(required = false, name = "tagIds")
                     List<Long> tagIds, // 태그 OR
-            @Parameter(description = "정렬 기준 (id, rating, year, popular)", required = false)
-                    @RequestParam(defaultValue = "id")
+            @Parameter(description = "정렬 기준 (relevance, id, rating, year, popular)", required = false)
+                    @RequestParam(defaultValue = "relevance")
                     String sort, // 정렬 키
             @Parameter(description = "페이지 번호 (0부터 시작)", required = false) @RequestParam(defaultValue = "0")
                     int page, // 페이지 번호
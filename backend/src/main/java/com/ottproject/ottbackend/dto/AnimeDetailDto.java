@@ -24,7 +24,7 @@ import lombok.*;
  */
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnimeDetailDto {
@@ -0,0 +1,24 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.*;
+
+/**
+ * 상세 조립용 조회 행(MyBatis 결과 전용)
+ *
+ * 큰 흐름
+ * - findAniDetailBundle 한 행을 받는다. 헤더 컬럼은 부모(AnimeDetailDto) 필드로 바로 매핑되고,
+ *   연관 목록은 DB 가 json_agg 로 만든 JSON 텍스트로 받는다.
+ * - 서비스가 JSON 을 풀어 AnimeDetailDto 로 옮긴다. 이 타입은 응답/캐시로 나가지 않는다.
+ *
+ * 필드 개요
+ * - episodesJson/genresJson/studiosJson/tagsJson: 연관 목록 JSON 배열(없으면 "[]")
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnimeDetailRow extends AnimeDetailDto {
+    private String episodesJson; // List<EpisodeDto>
+    private String genresJson; // List<GenreSimpleDto>
+    private String studiosJson; // List<StudioSimpleDto>
+    private String tagsJson; // List<String>
+}
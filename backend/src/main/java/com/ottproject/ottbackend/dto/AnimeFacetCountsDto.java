@@ -0,0 +1,34 @@
+package com.ottproject.ottbackend.dto;
+
+import java.util.Map;
+import lombok.*;
+
+/**
+ * 필터 옵션별 작품 수 DTO
+ *
+ * 큰 흐름
+ * - 현재 선택한 필터로 목록을 본다고 할 때, 옵션 하나를 고르면 몇 건이 되는지를 옵션별로 준다.
+ * - 한 번에 하나만 고르는 차원(상태/타입/연도/분기)과 OR 인 태그는 그 차원 자신의 선택을 빼고 센다
+ *   (이미 "TV" 를 골랐어도 "MOVIE" 로 바꾸면 몇 건인지 보인다). 장르는 AND 라 현재 선택에 더해 센다.
+ *
+ * 필드 개요
+ * - total: 현재 필터 결과 수
+ * - genres/tags: 장르·태그 ID → 수
+ * - statuses/types: 옵션 key → 수
+ * - years: "2025" → 수, quarters: "2025-Q1" → 수(yearOptions 의 value 와 같은 표기)
+ * - 0 건인 옵션은 빠진다
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeFacetCountsDto {
+    private long total;
+    private Map<Long, Long> genres;
+    private Map<Long, Long> tags;
+    private Map<String, Long> statuses;
+    private Map<String, Long> types;
+    private Map<String, Long> years;
+    private Map<String, Long> quarters;
+}
@@ -0,0 +1,30 @@
+package com.ottproject.ottbackend.dto;
+
+import java.util.List;
+import lombok.*;
+
+/**
+ * 목록 필터 옵션 묶음 DTO(GET /api/anime/facets)
+ *
+ * 큰 흐름
+ * - 목록 화면이 따로 부르던 장르/태그/시즌/연도·분기/상태/타입 옵션을 한 응답으로 준다.
+ * - 옵션 부분은 카탈로그 캐시(AnimeCacheService)에 한 덩어리로 담기고, counts 는 응답 직전에 붙인다.
+ *
+ * 필드 개요
+ * - genres/tags/seasons/yearOptions/statuses/types: 기존 개별 엔드포인트와 같은 모양
+ * - counts: 현재 필터 선택 기준 옵션별 작품 수(목록 필터 인덱스 적재 전이면 null)
+ */
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeFacetsDto {
+    private List<GenreSimpleDto> genres;
+    private List<TagSimpleDto> tags;
+    private List<String> seasons;
+    private List<YearOptionDto> yearOptions;
+    private List<StatusOptionDto> statuses;
+    private List<TypeOptionDto> types;
+    private AnimeFacetCountsDto counts;
+}
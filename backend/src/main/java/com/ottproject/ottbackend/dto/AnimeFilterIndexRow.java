@@ -0,0 +1,39 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.*;
+
+/**
+ * 목록 필터 인덱스 적재용 조회 행(MyBatis 결과 전용)
+ *
+ * 큰 흐름
+ * - findFilterIndexRows 한 행 = 활성 작품 하나의 필터/정렬 속성. AnimeFilterIndex 가 이 행들로 비트맵을 만든다.
+ * - 장르/태그는 STRING_AGG 로 받은 쉼표 구분 ID 문자열이다(없으면 null).
+ *
+ * 필드 개요
+ * - aniId/status/type/year/quarter/rating: 필터 값(quarter 는 release_date 의 분기)
+ * - sortTitle: 제목순 정렬 키(목록 SQL 의 COALESCE(title, title_en, '') 와 같은 값)
+ * - isDub/isSubtitle/isExclusive/isCompleted/isNew/isPopular: 배지 플래그
+ * - genreIds/tagIds: "1,5,9" 형식
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimeFilterIndexRow {
+    private Long aniId;
+    private com.ottproject.ottbackend.enums.AnimeStatus status;
+    private String type;
+    private Integer year;
+    private Integer quarter;
+    private Double rating;
+    private String sortTitle;
+    private Boolean isDub;
+    private Boolean isSubtitle;
+    private Boolean isExclusive;
+    private Boolean isCompleted;
+    private Boolean isNew;
+    private Boolean isPopular;
+    private String genreIds;
+    private String tagIds;
+}
@@ -0,0 +1,30 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.*;
+
+/**
+ * 자동완성 인덱스 적재용 조회 행(MyBatis 결과 전용)
+ *
+ * 큰 흐름
+ * - findSuggestIndexRows 한 행 = 활성 작품 하나의 검색 대상 제목과 순위 재료. AnimeSuggestIndex 가 이 행들로 키를 만든다.
+ *
+ * 필드 개요
+ * - aniId: 작품 ID
+ * - title/titleEn/titleJp: 검색 대상 제목(자동완성 SQL 의 ILIKE 대상과 같다)
+ * - isPopular/rating: 순위 재료(자동완성 SQL 의 ORDER BY 와 같다)
+ * - posterUrl: 통합 검색 응답의 썸네일
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimeSuggestIndexRow {
+    private Long aniId;
+    private String title;
+    private String titleEn;
+    private String titleJp;
+    private Boolean isPopular;
+    private Double rating;
+    private String posterUrl;
+}
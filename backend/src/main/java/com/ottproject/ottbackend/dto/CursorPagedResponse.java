@@ -0,0 +1,29 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 커서 페이지 응답 래퍼
+ *
+ * 큰 흐름
+ * - 페이지 번호 대신 불투명 커서로 다음 페이지를 잇는 응답 스펙(items/nextCursor/hasNext/size/total).
+ * - 다음 요청은 nextCursor 를 그대로 돌려주면 된다. 깊이와 상관없이 같은 비용으로 읽힌다.
+ *
+ * 필드 개요
+ * - items: 현재 페이지 데이터 목록
+ * - nextCursor: 다음 페이지 커서(마지막 페이지면 null)
+ * - hasNext: 다음 페이지 존재 여부
+ * - size: 페이지 크기
+ * - total: 필터 조합의 전체 개수(캐시 값이라 카탈로그 변경 직후 잠깐 어긋날 수 있다)
+ */
+@Getter // JSON 직렬화를 위한 읽기 접근자 제공
+@AllArgsConstructor
+public class CursorPagedResponse<T> {
+
+    private final java.util.List<T> items; // 현재 페이지 데이터 목록
+    private final String nextCursor; // 다음 페이지 커서(없으면 null)
+    private final boolean hasNext; // 다음 페이지 존재 여부
+    private final int size; // 페이지 크기
+    private final long total; // 전체 데이터 개수(캐시)
+}
@@ -0,0 +1,30 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.*;
+
+/**
+ * 자동완성/통합 검색 인덱스의 엔티티 적재용 조회 행(MyBatis 결과 전용)
+ *
+ * 큰 흐름
+ * - findSearchEntityRows 한 행 = 활성 작품에 하나 이상 연결된 성우/캐릭터/감독/제작사 하나.
+ *   AnimeSuggestIndex 가 이름으로 키를 만든다. 인물 자동완성은 이 중 성우/감독만 쓴다.
+ *
+ * 필드 개요
+ * - kind: VOICE_ACTOR | CHARACTER | DIRECTOR | STUDIO
+ * - personId: 해당 테이블의 ID(종류마다 따로 매긴다 — 캐릭터/제작사도 이 칸을 쓴다)
+ * - name/nameEn/nameJp: 검색 대상 이름(name 이 응답 표시명)
+ * - workCount: 연결된 활성 작품 수(순위 재료, 많을수록 앞)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonSuggestIndexRow {
+    private String kind;
+    private Long personId;
+    private String name;
+    private String nameEn;
+    private String nameJp;
+    private Integer workCount;
+}
@@ -0,0 +1,29 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 통합 검색의 작품 한 건
+ *
+ * 큰 흐름
+ * - 제목이 맞아서 나온 작품과, 키워드에 맞은 성우/캐릭터/감독/제작사에 연결돼 나온 작품을 같은 모양으로 담는다.
+ *
+ * 필드 개요
+ * - aniId/title/posterUrl: 식별/제목/썸네일
+ * - matchedBy: TITLE(제목 일치) | VOICE_ACTOR | CHARACTER | DIRECTOR | STUDIO(연결 엔티티로 찾음)
+ * - matchedName: 연결 엔티티로 찾았을 때 그 이름(제목 일치면 null)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchAllAnimeDto {
+    private Long aniId;
+    private String title;
+    private String posterUrl;
+    private String matchedBy;
+    private String matchedName;
+}
@@ -0,0 +1,29 @@
+package com.ottproject.ottbackend.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 통합 검색(작품 + 성우/캐릭터/감독/제작사) 응답 DTO
+ *
+ * 큰 흐름
+ * - 키워드 하나로 종류별 상위 결과를 묶어 돌려준다. 그룹마다 최대 limit 건.
+ *
+ * 필드 개요
+ * - animes: 제목 일치 작품 → 연결 엔티티로 찾은 작품 순
+ * - voiceActors/characters/directors/studios: 이름 일치 엔티티(연결 작품 수 많은 순)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchAllDto {
+    private List<SearchAllAnimeDto> animes;
+    private List<SearchAllEntityDto> voiceActors;
+    private List<SearchAllEntityDto> characters;
+    private List<SearchAllEntityDto> directors;
+    private List<SearchAllEntityDto> studios;
+}
@@ -0,0 +1,26 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 통합 검색의 엔티티(성우/캐릭터/감독/제작사) 한 건
+ *
+ * 필드 개요
+ * - id: kind 별 테이블의 ID
+ * - kind: VOICE_ACTOR | CHARACTER | DIRECTOR | STUDIO
+ * - name: 표시 이름
+ * - workCount: 연결된 활성 작품 수
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchAllEntityDto {
+    private Long id;
+    private String kind;
+    private String name;
+    private Integer workCount;
+}
@@ -0,0 +1,26 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.*;
+
+/**
+ * 통합 검색 인덱스의 엔티티-작품 연결 행(MyBatis 결과 전용)
+ *
+ * 큰 흐름
+ * - findSearchEntityLinks 한 행 = 엔티티 하나와 그것이 연결된 활성 작품 하나. AnimeSuggestIndex 가
+ *   "엔티티 → 작품" 목록으로 묶어 이름이 맞은 엔티티의 작품을 찾는 데 쓴다.
+ *
+ * 필드 개요
+ * - kind: VOICE_ACTOR | CHARACTER | DIRECTOR | STUDIO
+ * - entityId: kind 별 테이블의 ID
+ * - aniId: 연결된 활성 작품 ID
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchEntityLinkRow {
+    private String kind;
+    private Long entityId;
+    private Long aniId;
+}
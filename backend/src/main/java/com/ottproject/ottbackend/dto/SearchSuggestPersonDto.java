@@ -0,0 +1,29 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 인물 자동완성 응답 DTO
+ *
+ * 큰 흐름
+ * - 인물 자동완성 리스트에서 성우/감독 한 명을 표현한다.
+ *
+ * 필드 개요
+ * - personId: 인물 ID(kind 별 테이블의 ID)
+ * - kind: VOICE_ACTOR | DIRECTOR
+ * - name: 표시 이름
+ * - workCount: 연결된 활성 작품 수
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSuggestPersonDto {
+    private Long personId;
+    private String kind;
+    private String name;
+    private Integer workCount;
+}
@@ -0,0 +1,27 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 스킵 시점 히스토그램 구간 DTO
+ *
+ * 큰 흐름
+ * - 적재 배치 하나에서 센 (에피소드, 유형, 구간)별 건수. skip_usage_histogram 에 더해진다.
+ *
+ * 필드 개요
+ * - episodeId/skipType/bucketSec: 구간 키(bucketSec 은 구간 시작 초)
+ * - hits: 이번 배치에서 센 건수
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkipHistogramBucketDto {
+    private Long episodeId;
+    private String skipType;
+    private Integer bucketSec;
+    private Long hits;
+}
@@ -0,0 +1,33 @@
+package com.ottproject.ottbackend.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 스킵 사용 이벤트 DTO
+ *
+ * 큰 흐름
+ * - 요청 스레드가 큐에 넣은 스킵 사용 한 건을 일괄 적재 파라미터로 옮긴다.
+ * - 엔티티를 읽지 않고 외래 키 값만 든다.
+ *
+ * 필드 개요
+ * - userId: 사용자 ID(비로그인이면 null)
+ * - episodeId: 대상 에피소드 ID
+ * - skipType: INTRO/OUTRO(SkipType 이름)
+ * - atSec: 스킵 시점(초)
+ * - createdAt: 요청 시각(적재 시각이 아니다)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkipUsageEventDto {
+    private Long userId;
+    private Long episodeId;
+    private String skipType;
+    private Integer atSec;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.ottproject.ottbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 스테이징 진행률 반영 결과 DTO
+ *
+ * 큰 흐름
+ * - COPY 로 적재한 청크를 episode_progress 에 반영한 문장 하나의 결과를 옮긴다.
+ * - flush 지표(반영 행 수, 고아로 버린 행 수)를 나누는 데 쓴다.
+ *
+ * 필드 개요
+ * - matchedRows: 사용자·에피소드가 살아 있어 반영 대상이 된 행 수(청크 크기와의 차이 = 고아 행)
+ * - appliedRows: 실제로 삽입·갱신된 행 수(DB 쪽이 더 최신이라 건너뛴 행은 빠진다)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagedProgressResultDto {
+    private int matchedRows; // 반영 대상 행 수
+    private int appliedRows; // 실제 반영 행 수
+}
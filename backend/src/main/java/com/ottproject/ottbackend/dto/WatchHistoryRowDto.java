@@ -0,0 +1,34 @@
+package com.ottproject.ottbackend.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * WatchHistoryRowDto
+ *
+ * 큰 흐름
+ * - 마이페이지 전체 시청 기록의 한 행(에피소드 단위)을 표현하는 DTO. 조인 결과를 평평하게 담는다.
+ *
+ * 필드 개요
+ * - episodeId: 에피소드 ID
+ * - animeId: 애니메이션 ID
+ * - episodeNumber: 에피소드 번호
+ * - positionSec: 시청 위치(초)
+ * - durationSec: 총 길이(초)
+ * - updatedAt: 마지막 시청 시각
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchHistoryRowDto {
+    private Long episodeId;
+    private Long animeId;
+    private Integer episodeNumber;
+    private Integer positionSec;
+    private Integer durationSec;
+    private LocalDateTime updatedAt;
+}
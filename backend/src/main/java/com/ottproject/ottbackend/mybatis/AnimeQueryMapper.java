@@ -15,8 +15,8 @@ import org.apache.ibatis.annotations.Param; // MyBatis 파라미터 바인딩
  * 메서드 개요
  * - findAniList/countAniList: 목록/총 개수(필터/정렬/페이지)
  * - findTagsByAniId: 상세 태그 목록
- * - findAniDetailByAniId/findAniDetailByAniIdWithUser: 상세(사용자 찜 여부 포함 가능)
- * - findEpisodesByAniId/findGenresByAniId/findStudiosByAniId: 상세 연관 목록
+ * - findFilterIndexRows: 메모리 목록 필터 인덱스(AnimeFilterIndex) 적재용 속성 행
+ * - findAniDetailBundle: 상세 + 연관 목록(에피소드/장르/제작사/태그 JSON, 성우/감독)을 한 번에(사용자 찜 여부 포함 가능)
  */
 @Mapper
 public interface AnimeQueryMapper { // 목록 상세/연관 조회 정의
@@ -37,12 +37,14 @@ public interface AnimeQueryMapper { // 목록 상세/연관 조회 정의
             @Param("isCompleted") Boolean isCompleted, // 완결 여부
             @Param("isNew") Boolean isNew, // 신작 여부
             @Param("isPopular") Boolean isPopular, // 인기 여부
-            @Param("sort") String sort, // 정렬 키(rating/year/popular/id)
+            @Param("sort") String sort, // 정렬 키(rating/year/popular/title/id)
             @Param("limit") int limit, // 페이지 크기
-            @Param("offset") int offset, // 오프셋
-            @Param("cursorId") Long cursorId,
-            @Param("cursorRating") Double cursorRating,
-            @Param("cursorIsPopular") Boolean cursorIsPopular);
+            @Param("offset") int offset, // 오프셋(커서 모드에서는 0)
+            @Param("cursorId") Long cursorId, // 커서: 직전 페이지 마지막 행 id(null 이면 커서 조건 없음)
+            @Param("cursorRating") Double cursorRating, // 커서: 정렬 키(sort=rating)
+            @Param("cursorYear") Integer cursorYear, // 커서: 정렬 키(sort=year)
+            @Param("cursorIsPopular") Boolean cursorIsPopular, // 커서: 정렬 키(sort=popular)
+            @Param("cursorTitle") String cursorTitle); // 커서: 정렬 키(sort=title)
 
     long countAniList( // 목록 총 개수 // 페이지네이션용
             @Param("status") AnimeStatus status, // 위와 동일 필터들
@@ -66,25 +68,11 @@ public interface AnimeQueryMapper { // 목록 상세/연관 조회 정의
     // 상세: 태그 목록 조회(선택)
     java.util.List<TagSimpleDto> findTagsByAniId(@Param("aniId") Long aniId);
 
-    // 상세: 태그/성우/감독 조회 (더보기 모달용)
-    List<String> findTagNamesByAniId(@Param("aniId") Long aniId); // 태그 이름 리스트
-
-    String findVoiceActorsByAniId(@Param("aniId") Long aniId); // 성우 이름 (콤마 구분)
-
-    String findDirectorsByAniId(@Param("aniId") Long aniId); // 감독 이름 (콤마 구분)
-
-    AnimeDetailDto findAniDetailByAniId(@Param("aniId") Long aniId); // 상세 헤더/더보기 영역 조회(aniId 기준, anime 기준)
-
-    AnimeDetailDto findAniDetailByAniIdWithUser( // 사용자 포함 상세 조회 메서드 시그니처
+    // 상세: 헤더 + 연관 목록(JSON)을 한 행으로(왕복 1회). 찜 여부는 currentUserId 가 있을 때만 계산
+    AnimeDetailRow findAniDetailBundle(
             @Param("aniId") Long aniId, // 조회할 애니 ID
             @Param("currentUserId") Long currentUserId // 현재 사용자 ID(비로그인 null 허용)
-            ); // 인터페이스 메서드 끝
-
-    List<EpisodeDto> findEpisodesByAniId(@Param("aniId") Long aniId); // 상세: 에피소드 리스트 (anime 기준)
-
-    List<GenreSimpleDto> findGenresByAniId(@Param("aniId") Long aniId); // 상세: 장르 리스트 (anime 기준)
-
-    List<StudioSimpleDto> findStudiosByAniId(@Param("aniId") Long aniId); // 상세: 제작사 리스트 (anime 기준)
+            );
 
     // 마스터: 전체 장르/태그 목록
     List<GenreSimpleDto> findAllGenres();
@@ -111,6 +99,9 @@ public interface AnimeQueryMapper { // 목록 상세/연관 조회 정의
     // 트렌딩: ID 목록으로 카드 리스트 조회
     List<AnimeListDto> findAniListByIds(@Param("ids") List<Long> ids);
 
+    // 목록 필터 인덱스 적재: 활성 작품의 필터/정렬 속성(aniId 가 있으면 그 한 건만)
+    List<AnimeFilterIndexRow> findFilterIndexRows(@Param("aniId") Long aniId);
+
     // 년도/분기 옵션 조회
     List<com.ottproject.ottbackend.dto.YearOptionDto> findYearOptions();
 }
@@ -1,6 +1,7 @@
 package com.ottproject.ottbackend.mybatis;
 
 import com.ottproject.ottbackend.dto.BingeWatchDto;
+import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -11,9 +12,13 @@ import org.apache.ibatis.annotations.Param;
  * 큰 흐름
  * - 사용자의 정주행 완료 작품을 조회한다.
  * - 완결 작품 중 모든 에피소드를 90% 이상 시청한 작품을 정주행으로 간주한다.
+ * - 판정은 user_anime_completion(사용자×작품 완주 에피소드 수)을 읽는다. 진행률 flush 가 갱신한다.
  *
  * 메서드 개요
  * - findBingeWatchedAnimes: 사용자별 정주행 완료 작품 목록
+ * - refreshCompletionFromStaging: COPY 로 적재한 청크(스테이징)가 건드린 (사용자, 작품) 의 완주 수 갱신
+ * - refreshCompletion: 폴백(배치 upsert)으로 반영한 청크가 건드린 (사용자, 작품) 의 완주 수 갱신
+ * - deleteCompletion: 정주행 목록에서 삭제
  */
 @Mapper
 public interface BingeWatchMapper {
@@ -25,4 +30,22 @@ public interface BingeWatchMapper {
      * @return 정주행 완료 작품 목록
      */
     List<BingeWatchDto> findBingeWatchedAnimes(@Param("userId") Long userId);
+
+    /**
+     * 스테이징에 적재한 청크가 건드린 (사용자, 작품) 의 완주 에피소드 수를 다시 세어 반영한다.
+     * ProgressBulkLoader.load 트랜잭션 안에서 진행률 반영 뒤에 호출한다(스테이징은 커밋 때 비워진다).
+     * 갱신된 집계 행 수를 돌려준다.
+     */
+    int refreshCompletionFromStaging();
+
+    /**
+     * 폴백 경로로 반영한 청크가 건드린 (사용자, 작품) 의 완주 에피소드 수를 다시 세어 반영한다.
+     * 진행률 반영 뒤에 호출한다. 갱신된 집계 행 수를 돌려준다.
+     */
+    int refreshCompletion(@Param("rows") List<EpisodeProgressFlushDto> rows);
+
+    /**
+     * 사용자×작품 완주 집계 삭제
+     */
+    int deleteCompletion(@Param("userId") Long userId, @Param("aniId") Long aniId);
 }
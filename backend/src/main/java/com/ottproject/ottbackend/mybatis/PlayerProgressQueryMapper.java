@@ -1,6 +1,7 @@
 package com.ottproject.ottbackend.mybatis; // 플레이어 진행률 MyBatis 매퍼
 
 import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import com.ottproject.ottbackend.dto.StagedProgressResultDto;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
@@ -14,9 +15,9 @@ import org.apache.ibatis.annotations.Param;
  *
  * 메서드 개요
  * - sumWatchedSecondsSincePaidEpisodes: 결제 시각 이후 4화 이상 누적 시청 초 합계
- * - upsertProgressBatch: Redis 버퍼에서 모은 진행률을 한 문장으로 일괄 반영
+ * - upsertProgressBatch: Redis 버퍼에서 모은 진행률을 한 문장으로 일괄 반영(COPY 적재 실패 시 폴백)
+ * - applyStagedProgress: COPY 로 스테이징(세션 임시 테이블)에 적재한 청크를 반영
  * - mergeProgress: 값이 불완전한 진행률 한 건을 기존 값과 병합해 반영
- * - updateHiddenInRecent: 최근본 목록 숨김 여부 일괄 변경
  * - deleteProgressByUserAndEpisodes: 진행률 일괄 삭제
  *
  * 왜 진행률 쓰기가 전부 여기에 있는가
@@ -36,6 +37,13 @@ public interface PlayerProgressQueryMapper {
      */
     int upsertProgressBatch(@Param("rows") List<EpisodeProgressFlushDto> rows);
 
+    /**
+     * 이 트랜잭션이 스테이징에 적재한 행 반영(있으면 갱신, 없으면 생성). 대상 행 수와 반영된 행 수를 돌려준다.
+     * - 사용자·에피소드가 없는 행은 조인이 거른다(FK 위반으로 문장이 실패하지 않는다). 그만큼 대상 행 수가 준다.
+     * - DB 값이 더 최신이면 덮어쓰지 않는다(upsertProgressBatch 와 같은 가드). 그만큼 반영 행 수가 준다.
+     */
+    StagedProgressResultDto applyStagedProgress();
+
     /**
      * 진행률 단건 병합 upsert
      * - null 로 넘긴 값은 기존 값을 그대로 둔다(위치·길이 중 하나만 도착한 경우).
@@ -48,12 +56,6 @@ public interface PlayerProgressQueryMapper {
             @Param("durationSec") Integer durationSec,
             @Param("updatedAt") LocalDateTime updatedAt);
 
-    /**
-     * 최근본 목록 숨김 여부 일괄 변경(시청 기록 자체는 남긴다)
-     */
-    int updateHiddenInRecent(
-            @Param("userId") Long userId, @Param("episodeIds") List<Long> episodeIds, @Param("hidden") boolean hidden);
-
     /**
      * 진행률 일괄 삭제(정주행 목록에서 완전 삭제)
      */
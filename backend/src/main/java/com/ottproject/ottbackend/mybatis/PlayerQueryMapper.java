@@ -1,6 +1,7 @@
 package com.ottproject.ottbackend.mybatis;
 
 import com.ottproject.ottbackend.dto.RecentAnimeWatchDto;
+import com.ottproject.ottbackend.dto.WatchHistoryRowDto;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
@@ -16,7 +17,7 @@ import org.apache.ibatis.annotations.Param;
 public interface PlayerQueryMapper {
 
     /**
-     * 사용자별로 애니당 최신 1개 시청 기록을 최신순으로 반환
+     * 사용자별로 애니당 최신 1개 시청 기록을 최신순으로 반환(이어보기 목록 user_recent_anime 에서 읽는다)
      */
     List<RecentAnimeWatchDto> findRecentAnimeByUser(
             @Param("userId") Long userId,
@@ -24,4 +25,17 @@ public interface PlayerQueryMapper {
             @Param("offset") int offset,
             @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
             @Param("cursorAnimeId") Long cursorAnimeId);
+
+    /**
+     * 사용자의 전체 시청 기록(에피소드 단위)을 최신순으로 반환
+     * - (updated_at, episode_id) 키셋 페이지네이션. 커서가 없을 때만 offset 을 쓴다(첫 페이지는 0).
+     * - since 이후 기록만 본다(보존 기간). 전체 건수는 세지 않는다.
+     */
+    List<WatchHistoryRowDto> findWatchHistoryByUser(
+            @Param("userId") Long userId,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit,
+            @Param("offset") int offset,
+            @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+            @Param("cursorEpisodeId") Long cursorEpisodeId);
 }
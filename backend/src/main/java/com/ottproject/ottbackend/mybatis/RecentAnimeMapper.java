@@ -0,0 +1,44 @@
+package com.ottproject.ottbackend.mybatis;
+
+import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * RecentAnimeMapper
+ *
+ * 큰 흐름
+ * - 사용자별 이어보기 목록(user_recent_anime, (사용자, 작품)당 한 행)을 쓰는 MyBatis 매퍼.
+ * - 진행률 flush 가 청크마다 갱신하고, 숨김·삭제는 그 한 행만 바꾼다. 조회는 PlayerQueryMapper 가 한다.
+ *
+ * 메서드 개요
+ * - upsertFromProgress: flush 청크의 작품별 최신 회차로 갱신
+ * - trimToCap: 사용자당 행 수를 상한으로 자른다
+ * - hide/delete: 이어보기 숨김·삭제
+ */
+@Mapper
+public interface RecentAnimeMapper {
+
+    /**
+     * flush 청크에서 (사용자, 작품)별 최신 1건으로 이어보기 행을 갱신한다(더 최신일 때만).
+     */
+    int upsertFromProgress(@Param("rows") List<EpisodeProgressFlushDto> rows);
+
+    /**
+     * 주어진 사용자들의 이어보기 행을 최신순 cap 개만 남기고 지운다.
+     */
+    int trimToCap(@Param("userIds") Collection<Long> userIds, @Param("cap") int cap);
+
+    /**
+     * 이어보기에서 숨김(hiddenAt 이후의 시청이 반영되면 다시 보인다)
+     */
+    int hide(@Param("userId") Long userId, @Param("aniId") Long aniId, @Param("hiddenAt") LocalDateTime hiddenAt);
+
+    /**
+     * 이어보기 행 삭제
+     */
+    int delete(@Param("userId") Long userId, @Param("aniId") Long aniId);
+}
@@ -1,6 +1,11 @@
 package com.ottproject.ottbackend.mybatis;
 
 import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.AnimeSuggestIndexRow;
+import com.ottproject.ottbackend.dto.PersonSuggestIndexRow;
+import com.ottproject.ottbackend.dto.SearchAllEntityDto;
+import com.ottproject.ottbackend.dto.SearchEntityLinkRow;
+import com.ottproject.ottbackend.dto.SearchSuggestPersonDto;
 import com.ottproject.ottbackend.dto.SearchSuggestTitleDto;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
@@ -13,8 +18,13 @@ import org.apache.ibatis.annotations.Param;
  * - 자동완성/본검색을 위한 읽기 전용 쿼리를 담당하는 MyBatis 매퍼.
  *
  * 메서드 개요
- * - suggestTitles: 자동완성(제목만)
- * - searchAnimes/countSearchAnimes: 본검색 목록/총 개수
+ * - suggestTitles: 자동완성(제목만, 메모리 인덱스 적재 전 경로)
+ * - findSuggestIndexRows: 자동완성 인덱스(AnimeSuggestIndex) 적재용 행(aniId 가 있으면 그 한 건)
+ * - suggestPeople: 인물 자동완성(성우/감독, 메모리 인덱스 적재 전 경로)
+ * - findSearchEntityRows: 자동완성/통합 검색 인덱스 엔티티 적재용 행(활성 작품에 연결된 성우/캐릭터/감독/제작사)
+ * - findSearchEntityLinks: 통합 검색 인덱스의 엔티티 → 활성 작품 연결
+ * - searchEntities: 통합 검색 엔티티(메모리 인덱스 적재 전 경로, 종류마다 limit 건)
+ * - searchAnimes/countSearchAnimes: 본검색 목록/총 개수(전문 검색 + 트라이그램, 개수는 countCap 상한)
  */
 @Mapper
 public interface SearchQueryMapper {
@@ -23,8 +33,28 @@ public interface SearchQueryMapper {
             @Param("limit") int limit // 최대 건수(기본 10)
             );
 
+    List<AnimeSuggestIndexRow> findSuggestIndexRows( // 자동완성 인덱스 적재
+            @Param("aniId") Long aniId // null 이면 활성 전체
+            );
+
+    List<SearchSuggestPersonDto> suggestPeople( // 인물 자동완성
+            @Param("query") String q, // 키워드(부분일치, ILIKE)
+            @Param("limit") int limit // 최대 건수
+            );
+
+    List<PersonSuggestIndexRow> findSearchEntityRows(); // 자동완성/통합 검색 인덱스 엔티티 적재
+
+    List<SearchEntityLinkRow> findSearchEntityLinks(); // 통합 검색 인덱스 엔티티 → 작품 연결
+
+    List<SearchAllEntityDto> searchEntities( // 통합 검색 엔티티
+            @Param("query") String q, // 키워드(부분일치, ILIKE)
+            @Param("limit") int limit // 종류마다 최대 건수
+            );
+
     List<AnimeListDto> searchAnimes( // 본검색: 목록
-            @Param("query") String query, // 키워드(부분일치)
+            @Param("query") String query, // 키워드(부분일치/유사도, 관련도 점수)
+            @Param("tsQuery") String tsQuery, // 단어 접두 tsquery("진격:* & 거인:*"), 토큰이 없으면 null
+            @Param("trigram") boolean trigram, // 오타 유사도 갈래 사용 여부(3글자 이상)
             @Param("genreIds") List<Long> genreIds, // 장르 AND 대상 IDs
             @Param("genreCount") Integer genreCount, // AND 매칭 개수
             @Param("tagIds") List<Long> tagIds, // 태그 OR 대상 IDs
@@ -35,8 +65,11 @@ public interface SearchQueryMapper {
 
     long countSearchAnimes( // 본검색: 총 개수
             @Param("query") String query, // 키워드
+            @Param("tsQuery") String tsQuery, // 목록과 같은 tsquery
+            @Param("trigram") boolean trigram, // 목록과 같은 트라이그램 여부
             @Param("genreIds") List<Long> genreIds, // 장르 Ids
             @Param("genreCount") Integer genreCount, // AND 개수
-            @Param("tagIds") List<Long> tagIds // 태그 IDs
+            @Param("tagIds") List<Long> tagIds, // 태그 IDs
+            @Param("countCap") long countCap // 이 수에서 세기를 멈춘다
             );
 }
@@ -0,0 +1,32 @@
+package com.ottproject.ottbackend.mybatis;
+
+import com.ottproject.ottbackend.dto.SkipHistogramBucketDto;
+import com.ottproject.ottbackend.dto.SkipUsageEventDto;
+import java.util.List;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * SkipUsageMapper
+ *
+ * 큰 흐름
+ * - 스킵 사용 로그를 일괄 적재하고 에피소드별 스킵 시점 분포를 누적하는 MyBatis 매퍼.
+ * - 백그라운드 적재기(SkipUsageIngestor)만 쓴다. 요청 경로에서는 호출하지 않는다.
+ *
+ * 메서드 개요
+ * - insertBatch: 이벤트 배치를 한 문장으로 적재(고아 행은 거른다)
+ * - addHistogram: 구간별 건수를 더한다
+ */
+@Mapper
+public interface SkipUsageMapper {
+
+    /**
+     * 스킵 사용 로그 일괄 적재. 실제로 들어간 행 수를 돌려준다(없는 에피소드·사용자의 행은 빠진다).
+     */
+    int insertBatch(@Param("rows") List<SkipUsageEventDto> rows);
+
+    /**
+     * 스킵 시점 히스토그램 누적(있으면 더하고 없으면 만든다)
+     */
+    int addHistogram(@Param("buckets") List<SkipHistogramBucketDto> buckets);
+}
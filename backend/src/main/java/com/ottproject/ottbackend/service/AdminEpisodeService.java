@@ -37,6 +37,7 @@ public class AdminEpisodeService {
     private final EpisodeRepository episodeRepository;
     private final NotificationTriggerService notificationTriggerService;
     private final AnimeCacheService animeCacheService;
+    private final CatalogVersionService catalogVersionService;
 
     /**
      * 에피소드 등록
@@ -80,6 +81,7 @@ public class AdminEpisodeService {
 
         // 상세 공용부에 에피소드 목록이 포함되므로 커밋 후 무효화한다.
         animeCacheService.evictDetail(animeId);
+        catalogVersionService.bump(); // 상세 ETag 도 커밋 후 새 번호로
 
         return AdminEpisodeDetailDto.from(saved);
     }
@@ -133,6 +135,7 @@ public class AdminEpisodeService {
 
         // 상세 공용부에 에피소드 목록이 포함되므로 커밋 후 무효화한다.
         animeCacheService.evictDetail(animeId);
+        catalogVersionService.bump(); // 상세 ETag 도 커밋 후 새 번호로
 
         return AdminEpisodeDetailDto.from(episode);
     }
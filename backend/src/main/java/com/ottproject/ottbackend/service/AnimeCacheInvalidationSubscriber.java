@@ -0,0 +1,58 @@
+package com.ottproject.ottbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * AnimeCacheInvalidationSubscriber
+ *
+ * 큰 흐름
+ * - 카탈로그 무효화 채널(AnimeCacheService.INVALIDATION_CHANNEL)을 구독해, 받은 키를 이 인스턴스의 L1 에서 지운다.
+ * - 보낸 인스턴스 자신도 메시지를 받는다. 이미 지운 키를 한 번 더 지울 뿐이라 걸러내지 않는다.
+ * - 목록 필터 인덱스 채널(AnimeFilterIndex.CHANNEL)도 여기서 구독해 AnimeFilterIndex.onRemote 로 넘긴다
+ *   (자기 메시지 거르기는 인덱스가 한다 — 재적재는 DB 를 읽어 두 번 하기엔 비싸다).
+ * - 자동완성 인덱스 채널(AnimeSuggestIndex.CHANNEL)도 같은 방식으로 AnimeSuggestIndex.onRemote 로 넘긴다.
+ *
+ * 왜 분리했는가
+ * - AnimeCacheService 가 리스너 컨테이너에 직접 의존하면 단위 테스트마다 컨테이너를 목으로 세워야 한다.
+ *   구독 등록만 하는 얇은 빈으로 떼어 캐시 서비스는 evictLocal 만 드러낸다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeCacheInvalidationSubscriber implements MessageListener {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AnimeCacheService animeCacheService;
+    private final AnimeFilterIndex animeFilterIndex;
+    private final AnimeSuggestIndex animeSuggestIndex;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(AnimeCacheService.INVALIDATION_CHANNEL));
+        listenerContainer.addMessageListener(this, new ChannelTopic(AnimeFilterIndex.CHANNEL));
+        listenerContainer.addMessageListener(this, new ChannelTopic(AnimeSuggestIndex.CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        if (AnimeFilterIndex.CHANNEL.equals(channel)) {
+            animeFilterIndex.onRemote(body);
+            return;
+        }
+        if (AnimeSuggestIndex.CHANNEL.equals(channel)) {
+            animeSuggestIndex.onRemote(body);
+            return;
+        }
+        animeCacheService.evictLocal(body);
+    }
+}
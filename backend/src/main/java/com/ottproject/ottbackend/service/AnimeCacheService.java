@@ -1,15 +1,49 @@
 package com.ottproject.ottbackend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.ottproject.ottbackend.dto.AnimeDetailDto;
+import com.ottproject.ottbackend.dto.AnimeFacetsDto;
 import com.ottproject.ottbackend.dto.AnimeListDto;
 import com.ottproject.ottbackend.dto.GenreSimpleDto;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -18,14 +52,63 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  * AnimeCacheService
  *
  * 큰 흐름
- * - 애니 조회(장르/인기/상세 공용부)에 손구현 cache-aside 를 얹는다.
- * - RecentSearchService 관례를 따른다: 콜론 네임스페이스 키 + v1 세그먼트 + TTL + try/catch 폴백 + 로깅.
+ * - 애니 조회(장르/인기/상세 공용부/목록 필터 옵션)에 손구현 cache-aside 를 얹는다. 2단 구조다:
+ *   L1(인스턴스 메모리, NearCache) → L2(Redis) → DB.
+ * - RecentSearchService 관례를 따른다: 콜론 네임스페이스 키 + 버전 세그먼트 + TTL + try/catch 폴백 + 로깅.
  * - 직렬화는 StringRedisTemplate + 주입 ObjectMapper(JSON). RedisConfig 의 GenericJackson2 직렬화기는
  *   JavaTimeModule 이 없어 LocalDate/LocalDateTime 을 담은 DTO 에서 터진다 — 그래서 여기선 쓰지 않는다.
  *
+ * 왜 L1 을 두는가
+ * - 카탈로그는 하루 몇 번 바뀌는데 히트마다 Redis 왕복 + JSON 역직렬화를 치르고 있었다.
+ *   L1 은 역직렬화된 객체를 그대로 들고 있어 히트 비용이 맵 조회 한 번이다.
+ * - 무효화는 L2 삭제 후 Redis pub/sub(INVALIDATION_CHANNEL)으로 키를 알려 모든 인스턴스가 L1 에서 지운다
+ *   (구독: AnimeCacheInvalidationSubscriber). 메시지 유실 시 stale 상한은 L1 TTL(기본 30초)이다.
+ *
+ * L1 공유 객체 주의
+ * - 상세는 호출부(AnimeController)가 isFavorited 를 요청마다 덮어쓴다. L1 이 같은 객체를 여러 요청에 건네면
+ *   한 사용자의 찜 여부가 다른 사용자에게 보인다. 그래서 상세는 L1 에 넣을 때와 꺼낼 때 모두 얕은 복사를 한다.
+ * - 목록(장르/인기)은 수정 불가 리스트로 담는다. 원소를 고치는 호출부는 없다.
+ * - 필터 옵션(facets)은 호출부가 counts 를 붙여 내보내므로 껍데기만 복사한다(옵션 리스트는 고치지 않는다).
+ *
+ * 미스 몰림(stampede) 방어
+ * - 인기 작품 상세 키가 만료되거나 관리자 수정으로 무효화되면 동시 요청이 한꺼번에 미스를 낸다.
+ *   예전에는 그 수만큼 상세 7쿼리 로드가 동시에 돌아 커넥션 풀(20)을 다 잡았다.
+ * - 인스턴스 안: 키별 CompletableFuture 로 한 번만 채우고 나머지는 결과를 기다린다.
+ * - 인스턴스 간: 키별 짧은 분산락을 잡은 인스턴스만 DB 를 치고, 나머지는 L2 가 채워지길 잠깐 기다린다.
+ *
+ * 만료 전 갱신(refresh-ahead) + stale-while-revalidate
+ * - L2 값은 봉투({"v": 값, "r": 갱신 시작 시각, "e": 신선 만료 시각}, epoch ms)로 담는다. 그래서 키 버전이 v2 다.
+ *   Redis 의 실제 TTL 은 신선 TTL 에 유예(stale-grace-ratio 배)를 더한 길이라, 신선 만료 뒤에도 값이 남는다.
+ * - 읽을 때 "r" 을 지났고 그 키가 자주 읽혔으면(refresh-min-hits 이상) 백그라운드로 다시 읽어 채운다.
+ *   "e" 까지 지났으면 읽은 횟수와 상관없이 옛 값을 그대로 주고 갱신을 건다. 읽기는 갱신을 기다리지 않는다.
+ * - 갱신이 실패하거나 DB 가 느려도 옛 값이 유예 끝까지 나간다. 갱신은 키별로 한 번만 큐에 들어가고,
+ *   인스턴스 간에는 채우기와 같은 락으로 한 곳만 DB 를 친다.
+ *
+ * 미리 만든 응답 본문(gzip + ETag)
+ * - 히트마다 DTO 를 컨트롤러에서 다시 JSON 으로 쓰고 압축하는 비용이 남아 있었다(상세는 에피소드 목록까지 커서 크다).
+ * - 그래서 L1 항목 옆에 "최종 응답 바이트(gzip) + ETag" 를 처음 요청될 때 한 번 만들어 붙여 둔다(PreparedJsonBody).
+ *   같은 L1 항목이 살아 있는 동안은 gzip 을 받는 요청에 바이트를 그대로 내보낸다 — 직렬화·압축 0회.
+ * - 상세에서 요청마다 다른 것은 isFavorited 하나뿐이라 true/false 두 변형을 각각 메모한다.
+ * - L2 는 여전히 JSON 봉투다. 바이트를 L2 에 두면 갱신 시각/버전 판단을 위해 결국 풀어야 하고,
+ *   L1 이 인스턴스당 항목별로 한 번만 만들면 충분하다. L1 을 끄면(TTL 0) 매 요청 만든다.
+ *
+ * 지표
+ * - anime.cache.requests{cache=genres|popular|detail|facets, tier=l1|l2, result=hit|miss}
+ *   (l2 는 l1 미스일 때만 센다 → 계층별 히트율 = hit / (hit + miss))
+ * - anime.cache.fill{cache, result=loaded|coalesced_local|coalesced_remote|lock_timeout}: 미스 채우기 결과
+ * - anime.cache.refresh{cache, result=refreshed|adopted|failed|rejected}: 백그라운드 갱신 결과
+ *   (adopted = 다른 인스턴스가 이미 갱신한 L2 값을 받아 씀)
+ * - anime.cache.stale.served{cache}: 신선 만료가 지난 값을 내준 횟수
+ * - anime.cache.l1.size: L1 항목 수
+ * - anime.cache.body.prepared{cache}: 응답 본문을 새로 만든 횟수(요청 수 대비 낮을수록 재사용이 잘 된다)
+ * 태그 값이 모두 정해져 있어 카운터는 init 에서 한 번 만들어 두고(CacheMeters) 요청 경로는 올리기만 한다.
+ *
  * 메서드 개요
- * - getGenres/getPopular/getDetailPublic: cache-aside 읽기(get→미스면 DB→set)
- * - evictGenres/evictPopular/evictDetail: 커밋 후 무효화(afterCommit 삭제)
+ * - getGenres/getPopular/getDetailPublic: 2단 cache-aside 읽기(L1→L2→DB, 채울 때는 L2→L1, 미스는 키별로 묶는다)
+ * - getGenresBody/getPopularBody/getDetailBody: 같은 읽기 + L1 항목에 메모된 gzip 응답 본문
+ * - getFacetOptions/getFacetsBody: 목록 필터 옵션 묶음(개수는 AnimeFacetService 가 붙인다)
+ * - evictGenres/evictPopular/evictDetail/evictFacets: 커밋 후 무효화(L2 삭제 + 전파 + L1 삭제)
+ * - evictLocal: 다른 인스턴스가 보낸 무효화 반영(구독자에서 호출)
  */
 @Slf4j
 @Service
@@ -35,109 +118,543 @@ public class AnimeCacheService {
     private final StringRedisTemplate stringRedisTemplate;
     private final ObjectMapper objectMapper;
     private final AnimeQueryService animeQueryService;
+    private final MeterRegistry meterRegistry;
+    private final LockProvider lockProvider; // 미스 채우기·갱신 인스턴스 간 락(ShedLock 과 같은 저장소)
 
-    private static final String GENRES_KEY = "ott:anime:genres:v1";
-    private static final String POPULAR_KEY = "ott:anime:popular:v1";
-    private static final String DETAIL_KEY_PREFIX = "ott:anime:detail:v1:";
+    static final String INVALIDATION_CHANNEL = "ott:anime:cache-invalidate:v1"; // 본문 = 무효화할 키
 
+    private static final String GENRES_KEY = "ott:anime:genres:v2";
+    private static final String POPULAR_KEY = "ott:anime:popular:v2";
+    private static final String DETAIL_KEY_PREFIX = "ott:anime:detail:v2:";
+    private static final String FACETS_KEY = "ott:anime:facets:v2";
+
+    // 신선 TTL. Redis 에는 여기에 유예를 더한 길이로 둔다
     private static final Duration GENRES_TTL = Duration.ofHours(6);
     private static final Duration POPULAR_TTL = Duration.ofMinutes(5);
     private static final Duration DETAIL_TTL = Duration.ofMinutes(30);
+    private static final Duration FACETS_TTL = Duration.ofHours(1); // 카탈로그 쓰기 경로가 지우므로 길게 둔다
+
+    private static final String FILL_LOCK_PREFIX = "anime-cache-fill:"; // ShedLock 키 = ott 접두어 + 이 이름
+    private static final Duration FILL_LOCK_AT_MOST_FOR = Duration.ofSeconds(5); // 상세 7쿼리 로드를 넉넉히 덮는다
+    private static final Duration FILL_POLL_INTERVAL = Duration.ofMillis(50);
+
+    private static final int REFRESH_THREADS = 2; // 갱신은 배경 작업이라 풀을 작게 묶는다(커넥션 2개 이상 안 쓴다)
+    private static final int REFRESH_QUEUE = 256; // 넘치면 버린다 — 옛 값이 계속 나가고 다음 읽기가 다시 건다
+
+    // 지표 태그 값. 모두 정해져 있어 카운터를 init 에서 한 번 만든다
+    private static final List<String> CACHES = List.of("genres", "popular", "detail", "facets");
+    private static final List<String> FILL_RESULTS = List.of("loaded", "coalesced_local", "coalesced_remote", "lock_timeout");
+    private static final List<String> REFRESH_RESULTS = List.of("refreshed", "adopted", "failed", "rejected");
+
+    private static final TypeReference<List<GenreSimpleDto>> GENRES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<AnimeListDto>> POPULAR_TYPE = new TypeReference<>() {};
+    private static final TypeReference<AnimeDetailDto> DETAIL_TYPE = new TypeReference<>() {};
+    private static final TypeReference<AnimeFacetsDto> FACETS_TYPE = new TypeReference<>() {};
+
+    @Value("${ott.cache.anime.local-max-size:2000}")
+    private int localMaxSize; // L1 항목 상한(상세 키 수가 대부분)
+
+    @Value("${ott.cache.anime.local-ttl-seconds:30}")
+    private long localTtlSeconds; // L1 TTL. pub/sub 유실 시 stale 상한이기도 하다. 0 이면 L1 을 끈다
+
+    @Value("${ott.cache.anime.fill-wait-ms:1000}")
+    private long fillWaitMillis; // 다른 인스턴스의 채우기를 기다리는 상한. 넘으면 직접 DB 를 친다
+
+    @Value("${ott.cache.anime.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio; // 신선 TTL 중 이 비율이 지나면 갱신 대상이 된다
+
+    @Value("${ott.cache.anime.stale-grace-ratio:1.0}")
+    private double staleGraceRatio; // 신선 만료 뒤 옛 값을 더 내줄 수 있는 길이(신선 TTL 배수)
+
+    @Value("${ott.cache.anime.refresh-min-hits:3}")
+    private int refreshMinHits; // 갱신 구간에서 미리 갱신할 만큼 "자주 읽힌" 기준(마지막 채우기 이후 읽은 횟수)
+
+    private NearCache local;
+    private ExecutorService refreshExecutor;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>(); // 채우는 중인 키
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet(); // 갱신이 큐에 들어간 키
+    private final ConcurrentHashMap<String, LongAdder> reads = new ConcurrentHashMap<>(); // 마지막 채우기 이후 읽은 횟수
+    private Map<String, CacheMeters> meters; // 캐시 이름 → 지표(init 에서 만들고 고치지 않는다)
 
     /**
-     * 장르 목록 조회(cache-aside). 미스 시 DB 조회 후 캐시에 채운다.
+     * 캐시 한 종류의 읽기 규칙(키마다 다른 것은 loader 뿐이다).
      */
-    public List<GenreSimpleDto> getGenres() {
-        try {
-            String json = stringRedisTemplate.opsForValue().get(GENRES_KEY);
-            if (json != null) {
-                log.info("[Cache][Anime] genres HIT key={}", GENRES_KEY);
-                return objectMapper.readValue(json, new TypeReference<List<GenreSimpleDto>>() {});
-            }
+    private record Spec<T>(
+            String cache, TypeReference<T> type, Duration ttl, Supplier<T> loader, UnaryOperator<T> copy) {}
 
-            log.info("[Cache][Anime] genres MISS key={}", GENRES_KEY);
-            List<GenreSimpleDto> data = animeQueryService.getAllGenres();
-            stringRedisTemplate.opsForValue().set(GENRES_KEY, objectMapper.writeValueAsString(data), GENRES_TTL);
-            return data;
+    /**
+     * 캐시 한 종류의 지표. 요청 경로는 여기 든 카운터를 올리기만 한다(요청마다 builder·레지스트리 조회를 하지 않게).
+     */
+    private record CacheMeters(
+            Counter l1Hit,
+            Counter l1Miss,
+            Counter l2Hit,
+            Counter l2Miss,
+            Map<String, Counter> fill, // result → 카운터
+            Map<String, Counter> refresh, // result → 카운터
+            Counter staleServed,
+            Counter bodyPrepared) {}
 
-        } catch (Exception e) {
-            log.error("[Cache][Anime] genres failed key={} error={} - DB 폴백", GENRES_KEY, e.getMessage(), e);
-            return animeQueryService.getAllGenres();
+    /**
+     * 캐시에 담긴 값 + 봉투 시각(epoch ms). L1 에도 이 모양 그대로 담는다.
+     * bodies 는 이 값으로 만든 응답 본문 메모(변형 이름 → 본문). L1 항목과 수명을 같이 한다.
+     */
+    private record Cached(Object value, long refreshAt, long expireAt, Map<String, PreparedJsonBody> bodies) {
+        Cached(Object value, long refreshAt, long expireAt) {
+            this(value, refreshAt, expireAt, new ConcurrentHashMap<>());
         }
     }
 
+    @PostConstruct
+    void init() {
+        local = new NearCache(localMaxSize, Duration.ofSeconds(localTtlSeconds));
+        refreshExecutor = new ThreadPoolExecutor(
+                REFRESH_THREADS,
+                REFRESH_THREADS,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE),
+                new CustomizableThreadFactory("catalog-refresh-"));
+        Gauge.builder("anime.cache.l1.size", local, NearCache::size)
+                .description("카탈로그 L1(인스턴스 메모리) 캐시 항목 수")
+                .register(meterRegistry);
+        Map<String, CacheMeters> byCache = new HashMap<>();
+        for (String cache : CACHES) byCache.put(cache, registerMeters(cache));
+        meters = Map.copyOf(byCache);
+    }
+
+    @PreDestroy
+    void stop() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 장르 목록 조회(2단 cache-aside). 미스 시 DB 조회 후 캐시에 채운다.
+     */
+    public List<GenreSimpleDto> getGenres() {
+        return read(GENRES_KEY, genresSpec());
+    }
+
     /**
-     * 인기 목록 조회(cache-aside). 미스 시 고정 쿼리로 DB 조회 후 캐시에 채운다.
+     * 인기 목록 조회(2단 cache-aside). 미스 시 고정 쿼리로 DB 조회 후 캐시에 채운다.
      *
      * list 호출 인자는 AnimeController.getPopular() 본문에서 그대로 옮겨온 것이다(rating 정렬, size=10).
      */
     public List<AnimeListDto> getPopular() {
-        try {
-            String json = stringRedisTemplate.opsForValue().get(POPULAR_KEY);
-            if (json != null) {
-                log.info("[Cache][Anime] popular HIT key={}", POPULAR_KEY);
-                return objectMapper.readValue(json, new TypeReference<List<AnimeListDto>>() {});
+        return read(POPULAR_KEY, popularSpec());
+    }
+
+    /**
+     * 상세 공용부 조회(2단 cache-aside). isFavorited 는 담지 않는다 — 요청마다 호출부에서 따로 합성한다.
+     * 작품이 없으면(null) 캐시에 넣지 않고 null 을 반환한다. 돌려주는 객체는 호출부가 고쳐도 되는 복사본이다.
+     */
+    public AnimeDetailDto getDetailPublic(Long aniId) {
+        return read(detailKey(aniId), detailSpec(aniId));
+    }
+
+    /**
+     * 장르 목록의 gzip 응답 본문. 값은 getGenres 와 같다.
+     */
+    public PreparedJsonBody getGenresBody() {
+        return readBody(GENRES_KEY, genresSpec(), "plain", Function.identity());
+    }
+
+    /**
+     * 인기 목록의 gzip 응답 본문. 값은 getPopular 와 같다.
+     */
+    public PreparedJsonBody getPopularBody() {
+        return readBody(POPULAR_KEY, popularSpec(), "plain", Function.identity());
+    }
+
+    /**
+     * 상세의 gzip 응답 본문. isFavorited 를 채운 최종 모양으로 만든다(true/false 변형을 따로 메모).
+     * 찜 여부는 작품이 있을 때만 묻는다(favorited). 작품이 없으면 null.
+     */
+    public PreparedJsonBody getDetailBody(Long aniId, BooleanSupplier favorited) {
+        String key = detailKey(aniId);
+        Spec<AnimeDetailDto> spec = detailSpec(aniId);
+        Cached cached = readCached(key, spec);
+        if (cached == null) return null;
+        boolean fav = favorited.getAsBoolean();
+        return body(key, cached, spec, fav ? "favorited" : "unfavorited",
+                dto -> dto.toBuilder().isFavorited(fav).build()); // L1 안의 객체는 고치지 않는다
+    }
+
+    /**
+     * 목록 필터 옵션 묶음(counts 없음). 돌려주는 객체는 호출부가 counts 를 채워도 되는 복사본이다.
+     */
+    public AnimeFacetsDto getFacetOptions() {
+        return read(FACETS_KEY, facetsSpec());
+    }
+
+    /**
+     * 목록 필터 옵션의 gzip 응답 본문. variant 마다 한 번만 만들어 L1 항목에 메모한다.
+     * shape 는 옵션 묶음에 counts 를 붙인 최종 모양을 만든다 — variant 는 그 counts 가 같을 때만 같아야 한다.
+     */
+    public PreparedJsonBody getFacetsBody(String variant, UnaryOperator<AnimeFacetsDto> shape) {
+        return readBody(FACETS_KEY, facetsSpec(), variant, shape);
+    }
+
+    private Spec<List<GenreSimpleDto>> genresSpec() {
+        return new Spec<>("genres", GENRES_TYPE, GENRES_TTL, animeQueryService::getAllGenres, List::copyOf);
+    }
+
+    private Spec<List<AnimeListDto>> popularSpec() {
+        return new Spec<>("popular", POPULAR_TYPE, POPULAR_TTL, this::loadPopular, List::copyOf);
+    }
+
+    private Spec<AnimeFacetsDto> facetsSpec() {
+        return new Spec<>("facets", FACETS_TYPE, FACETS_TTL, animeQueryService::getFacetOptions,
+                dto -> dto.toBuilder().build());
+    }
+
+    private Spec<AnimeDetailDto> detailSpec(Long aniId) {
+        return new Spec<>("detail", DETAIL_TYPE, DETAIL_TTL,
+                () -> animeQueryService.detail((long) aniId), // 공용 오버로드(찜여부 미포함)
+                dto -> dto.toBuilder().build());
+    }
+
+    private List<AnimeListDto> loadPopular() {
+        return animeQueryService
+                .list(
+                        null, // status
+                        null, // genreIds
+                        null, // minRating
+                        null, // year
+                        null, // quarter
+                        null, // type
+                        null, // isDub
+                        null, // isSubtitle
+                        null, // isExclusive
+                        null, // isCompleted
+                        null, // isNew
+                        null, // isPopular
+                        "rating", // sort
+                        0, // page
+                        10, // size
+                        null // tagIds
+                        )
+                .getItems();
+    }
+
+    /**
+     * 2단 cache-aside 공통 경로(readCached 결과를 copy 해 돌려준다).
+     * - L1 히트: copy 한 값을 돌려준다(L1 안의 객체는 밖으로 내보내지 않는다). 갱신 시점이면 배경 갱신을 건다.
+     * - L1 미스: 같은 키의 채우기를 인스턴스 안에서 하나로 묶는다(coalesce). 묶인 호출자는 결과를 copy 해 받는다
+     *   — 상세는 호출부가 고쳐 쓰므로 한 객체를 여러 요청이 나눠 가지면 안 된다.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, Spec<T> spec) {
+        Cached cached = readCached(key, spec);
+        return cached == null ? null : spec.copy().apply((T) cached.value());
+    }
+
+    /**
+     * 응답 본문 읽기. 본문은 L1 항목(bodies)에 변형별로 한 번만 만든다 — 같은 항목을 받은 동시 요청은 하나를 나눠 쓴다.
+     * shape 는 직렬화 직전의 최종 모양을 만든다(L1 안의 값을 고치면 안 된다).
+     * 직렬화 실패는 그대로 던진다 — 같은 ObjectMapper 를 쓰는 일반 응답 경로도 똑같이 실패한다.
+     */
+    private <T> PreparedJsonBody readBody(String key, Spec<T> spec, String variant, Function<? super T, ?> shape) {
+        Cached cached = readCached(key, spec);
+        return cached == null ? null : body(key, cached, spec, variant, shape);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> PreparedJsonBody body(String key, Cached cached, Spec<T> spec, String variant, Function<? super T, ?> shape) {
+        return cached.bodies().computeIfAbsent(variant, v -> {
+            try {
+                countBodyPrepared(spec.cache());
+                return PreparedJsonBody.of(objectMapper, shape.apply((T) cached.value()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("응답 본문 직렬화 실패 key=" + key, e);
             }
+        });
+    }
 
-            log.info("[Cache][Anime] popular MISS key={}", POPULAR_KEY);
-            List<AnimeListDto> data = animeQueryService
-                    .list(
-                            null, // status
-                            null, // genreIds
-                            null, // minRating
-                            null, // year
-                            null, // quarter
-                            null, // type
-                            null, // isDub
-                            null, // isSubtitle
-                            null, // isExclusive
-                            null, // isCompleted
-                            null, // isNew
-                            null, // isPopular
-                            "rating", // sort
-                            0, // page
-                            10, // size
-                            null // tagIds
-                            )
-                    .getItems();
-            stringRedisTemplate.opsForValue().set(POPULAR_KEY, objectMapper.writeValueAsString(data), POPULAR_TTL);
-            return data;
+    private <T> Cached readCached(String key, Spec<T> spec) {
+        Cached near = (Cached) local.get(key);
+        if (near != null) {
+            meters.get(spec.cache()).l1Hit().increment();
+            log.debug("[Cache][Anime] {} L1 HIT key={}", spec.cache(), key);
+            maybeRefresh(key, near, spec);
+            return near;
+        }
+        meters.get(spec.cache()).l1Miss().increment();
+        return coalesce(spec.cache(), key, () -> fill(key, spec));
+    }
 
-        } catch (Exception e) {
-            log.error("[Cache][Anime] popular failed key={} error={} - DB 폴백", POPULAR_KEY, e.getMessage(), e);
-            return animeQueryService
-                    .list(null, null, null, null, null, null, null, null, null, null, null, null, "rating", 0, 10, null)
-                    .getItems();
+    /**
+     * 인스턴스 안 single-flight. 같은 키로 먼저 들어온 채우기가 있으면 그 결과를 기다린다.
+     * 먼저 온 쪽이 예외로 끝나면 기다리던 쪽도 같은 예외를 받는다(각자 DB 를 다시 치지 않는다).
+     */
+    private Cached coalesce(String cache, String key, Supplier<Cached> fill) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inflight.putIfAbsent(key, mine);
+        if (running != null) {
+            countFill(cache, "coalesced_local");
+            try {
+                return (Cached) running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            Cached cached = fill.get();
+            mine.complete(cached);
+            return cached;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
         }
     }
 
     /**
-     * 상세 공용부 조회(cache-aside). isFavorited 는 담지 않는다 — 요청마다 호출부에서 따로 합성한다.
-     * 작품이 없으면(null) 캐시에 넣지 않고 null 을 반환한다.
+     * L2 → (인스턴스 간 락) → DB 채우기.
+     * - L2 히트: 역직렬화 → L1 에 copy 를 채운다. 갱신 시점이거나 신선 만료가 지났으면 배경 갱신을 건다.
+     * - L2 미스: 짧은 분산락(ShedLock LockProvider, 키별)을 잡은 인스턴스만 DB 를 친다.
+     *   못 잡은 인스턴스는 fill-wait-ms 동안 L2 가 채워지길 기다렸다가 그 값을 쓴다.
+     *   그래도 안 채워지면(락 보유자가 느리거나 죽음) 직접 DB 를 친다 — 기다림이 요청 실패로 번지지 않게 한다.
+     * - null(대상 없음)은 어느 계층에도 넣지 않는다.
+     * - DB 를 치기 전에 Redis/역직렬화가 터지면 DB 값을 그대로 돌려준다(L1 도 건드리지 않는다).
+     * - DB 를 친 뒤 L2 저장만 터지면 읽은 값을 그대로 돌려준다. DB 는 한 번만 친다(로더를 다시 부르지 않는다).
+     * - 로더 자체가 실패하면 그대로 던진다. 같은 키를 기다리던 요청들도 그 실패를 받는다(single-flight).
      */
-    public AnimeDetailDto getDetailPublic(Long aniId) {
-        String key = detailKey(aniId);
+    private <T> Cached fill(String key, Spec<T> spec) {
+        String cache = spec.cache();
+        Optional<SimpleLock> lock = Optional.empty();
+        boolean loading = false; // 로더를 불렀는가 — 그 뒤의 실패에서 로더를 다시 부르지 않는다
+        boolean loaded = false; // 로더가 값을 돌려줬는가 — 그 뒤의 실패는 L2 저장 실패다
+        T data = null;
         try {
             String json = stringRedisTemplate.opsForValue().get(key);
             if (json != null) {
-                log.info("[Cache][Anime] detail HIT key={}", key);
-                return objectMapper.readValue(json, AnimeDetailDto.class);
+                meters.get(cache).l2Hit().increment();
+                log.info("[Cache][Anime] {} HIT key={}", cache, key);
+                Cached cached = keepLocal(key, unwrap(json, spec), spec);
+                maybeRefresh(key, cached, spec);
+                return cached;
             }
 
-            log.info("[Cache][Anime] detail MISS key={}", key);
-            AnimeDetailDto data = animeQueryService.detail((long) aniId); // 공용 오버로드(찜여부 미포함)
-            if (data == null) {
-                return null; // 작품 없음은 캐시하지 않는다
+            meters.get(cache).l2Miss().increment();
+            log.info("[Cache][Anime] {} MISS key={}", cache, key);
+            lock = lockProvider.lock(fillLock(key));
+            if (lock.isEmpty()) {
+                json = awaitRemoteFill(key);
+                if (json != null) {
+                    countFill(cache, "coalesced_remote");
+                    return keepLocal(key, unwrap(json, spec), spec);
+                }
+                countFill(cache, "lock_timeout");
+            } else if ((json = stringRedisTemplate.opsForValue().get(key)) != null) {
+                // 락을 잡기 직전에 다른 인스턴스가 채우고 놓았다 — 그 값을 쓴다
+                countFill(cache, "coalesced_remote");
+                return keepLocal(key, unwrap(json, spec), spec);
             }
-            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(data), DETAIL_TTL);
-            return data;
+
+            loading = true;
+            data = spec.loader().get();
+            loaded = true;
+            countFill(cache, "loaded");
+            return data == null ? null : store(key, data, spec); // 대상 없음은 캐시하지 않는다
 
         } catch (Exception e) {
-            log.error("[Cache][Anime] detail failed key={} error={} - DB 폴백", key, e.getMessage(), e);
-            return animeQueryService.detail((long) aniId);
+            if (loaded) {
+                log.error("[Cache][Anime] {} store failed key={} error={} - 읽은 값을 그대로 돌려준다", cache, key, e.getMessage(), e);
+            } else if (loading) {
+                throw (RuntimeException) e; // 로더(Supplier)는 unchecked 만 던진다
+            } else {
+                log.error("[Cache][Anime] {} failed key={} error={} - DB 폴백", cache, key, e.getMessage(), e);
+                data = spec.loader().get();
+            }
+            return data == null ? null : new Cached(data, Long.MAX_VALUE, Long.MAX_VALUE);
+        } finally {
+            lock.ifPresent(SimpleLock::unlock);
+        }
+    }
+
+    /**
+     * DB 에서 읽은 값을 봉투에 싸서 L2(신선 TTL + 유예) 와 L1 에 넣는다. 읽은 횟수는 여기서 다시 센다.
+     */
+    private <T> Cached store(String key, T data, Spec<T> spec) throws IOException {
+        long now = System.currentTimeMillis();
+        long ttlMillis = spec.ttl().toMillis();
+        Cached cached = new Cached(data, now + (long) (ttlMillis * refreshAheadRatio), now + ttlMillis);
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.set("v", objectMapper.valueToTree(data));
+        envelope.put("r", cached.refreshAt());
+        envelope.put("e", cached.expireAt());
+        Duration physicalTtl = spec.ttl().plusMillis((long) (ttlMillis * staleGraceRatio));
+        stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(envelope), physicalTtl);
+        reads.remove(key);
+        return keepLocal(key, cached, spec);
+    }
+
+    private <T> Cached unwrap(String json, Spec<T> spec) throws IOException {
+        JsonNode envelope = objectMapper.readTree(json);
+        T value = objectMapper.readerFor(spec.type()).readValue(envelope.get("v"));
+        return new Cached(value, envelope.get("r").asLong(), envelope.get("e").asLong());
+    }
+
+    /**
+     * L1 에 copy 를 담고 그 L1 항목을 돌려준다. 미스를 채운 요청도 L1 항목을 받아야 본문 메모가 다음 히트와 공유된다.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Cached keepLocal(String key, Cached cached, Spec<T> spec) {
+        Cached near = new Cached(spec.copy().apply((T) cached.value()), cached.refreshAt(), cached.expireAt());
+        local.put(key, near);
+        return near;
+    }
+
+    private LockConfiguration fillLock(String key) {
+        return new LockConfiguration(Instant.now(), FILL_LOCK_PREFIX + key, FILL_LOCK_AT_MOST_FOR, Duration.ZERO);
+    }
+
+    /**
+     * 다른 인스턴스가 채우는 중인 L2 값을 짧게 폴링한다. 시간 안에 안 채워지면 null.
+     */
+    private String awaitRemoteFill(String key) {
+        long deadline = System.nanoTime() + Duration.ofMillis(fillWaitMillis).toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(FILL_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            String json = stringRedisTemplate.opsForValue().get(key);
+            if (json != null) return json;
+        }
+        return null;
+    }
+
+    /**
+     * 갱신 판단. 읽기 스레드에서는 큐에 넣기만 하고 바로 돌아간다.
+     * - 신선 만료가 지났으면(stale) 옛 값을 내준 것을 세고, 읽은 횟수와 상관없이 갱신을 건다.
+     * - 갱신 시점만 지났으면 자주 읽힌 키만 건다(드문 키까지 미리 갱신하면 DB 를 헛되이 친다).
+     */
+    private <T> void maybeRefresh(String key, Cached cached, Spec<T> spec) {
+        // 캐시에 값이 있는 키만 센다(없는 작품 ID 요청이 이 맵을 키우지 못하게)
+        reads.computeIfAbsent(key, k -> new LongAdder()).increment();
+        long now = System.currentTimeMillis();
+        if (now < cached.refreshAt()) return;
+        if (now >= cached.expireAt()) {
+            countStale(spec.cache());
+        } else {
+            LongAdder n = reads.get(key);
+            if (n == null || n.sum() < refreshMinHits) return;
+        }
+        if (!refreshing.add(key)) return; // 이미 큐에 있다
+        try {
+            refreshExecutor.execute(() -> refresh(key, spec));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            countRefresh(spec.cache(), "rejected");
         }
     }
 
+    /**
+     * 배경 갱신. 실패해도 아무것도 지우지 않는다 — 옛 값이 유예 끝까지 계속 나간다.
+     * - 락을 못 잡으면 다른 인스턴스가 갱신 중이다. 그 결과는 다음 L2 읽기(L1 TTL 후)에 받는다.
+     * - 락을 잡은 뒤 L2 가 이미 새 봉투면(다른 인스턴스가 먼저 갱신) DB 대신 그 값을 L1 에 받는다.
+     * - 작품이 사라졌으면(null) 캐시에서 지운다.
+     */
+    private <T> void refresh(String key, Spec<T> spec) {
+        String cache = spec.cache();
+        try {
+            Optional<SimpleLock> lock = lockProvider.lock(fillLock(key));
+            if (lock.isEmpty()) return;
+            try {
+                String json = stringRedisTemplate.opsForValue().get(key);
+                if (json != null) {
+                    Cached current = unwrap(json, spec);
+                    if (System.currentTimeMillis() < current.refreshAt()) {
+                        keepLocal(key, current, spec);
+                        reads.remove(key);
+                        countRefresh(cache, "adopted");
+                        return;
+                    }
+                }
+                T data = spec.loader().get();
+                if (data == null) {
+                    stringRedisTemplate.delete(key);
+                    local.invalidate(key);
+                } else {
+                    store(key, data, spec);
+                }
+                countRefresh(cache, "refreshed");
+                log.info("[Cache][Anime] {} refreshed key={}", cache, key);
+            } finally {
+                lock.get().unlock();
+            }
+        } catch (Exception e) {
+            countRefresh(cache, "failed");
+            log.warn("[Cache][Anime] {} refresh failed key={} - 옛 값을 계속 내준다", cache, key, e);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private CacheMeters registerMeters(String cache) {
+        Map<String, Counter> fill = new HashMap<>();
+        for (String result : FILL_RESULTS) {
+            fill.put(result, Counter.builder("anime.cache.fill")
+                    .tag("cache", cache)
+                    .tag("result", result)
+                    .description("카탈로그 캐시 미스 채우기 결과(loaded=DB 직접, coalesced_*=다른 채우기 결과 재사용)")
+                    .register(meterRegistry));
+        }
+        Map<String, Counter> refresh = new HashMap<>();
+        for (String result : REFRESH_RESULTS) {
+            refresh.put(result, Counter.builder("anime.cache.refresh")
+                    .tag("cache", cache)
+                    .tag("result", result)
+                    .description("카탈로그 캐시 배경 갱신 결과")
+                    .register(meterRegistry));
+        }
+        return new CacheMeters(
+                requestCounter(cache, "l1", "hit"),
+                requestCounter(cache, "l1", "miss"),
+                requestCounter(cache, "l2", "hit"),
+                requestCounter(cache, "l2", "miss"),
+                Map.copyOf(fill),
+                Map.copyOf(refresh),
+                Counter.builder("anime.cache.stale.served")
+                        .tag("cache", cache)
+                        .description("신선 만료가 지난 카탈로그 캐시 값을 내준 횟수")
+                        .register(meterRegistry),
+                Counter.builder("anime.cache.body.prepared")
+                        .tag("cache", cache)
+                        .description("카탈로그 캐시 값으로 gzip 응답 본문을 새로 만든 횟수")
+                        .register(meterRegistry));
+    }
+
+    private Counter requestCounter(String cache, String tier, String result) {
+        return Counter.builder("anime.cache.requests")
+                .tag("cache", cache)
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("카탈로그 캐시 계층별 조회 결과")
+                .register(meterRegistry);
+    }
+
+    private void countFill(String cache, String result) {
+        meters.get(cache).fill().get(result).increment();
+    }
+
+    private void countRefresh(String cache, String result) {
+        meters.get(cache).refresh().get(result).increment();
+    }
+
+    private void countStale(String cache) {
+        meters.get(cache).staleServed().increment();
+    }
+
+    private void countBodyPrepared(String cache) {
+        meters.get(cache).bodyPrepared().increment();
+    }
+
     /**
      * 상세 무효화(커밋 후). 관리자 쓰기 경로에서 호출한다.
      */
@@ -159,6 +676,21 @@ public class AnimeCacheService {
         evictAfterCommit(GENRES_KEY);
     }
 
+    /**
+     * 목록 필터 옵션 무효화(커밋 후). 작품 수집/수정처럼 시즌·연도·태그 옵션이 바뀔 수 있는 쓰기 뒤에 부른다.
+     */
+    public void evictFacets() {
+        evictAfterCommit(FACETS_KEY);
+    }
+
+    /**
+     * 다른 인스턴스(또는 자기 자신)가 보낸 무효화를 L1 에 반영한다. L2 는 보낸 쪽이 이미 지웠다.
+     */
+    public void evictLocal(String key) {
+        local.invalidate(key);
+        log.debug("[Cache][Anime] evict(remote) key={}", key);
+    }
+
     private String detailKey(Long aniId) {
         return DETAIL_KEY_PREFIX + aniId;
     }
@@ -173,21 +705,32 @@ public class AnimeCacheService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    try {
-                        stringRedisTemplate.delete(key);
-                        log.info("[Cache][Anime] evict(afterCommit) key={}", key);
-                    } catch (Exception e) {
-                        log.error("[Cache][Anime] evict(afterCommit) failed key={} error={}", key, e.getMessage(), e);
-                    }
+                    evictNow(key, "afterCommit");
                 }
             });
         } else {
-            try {
-                stringRedisTemplate.delete(key);
-                log.info("[Cache][Anime] evict(immediate) key={}", key);
-            } catch (Exception e) {
-                log.error("[Cache][Anime] evict(immediate) failed key={} error={}", key, e.getMessage(), e);
-            }
+            evictNow(key, "immediate");
+        }
+    }
+
+    /**
+     * 순서: L2 삭제 → 전파 → 자기 L1 삭제.
+     * L2 를 먼저 지워야 L1 을 비운 직후의 읽기가 옛 L2 값을 다시 L1 에 채우지 않는다.
+     * 각 단계 실패는 삼킨다(무효화 실패로 관리자 쓰기가 깨지면 안 된다). 자기 L1 은 무조건 지운다.
+     */
+    private void evictNow(String key, String timing) {
+        try {
+            stringRedisTemplate.delete(key);
+            log.info("[Cache][Anime] evict({}) key={}", timing, key);
+        } catch (Exception e) {
+            log.error("[Cache][Anime] evict({}) failed key={} error={}", timing, key, e.getMessage(), e);
+        }
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+        } catch (Exception e) {
+            log.warn("[Cache][Anime] evict broadcast failed key={} - 다른 인스턴스는 L1 TTL 후 갱신된다", key, e);
         }
+        local.invalidate(key);
+        reads.remove(key);
     }
 }
@@ -0,0 +1,218 @@
+package com.ottproject.ottbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * AnimeCacheWarmer
+ *
+ * 큰 흐름
+ * - 새 인스턴스가 트래픽을 받기 전에 카탈로그 캐시를 채운다: 장르 → 인기 → 목록 필터 인덱스 → 자동완성 인덱스 → 필터 옵션
+ *   → trend:24h 상위 N 상세.
+ *   필터 옵션은 인덱스 뒤에 채워야 옵션별 개수가 붙은 첫 화면 본문이 메모된다.
+ * - 배포 직후 첫 몇 분의 요청이 전부 L1 미스(일부는 L2 미스)로 Postgres 를 치던 것을 기동 단계로 옮긴다.
+ *
+ * 왜 ApplicationRunner 인가
+ * - Boot 는 러너가 모두 끝난 뒤에 ReadinessState 를 ACCEPTING_TRAFFIC 으로 바꾼다.
+ *   그래서 러너 안에서 채우면 /actuator/health/readiness 는 채우기가 끝날 때까지 OUT_OF_SERVICE 이고,
+ *   롤링 배포(deploy-rolling.ps1)는 그걸 보고 다음 인스턴스 교체를 기다린다. 라이브니스는 이미 정상이라 재시작되지 않는다.
+ * - 채우기는 캐시의 평소 읽기 경로(getGenresBody 등)를 그대로 탄다. L2 → L1 이 모두 채워지고 gzip 본문도 미리 만들어진다.
+ *   L2 가 이미 찬 두 번째 인스턴스는 DB 를 거의 치지 않는다.
+ *
+ * 시간 예산
+ * - 전체를 budget-ms(기본 20초) 안에서만 한다. 넘으면 남은 항목을 건너뛰고 기동을 계속한다(캐시는 요청이 채운다).
+ * - 단계 실패(DB/Redis 오류)도 기동을 막지 않는다. 경고 로그와 지표만 남긴다.
+ * - 상세는 작은 전용 풀(parallelism)로 나눠 채우고, 예산이 끝나면 남은 작업을 취소한다.
+ *
+ * 지표
+ * - anime.cache.warmup.items{step=genres|popular|filter_index|suggest_index|facets|detail, result=ok|error|skipped}
+ * - anime.cache.warmup.progress: 끝낸 항목 / 계획 항목(0~1)
+ * - anime.cache.warmup.duration{result=complete|partial}(partial = 예산 초과 또는 실패로 일부만 채움)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeCacheWarmer implements ApplicationRunner {
+
+    static final String TREND_24H = "trend:24h"; // PersonalizedRecommendationService 가 쌓는 24시간 활동 ZSet
+
+    private final AnimeCacheService animeCacheService;
+    private final AnimeFilterIndex animeFilterIndex;
+    private final AnimeFacetService animeFacetService;
+    private final AnimeSuggestIndex animeSuggestIndex;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.cache.anime.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ott.cache.anime.warmup.budget-ms:20000}")
+    private long budgetMs; // 준비 단계 전체 시간 예산
+
+    @Value("${ott.cache.anime.warmup.top-details:50}")
+    private int topDetails; // trend:24h 상위 몇 개의 상세를 채울지
+
+    @Value("${ott.cache.anime.warmup.parallelism:4}")
+    private int parallelism; // 상세 채우기 동시 수(커넥션 풀을 다 잡지 않게 작게)
+
+    private final AtomicInteger planned = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("anime.cache.warmup.progress", this,
+                        w -> w.planned.get() == 0 ? 0 : (double) w.done.get() / w.planned.get())
+                .description("기동 캐시 준비 진행률(끝낸 항목 / 계획 항목)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+
+        List<Long> detailIds = trendingIds();
+        planned.set(3 + (animeFilterIndex.isEnabled() ? 1 : 0) + (animeSuggestIndex.isEnabled() ? 1 : 0)
+                + detailIds.size());
+        log.info("[Cache][Warmup] start budget={}ms details={}", budgetMs, detailIds.size());
+
+        step("genres", deadline, () -> animeCacheService.getGenresBody());
+        step("popular", deadline, () -> animeCacheService.getPopularBody());
+        if (animeFilterIndex.isEnabled()) {
+            step("filter_index", deadline, () -> {
+                if (!animeFilterIndex.loadBlocking(Duration.ofNanos(remaining(deadline)))) {
+                    throw new IllegalStateException("filter index not loaded in budget"); // 기동 완료 후 다시 시도된다
+                }
+                return null;
+            });
+        }
+        if (animeSuggestIndex.isEnabled()) {
+            step("suggest_index", deadline, () -> {
+                if (!animeSuggestIndex.loadBlocking(Duration.ofNanos(remaining(deadline)))) {
+                    throw new IllegalStateException("suggest index not loaded in budget"); // 기동 완료 후 다시 시도된다
+                }
+                return null;
+            });
+        }
+        step("facets", deadline, () -> animeFacetService.facetsBody());
+        warmDetails(detailIds, deadline);
+
+        boolean complete = done.get() == planned.get();
+        Timer.builder("anime.cache.warmup.duration")
+                .tag("result", complete ? "complete" : "partial")
+                .description("기동 캐시 준비 소요 시간")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("[Cache][Warmup] done {}/{} took={}ms", done.get(), planned.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * trend:24h 상위 N 작품 ID(점수 높은 순). Redis 오류면 빈 목록(상세 준비만 건너뛴다).
+     */
+    private List<Long> trendingIds() {
+        if (topDetails <= 0) return List.of();
+        try {
+            Set<Object> members = redisTemplate.opsForZSet().reverseRange(TREND_24H, 0, topDetails - 1);
+            if (members == null) return List.of();
+            List<Long> ids = new ArrayList<>(members.size());
+            for (Object m : members) {
+                try {
+                    ids.add(Long.valueOf(String.valueOf(m)));
+                } catch (NumberFormatException ignore) {
+                    // 숫자가 아닌 멤버는 건너뛴다(컨트롤러 트렌딩 조회와 같은 처리)
+                }
+            }
+            return ids;
+        } catch (Exception e) {
+            log.warn("[Cache][Warmup] trend:24h read failed - 상세 준비 생략", e);
+            return List.of();
+        }
+    }
+
+    private void warmDetails(List<Long> ids, long deadline) throws InterruptedException {
+        if (ids.isEmpty()) return;
+        long left = remaining(deadline);
+        if (left <= 0) {
+            count("detail", "skipped", ids.size());
+            return;
+        }
+        List<Callable<Object>> tasks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            tasks.add(() -> {
+                Object body = animeCacheService.getDetailBody(id, () -> false); // 비로그인 변형 본문까지
+                done.incrementAndGet(); // 진행률이 준비 도중에도 움직이게 끝날 때마다 센다
+                return body;
+            });
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, parallelism), new CustomizableThreadFactory("catalog-warmup-"));
+        try {
+            for (Future<Object> f : pool.invokeAll(tasks, left, TimeUnit.NANOSECONDS)) { // 예산이 끝나면 남은 작업은 취소된다
+                if (f.isCancelled()) {
+                    count("detail", "skipped", 1);
+                    continue;
+                }
+                try {
+                    f.get();
+                    count("detail", "ok", 1);
+                } catch (Exception e) {
+                    count("detail", "error", 1);
+                    log.warn("[Cache][Warmup] detail failed", e);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void step(String name, long deadline, Callable<?> action) {
+        if (remaining(deadline) <= 0) {
+            count(name, "skipped", 1);
+            return;
+        }
+        try {
+            action.call();
+            count(name, "ok", 1);
+            done.incrementAndGet();
+        } catch (Exception e) {
+            count(name, "error", 1);
+            log.warn("[Cache][Warmup] step={} failed - 요청이 채운다", name, e);
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return deadline - System.nanoTime();
+    }
+
+    private void count(String step, String result, int amount) {
+        Counter.builder("anime.cache.warmup.items")
+                .tag("step", step)
+                .tag("result", result)
+                .description("기동 캐시 준비 항목 결과")
+                .register(meterRegistry)
+                .increment(amount);
+    }
+}
@@ -44,6 +44,10 @@ public class AnimeCurationService {
     private final AnimeCurationQueryRepository curationQueryRepository;
     private final AnimeRepository animeRepository;
     private final AnimeCacheService animeCacheService;
+    private final AnimeListCountCache animeListCountCache;
+    private final AnimeFilterIndex animeFilterIndex;
+    private final CatalogVersionService catalogVersionService;
+    private final AnimeSuggestIndex animeSuggestIndex;
 
     // 벌크 UPDATE 는 영속성 컨텍스트를 우회하므로 flush/clear 를 직접 제어해야 한다(applyBulkCuration 참고).
     @PersistenceContext
@@ -122,6 +126,11 @@ public class AnimeCurationService {
         // 더티 체킹은 커밋 시점에 UPDATE 를 낸다. 무효화는 커밋 후여야 낡은 값 재적재 레이스가 없다.
         animeCacheService.evictDetail(animeId);
         animeCacheService.evictPopular();
+        animeListCountCache.invalidate(); // 배지/노출 여부가 바뀌면 필터별 목록 개수도 달라진다
+        animeFilterIndex.refresh(animeId); // 메모리 필터 인덱스는 이 한 건만 다시 읽는다
+        animeSuggestIndex.refresh(animeId); // 제목/노출 여부가 자동완성에도 반영된다
+        animeCacheService.evictFacets(); // 노출 여부가 바뀌면 시즌/타입/연도 옵션도 달라질 수 있다
+        catalogVersionService.bump(); // 공개 응답 ETag 도 커밋 후 새 번호로
 
         return AdminAnimeDetailDto.from(anime);
     }
@@ -186,6 +195,11 @@ public class AnimeCurationService {
 
         // 조건 기반 벌크라 개별 ID 열거 비용이 커서 상세는 30분 TTL 백스톱에 맡기고 인기만 무효화한다.
         animeCacheService.evictPopular();
+        animeListCountCache.invalidate();
+        animeFilterIndex.rebuild(); // 대상을 열거하지 않으므로 전체 재적재
+        animeSuggestIndex.rebuild(); // 노출 여부/인기 배지가 바뀌면 자동완성 대상과 순위도 바뀐다
+        animeCacheService.evictFacets();
+        catalogVersionService.bump();
 
         log.info("애니 벌크 큐레이션 적용: {}건", affected);
         return affected;
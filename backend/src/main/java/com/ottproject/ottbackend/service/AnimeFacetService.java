@@ -0,0 +1,98 @@
+package com.ottproject.ottbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ottproject.ottbackend.dto.AnimeFacetsDto;
+import com.ottproject.ottbackend.enums.AnimeStatus;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * AnimeFacetService
+ *
+ * 큰 흐름
+ * - 목록 화면의 필터 옵션(장르/태그/시즌/연도·분기/상태/타입)을 한 응답으로 묶고, 현재 필터 기준 옵션별 개수를 붙인다.
+ *   예전에는 화면 진입마다 개별 엔드포인트 6개를 따로 불렀고, 각각 캐시 없는 DISTINCT/조회 쿼리였다.
+ * - 옵션 묶음은 카탈로그 캐시(AnimeCacheService, L1 → L2 → DB)에서, 개수는 메모리 필터 인덱스(AnimeFilterIndex)에서 온다.
+ *   요청 경로에 DB 쿼리가 없다.
+ *
+ * 왜 이 구조인가
+ * - 필터 없는 요청(첫 화면)이 대부분이다. 그 개수는 인덱스 스냅샷이 같으면 같으므로, 본문을 "counts:스냅샷 번호" 변형으로
+ *   L1 항목에 메모한다 — 같은 카탈로그 버전 동안 직렬화·압축 0회이고, 옵션이나 인덱스가 바뀌면 새 변형이 만들어진다.
+ * - 필터가 있는 요청은 조합이 끝이 없어 메모하지 않는다. 개수는 비트맵 AND 라 싸고, 본문만 요청마다 만든다(ETag 는 같다).
+ * - AnimeCacheService 는 AnimeQueryService 를 쓰므로 조립을 거기에 두지 않고 이 서비스가 둘을 잇는다.
+ *
+ * 메서드 개요
+ * - facets: 옵션 + 개수(gzip 을 받지 않는 클라이언트용 객체)
+ * - facetsBody: 같은 값의 gzip 응답 본문 + ETag(인자 없는 쪽은 필터 없는 첫 화면 본문, 기동 준비 단계가 채운다)
+ */
+@Service
+@RequiredArgsConstructor
+public class AnimeFacetService {
+
+    private final AnimeCacheService animeCacheService;
+    private final AnimeFilterIndex animeFilterIndex;
+    private final ObjectMapper objectMapper;
+
+    public AnimeFacetsDto facets(
+            AnimeStatus status,
+            List<Long> genreIds,
+            Double minRating,
+            Integer year,
+            Integer quarter,
+            String type,
+            Boolean isDub,
+            Boolean isSubtitle,
+            Boolean isExclusive,
+            Boolean isCompleted,
+            Boolean isNew,
+            Boolean isPopular,
+            List<Long> tagIds) {
+        AnimeListFilter f = AnimeListFilter.of(status, genreIds, minRating, year, quarter, type,
+                isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds);
+        AnimeFacetsDto options = animeCacheService.getFacetOptions(); // 복사본이라 counts 를 채워도 된다
+        AnimeFilterIndex.Facets counts = animeFilterIndex.facets(f);
+        options.setCounts(counts == null ? null : counts.counts());
+        return options;
+    }
+
+    public PreparedJsonBody facetsBody(
+            AnimeStatus status,
+            List<Long> genreIds,
+            Double minRating,
+            Integer year,
+            Integer quarter,
+            String type,
+            Boolean isDub,
+            Boolean isSubtitle,
+            Boolean isExclusive,
+            Boolean isCompleted,
+            Boolean isNew,
+            Boolean isPopular,
+            List<Long> tagIds) {
+        return facetsBody(AnimeListFilter.of(status, genreIds, minRating, year, quarter, type,
+                isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds));
+    }
+
+    public PreparedJsonBody facetsBody() {
+        return facetsBody(AnimeListFilter.of(null, null, null, null, null, null, null, null, null, null, null, null, null));
+    }
+
+    private PreparedJsonBody facetsBody(AnimeListFilter f) {
+        AnimeFilterIndex.Facets counts = animeFilterIndex.facets(f);
+        if (f.isEmpty()) {
+            String variant = counts == null ? "plain" : "counts:" + counts.version(); // 인덱스 스냅샷이 바뀌면 새 본문
+            return animeCacheService.getFacetsBody(variant,
+                    dto -> dto.toBuilder().counts(counts == null ? null : counts.counts()).build()); // L1 안의 객체는 고치지 않는다
+        }
+        AnimeFacetsDto body = animeCacheService.getFacetOptions();
+        body.setCounts(counts == null ? null : counts.counts());
+        try {
+            return PreparedJsonBody.of(objectMapper, body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("필터 옵션 응답 본문 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.AnimeFacetCountsDto;
+import com.ottproject.ottbackend.dto.AnimeFilterIndexRow;
+import com.ottproject.ottbackend.enums.AnimeStatus;
+import com.ottproject.ottbackend.mybatis.AnimeQueryMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * AnimeFilterIndex
+ *
+ * 큰 흐름
+ * - 활성 카탈로그 전체의 필터 속성을 메모리에 들고, 목록 필터를 비트맵 AND/OR 로 푼다.
+ *   작품마다 위치(0..n-1)를 주고, 장르/태그/상태/타입/연도/분기/배지마다 "해당 작품 위치" 비트맵을 둔다.
+ * - 목록 요청은 여기서 (페이지 ID 들, 총 개수)를 얻고, DB 는 그 페이지 카드만 읽는다(AnimeQueryService.listByIds).
+ *   장르 AND 의 GROUP BY/HAVING, 태그 OR 의 DISTINCT 조인, 인덱스를 못 타는 EXTRACT(QUARTER) 가 요청 경로에서 빠진다.
+ *   총 개수도 결과 비트맵의 cardinality 라 COUNT 쿼리가 없다.
+ *
+ * 왜 이 구조인가
+ * - 카탈로그는 수만 건 규모라 전부 올려도 작다(5만 건이면 차원당 비트맵 ~6KB).
+ *   압축 비트맵 라이브러리 대신 java.util.BitSet 을 쓴다(의존성 없이 이 규모에선 충분하다).
+ * - 스냅샷은 불변이고 volatile 참조 하나로 바꿔 끼운다. 읽기는 잠금이 없다.
+ *   갱신은 전용 단일 스레드에서만 일어나 순서가 꼬이지 않는다.
+ * - 위치는 id 내림차순이라 기본 정렬(최신순)은 비트 순회 그대로다.
+ *   평점/연도/인기/제목순은 위치 순열을 미리 정렬해 두고, 순열을 따라가며 결과 비트가 켜진 것만 모은다.
+ * - 정렬 키와 NULL 처리는 목록 SQL(findAniList)과 같다: COALESCE(rating,-1), COALESCE(year,0), COALESCE(title,title_en,'').
+ *   그래서 커서(AnimeListCursor)를 두 경로가 같이 쓴다. 제목 비교만 DB 콜레이션 대신 코드포인트 순이다.
+ *
+ * 갱신
+ * - 기동 준비 단계(AnimeCacheWarmer)에서 전체 적재하고, 못 했으면 기동 완료 후 한 번 더 시도한다.
+ *   적재 전(또는 비활성화)이면 query 가 null 이고 호출부는 SQL 로 간다.
+ * - refresh(aniId): 관리자 수정/작품 수집 후(커밋 후) 그 한 건만 DB 에서 다시 읽어 스냅샷을 갈아 끼운다.
+ *   비트맵/순열은 메모리의 행들로 다시 만든다(DB 왕복은 한 건).
+ * - rebuild(): 조건 기반 벌크처럼 대상을 열거하기 어려운 변경 후 전체 재적재.
+ * - 두 경우 모두 Redis 채널(CHANNEL)로 다른 인스턴스에 알린다. 보낸 인스턴스는 자기 메시지를 건너뛴다.
+ * - 갱신 스레드·커밋 후 반영·채널 알림은 SnapshotUpdater 가 맡고, 여기는 rebuildNow/refreshNow 본문만 둔다.
+ * - 평점처럼 관리자 경로 밖에서 바뀌는 값은 주기 전체 재적재(rebuild-interval-ms, 기본 10분)가 따라잡는다.
+ *
+ * 옵션별 개수(facets)
+ * - 필터 옵션 화면의 "이 옵션을 고르면 몇 건" 도 같은 비트맵으로 센다: 현재 결과 ∧ 옵션 비트맵의 cardinality.
+ *   상태/타입/연도/분기/태그는 그 차원 자신의 선택을 뺀 결과로 센다(같은 차원 안에서 바꿔 고를 때의 수).
+ * - 스냅샷마다 version 이 오른다. 필터 없는 개수는 이 version 이 같으면 같으므로 호출부가 본문을 메모할 수 있다.
+ *
+ * 지표
+ * - anime.filter.index.query{result=hit|not_ready}, anime.filter.index.size
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeFilterIndex {
+
+    static final String CHANNEL = "ott:anime:filter-index:v1"; // 본문 = "보낸 인스턴스|aniId" 또는 "보낸 인스턴스|*"
+    private static final BitSet EMPTY = new BitSet(); // 없는 키의 비트맵. and/or 인자로만 쓰고 고치지 않는다
+
+    private final AnimeQueryMapper mapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.anime.filter-index.enabled:true}")
+    private boolean enabled; // false 면 목록은 항상 SQL 경로
+
+    private final SnapshotUpdater updater = new SnapshotUpdater(
+            "FilterIndex", "anime-filter-index", CHANNEL, this::rebuildNow, this::refreshNow, this::isReady,
+            this::publishUpdate); // 단일 갱신 스레드 + 커밋 후 알림
+
+    private volatile Snapshot snapshot; // null = 아직 적재 전
+    private Counter hitQueries; // 조회 지표(init 에서 한 번 만든다)
+    private Counter notReadyQueries;
+    private long version; // 마지막으로 만든 스냅샷 번호(updater 스레드에서만 고친다)
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("anime.filter.index.size", this, i -> {
+                    Snapshot s = i.snapshot;
+                    return s == null ? 0 : s.ids.length;
+                })
+                .description("메모리 목록 필터 인덱스의 작품 수")
+                .register(meterRegistry);
+        hitQueries = queryCounter("hit");
+        notReadyQueries = queryCounter("not_ready");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        updater.shutdown();
+    }
+
+    /**
+     * 기동 준비 단계(AnimeCacheWarmer)에서 부른다. 적재가 끝나거나 timeout 이 지날 때까지 기다린다.
+     * @return 적재돼 있으면 true
+     */
+    boolean loadBlocking(Duration timeout) throws InterruptedException {
+        return enabled && updater.loadBlocking(timeout);
+    }
+
+    /** 준비 단계가 꺼져 있거나 시간 안에 못 끝낸 경우의 뒷받침. 이미 적재됐거나 적재 중이면 아무것도 안 한다. */
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup() {
+        if (enabled) updater.loadIfNotReady();
+    }
+
+    @Scheduled(
+            initialDelayString = "${ott.anime.filter-index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${ott.anime.filter-index.rebuild-interval-ms:600000}")
+    void scheduledRebuild() {
+        if (enabled) updater.rebuildLocally();
+    }
+
+    /**
+     * 목록 한 페이지 결과: 정렬 순서대로의 작품 ID, 필터 조합의 총 개수, ID 마다 스냅샷의 (정렬 키, id) 커서.
+     * 다음 페이지 커서는 이 값으로 만든다 — DB 에서 다시 읽은 카드의 값(평점 등)은 스냅샷과 최대 재적재 주기만큼
+     * 어긋날 수 있고, 그 값으로 만든 커서를 스냅샷 순열에 대면 행을 건너뛰거나 겹친다.
+     */
+    public record Page(List<Long> ids, long total, List<AnimeListCursor> cursors) {}
+
+    /**
+     * 필터 + 정렬 + (offset 또는 커서)로 한 페이지 ID 를 고른다. 인덱스가 준비 전이면 null(호출부가 SQL 로 간다).
+     * sort 는 AnimeQueryService.normalizeSort 를 거친 값이다.
+     */
+    Page query(AnimeListFilter filter, String sort, int offset, int limit, AnimeListCursor after) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            notReadyQueries.increment();
+            return null;
+        }
+        hitQueries.increment();
+        BitSet match = s.match(filter);
+        List<Integer> positions = s.page(match, sort, offset, limit, after);
+        List<Long> ids = new ArrayList<>(positions.size());
+        List<AnimeListCursor> cursors = new ArrayList<>(positions.size());
+        for (int p : positions) {
+            ids.add(s.ids[p]);
+            cursors.add(s.cursor(p, sort));
+        }
+        return new Page(ids, match.cardinality(), cursors);
+    }
+
+    /** 옵션별 개수와 그걸 센 스냅샷 번호. */
+    record Facets(long version, AnimeFacetCountsDto counts) {}
+
+    /**
+     * 현재 필터 기준 옵션별 작품 수. 인덱스가 준비 전이면 null(호출부는 개수 없이 옵션만 준다).
+     */
+    Facets facets(AnimeListFilter filter) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            notReadyQueries.increment();
+            return null;
+        }
+        hitQueries.increment();
+        return new Facets(s.version, s.facets(filter));
+    }
+
+    boolean isReady() {
+        return snapshot != null;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 한 작품의 필터 속성이 바뀌었다(커밋 후 반영). 비활성화/삭제도 같은 경로다(다시 읽어 없으면 뺀다).
+     */
+    public void refresh(Long aniId) {
+        if (enabled && aniId != null) updater.refresh(aniId);
+    }
+
+    /**
+     * 대상을 열거하기 어려운 변경(벌크 큐레이션) 후 전체 재적재(커밋 후).
+     */
+    public void rebuild() {
+        if (enabled) updater.rebuild();
+    }
+
+    /**
+     * 다른 인스턴스가 보낸 갱신. AnimeCacheInvalidationSubscriber 가 넘겨준다.
+     */
+    public void onRemote(String body) {
+        if (enabled) updater.onRemote(body);
+    }
+
+    private void publishUpdate(String channel, String body) {
+        stringRedisTemplate.convertAndSend(channel, body);
+    }
+
+    /** 전체 적재. 실패하면 기존 스냅샷을 그대로 둔다. */
+    void rebuildNow() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, AnimeFilterIndexRow> rows = new HashMap<>();
+            for (AnimeFilterIndexRow row : mapper.findFilterIndexRows(null)) rows.put(row.getAniId(), row);
+            snapshot = Snapshot.of(rows, ++version);
+            log.info("[FilterIndex] rebuilt size={} took={}ms", rows.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("[FilterIndex] rebuild failed - 이전 스냅샷 유지(없으면 SQL 경로)", e);
+        }
+    }
+
+    /** 한 건 부분 갱신. 아직 전체 적재 전이면 건너뛴다(곧 올 전체 적재가 최신을 읽는다). */
+    void refreshNow(Long aniId) {
+        Snapshot current = snapshot;
+        if (current == null) return;
+        try {
+            List<AnimeFilterIndexRow> fresh = mapper.findFilterIndexRows(aniId);
+            Map<Long, AnimeFilterIndexRow> rows = new HashMap<>(current.rows);
+            if (fresh.isEmpty()) rows.remove(aniId); // 비활성/삭제
+            else rows.put(aniId, fresh.get(0));
+            snapshot = Snapshot.of(rows, ++version);
+            log.debug("[FilterIndex] refreshed aniId={} present={}", aniId, !fresh.isEmpty());
+        } catch (Exception e) {
+            log.error("[FilterIndex] refresh failed aniId={} - 주기 재적재가 따라잡는다", aniId, e);
+        }
+    }
+
+    private Counter queryCounter(String result) {
+        return Counter.builder("anime.filter.index.query")
+                .tag("result", result)
+                .description("메모리 목록 필터 인덱스 조회 결과")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 불변 스냅샷. 위치 p 의 작품 id 는 ids[p] 이고, 위치는 id 내림차순이다.
+     */
+    static final class Snapshot {
+        final long version;
+        final Map<Long, AnimeFilterIndexRow> rows; // 부분 갱신 재료(고치지 않는다)
+        final long[] ids;
+        final BitSet all = new BitSet();
+        final Map<AnimeStatus, BitSet> statuses = new HashMap<>();
+        final Map<String, BitSet> types = new HashMap<>();
+        final Map<Integer, BitSet> years = new HashMap<>();
+        final Map<Integer, BitSet> quarters = new HashMap<>();
+        final Map<Long, BitSet> genres = new HashMap<>();
+        final Map<Long, BitSet> tags = new HashMap<>();
+        final BitSet dub = new BitSet();
+        final BitSet subtitle = new BitSet();
+        final BitSet exclusive = new BitSet();
+        final BitSet completed = new BitSet();
+        final BitSet isNew = new BitSet();
+        final BitSet popular = new BitSet();
+        final double[] rating; // NaN = 평점 없음(minRating 에 걸리지 않는다)
+        final int[] yearKey; // COALESCE(year, 0)
+        final String[] titleKey; // COALESCE(title, title_en, '')
+        final int[] byRating;
+        final int[] byYear;
+        final int[] byPopular;
+        final int[] byTitle;
+
+        private Snapshot(Map<Long, AnimeFilterIndexRow> rows, long version) {
+            this.version = version;
+            this.rows = rows;
+            List<AnimeFilterIndexRow> sorted = new ArrayList<>(rows.values());
+            sorted.sort(Comparator.comparing(AnimeFilterIndexRow::getAniId).reversed());
+            int n = sorted.size();
+            ids = new long[n];
+            rating = new double[n];
+            yearKey = new int[n];
+            titleKey = new String[n];
+            for (int p = 0; p < n; p++) {
+                AnimeFilterIndexRow r = sorted.get(p);
+                ids[p] = r.getAniId();
+                all.set(p);
+                if (r.getStatus() != null) statuses.computeIfAbsent(r.getStatus(), k -> new BitSet()).set(p);
+                if (r.getType() != null) types.computeIfAbsent(r.getType(), k -> new BitSet()).set(p);
+                if (r.getYear() != null) years.computeIfAbsent(r.getYear(), k -> new BitSet()).set(p);
+                if (r.getQuarter() != null) quarters.computeIfAbsent(r.getQuarter(), k -> new BitSet()).set(p);
+                for (Long g : splitIds(r.getGenreIds())) genres.computeIfAbsent(g, k -> new BitSet()).set(p);
+                for (Long t : splitIds(r.getTagIds())) tags.computeIfAbsent(t, k -> new BitSet()).set(p);
+                dub.set(p, Boolean.TRUE.equals(r.getIsDub()));
+                subtitle.set(p, Boolean.TRUE.equals(r.getIsSubtitle()));
+                exclusive.set(p, Boolean.TRUE.equals(r.getIsExclusive()));
+                completed.set(p, Boolean.TRUE.equals(r.getIsCompleted()));
+                isNew.set(p, Boolean.TRUE.equals(r.getIsNew()));
+                popular.set(p, Boolean.TRUE.equals(r.getIsPopular()));
+                rating[p] = r.getRating() == null ? Double.NaN : r.getRating();
+                yearKey[p] = r.getYear() == null ? 0 : r.getYear();
+                titleKey[p] = r.getSortTitle() == null ? "" : r.getSortTitle();
+            }
+            // 순열: 주 키 + 보조키 id. 위치 오름차순 = id 내림차순이다
+            byRating = order(n, (a, b) -> {
+                int c = Double.compare(ratingKey(b), ratingKey(a));
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            byYear = order(n, (a, b) -> {
+                int c = Integer.compare(yearKey[b], yearKey[a]);
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            byPopular = order(n, (a, b) -> {
+                int c = Boolean.compare(popular.get(b), popular.get(a));
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            byTitle = order(n, (a, b) -> {
+                int c = titleKey[a].compareTo(titleKey[b]);
+                return c != 0 ? c : Integer.compare(b, a); // 같은 제목이면 id 오름차순
+            });
+        }
+
+        static Snapshot of(Map<Long, AnimeFilterIndexRow> rows, long version) {
+            return new Snapshot(rows, version);
+        }
+
+        private static int[] order(int n, Comparator<Integer> cmp) {
+            return IntStream.range(0, n).boxed().sorted(cmp).mapToInt(Integer::intValue).toArray();
+        }
+
+        private static List<Long> splitIds(String csv) {
+            if (csv == null || csv.isEmpty()) return List.of();
+            List<Long> out = new ArrayList<>();
+            for (String s : csv.split(",")) out.add(Long.valueOf(s.trim()));
+            return out;
+        }
+
+        private double ratingKey(int p) {
+            return Double.isNaN(rating[p]) ? -1 : rating[p];
+        }
+
+        /**
+         * 필터 → 결과 비트맵. 장르는 AND, 태그는 OR, 나머지는 값 일치(SQL 의 base_list_where 와 같은 의미).
+         */
+        BitSet match(AnimeListFilter f) {
+            return match(f, null);
+        }
+
+        /**
+         * skip 차원의 선택은 빼고 푼다(옵션별 개수용). skip 이 null 이면 전체 필터.
+         */
+        private BitSet match(AnimeListFilter f, Dim skip) {
+            BitSet r = (BitSet) all.clone();
+            if (f.status() != null && skip != Dim.STATUS) r.and(statuses.getOrDefault(f.status(), EMPTY));
+            if (f.genreIds() != null) {
+                for (Long g : f.genreIds()) r.and(genres.getOrDefault(g, EMPTY));
+            }
+            if (f.tagIds() != null && skip != Dim.TAG) {
+                BitSet any = new BitSet();
+                for (Long t : f.tagIds()) any.or(tags.getOrDefault(t, EMPTY));
+                r.and(any);
+            }
+            if (f.year() != null && skip != Dim.YEAR) r.and(years.getOrDefault(f.year(), EMPTY));
+            if (f.quarter() != null && skip != Dim.YEAR) r.and(quarters.getOrDefault(f.quarter(), EMPTY));
+            if (f.type() != null && skip != Dim.TYPE) r.and(types.getOrDefault(f.type(), EMPTY));
+            flag(r, dub, f.isDub());
+            flag(r, subtitle, f.isSubtitle());
+            flag(r, exclusive, f.isExclusive());
+            flag(r, completed, f.isCompleted());
+            flag(r, isNew, f.isNew());
+            flag(r, popular, f.isPopular());
+            if (f.minRating() != null) { // 범위 조건은 남은 후보만 훑는다(NaN 은 비교가 거짓이라 빠진다)
+                double min = f.minRating();
+                for (int p = r.nextSetBit(0); p >= 0; p = r.nextSetBit(p + 1)) {
+                    if (!(rating[p] >= min)) r.clear(p);
+                }
+            }
+            return r;
+        }
+
+        /** 옵션별 개수에서 자기 선택을 빼고 세는 차원. 연도와 분기는 한 옵션 목록(yearOptions)이라 같이 뺀다. */
+        private enum Dim { STATUS, TAG, YEAR, TYPE }
+
+        AnimeFacetCountsDto facets(AnimeListFilter f) {
+            BitSet base = match(f);
+            BitSet noStatus = f.status() == null ? base : match(f, Dim.STATUS);
+            BitSet noTag = f.tagIds() == null ? base : match(f, Dim.TAG);
+            BitSet noYear = f.year() == null && f.quarter() == null ? base : match(f, Dim.YEAR);
+            BitSet noType = f.type() == null ? base : match(f, Dim.TYPE);
+
+            Map<String, Long> quarterCounts = new TreeMap<>();
+            for (Map.Entry<Integer, BitSet> y : years.entrySet()) {
+                BitSet inYear = and(noYear, y.getValue());
+                if (inYear.isEmpty()) continue;
+                for (Map.Entry<Integer, BitSet> q : quarters.entrySet()) {
+                    long n = andCount(inYear, q.getValue());
+                    if (n > 0) quarterCounts.put(y.getKey() + "-Q" + q.getKey(), n);
+                }
+            }
+            return AnimeFacetCountsDto.builder()
+                    .total(base.cardinality())
+                    .genres(counts(genres, base, k -> k))
+                    .tags(counts(tags, noTag, k -> k))
+                    .statuses(counts(statuses, noStatus, AnimeStatus::name))
+                    .types(counts(types, noType, k -> k))
+                    .years(counts(years, noYear, y -> Integer.toString(y)))
+                    .quarters(quarterCounts)
+                    .build();
+        }
+
+        private static <K, V extends Comparable<V>> Map<V, Long> counts(
+                Map<K, BitSet> options, BitSet base, Function<K, V> key) {
+            Map<V, Long> out = new TreeMap<>(); // 키 순서를 고정해 같은 개수면 같은 본문(ETag)이 나온다
+            for (Map.Entry<K, BitSet> e : options.entrySet()) {
+                long n = andCount(base, e.getValue());
+                if (n > 0) out.put(key.apply(e.getKey()), n);
+            }
+            return out;
+        }
+
+        private static BitSet and(BitSet a, BitSet b) {
+            BitSet r = (BitSet) a.clone();
+            r.and(b);
+            return r;
+        }
+
+        private static long andCount(BitSet a, BitSet b) {
+            return a.intersects(b) ? and(a, b).cardinality() : 0;
+        }
+
+        private static void flag(BitSet r, BitSet set, Boolean wanted) {
+            if (wanted == null) return;
+            if (wanted) r.and(set);
+            else r.andNot(set); // 플래그 컬럼은 NOT NULL 이라 "켜지지 않음" = false
+        }
+
+        /**
+         * 정렬 순서대로 결과 비트가 켜진 위치를 따라가 offset 만큼 건너뛰고 limit 개 위치를 모은다.
+         * 커서가 있으면 순열에서 커서 바로 뒤 자리를 이분 탐색으로 찾아 거기서 시작한다.
+         */
+        List<Integer> page(BitSet match, String sort, int offset, int limit, AnimeListCursor after) {
+            List<Integer> out = new ArrayList<>(Math.min(limit, 64));
+            int skipped = 0;
+            if ("id".equals(sort)) {
+                int start = after == null ? 0 : firstAfter(null, after);
+                for (int p = match.nextSetBit(start); p >= 0 && out.size() < limit; p = match.nextSetBit(p + 1)) {
+                    if (skipped++ < offset) continue;
+                    out.add(p);
+                }
+                return out;
+            }
+            int[] order = switch (sort) {
+                case "rating" -> byRating;
+                case "year" -> byYear;
+                case "popular" -> byPopular;
+                default -> byTitle;
+            };
+            for (int i = after == null ? 0 : firstAfter(order, after); i < order.length && out.size() < limit; i++) {
+                int p = order[i];
+                if (!match.get(p)) continue;
+                if (skipped++ < offset) continue;
+                out.add(p);
+            }
+            return out;
+        }
+
+        /** 위치 p 바로 뒤에서 이어 읽는 커서. NULL 키는 SQL 의 COALESCE 값과 같다(AnimeListCursor.after 와 같은 모양). */
+        AnimeListCursor cursor(int p, String sort) {
+            return switch (sort) {
+                case "rating" -> new AnimeListCursor(sort, ids[p], ratingKey(p), null, null, null);
+                case "year" -> new AnimeListCursor(sort, ids[p], null, yearKey[p], null, null);
+                case "popular" -> new AnimeListCursor(sort, ids[p], null, null, popular.get(p), null);
+                case "title" -> new AnimeListCursor(sort, ids[p], null, null, null, titleKey[p]);
+                default -> new AnimeListCursor(sort, ids[p], null, null, null, null);
+            };
+        }
+
+        /** 순서(order 가 null 이면 위치 순서)에서 커서보다 뒤인 첫 자리. "뒤인가"는 순서를 따라 단조롭다. */
+        private int firstAfter(int[] order, AnimeListCursor c) {
+            int lo = 0;
+            int hi = ids.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (isAfter(order == null ? mid : order[mid], c)) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
+        private boolean isAfter(int p, AnimeListCursor c) {
+            long id = ids[p];
+            return switch (c.sort()) {
+                case "rating" -> {
+                    int cmp = Double.compare(ratingKey(p), c.rating());
+                    yield cmp < 0 || (cmp == 0 && id < c.id());
+                }
+                case "year" -> yearKey[p] < c.year() || (yearKey[p] == c.year() && id < c.id());
+                case "popular" -> {
+                    int cmp = Boolean.compare(popular.get(p), c.popular());
+                    yield cmp < 0 || (cmp == 0 && id < c.id());
+                }
+                case "title" -> {
+                    int cmp = titleKey[p].compareTo(c.title());
+                    yield cmp > 0 || (cmp == 0 && id > c.id());
+                }
+                default -> id < c.id();
+            };
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ottproject.ottbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AnimeListCountCache
+ *
+ * 큰 흐름
+ * - 애니 목록의 "필터 조합별 총 개수"를 Redis 해시 하나에 캐시한다(필드 = 필터 지문, 값 = "개수:적재 시각 ms").
+ * - 목록은 페이지마다 같은 다중 조인 조건으로 COUNT 를 다시 돌리고 있었다. 카탈로그가 커질수록 스크롤 한 번마다
+ *   전체를 세는 비용이 붙는다. 개수는 카탈로그가 바뀔 때만 달라지므로 캐시해 두고, 바뀌면 해시째 지운다.
+ *
+ * 왜 해시 하나인가
+ * - 무효화가 "필터 조합 전부"다. 키를 조합마다 두면 지울 때 SCAN 이 필요하다. 해시 하나면 DEL 한 번이다.
+ * - Redis 해시는 필드별 TTL 이 없어서 값에 적재 시각을 싣고 count-ttl-seconds 가 지나면 미스로 본다.
+ *   그래서 무효화가 빠진 경로(평점 변동 등)에서도 틀린 개수는 TTL 까지만 나간다.
+ *   해시 자체에도 TTL(두 배)을 걸어 아무도 안 읽는 조합이 쌓이지 않게 한다.
+ *
+ * 무효화
+ * - invalidate(): 큐레이션 수정/벌크, 작품 수집이 부른다. 활성 트랜잭션이면 커밋 후에 지운다(AnimeCacheService 와 같은 이유).
+ *
+ * 지표
+ * - anime.list.count{result=hit|miss|stale|error}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeListCountCache {
+
+    static final String KEY = "ott:anime:list-count:v1"; // 해시: 필터 지문 → "개수:적재시각ms"
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.cache.anime.count-ttl-seconds:600}")
+    private long countTtlSeconds; // 개수 하나를 믿는 시간. 무효화가 빠진 변경의 오차 상한이다
+
+    private final ConcurrentHashMap<String, CompletableFuture<Long>> inflight = new ConcurrentHashMap<>(); // 세는 중인 조합
+
+    // 조회 지표(init 에서 한 번 만든다)
+    private Counter hits;
+    private Counter misses;
+    private Counter stale;
+    private Counter errors;
+
+    @PostConstruct
+    void init() {
+        hits = counter("hit");
+        misses = counter("miss");
+        stale = counter("stale");
+        errors = counter("error");
+    }
+
+    /**
+     * 필터 조합의 총 개수. 캐시에 없거나 오래됐으면 loader(COUNT 쿼리)로 세어 채운다.
+     * 같은 조합을 동시에 세는 요청은 한 번으로 묶는다(무효화 직후 기본 목록이 몰리는 경우).
+     * Redis 가 터지면 DB 값을 그대로 돌려준다.
+     */
+    public long get(String fingerprint, LongSupplier loader) {
+        try {
+            String cached = stringRedisTemplate.<String, String>opsForHash().get(KEY, fingerprint);
+            if (cached != null) {
+                int sep = cached.indexOf(':');
+                long loadedAt = Long.parseLong(cached.substring(sep + 1));
+                if (System.currentTimeMillis() - loadedAt < Duration.ofSeconds(countTtlSeconds).toMillis()) {
+                    hits.increment();
+                    return Long.parseLong(cached.substring(0, sep));
+                }
+                stale.increment();
+            } else {
+                misses.increment();
+            }
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("[Cache][AnimeCount] read failed field={} - DB 폴백", fingerprint, e);
+            return loader.getAsLong();
+        }
+        return load(fingerprint, loader);
+    }
+
+    private long load(String fingerprint, LongSupplier loader) {
+        CompletableFuture<Long> mine = new CompletableFuture<>();
+        CompletableFuture<Long> running = inflight.putIfAbsent(fingerprint, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            long total = loader.getAsLong();
+            store(fingerprint, total);
+            mine.complete(total);
+            return total;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(fingerprint, mine);
+        }
+    }
+
+    private void store(String fingerprint, long total) {
+        try {
+            stringRedisTemplate.<String, String>opsForHash().put(KEY, fingerprint, total + ":" + System.currentTimeMillis());
+            stringRedisTemplate.expire(KEY, Duration.ofSeconds(countTtlSeconds * 2));
+        } catch (Exception e) {
+            log.warn("[Cache][AnimeCount] write failed field={}", fingerprint, e);
+        }
+    }
+
+    /**
+     * 카탈로그 변경 후 개수 캐시 전체 무효화. 활성 트랜잭션이면 커밋 후에, 없으면 즉시 지운다.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete("afterCommit");
+                }
+            });
+        } else {
+            delete("immediate");
+        }
+    }
+
+    private void delete(String timing) {
+        try {
+            stringRedisTemplate.delete(KEY);
+            log.info("[Cache][AnimeCount] evict({})", timing);
+        } catch (Exception e) {
+            log.error("[Cache][AnimeCount] evict({}) failed - TTL 후 갱신된다", timing, e);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("anime.list.count")
+                .tag("result", result)
+                .description("애니 목록 필터별 총 개수 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * AnimeListCursor
+ *
+ * 큰 흐름
+ * - 애니 목록 커서 페이지의 "직전 페이지 마지막 행" 위치. 정렬 키 값 + id 를 담는다.
+ * - 클라이언트에는 불투명 토큰(base64url 의 "정렬|id|키")으로 나가고, 다음 요청에서 그대로 돌아온다.
+ *
+ * 왜 이 구조인가
+ * - 매퍼의 커서 조건은 ORDER BY 와 같은 식((COALESCE(키), id) 행 비교)이다. NULL 키는 SQL 과 같은 값으로 바꿔 담는다
+ *   (rating → -1, year → 0, popular → false, title → ""). 그래야 NULL 행이 섞여도 건너뛰거나 겹치지 않는다.
+ * - 토큰에 정렬을 같이 싣고 요청 정렬과 다르면 400 이다. 다른 정렬의 키로 비교하면 조용히 엉뚱한 페이지가 나간다.
+ */
+record AnimeListCursor(String sort, long id, Double rating, Integer year, Boolean popular, String title) {
+
+    /**
+     * 페이지 마지막 행 → 다음 페이지 커서.
+     */
+    static AnimeListCursor after(String sort, AnimeListDto last) {
+        return switch (sort) {
+            case "rating" -> new AnimeListCursor(sort, last.getAniId(),
+                    last.getRating() == null ? -1.0 : last.getRating(), null, null, null);
+            case "year" -> new AnimeListCursor(sort, last.getAniId(),
+                    null, last.getYear() == null ? 0 : last.getYear(), null, null);
+            case "popular" -> new AnimeListCursor(sort, last.getAniId(),
+                    null, null, Boolean.TRUE.equals(last.getIsPopular()), null);
+            case "title" -> new AnimeListCursor(sort, last.getAniId(),
+                    null, null, null, last.getTitle() == null ? "" : last.getTitle());
+            default -> new AnimeListCursor(sort, last.getAniId(), null, null, null, null);
+        };
+    }
+
+    String encode() {
+        String key = switch (sort) {
+            case "rating" -> String.valueOf(rating);
+            case "year" -> String.valueOf(year);
+            case "popular" -> String.valueOf(popular);
+            case "title" -> title;
+            default -> "";
+        };
+        String raw = sort + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰 → 커서. 깨졌거나 요청 정렬과 다르면 400.
+     */
+    static AnimeListCursor decode(String token, String sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3); // 제목에 '|' 가 있어도 세 번째 조각에 그대로 남는다
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor 가 정렬과 맞지 않습니다");
+            }
+            long id = Long.parseLong(parts[1]);
+            String key = parts[2];
+            return switch (sort) {
+                case "rating" -> new AnimeListCursor(sort, id, Double.valueOf(key), null, null, null);
+                case "year" -> new AnimeListCursor(sort, id, null, Integer.valueOf(key), null, null);
+                case "popular" -> new AnimeListCursor(sort, id, null, null, Boolean.valueOf(key), null);
+                case "title" -> new AnimeListCursor(sort, id, null, null, null, key);
+                default -> new AnimeListCursor(sort, id, null, null, null, null);
+            };
+        } catch (IllegalArgumentException e) { // Base64/숫자 형식 오류
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 cursor 입니다");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.enums.AnimeStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 정제된 애니 목록 필터
+ *
+ * 큰 흐름
+ * - 목록/스크롤 요청 파라미터를 한 번 정리해 SQL 경로(AnimeQueryMapper)와 메모리 경로(AnimeFilterIndex)가 같은 값을 쓰게 한다.
+ * - 장르/태그는 null·중복을 빼고 정렬해 두어 같은 조합이 같은 지문(개수 캐시 필드)을 갖는다. 비면 null(필터 미적용)이다.
+ * - 빈 type 은 null 이다(매퍼도 공백 type 은 조건을 붙이지 않는다).
+ */
+record AnimeListFilter(
+        AnimeStatus status,
+        List<Long> genreIds,
+        Integer genreCount,
+        List<Long> tagIds,
+        Double minRating,
+        Integer year,
+        Integer quarter,
+        String type,
+        Boolean isDub,
+        Boolean isSubtitle,
+        Boolean isExclusive,
+        Boolean isCompleted,
+        Boolean isNew,
+        Boolean isPopular) {
+
+    static AnimeListFilter of(AnimeStatus status, List<Long> genreIds, Double minRating, Integer year, Integer quarter,
+            String type, Boolean isDub, Boolean isSubtitle, Boolean isExclusive, Boolean isCompleted,
+            Boolean isNew, Boolean isPopular, List<Long> tagIds) {
+        List<Long> genres = distinctIds(genreIds); // 비어 있으면 null(필터 미적용)
+        return new AnimeListFilter(status, genres, genres == null ? null : genres.size(), // AND 매칭용 선택 장르 개수
+                distinctIds(tagIds), minRating, year, quarter, (type == null || type.isBlank()) ? null : type,
+                isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular);
+    }
+
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return null;
+        List<Long> distinct = ids.stream()
+                .filter(java.util.Objects::nonNull) // null 값 제거
+                .distinct() // 중복 제거
+                .sorted() // 순서만 다른 조합을 같은 지문으로
+                .toList();
+        return distinct.isEmpty() ? null : distinct;
+    }
+
+    /** 아무 조건도 없는 필터(전체 목록)인가. */
+    boolean isEmpty() {
+        return status == null && genreIds == null && tagIds == null && minRating == null && year == null
+                && quarter == null && type == null && isDub == null && isSubtitle == null && isExclusive == null
+                && isCompleted == null && isNew == null && isPopular == null;
+    }
+
+    String fingerprint() {
+        String canonical = String.join("|",
+                String.valueOf(status), String.valueOf(genreIds), String.valueOf(tagIds),
+                String.valueOf(minRating), String.valueOf(year), String.valueOf(quarter), String.valueOf(type),
+                String.valueOf(isDub), String.valueOf(isSubtitle), String.valueOf(isExclusive),
+                String.valueOf(isCompleted), String.valueOf(isNew), String.valueOf(isPopular));
+        return DigestUtils.md5DigestAsHex(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,17 @@
 package com.ottproject.ottbackend.service; // 패키지 선언
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ottproject.ottbackend.dto.AnimeDetailDto;
+import com.ottproject.ottbackend.dto.AnimeDetailRow;
+import com.ottproject.ottbackend.dto.AnimeFacetsDto;
 import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.CursorPagedResponse;
+import com.ottproject.ottbackend.dto.EpisodeDto;
+import com.ottproject.ottbackend.dto.GenreSimpleDto;
 import com.ottproject.ottbackend.dto.PagedResponse;
+import com.ottproject.ottbackend.dto.StudioSimpleDto;
 import com.ottproject.ottbackend.enums.AnimeStatus;
 import com.ottproject.ottbackend.mybatis.AnimeQueryMapper;
 import com.ottproject.ottbackend.util.PageLimitUtil;
@@ -19,14 +28,32 @@ import org.springframework.transaction.annotation.Transactional;
  *
  * 메서드 개요
  * - list: 필터/정렬/페이지를 적용한 목록 조회(AND/OR 필터 정제 포함)
+ * - scroll: 같은 필터의 커서 기반 목록(OFFSET 없이 (정렬 키, id) 뒤에서 읽는다)
  * - detail(aniId): 상세(에피소드/장르/제작사)
  * - detail(aniId, currentUserId): 로그인 사용자의 찜 여부 포함 상세
+ *
+ * 필터 경로
+ * - 메모리 필터 인덱스(AnimeFilterIndex)가 준비돼 있으면 필터/정렬/총 개수를 비트맵으로 풀고, DB 는 페이지 카드만 읽는다.
+ * - 준비 전(기동 직후)이나 비활성화면 예전처럼 findAniList + 캐시된 총 개수(AnimeListCountCache)로 간다.
+ *
+ * 상세 조립
+ * - 예전에는 헤더/에피소드/장르/제작사/태그/성우/감독을 7쿼리로 차례로 읽었다(미스 1건 = DB 왕복 7회).
+ * - 지금은 findAniDetailBundle 한 문장이 연관 목록을 json_agg 서브쿼리로 같은 행에 실어 온다(왕복 1회).
+ *   연관 목록 JSON 은 여기서 주입 ObjectMapper 로 푼다(키가 DTO 필드명과 같다).
  */
 @RequiredArgsConstructor // 생성자 주입을 자동 생성(final 필드 대상)
 @Service // 스프링 서비스 컴포넌트로 등록
 @Transactional(readOnly = true) // 기본적으로 읽기 전용 트랜잭션으로 실행
 public class AnimeQueryService { // 애니 조회 관련 비즈니스 로직 제공
     private final AnimeQueryMapper mapper; // MyBatis 매퍼 의존성
+    private final ObjectMapper objectMapper; // 상세 연관 목록(json_agg) 해석용
+    private final AnimeListCountCache countCache; // 필터 조합별 총 개수 캐시
+    private final AnimeFilterIndex filterIndex; // 메모리 목록 필터 인덱스(준비 전이면 SQL 경로)
+
+    private static final TypeReference<List<EpisodeDto>> EPISODES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<GenreSimpleDto>> GENRES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<StudioSimpleDto>> STUDIOS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<String>> TAGS_TYPE = new TypeReference<>() {};
 
     // 단일 genreId → 다중 genreIds 지원 + AND 개수(genreCount) 계산 후 전달, 태그 OR 필터(tagIds) 지원
     public PagedResponse<AnimeListDto> list( // 목록 조회 + 페이징 응답
@@ -51,126 +78,156 @@ public class AnimeQueryService { // 애니 조회 관련 비즈니스 로직 제
         int limit = size; // LIMIT 값 계산(페이지 크기)
         int offset = Math.max(page, 0) * size; // OFFSET 계산(0 미만 방지)
 
-        // 장르 ID 입력값 정리: null 제거 + 중복 제거 → 비어 있으면 null 처리(필터 미적용)
-        java.util.List<Long> distinctGenreIds = null; // 정제된 장르 ID 목록 초기값
-        if (genreIds != null && !genreIds.isEmpty()) { // 장르 파라미터가 전달된 경우에만 처리
-            distinctGenreIds = genreIds.stream() // 스트림 생성
-                    .filter(java.util.Objects::nonNull) // null 값 제거
-                    .distinct() // 중복 제거
-                    .collect(java.util.stream.Collectors.toList()); // 리스트로 수집
-            if (distinctGenreIds.isEmpty()) { // 정제 결과가 비어있으면
-                distinctGenreIds = null; // 필터 비적용으로 간주
-            }
+        AnimeListFilter f = AnimeListFilter.of(status, genreIds, minRating, year, quarter, type,
+                isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds); // 입력값 정제
+
+        String normalizedSort = normalizeSort(sort);
+        AnimeFilterIndex.Page hit = filterIndex.query(f, normalizedSort, offset, limit, null); // 비트맵으로 페이지 ID + 총 개수
+        if (hit != null) {
+            return new PagedResponse<>(listByIds(hit.ids()), hit.total(), page, size); // DB 는 페이지 카드만 읽는다
         }
-        Integer genreCount = (distinctGenreIds == null || distinctGenreIds.isEmpty())
-                ? null
-                : distinctGenreIds.size(); // AND 매칭용 선택 장르 개수
-
-        // 태그 ID 입력값 정리: null 제거 + 중복 제거 → 비어 있으면 null 처리(필터 미적용)
-        java.util.List<Long> distinctTagIds = null; // 정제된 태그 ID 목록 초기값
-        if (tagIds != null && !tagIds.isEmpty()) { // 태그 파라미터가 전달된 경우에만 처리
-            distinctTagIds = tagIds.stream()
-                    .filter(java.util.Objects::nonNull)
-                    .distinct()
-                    .collect(java.util.stream.Collectors.toList());
-            if (distinctTagIds.isEmpty()) {
-                distinctTagIds = null; // 필터 비적용으로 간주
-            }
+        java.util.List<AnimeListDto> items = findPage(f, normalizedSort, limit, offset, null); // 조회된 목록 아이템들
+        return new PagedResponse<>(items, total(f), page, size); // 표준 페이지 응답으로 래핑하여 반환
+    }
+
+    /**
+     * 커서 기반 목록(무한 스크롤용). 필터는 list 와 같다.
+     * - OFFSET 없이 직전 페이지 마지막 행 뒤에서 size+1 개만 읽는다(한 개 더 읽어 다음 페이지 유무를 안다).
+     *   그래서 몇 번째 페이지든 같은 인덱스 범위 스캔 한 번이다.
+     * - cursor 가 없으면 첫 페이지. 다음 커서는 이번 페이지 마지막 행의 (정렬 키, id) 다.
+     * - total 은 캐시된 필터별 개수다(카탈로그 변경 시 무효화, 최대 count-ttl 동안 어긋날 수 있음).
+     */
+    public CursorPagedResponse<AnimeListDto> scroll(
+            AnimeStatus status,
+            List<Long> genreIds,
+            Double minRating,
+            Integer year,
+            Integer quarter,
+            String type,
+            Boolean isDub,
+            Boolean isSubtitle,
+            Boolean isExclusive,
+            Boolean isCompleted,
+            Boolean isNew,
+            Boolean isPopular,
+            String sort,
+            String cursor, // 직전 응답의 nextCursor(첫 페이지 null)
+            int size,
+            List<Long> tagIds) {
+        size = PageLimitUtil.clampSize(size); // 상한 강제
+        String normalizedSort = normalizeSort(sort);
+        AnimeListCursor after = (cursor == null || cursor.isBlank()) ? null : AnimeListCursor.decode(cursor, normalizedSort);
+
+        AnimeListFilter f = AnimeListFilter.of(status, genreIds, minRating, year, quarter, type,
+                isDub, isSubtitle, isExclusive, isCompleted, isNew, isPopular, tagIds);
+
+        AnimeFilterIndex.Page hit = filterIndex.query(f, normalizedSort, 0, size + 1, after);
+        if (hit != null) {
+            // 다음 페이지 유무와 커서는 스냅샷에서 정한다. 카드 조회는 비활성이 된 작품을 빼므로 개수가 줄 수 있고,
+            // 카드의 평점 등은 스냅샷보다 새 값일 수 있다
+            boolean hasNext = hit.ids().size() > size;
+            List<Long> ids = hasNext ? hit.ids().subList(0, size) : hit.ids();
+            String nextCursor = hasNext ? hit.cursors().get(size - 1).encode() : null;
+            return new CursorPagedResponse<>(listByIds(ids), nextCursor, hasNext, size, hit.total());
         }
+        List<AnimeListDto> items = findPage(f, normalizedSort, size + 1, 0, after);
+        boolean hasNext = items.size() > size;
+        if (hasNext) items = items.subList(0, size);
+        String nextCursor = hasNext ? AnimeListCursor.after(normalizedSort, items.get(items.size() - 1)).encode() : null;
+        return new CursorPagedResponse<>(items, nextCursor, hasNext, size, total(f));
+    }
 
-        java.util.List<AnimeListDto> items = mapper.findAniList( // 목록 데이터 조회
-                status,
-                distinctGenreIds,
-                genreCount,
-                distinctTagIds,
-                minRating,
-                year,
-                quarter,
-                type,
-                isDub,
-                isSubtitle,
-                isExclusive,
-                isCompleted,
-                isNew,
-                isPopular,
+    /**
+     * 정렬 키 정규화. 매퍼가 아는 키만 남기고 나머지는 최신순(id)이다.
+     * popularity/latest 는 프론트가 쓰는 별칭이다.
+     */
+    static String normalizeSort(String sort) {
+        if (sort == null) return "id";
+        return switch (sort) {
+            case "rating", "year", "popular", "title" -> sort;
+            case "popularity" -> "popular";
+            default -> "id"; // latest 포함
+        };
+    }
+
+    private List<AnimeListDto> findPage(AnimeListFilter f, String sort, int limit, int offset, AnimeListCursor after) {
+        return mapper.findAniList(
+                f.status(),
+                f.genreIds(),
+                f.genreCount(),
+                f.tagIds(),
+                f.minRating(),
+                f.year(),
+                f.quarter(),
+                f.type(),
+                f.isDub(),
+                f.isSubtitle(),
+                f.isExclusive(),
+                f.isCompleted(),
+                f.isNew(),
+                f.isPopular(),
                 sort,
                 limit,
                 offset,
-                null,
-                null,
-                null); // 조회된 목록 아이템들
-
-        long total = mapper.countAniList( // 총 개수 조회(페이지네이션 total)
-                status,
-                distinctGenreIds,
-                genreCount,
-                distinctTagIds,
-                minRating,
-                year,
-                quarter,
-                type,
-                isDub,
-                isSubtitle,
-                isExclusive,
-                isCompleted,
-                isNew,
-                isPopular); // 조건 동일한 COUNT(1)
-
-        return new PagedResponse<>(items, total, page, size); // 표준 페이지 응답으로 래핑하여 반환
+                after == null ? null : after.id(),
+                after == null ? null : after.rating(),
+                after == null ? null : after.year(),
+                after == null ? null : after.popular(),
+                after == null ? null : after.title());
     }
 
-    public AnimeDetailDto detail(long aniId) { // 상세 조회(비로그인/찜여부 제외)
-        AnimeDetailDto dto = mapper.findAniDetailByAniId(aniId); // 상세 헤더/배지 등 기본 정보 조회
-        if (dto == null) return null; // 대상 없으면 null 반환
-        dto.setEpisodes(mapper.findEpisodesByAniId(aniId)); // 에피소드 리스트 채우기
-        dto.setGenres(mapper.findGenresByAniId(aniId)); // 장르 리스트 채우기
-        dto.setStudios(mapper.findStudiosByAniId(aniId)); // 제작사 리스트 채우기
-
-        // 추가 정보 조회 (더보기 모달용)
-        dto.setTags(mapper.findTagNamesByAniId(aniId)); // 태그 리스트 채우기
-        dto.setVoiceActors(mapper.findVoiceActorsByAniId(aniId)); // 성우 리스트 채우기
-        dto.setDirector(mapper.findDirectorsByAniId(aniId)); // 감독 리스트 채우기
+    /**
+     * 필터 조합의 총 개수. 같은 조합은 캐시된 값을 쓰고, 없을 때만 COUNT 를 돌린다.
+     */
+    private long total(AnimeListFilter f) {
+        return countCache.get(f.fingerprint(), () -> mapper.countAniList( // 조건 동일한 COUNT(1)
+                f.status(),
+                f.genreIds(),
+                f.genreCount(),
+                f.tagIds(),
+                f.minRating(),
+                f.year(),
+                f.quarter(),
+                f.type(),
+                f.isDub(),
+                f.isSubtitle(),
+                f.isExclusive(),
+                f.isCompleted(),
+                f.isNew(),
+                f.isPopular()));
+    }
 
-        return dto; // 완성된 DTO 반환
+    public AnimeDetailDto detail(long aniId) { // 상세 조회(비로그인/찜여부 제외)
+        AnimeDetailRow row = mapper.findAniDetailBundle(aniId, null); // 헤더 + 연관 목록 한 번에
+        if (row == null) return null; // 대상 없으면 null 반환
+        return assemble(row).isFavorited(null).build(); // 공용부는 찜여부를 담지 않는다(캐시 대상)
     }
 
     public AnimeDetailDto detail(long aniId, Long currentUserId) { // 상세 조회(로그인 포함/찜여부 포함)
-        AnimeDetailDto dto = mapper.findAniDetailByAniIdWithUser( // 찜 여부 계산 포함 상세 조회
-                aniId, // 대상 애니 ID
-                currentUserId // 현재 사용자 ID(비로그인 시 null)
-                ); // DB 조회 실행
-        if (dto == null) return null; // 대상 없으면 null 반환
-
-        // 디버깅 로그 추가
-        System.out.println("🔍 [BACKEND] 애니메이션 상세 데이터 조회 결과:");
-        System.out.println("  - aniId: " + dto.getAniId());
-        System.out.println("  - title: " + dto.getTitle());
-        System.out.println("  - isDub: " + dto.getIsDub() + " (type: "
-                + (dto.getIsDub() != null ? dto.getIsDub().getClass().getSimpleName() : "null") + ")");
-        System.out.println("  - isSubtitle: " + dto.getIsSubtitle() + " (type: "
-                + (dto.getIsSubtitle() != null ? dto.getIsSubtitle().getClass().getSimpleName() : "null") + ")");
-
-        // 에피소드 리스트 조회 및 디버깅
-        var episodes = mapper.findEpisodesByAniId(aniId);
-        System.out.println("🔍 [BACKEND] 에피소드 데이터 조회 결과:");
-        if (episodes != null && !episodes.isEmpty()) {
-            episodes.forEach(ep -> {
-                System.out.println("  - episodeId: " + ep.getId() + ", episodeNumber: " + ep.getEpisodeNumber()
-                        + ", title: " + ep.getTitle());
-            });
-        } else {
-            System.out.println("  - 에피소드 데이터 없음");
-        }
-        dto.setEpisodes(episodes); // 에피소드 리스트 채우기
-        dto.setGenres(mapper.findGenresByAniId(aniId)); // 장르 리스트 채우기
-        dto.setStudios(mapper.findStudiosByAniId(aniId)); // 제작사 리스트 채우기
+        AnimeDetailRow row = mapper.findAniDetailBundle(aniId, currentUserId); // 찜 여부 계산 포함
+        if (row == null) return null; // 대상 없으면 null 반환
+        return assemble(row).build();
+    }
 
-        // 추가 정보 조회 (더보기 모달용)
-        dto.setTags(mapper.findTagNamesByAniId(aniId)); // 태그 리스트 채우기
-        dto.setVoiceActors(mapper.findVoiceActorsByAniId(aniId)); // 성우 리스트 채우기
-        dto.setDirector(mapper.findDirectorsByAniId(aniId)); // 감독 리스트 채우기
+    /**
+     * 조회 행 → 상세 DTO. 헤더는 그대로 옮기고 연관 목록 JSON 만 푼다.
+     * toBuilder 로 부모 필드만 복사하므로 결과는 JSON 컬럼이 없는 순수 AnimeDetailDto 다(캐시 직렬화 대상).
+     */
+    private AnimeDetailDto.AnimeDetailDtoBuilder assemble(AnimeDetailRow row) {
+        return row.toBuilder()
+                .episodes(readJson(row.getEpisodesJson(), EPISODES_TYPE)) // 에피소드(화수 오름차순)
+                .genres(readJson(row.getGenresJson(), GENRES_TYPE)) // 장르(이름순)
+                .studios(readJson(row.getStudiosJson(), STUDIOS_TYPE)) // 제작사(이름순)
+                .tags(readJson(row.getTagsJson(), TAGS_TYPE)); // 태그(이름순)
+    }
 
-        return dto; // 완성된 DTO 반환
+    private <T> List<T> readJson(String json, TypeReference<List<T>> type) {
+        if (json == null) return List.of(); // 서브쿼리가 COALESCE 로 '[]' 를 주지만 방어
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("상세 연관 목록 JSON 해석 실패", e);
+        }
     }
 
     public java.util.List<AnimeListDto> getWeeklyByDay(String day, int limit) {
@@ -201,6 +258,20 @@ public class AnimeQueryService { // 애니 조회 관련 비즈니스 로직 제
         return mapper.findYearOptions();
     }
 
+    /**
+     * 목록 필터 옵션 전체(개수 제외). 카탈로그 캐시의 facets 로더다.
+     */
+    public AnimeFacetsDto getFacetOptions() {
+        return AnimeFacetsDto.builder()
+                .genres(mapper.findAllGenres())
+                .tags(mapper.findAllTags())
+                .seasons(mapper.findAllSeasons())
+                .yearOptions(mapper.findYearOptions())
+                .statuses(mapper.findAllStatuses())
+                .types(mapper.findAllTypes())
+                .build();
+    }
+
     /**
      * ID 목록으로 카드 리스트 조회 (입력 ID 순서 보존)
      */
@@ -0,0 +1,603 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.AnimeSuggestIndexRow;
+import com.ottproject.ottbackend.dto.PersonSuggestIndexRow;
+import com.ottproject.ottbackend.dto.SearchAllAnimeDto;
+import com.ottproject.ottbackend.dto.SearchAllDto;
+import com.ottproject.ottbackend.dto.SearchAllEntityDto;
+import com.ottproject.ottbackend.dto.SearchEntityLinkRow;
+import com.ottproject.ottbackend.dto.SearchSuggestPersonDto;
+import com.ottproject.ottbackend.dto.SearchSuggestTitleDto;
+import com.ottproject.ottbackend.mybatis.SearchQueryMapper;
+import com.ottproject.ottbackend.util.HangulJamo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * AnimeSuggestIndex
+ *
+ * 큰 흐름
+ * - 활성 카탈로그의 제목(한글/영문/일문)과 성우/감독 이름을 메모리에 올려 자동완성을 DB 없이 푼다.
+ *   예전에는 키 입력마다 ILIKE '%q%' 쿼리(SearchQueryMapper.suggestTitles)가 한 번씩 나갔다.
+ * - 제목 결과는 그 SQL 의 결과(세 제목 중 하나에 q 가 들어 있는 활성 작품)를 모두 담고, 순서를 더 낫게 매긴다:
+ *   ① 제목 첫머리 일치 → ② 단어 첫머리 일치 → ③ 중간 일치, 같은 단계 안에서는 SQL 과 같은 인기순
+ *   (is_popular → rating → id 내림차순, 평점 없는 작품은 뒤).
+ * - SQL 로는 못 하던 한글 입력을 더 받는다(①② 단계에서):
+ *   - 초성 검색: "ㄱㅁㅇ" → 귀멸의 칼날. 쿼리가 자음 자모로만 돼 있으면 초성열 키에서 찾는다.
+ *   - 조합 중인 음절: "귀며", "귀멸ㅇ" → 귀멸의 칼날. 키와 쿼리를 모두 자모열로 펴서(HangulJamo) 접두 비교한다.
+ *   - 오타: 위 단계가 모두 비었을 때만, 자모열 편집 거리 1(긴 쿼리는 2) 안의 접두사를 찾는다("귀멀의" → 귀멸의 칼날).
+ * - 인물(성우/감독) 자동완성도 같은 규칙(①② + 초성 + 조합 중 + 오타)으로 푼다. 순서는 연결된 활성 작품 수가 많은 순.
+ * - 통합 검색(searchAll): 작품 제목과 성우/캐릭터/감독/제작사 이름을 한 번에 찾아 종류별 상위 limit 개로 묶는다.
+ *   작품 그룹은 제목 일치 작품 뒤에, 이름이 맞은 엔티티(종류마다 상위 LINKED_ENTITIES 개)에 연결된 작품을 인기 순위로 잇는다
+ *   ("카지 유키" → 그 성우가 나온 작품). 엔티티 쪽도 같은 접두 키 표라 DB 를 타지 않는다.
+ *
+ * 자료구조
+ * - 접두 키 표(PrefixTable): 정렬된 키 배열로 편 트라이 + 점수 최소 구간 트리. 작품/인물(성우+감독)/엔티티 종류마다
+ *   자모열 표와 초성열 표를 하나씩 둔다. 키 → 문서의 역색인이다.
+ *   키는 정규화한 이름 전체(①)와 각 단어부터 끝까지의 꼬리(②)를 자모열/초성열로 바꾼 것이다. 초성열 키는 한글이 있는 이름만.
+ * - n-gram 대체(제목만): ①② 로 limit 을 못 채우면 1·2글자 gram → 작품(인기 순위 오름차순) 역색인으로 중간 일치를 찾는다.
+ *   가장 짧은 gram 목록을 순위 순으로 돌며 제목에 q 가 실제로 들어 있는지 확인하고, limit 개가 차면 멈춘다.
+ * - 정규화: NFKC + 소문자 + 공백 제거. 쿼리도 같게 정규화하므로 "진격의거인" 도 "진격의 거인" 에 걸린다.
+ * - 엔티티 → 작품 연결: 종류마다 엔티티 ID → 활성 작품 ID 배열. 작품 ID 는 조회 때 그 시점 작품 스냅샷의 순위로 바꾼다
+ *   (작품 부분 갱신으로 순위가 바뀌어도 엔티티 부분을 다시 만들 필요가 없다).
+ * - 모든 단계가 메모리 안 이진 탐색 + 구간 트리라 초성/자모 조회도 정확 접두 조회와 같은 비용이다. 오타 단계만 DP 를 돌지만
+ *   거리를 넘는 접두사 구간은 통째로 건너뛰고, 정확한 결과가 하나도 없을 때만 돈다.
+ *
+ * 갱신(AnimeFilterIndex 와 같은 SnapshotUpdater 를 쓴다)
+ * - 기동 준비 단계(AnimeCacheWarmer)에서 전체 적재, 못 했으면 기동 완료 후 한 번 더. 적재 전이면 suggest/suggestPeople/
+ *   searchAll 이 null 이고 호출부(SearchService)는 SQL 로 간다.
+ * - refresh(aniId): 제목/노출 여부가 바뀐 한 건만 DB 에서 다시 읽는다(커밋 후). 나머지 행의 정규화·키·gram 재료(Terms)는
+ *   직전 스냅샷 것을 그대로 쓰고, 키 표/gram 목록만 다시 엮는다. 엔티티 부분은 그대로 넘긴다.
+ * - rebuild(): 벌크처럼 대상을 열거하기 어려운 변경 후 전체 재적재(커밋 후). 엔티티와 연결도 이때 다시 읽는다.
+ * - 두 경우 모두 Redis 채널(CHANNEL)로 다른 인스턴스에 알린다. 평점처럼 순위만 바꾸는 값과 엔티티/연결 변화는 주기 재적재가 따라잡는다.
+ *
+ * 지표
+ * - anime.suggest.index.query{result=hit|not_ready}, anime.suggest.index.size, anime.suggest.index.people,
+ *   anime.suggest.index.entities
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeSuggestIndex {
+
+    static final String CHANNEL = "ott:anime:suggest-index:v1"; // 본문 = "보낸 인스턴스|aniId" 또는 "보낸 인스턴스|*"
+
+    static final int FUZZY_MIN_LENGTH = 4; // 오타 단계를 도는 최소 자모 수(대략 두 음절)
+    static final int FUZZY_WIDE_LENGTH = 8; // 이 길이부터 편집 거리 2
+
+    static final List<String> ENTITY_KINDS = List.of("VOICE_ACTOR", "CHARACTER", "DIRECTOR", "STUDIO"); // 통합 검색 그룹
+    private static final Set<String> PEOPLE_KINDS = Set.of("VOICE_ACTOR", "DIRECTOR"); // 인물 자동완성 대상
+    static final int LINKED_ENTITIES = 3; // 종류마다 작품을 끌어오는 상위 엔티티 수(흔한 성씨 한 글자에 작품이 쏟아지지 않게)
+    private static final long[] NO_WORKS = new long[0];
+
+    private final SearchQueryMapper mapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.anime.suggest-index.enabled:true}")
+    private boolean enabled; // false 면 자동완성은 항상 SQL 경로
+
+    private final SnapshotUpdater updater = new SnapshotUpdater(
+            "SuggestIndex", "anime-suggest-index", CHANNEL, this::rebuildNow, this::refreshNow, this::isReady,
+            this::publishUpdate); // 단일 갱신 스레드 + 커밋 후 알림
+
+    private volatile Snapshot snapshot; // null = 아직 적재 전
+    private Counter hitQueries; // 조회 지표(init 에서 한 번 만든다)
+    private Counter notReadyQueries;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("anime.suggest.index.size", this, i -> {
+                    Snapshot s = i.snapshot;
+                    return s == null ? 0 : s.display.length;
+                })
+                .description("메모리 자동완성 인덱스의 작품 수")
+                .register(meterRegistry);
+        Gauge.builder("anime.suggest.index.people", this, i -> {
+                    Snapshot s = i.snapshot;
+                    return s == null ? 0 : s.entities.people.ranked.length;
+                })
+                .description("메모리 자동완성 인덱스의 인물 수")
+                .register(meterRegistry);
+        Gauge.builder("anime.suggest.index.entities", this, i -> {
+                    Snapshot s = i.snapshot;
+                    return s == null ? 0 : s.entities.size();
+                })
+                .description("메모리 통합 검색 인덱스의 엔티티 수(성우/캐릭터/감독/제작사)")
+                .register(meterRegistry);
+        hitQueries = queryCounter("hit");
+        notReadyQueries = queryCounter("not_ready");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        updater.shutdown();
+    }
+
+    /**
+     * 기동 준비 단계(AnimeCacheWarmer)에서 부른다. 적재가 끝나거나 timeout 이 지날 때까지 기다린다.
+     * @return 적재돼 있으면 true
+     */
+    boolean loadBlocking(Duration timeout) throws InterruptedException {
+        return enabled && updater.loadBlocking(timeout);
+    }
+
+    /** 준비 단계가 꺼져 있거나 시간 안에 못 끝낸 경우의 뒷받침. 이미 적재됐거나 적재 중이면 아무것도 안 한다. */
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup() {
+        if (enabled) updater.loadIfNotReady();
+    }
+
+    @Scheduled(
+            initialDelayString = "${ott.anime.suggest-index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${ott.anime.suggest-index.rebuild-interval-ms:600000}")
+    void scheduledRebuild() {
+        if (enabled) updater.rebuildLocally();
+    }
+
+    /**
+     * 자동완성 제목 limit 개. 인덱스가 준비 전이면 null(호출부가 SQL 로 간다).
+     * q 는 호출부가 트림/빈값 검사를 마친 값이다.
+     */
+    List<SearchSuggestTitleDto> suggest(String q, int limit) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            notReadyQueries.increment();
+            return null;
+        }
+        hitQueries.increment();
+        List<SearchSuggestTitleDto> out = new ArrayList<>(limit);
+        for (int doc : s.suggest(normalize(q), limit)) out.add(new SearchSuggestTitleDto(s.display[doc]));
+        return out;
+    }
+
+    /**
+     * 인물(성우/감독) 자동완성 limit 개. 인덱스가 준비 전이면 null(호출부가 SQL 로 간다).
+     */
+    List<SearchSuggestPersonDto> suggestPeople(String q, int limit) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            notReadyQueries.increment();
+            return null;
+        }
+        hitQueries.increment();
+        List<SearchSuggestPersonDto> out = new ArrayList<>(limit);
+        People people = s.entities.people;
+        for (int doc : people.suggest(normalize(q), limit)) {
+            PersonSuggestIndexRow p = people.ranked[doc];
+            out.add(new SearchSuggestPersonDto(p.getPersonId(), p.getKind(), People.display(p), p.getWorkCount()));
+        }
+        return out;
+    }
+
+    /**
+     * 통합 검색: 작품과 성우/캐릭터/감독/제작사를 종류별 상위 limit 개로. 인덱스가 준비 전이면 null(호출부가 SQL 로 간다).
+     * 작품은 제목 일치 → 이름이 맞은 엔티티에 연결된 작품(인기 순위) 순이다.
+     */
+    SearchAllDto searchAll(String q, int limit) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            notReadyQueries.increment();
+            return null;
+        }
+        hitQueries.increment();
+        String nq = normalize(q);
+        Map<Integer, SearchAllAnimeDto> animes = new LinkedHashMap<>(); // 작품 순위 → 결과(넣은 순서가 응답 순서)
+        for (int doc : s.suggest(nq, limit)) animes.put(doc, s.animeHit(doc, "TITLE", null));
+
+        Map<String, List<SearchAllEntityDto>> groups = new HashMap<>();
+        Map<Integer, SearchAllAnimeDto> linked = new TreeMap<>(); // 작품 순위 → 처음 끌어온 엔티티
+        for (String kind : ENTITY_KINDS) {
+            People section = s.entities.byKind.get(kind);
+            Map<Long, long[]> works = s.entities.works.getOrDefault(kind, Map.of());
+            List<SearchAllEntityDto> hits = new ArrayList<>(limit);
+            for (int doc : section.suggest(nq, limit)) {
+                PersonSuggestIndexRow e = section.ranked[doc];
+                String name = People.display(e);
+                hits.add(new SearchAllEntityDto(e.getPersonId(), kind, name, e.getWorkCount()));
+                if (hits.size() > LINKED_ENTITIES) continue;
+                for (long aniId : works.getOrDefault(e.getPersonId(), NO_WORKS)) {
+                    Integer ani = s.docOf.get(aniId); // 그사이 비활성이 된 작품은 없다
+                    if (ani != null && !animes.containsKey(ani)) linked.putIfAbsent(ani, s.animeHit(ani, kind, name));
+                }
+            }
+            groups.put(kind, hits);
+        }
+        for (Map.Entry<Integer, SearchAllAnimeDto> e : linked.entrySet()) {
+            if (animes.size() >= limit) break;
+            animes.put(e.getKey(), e.getValue());
+        }
+        return SearchAllDto.builder()
+                .animes(new ArrayList<>(animes.values()))
+                .voiceActors(groups.get("VOICE_ACTOR"))
+                .characters(groups.get("CHARACTER"))
+                .directors(groups.get("DIRECTOR"))
+                .studios(groups.get("STUDIO"))
+                .build();
+    }
+
+    boolean isReady() {
+        return snapshot != null;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 한 작품의 제목/노출 여부가 바뀌었다(커밋 후 반영). 비활성화/삭제도 같은 경로다(다시 읽어 없으면 뺀다).
+     */
+    public void refresh(Long aniId) {
+        if (enabled && aniId != null) updater.refresh(aniId);
+    }
+
+    /**
+     * 대상을 열거하기 어려운 변경(벌크 큐레이션) 후 전체 재적재(커밋 후).
+     */
+    public void rebuild() {
+        if (enabled) updater.rebuild();
+    }
+
+    /**
+     * 다른 인스턴스가 보낸 갱신. AnimeCacheInvalidationSubscriber 가 넘겨준다.
+     */
+    public void onRemote(String body) {
+        if (enabled) updater.onRemote(body);
+    }
+
+    private void publishUpdate(String channel, String body) {
+        stringRedisTemplate.convertAndSend(channel, body);
+    }
+
+    /** 전체 적재. 실패하면 기존 스냅샷을 그대로 둔다. */
+    void rebuildNow() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, AnimeSuggestIndexRow> rows = new HashMap<>();
+            for (AnimeSuggestIndexRow row : mapper.findSuggestIndexRows(null)) rows.put(row.getAniId(), row);
+            snapshot = new Snapshot(rows, null, loadEntities()); // 행 객체가 모두 새것이라 재료도 새로 만든다
+            log.info("[SuggestIndex] rebuilt size={} keys={} entities={} took={}ms",
+                    rows.size(), snapshot.keys.keys.length, snapshot.entities.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("[SuggestIndex] rebuild failed - 이전 스냅샷 유지(없으면 SQL 경로)", e);
+        }
+    }
+
+    /** 엔티티 적재. 실패해도 제목 자동완성은 막지 않는다(직전 엔티티 부분을 쓰고, 없으면 빈 채로). */
+    private Entities loadEntities() {
+        try {
+            return new Entities(mapper.findSearchEntityRows(), mapper.findSearchEntityLinks());
+        } catch (Exception e) {
+            Snapshot current = snapshot;
+            log.error("[SuggestIndex] entity load failed - 직전 엔티티 목록 유지", e);
+            return current != null ? current.entities : Entities.EMPTY;
+        }
+    }
+
+    /** 한 건 부분 갱신. 아직 전체 적재 전이면 건너뛴다(곧 올 전체 적재가 최신을 읽는다). */
+    void refreshNow(Long aniId) {
+        Snapshot current = snapshot;
+        if (current == null) return;
+        try {
+            List<AnimeSuggestIndexRow> fresh = mapper.findSuggestIndexRows(aniId);
+            Map<Long, AnimeSuggestIndexRow> rows = new HashMap<>(current.rows);
+            if (fresh.isEmpty()) rows.remove(aniId); // 비활성/삭제
+            else rows.put(aniId, fresh.get(0));
+            snapshot = new Snapshot(rows, current, current.entities); // 나머지 행의 정규화 결과는 다시 쓴다
+            log.debug("[SuggestIndex] refreshed aniId={} present={}", aniId, !fresh.isEmpty());
+        } catch (Exception e) {
+            log.error("[SuggestIndex] refresh failed aniId={} - 주기 재적재가 따라잡는다", aniId, e);
+        }
+    }
+
+    private Counter queryCounter(String result) {
+        return Counter.builder("anime.suggest.index.query")
+                .tag("result", result)
+                .description("메모리 자동완성 인덱스 조회 결과")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 검색 키 정규화: NFKC(전각/반각 통일) + 소문자 + 공백 제거.
+     */
+    static String normalize(String s) {
+        return String.join("", words(s));
+    }
+
+    /** NFKC + 소문자로 바꾼 뒤 공백으로 나눈 단어들. */
+    private static List<String> words(String s) {
+        if (s == null) return List.of();
+        String n = Normalizer.normalize(s, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).trim();
+        if (n.isEmpty()) return List.of();
+        return Arrays.asList(n.split("\\s+"));
+    }
+
+    static final int TITLE_PREFIX = 0; // 이름 첫머리 일치
+    static final int WORD_PREFIX = 1; // 단어 첫머리 일치
+
+    /**
+     * 이름 하나(단어들)의 접두 키를 더한다: 전체와 단어 꼬리마다 자모열 키, 한글이 있으면 초성열 키도.
+     * 같은 키가 여러 번 나오면 앞 단계를 남긴다.
+     */
+    private static void addTails(List<String> w, Map<String, Integer> keys, Map<String, Integer> initials) {
+        for (int i = 0; i < w.size(); i++) {
+            String tail = String.join("", w.subList(i, w.size()));
+            int tier = i == 0 ? TITLE_PREFIX : WORD_PREFIX;
+            keys.merge(HangulJamo.decompose(tail), tier, Math::min);
+            if (HangulJamo.containsHangul(tail)) initials.merge(HangulJamo.initials(tail), tier, Math::min);
+        }
+    }
+
+    /** 접두 단계: 자음 자모로만 된 쿼리는 초성열 표, 아니면 자모열 표. jq 는 자모열로 편 쿼리. */
+    private static void collectPrefix(PrefixTable keys, PrefixTable initials, String jq, int limit, Set<Integer> picked) {
+        if (HangulJamo.isInitialsOnly(jq)) initials.collect(jq, limit, picked);
+        else keys.collect(jq, limit, picked);
+    }
+
+    /** 오타 단계: 앞 단계가 모두 비었고 쿼리가 충분히 길 때만(짧은 쿼리의 오타 허용은 거의 모든 키에 걸린다). */
+    private static void collectFuzzy(PrefixTable keys, String jq, int limit, Set<Integer> picked) {
+        if (!picked.isEmpty() || jq.length() < FUZZY_MIN_LENGTH || HangulJamo.isInitialsOnly(jq)) return;
+        keys.collectFuzzy(jq, jq.length() >= FUZZY_WIDE_LENGTH ? 2 : 1, limit, picked);
+    }
+
+    private static void index(Map<String, Integer> tails, int doc, List<String> keyList, List<int[]> keyMeta) {
+        for (Map.Entry<String, Integer> e : tails.entrySet()) {
+            keyList.add(e.getKey());
+            keyMeta.add(new int[] {doc, e.getValue()});
+        }
+    }
+
+    /**
+     * 한 작품에서 뽑은 검색 재료. 행이 그대로면 다음 스냅샷이 다시 쓴다(정규화를 다시 하지 않는다).
+     *
+     * @param forms 정규화 제목들(중간 일치 확인용)
+     * @param tails 자모열 접두 키 → 단계(제목 전체 = TITLE_PREFIX, 단어 꼬리 = WORD_PREFIX)
+     * @param initials 초성열 접두 키 → 단계(한글 제목만)
+     * @param grams 1·2글자 gram
+     */
+    record Terms(String[] forms, Map<String, Integer> tails, Map<String, Integer> initials, String[] grams) {
+
+        static Terms of(AnimeSuggestIndexRow r) {
+            Set<String> forms = new LinkedHashSet<>();
+            Map<String, Integer> tails = new HashMap<>();
+            Map<String, Integer> initials = new HashMap<>();
+            Set<String> grams = new LinkedHashSet<>();
+            for (String title : new String[] {r.getTitle(), r.getTitleEn(), r.getTitleJp()}) {
+                List<String> w = words(title);
+                if (w.isEmpty()) continue;
+                String form = String.join("", w);
+                forms.add(form);
+                addTails(w, tails, initials);
+                for (int c = 0; c < form.length(); c++) {
+                    grams.add(form.substring(c, c + 1));
+                    if (c + 1 < form.length()) grams.add(form.substring(c, c + 2));
+                }
+            }
+            return new Terms(forms.toArray(new String[0]), tails, initials, grams.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * 불변 스냅샷. 작품 번호 doc 는 인기 순위(0 이 가장 앞)다.
+     */
+    static final class Snapshot {
+        final Map<Long, AnimeSuggestIndexRow> rows; // 부분 갱신 재료(고치지 않는다)
+        final Map<Long, Terms> terms; // 행별 검색 재료(다음 스냅샷이 다시 쓴다)
+        final AnimeSuggestIndexRow[] ranked; // 순위 → 행
+        final Map<Long, Integer> docOf; // 작품 ID → 순위(엔티티 연결을 풀 때)
+        final String[] display; // 응답 제목: COALESCE(title, title_en)
+        final String[][] forms; // 작품별 정규화 제목들
+        final PrefixTable keys; // 자모열 접두 키
+        final PrefixTable initials; // 초성열 접두 키
+        final Map<String, int[]> grams; // 1·2글자 gram → 작품(순위 오름차순)
+        final Entities entities; // 엔티티 부분(부분 갱신은 그대로 넘긴다)
+
+        /**
+         * @param previous 직전 스냅샷(없으면 null). 같은 행 객체의 검색 재료를 다시 쓴다.
+         */
+        Snapshot(Map<Long, AnimeSuggestIndexRow> rows, Snapshot previous, Entities entities) {
+            this.rows = rows;
+            this.entities = entities;
+            List<AnimeSuggestIndexRow> sorted = new ArrayList<>();
+            for (AnimeSuggestIndexRow r : rows.values()) {
+                if (r.getTitle() != null || r.getTitleEn() != null) sorted.add(r); // 보여 줄 제목이 없으면 뺀다
+            }
+            sorted.sort(Comparator.comparing((AnimeSuggestIndexRow r) -> Boolean.TRUE.equals(r.getIsPopular()))
+                    .thenComparing(r -> r.getRating() == null ? -1.0 : r.getRating())
+                    .thenComparing(AnimeSuggestIndexRow::getAniId)
+                    .reversed());
+            int n = sorted.size();
+            ranked = sorted.toArray(new AnimeSuggestIndexRow[0]);
+            docOf = new HashMap<>(n * 2);
+            terms = new HashMap<>(n * 2);
+            display = new String[n];
+            forms = new String[n][];
+
+            List<String> keyList = new ArrayList<>();
+            List<int[]> keyMeta = new ArrayList<>(); // {doc, 단계}
+            List<String> initialList = new ArrayList<>();
+            List<int[]> initialMeta = new ArrayList<>();
+            Map<String, List<Integer>> gramDocs = new HashMap<>();
+            for (int doc = 0; doc < n; doc++) {
+                AnimeSuggestIndexRow r = ranked[doc];
+                docOf.put(r.getAniId(), doc);
+                Terms t = previous != null && previous.rows.get(r.getAniId()) == r
+                        ? previous.terms.get(r.getAniId())
+                        : Terms.of(r);
+                terms.put(r.getAniId(), t);
+                display[doc] = r.getTitle() != null ? r.getTitle() : r.getTitleEn();
+                forms[doc] = t.forms();
+                index(t.tails(), doc, keyList, keyMeta);
+                index(t.initials(), doc, initialList, initialMeta);
+                for (String g : t.grams()) gramDocs.computeIfAbsent(g, k -> new ArrayList<>()).add(doc); // doc 오름차순으로 쌓인다
+            }
+            keys = new PrefixTable(keyList, keyMeta, n);
+            initials = new PrefixTable(initialList, initialMeta, n);
+
+            grams = new HashMap<>(gramDocs.size() * 2);
+            gramDocs.forEach((g, docs) -> grams.put(g, docs.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * 정규화된 q 의 상위 limit 개 작품 번호(앞 단계부터).
+         */
+        List<Integer> suggest(String q, int limit) {
+            if (q.isEmpty() || limit <= 0) return List.of();
+            Set<Integer> picked = new LinkedHashSet<>();
+            String jq = HangulJamo.decompose(q);
+
+            // ①② 접두 일치(초성/조합 중 음절 포함): 키 구간에서 점수 최소부터 뽑는다
+            collectPrefix(keys, initials, jq, limit, picked);
+
+            // ③ 중간 일치: 가장 짧은 gram 목록을 순위 순으로 돌며 실제 포함 여부를 확인한다
+            if (picked.size() < limit) {
+                int[] candidates = rarestGram(q);
+                for (int i = 0; candidates != null && i < candidates.length && picked.size() < limit; i++) {
+                    int doc = candidates[i];
+                    if (picked.contains(doc)) continue;
+                    for (String form : forms[doc]) {
+                        if (form.contains(q)) {
+                            picked.add(doc);
+                            break;
+                        }
+                    }
+                }
+            }
+
+            // ④ 오타: 위에서 하나도 못 찾았을 때만
+            collectFuzzy(keys, jq, limit, picked);
+            return new ArrayList<>(picked);
+        }
+
+        SearchAllAnimeDto animeHit(int doc, String matchedBy, String matchedName) {
+            AnimeSuggestIndexRow r = ranked[doc];
+            return new SearchAllAnimeDto(r.getAniId(), display[doc], r.getPosterUrl(), matchedBy, matchedName);
+        }
+
+        private int[] rarestGram(String q) {
+            if (q.length() == 1) return grams.get(q);
+            int[] best = null;
+            for (int c = 0; c + 1 < q.length(); c++) {
+                int[] docs = grams.get(q.substring(c, c + 2));
+                if (docs == null) return null; // 없는 gram 이 하나라도 있으면 일치하는 작품이 없다
+                if (best == null || docs.length < best.length) best = docs;
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 불변 엔티티 부분(성우/캐릭터/감독/제작사 + 작품 연결). 작품 부분과 따로 적재하고 작품 부분 갱신은 그대로 넘긴다.
+     */
+    static final class Entities {
+        static final Entities EMPTY = new Entities(List.of(), List.of());
+
+        final People people; // 인물 자동완성(성우 + 감독을 한 순위로)
+        final Map<String, People> byKind; // 통합 검색 그룹(종류마다 따로 순위)
+        final Map<String, Map<Long, long[]>> works; // 종류 → 엔티티 ID → 연결된 활성 작품 ID
+
+        Entities(List<PersonSuggestIndexRow> rows, List<SearchEntityLinkRow> links) {
+            people = new People(rows.stream().filter(p -> PEOPLE_KINDS.contains(p.getKind())).toList());
+            byKind = new HashMap<>();
+            for (String kind : ENTITY_KINDS) {
+                byKind.put(kind, new People(rows.stream().filter(p -> kind.equals(p.getKind())).toList()));
+            }
+            Map<String, Map<Long, List<Long>>> grouped = new HashMap<>();
+            for (SearchEntityLinkRow l : links) {
+                grouped.computeIfAbsent(l.getKind(), k -> new HashMap<>())
+                        .computeIfAbsent(l.getEntityId(), k -> new ArrayList<>())
+                        .add(l.getAniId());
+            }
+            works = new HashMap<>();
+            grouped.forEach((kind, byEntity) -> {
+                Map<Long, long[]> ids = new HashMap<>(byEntity.size() * 2);
+                byEntity.forEach((id, anis) -> ids.put(id, anis.stream().mapToLong(Long::longValue).toArray()));
+                works.put(kind, ids);
+            });
+        }
+
+        int size() {
+            return byKind.values().stream().mapToInt(p -> p.ranked.length).sum();
+        }
+    }
+
+    /**
+     * 불변 이름 묶음(인물 자동완성의 성우+감독, 통합 검색의 종류별 그룹). 번호 doc 는 연결 작품 수 순위(0 이 가장 앞)다.
+     * 제목과 달리 중간 일치 단계는 두지 않는다(이름은 짧아 단어 꼬리 키로 충분하다).
+     */
+    static final class People {
+
+        final PersonSuggestIndexRow[] ranked;
+        final PrefixTable keys; // 자모열 접두 키
+        final PrefixTable initials; // 초성열 접두 키
+
+        People(List<PersonSuggestIndexRow> rows) {
+            List<PersonSuggestIndexRow> sorted = new ArrayList<>();
+            for (PersonSuggestIndexRow p : rows) {
+                if (display(p) != null) sorted.add(p);
+            }
+            sorted.sort(Comparator.comparing((PersonSuggestIndexRow p) -> p.getWorkCount() == null ? 0 : p.getWorkCount())
+                    .thenComparing(PersonSuggestIndexRow::getPersonId)
+                    .reversed());
+            int n = sorted.size();
+            ranked = sorted.toArray(new PersonSuggestIndexRow[0]);
+
+            List<String> keyList = new ArrayList<>();
+            List<int[]> keyMeta = new ArrayList<>();
+            List<String> initialList = new ArrayList<>();
+            List<int[]> initialMeta = new ArrayList<>();
+            for (int doc = 0; doc < n; doc++) {
+                PersonSuggestIndexRow p = ranked[doc];
+                Map<String, Integer> tails = new HashMap<>();
+                Map<String, Integer> initialTails = new HashMap<>();
+                for (String name : new String[] {p.getName(), p.getNameEn(), p.getNameJp()}) {
+                    List<String> w = words(name);
+                    if (!w.isEmpty()) addTails(w, tails, initialTails);
+                }
+                index(tails, doc, keyList, keyMeta);
+                index(initialTails, doc, initialList, initialMeta);
+            }
+            keys = new PrefixTable(keyList, keyMeta, n);
+            initials = new PrefixTable(initialList, initialMeta, n);
+        }
+
+        static String display(PersonSuggestIndexRow p) {
+            return p.getName() != null ? p.getName() : p.getNameEn() != null ? p.getNameEn() : p.getNameJp();
+        }
+
+        /** 정규화된 q 의 상위 limit 명 번호. */
+        List<Integer> suggest(String q, int limit) {
+            if (q.isEmpty() || limit <= 0) return List.of();
+            Set<Integer> picked = new LinkedHashSet<>();
+            String jq = HangulJamo.decompose(q);
+            collectPrefix(keys, initials, jq, limit, picked);
+            collectFuzzy(keys, jq, limit, picked);
+            return new ArrayList<>(picked);
+        }
+    }
+}
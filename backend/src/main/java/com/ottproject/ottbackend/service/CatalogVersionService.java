@@ -0,0 +1,111 @@
+package com.ottproject.ottbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * CatalogVersionService
+ *
+ * 큰 흐름
+ * - 공개 카탈로그(목록/상세/인기/요일별/자동완성)의 "지금 버전"을 Redis 해시 하나에 둔다(v = 번호, t = 올린 시각 epoch ms).
+ * - 카탈로그를 바꾸는 관리자 쓰기(큐레이션 수정/벌크, 화수 등록/수정, 작품 수집)가 커밋 후에 bump 한다.
+ *   평점 집계처럼 잦은 쓰기는 올리지 않는다 — 평점 하나마다 전체 ETag 가 바뀌면 조건부 요청이 소용없다.
+ *   그런 값의 낡음은 CatalogHttpCache 의 rollover 구간(원본 캐시 TTL 과 같은 크기)이 상한이다.
+ * - 읽기 쪽(CatalogHttpCache)은 이 번호로 ETag 를, 시각으로 Last-Modified 를 만든다. 번호가 같으면 본문도 같다고 보고
+ *   조건부 요청에 DB 를 치지 않고 304 를 준다.
+ *
+ * 왜 이 구조인가
+ * - 인스턴스가 여럿이라 번호는 공유 저장소에 있어야 한다. 카운터 하나면 HINCRBY 한 번이다.
+ * - 읽기는 요청마다 일어나므로 인스턴스 메모리에 local-ttl-ms(기본 1초) 동안 들고 있는다.
+ *   다른 인스턴스의 bump 가 보이기까지 그만큼 늦을 수 있다(카탈로그 L1 TTL 30초보다 짧다).
+ * - Redis 가 터지면 null 을 돌려준다. 호출부는 ETag 없이 본문을 그대로 준다(틀린 304 보다 낫다).
+ *
+ * 지표
+ * - catalog.version.bump{result=ok|error}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    static final String KEY = "ott:catalog:version:v1"; // 해시: v = 번호, t = 올린 시각(epoch ms)
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.catalog.version.local-ttl-ms:1000}")
+    private long localTtlMs; // 인스턴스 메모리에 번호를 들고 있는 시간
+
+    /** 카탈로그 번호와 그 번호로 올린 시각(epoch ms, 한 번도 올린 적 없으면 -1). */
+    public record Version(long number, long modifiedAt) {}
+
+    private volatile Version local; // 마지막으로 읽은 값
+    private volatile long localReadAt; // 그걸 읽은 시각(ms)
+
+    /**
+     * 지금 카탈로그 버전. Redis 를 못 읽으면 null.
+     */
+    public Version current() {
+        Version v = local;
+        long now = System.currentTimeMillis();
+        if (v != null && now - localReadAt < localTtlMs) return v;
+        try {
+            List<String> fields = stringRedisTemplate.<String, String>opsForHash().multiGet(KEY, List.of("v", "t"));
+            v = new Version(
+                    fields.get(0) == null ? 0 : Long.parseLong(fields.get(0)),
+                    fields.get(1) == null ? -1 : Long.parseLong(fields.get(1)));
+            local = v;
+            localReadAt = now;
+            return v;
+        } catch (Exception e) {
+            log.warn("[CatalogVersion] read failed - 조건부 응답 없이 본문을 준다", e);
+            return null;
+        }
+    }
+
+    /**
+     * 카탈로그가 바뀌었다. 활성 트랜잭션이면 커밋 후에, 없으면 즉시 올린다.
+     * 커밋 전에 올리면 다른 요청이 새 번호로 옛 본문을 받아 ETag 에 굳혀 버린다.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpNow();
+                }
+            });
+        } else {
+            bumpNow();
+        }
+    }
+
+    private void bumpNow() {
+        try {
+            Long number = stringRedisTemplate.<String, String>opsForHash().increment(KEY, "v", 1);
+            stringRedisTemplate.<String, String>opsForHash().put(KEY, "t", String.valueOf(System.currentTimeMillis()));
+            local = null; // 자기 인스턴스는 바로 새 번호를 읽는다
+            count("ok");
+            log.info("[CatalogVersion] bumped to {}", number);
+        } catch (Exception e) {
+            count("error");
+            log.error("[CatalogVersion] bump failed - ETag 는 rollover 주기까지 옛 번호로 나간다", e);
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("catalog.version.bump")
+                .tag("result", result)
+                .description("카탈로그 버전 올림 결과")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ottproject.ottbackend.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * NearCache
+ *
+ * 큰 흐름
+ * - 인스턴스 메모리에 두는 작은 캐시(L1). 키마다 값과 만료 시각을 들고, 개수와 TTL 두 가지로만 크기를 묶는다.
+ * - Redis(L2) 앞에 두어 자주 읽히는 카탈로그 값의 Redis 왕복과 JSON 역직렬화를 없앤다.
+ *
+ * 왜 이 구조인가
+ * - 카탈로그 키는 장르·인기 목록 몇 개와 작품 상세 수천 개가 전부다. LRU 정밀도가 필요한 규모가 아니라
+ *   ConcurrentHashMap + 만료 시각으로 충분하다(캐시 라이브러리를 들이면 의존성 잠금 파일까지 손대야 한다).
+ * - 개수가 상한에 닿으면 먼저 만료된 것을 치우고, 그래도 넘치면 맵 순회 순서상 앞쪽 일부를 버린다.
+ *   버린 값은 L2 에 그대로 있으니 다음 읽기가 한 번 더 Redis 를 탈 뿐이다.
+ *
+ * 정합성 메모
+ * - 다른 인스턴스의 무효화는 pub/sub 으로 받아 invalidate 한다. 메시지가 유실돼도(재연결 구간 등)
+ *   TTL 이 지나면 L2 에서 다시 읽으므로, TTL 이 곧 최악의 stale 상한이다.
+ *
+ * 메서드 개요
+ * - get/put/invalidate/invalidateAll/size
+ */
+public class NearCache {
+
+    private static final int EVICT_BATCH = 16; // 상한 초과 시 한 번에 버리는 항목 수
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(Object value, long expiresAt) {}
+
+    public NearCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    NearCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 살아 있는 값(없거나 만료면 null). 만료된 항목은 읽는 김에 지운다.
+     */
+    public Object get(String key) {
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (e.expiresAt() - nanoClock.getAsLong() <= 0) {
+            entries.remove(key, e);
+            return null;
+        }
+        return e.value();
+    }
+
+    public void put(String key, Object value) {
+        if (maxSize <= 0 || ttlNanos <= 0) return; // 꺼 둔 설정
+        if (entries.size() >= maxSize && !entries.containsKey(key)) makeRoom();
+        entries.put(key, new Entry(value, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = nanoClock.getAsLong();
+        entries.values().removeIf(e -> e.expiresAt() - now <= 0);
+        if (entries.size() < maxSize) return;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        for (int i = 0; i < EVICT_BATCH && it.hasNext(); i++) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -110,7 +110,9 @@ public class PersonalizedRecommendationService {
                 0, // offset
                 null, // cursorId
                 null, // cursorRating
-                null // cursorIsPopular
+                null, // cursorYear
+                null, // cursorIsPopular
+                null // cursorTitle
                 );
 
         // 5. 시청한 작품 제외 및 태그 가중치로 정렬
@@ -301,7 +303,9 @@ public class PersonalizedRecommendationService {
                     0, // offset
                     null, // cursorId
                     null, // cursorRating
-                    null // cursorIsPopular
+                    null, // cursorYear
+                    null, // cursorIsPopular
+                    null // cursorTitle
                     );
         } catch (Exception e) {
             log.error("기본 추천 조회 실패", e);
@@ -4,27 +4,26 @@ import com.ottproject.ottbackend.dto.EpisodeProgressResponseDto;
 import com.ottproject.ottbackend.dto.RecentAnimeWatchDto;
 import com.ottproject.ottbackend.dto.SkipMetaResponseDto;
 import com.ottproject.ottbackend.dto.SubtitleDto;
+import com.ottproject.ottbackend.dto.WatchHistoryRowDto;
 import com.ottproject.ottbackend.entity.EpisodeProgress;
 import com.ottproject.ottbackend.entity.EpisodeSkipMeta;
-import com.ottproject.ottbackend.entity.SkipUsage;
 import com.ottproject.ottbackend.entity.Subtitle;
 import com.ottproject.ottbackend.enums.SkipType;
 import com.ottproject.ottbackend.mybatis.EpisodeMapper;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
 import com.ottproject.ottbackend.repository.EpisodeProgressRepository;
-import com.ottproject.ottbackend.repository.EpisodeRepository;
 import com.ottproject.ottbackend.repository.EpisodeSkipMetaRepository;
-import com.ottproject.ottbackend.repository.SkipUsageRepository;
 import com.ottproject.ottbackend.repository.SubtitleRepository;
-import com.ottproject.ottbackend.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -39,6 +38,7 @@ import org.springframework.transaction.annotation.Transactional;
  * - 스킵 관련: getSkipMetaByEpisode, trackUsage
  * - 에피소드 관련: getNextEpisode, getStreamUrl, canStream
  * - 진행률 관련: saveProgress, getProgress, getBulkProgress
+ * - 시청 기록 관련: getWatchHistory, getRecentAnimeHistory
  */
 @Service
 @RequiredArgsConstructor
@@ -46,15 +46,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class PlayerService {
     private final SubtitleRepository subtitleRepository;
     private final EpisodeSkipMetaRepository skipMetaRepository;
-    private final SkipUsageRepository skipUsageRepository;
-    private final UserRepository userRepository;
-    private final EpisodeRepository episodeRepository;
     private final EpisodeProgressRepository progressRepository;
     private final EpisodeMapper episodeMapper;
     private final PlayerProgressQueryMapper progressQueryMapper; // 진행률 쓰기는 전부 이 매퍼로 나간다
     private final com.ottproject.ottbackend.mybatis.PlayerQueryMapper playerQueryMapper;
     private final PlaybackAuthService playbackAuthService;
     private final ProgressBufferService progressBuffer;
+    private final SkipUsageIngestor skipUsageIngestor; // 스킵 로그는 큐에 넣고 끝난다(적재는 백그라운드)
 
     // === 자막 관련 기능 ===
 
@@ -88,21 +86,22 @@ public class PlayerService {
 
     /**
      * 스킵 사용 로깅
+     * - 요청 스레드에서는 큐에 넣기만 한다. 트랜잭션·엔티티 조회 없이 끝나고, 적재는 SkipUsageIngestor 가 묶어서 한다.
+     * - 없는 에피소드는 적재 단계에서 걸러진다(예전처럼 요청에서 404/500 으로 드러나지 않는다).
+     * @throws IllegalArgumentException 시점이 유효하지 않은 경우
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 클래스 기본 readOnly 트랜잭션이 커넥션을 잡지 않게 한다
     public void trackUsage(Long userId, Long episodeId, SkipType type, Integer atSec) {
-        var usage = SkipUsage.createSkipUsage(
-                userId != null ? userRepository.findById(userId).orElse(null) : null,
-                episodeRepository.findById(episodeId).orElseThrow(),
-                type);
-        usage.setSkipPosition(atSec);
-        skipUsageRepository.save(usage);
+        if (atSec == null || atSec < 0) {
+            throw new IllegalArgumentException("스킵 시점은 0 이상이어야 합니다.");
+        }
+        skipUsageIngestor.offer(userId, episodeId, type, atSec);
     }
 
     /**
      * 스킵 사용 로깅 (문자열 타입)
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void trackUsage(Long userId, Long episodeId, String type, Integer atSec) {
         SkipType t = null;
         if (type != null) {
@@ -228,38 +227,64 @@ public class PlayerService {
     }
 
     /**
-     * 사용자의 시청 기록 조회 (페이지네이션, 90일 제한)
+     * 사용자의 시청 기록 조회 (키셋 페이지네이션, 90일 제한)
+     *
+     * 왜 이 구조인가
+     * - 예전에는 JPA 페이지로 엔티티를 읽고 행마다 episode → anime 를 따라갔고, totalElements 를 위해
+     *   count 쿼리를 한 번 더 돌렸다. 시청 기록이 많은 사용자일수록 깊은 페이지의 OFFSET 과 count 가 비쌌다.
+     * - 이제 MyBatis 한 문장이 평평한 행을 (updated_at, episode_id) 커서 뒤에서 size+1 개만 읽는다.
+     *   한 개 더 읽어 다음 페이지 유무를 알고, 전체 건수는 세지 않는다.
+     * - 아직 DB 에 반영되지 않은 버퍼 값(위치·길이·시각)을 덮어써 방금 본 위치가 바로 보이게 한다.
+     *   순서와 커서는 DB 값 기준이다. 덮어쓴 시각으로 다시 정렬하면 커서가 가리키는 자리가 어긋난다.
+     *   그래서 방금 본 에피소드가 위로 올라오는 것은 다음 flush(기본 10초) 뒤다. 버퍼에만 있는 첫 시청도 그때 나타난다.
+     * - 커서 없이 page 만 주는 구 클라이언트는 OFFSET 으로 응답한다(최근 본 조회와 같은 방식).
      */
-    public Map<String, Object> getWatchHistory(Long userId, int page, int size) {
-        size = com.ottproject.ottbackend.util.PageLimitUtil.clampSize(size); // 상한 강제. 아래 PageRequest 가 이 값을 쓴다
-        // 90일 전 날짜 계산
+    public Map<String, Object> getWatchHistory(
+            Long userId, int page, int size, LocalDateTime cursorUpdatedAt, Long cursorEpisodeId) {
+        size = com.ottproject.ottbackend.util.PageLimitUtil.clampSize(size); // 상한 강제. LIMIT·응답 size 가 이 값을 쓴다
+        boolean keyset = cursorUpdatedAt != null && cursorEpisodeId != null;
         LocalDateTime ninetyDaysAgo = LocalDateTime.now().minus(90, ChronoUnit.DAYS);
 
-        // 사용자의 진행률이 있는 에피소드들을 조회 (90일 제한)
-        var progressList = progressRepository.findByUser_IdAndUpdatedAtAfterOrderByUpdatedAtDesc(
-                userId, ninetyDaysAgo, org.springframework.data.domain.PageRequest.of(page, size));
+        List<WatchHistoryRowDto> rows = playerQueryMapper.findWatchHistoryByUser(
+                userId, ninetyDaysAgo, size + 1, keyset ? 0 : page * size, cursorUpdatedAt, cursorEpisodeId);
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
 
-        // 결과 구성
         Map<String, Object> result = new HashMap<>();
-        result.put(
-                "content",
-                progressList.getContent().stream()
-                        .map(p -> Map.of(
-                                "episodeId", p.getEpisode().getId(),
-                                "animeId", p.getEpisode().getAnime().getId(),
-                                "episodeNumber", p.getEpisode().getEpisodeNumber(),
-                                "positionSec", p.getPositionSec(),
-                                "durationSec", p.getDurationSec(),
-                                "updatedAt", p.getUpdatedAt()))
-                        .collect(Collectors.toList()));
-        result.put("totalElements", progressList.getTotalElements());
-        result.put("totalPages", progressList.getTotalPages());
         result.put("currentPage", page);
         result.put("size", size);
-
+        result.put("hasNext", hasNext);
+        if (hasNext) {
+            WatchHistoryRowDto last = rows.get(rows.size() - 1); // 버퍼 값을 덮기 전에 커서를 뽑는다
+            result.put("nextCursorUpdatedAt", last.getUpdatedAt());
+            result.put("nextCursorEpisodeId", last.getEpisodeId());
+        }
+        result.put("content", mergeBuffered(userId, rows));
         return result;
     }
 
+    /**
+     * 시청 기록 행에 아직 DB 에 반영되지 않은 버퍼 값을 덮는다(버퍼 조회는 페이지당 한 번).
+     */
+    private List<WatchHistoryRowDto> mergeBuffered(Long userId, List<WatchHistoryRowDto> rows) {
+        if (rows.isEmpty()) return rows;
+        Map<Long, EpisodeProgressResponseDto> buffered = progressBuffer.readAll(
+                userId, rows.stream().map(WatchHistoryRowDto::getEpisodeId).toList());
+        if (buffered.isEmpty()) return rows;
+        List<WatchHistoryRowDto> merged = new ArrayList<>(rows.size());
+        for (WatchHistoryRowDto row : rows) {
+            EpisodeProgressResponseDto b = buffered.get(row.getEpisodeId());
+            merged.add(b == null
+                    ? row
+                    : row.toBuilder()
+                            .positionSec(b.getPositionSec())
+                            .durationSec(b.getDurationSec())
+                            .updatedAt(b.getUpdatedAt())
+                            .build());
+        }
+        return merged;
+    }
+
     /**
      * 애니별 최신 1건 시청 기록 (최신순)
      */
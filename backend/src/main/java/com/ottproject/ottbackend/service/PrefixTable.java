@@ -0,0 +1,199 @@
+package com.ottproject.ottbackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * PrefixTable
+ *
+ * 큰 흐름
+ * - 접두 트라이를 노드 객체 없이 "정렬된 키 배열"로 편 불변 표. 자동완성 인덱스(AnimeSuggestIndex)가 자모열 키와
+ *   초성열 키, 작품과 인물에 각각 하나씩 쓴다.
+ *
+ * 자료구조
+ * - 트라이 노드 하나 = 그 접두사로 시작하는 키들의 연속 구간. 이진 탐색 두 번으로 노드를 찾는다.
+ * - 키마다 문서 번호(doc, 작을수록 앞 순위)와 점수(단계 × 문서 수 + doc)를 둔다. 구간 안의 상위 K 는
+ *   점수 최소 구간 트리로 K 번 뽑는다 — 한 글자 접두사처럼 구간이 커도 O(K log n).
+ *
+ * 오타 허용(fuzzy)
+ * - 편집 거리 maxDist 이하로 q 와 맞는 접두사를 가진 키를 찾는다(접두 Levenshtein).
+ * - 정렬된 키를 차례로 보며 DP 행을 "직전 키와 겹치는 접두사 길이"까지는 다시 쓴다 — 트라이를 깊이 우선으로 도는 것과 같다.
+ *   행은 대각선 ± maxDist 띠만 채운다(띠 밖은 maxDist + 1 로 본다).
+ * - 첫 글자는 맞게 쳤다고 보고 그 글자로 시작하는 구간만 돈다(흔한 fuzzy prefix_length = 1 설정과 같다).
+ * - 키의 거리는 그 키 접두사들의 거리 중 최솟값이다. 깊이마다 "여기까지 본 접두사 중 최소 거리(best)"를 같이 들고 내려간다.
+ *   행 최솟값은 깊이가 깊어져도 줄지 않으므로, 행 최솟값이 best 이상이 되면 더 내려가도 가까워지지 않는다.
+ *   그 깊이에서 멈추고 그 접두사로 시작하는 구간 전체를 best 거리로 넘긴다(best 가 maxDist 를 넘으면 구간째 건너뛴다).
+ *   상위 K 는 위와 같은 구간 트리로 뽑는다. 처음 maxDist 안에 든 깊이에서 바로 멈추면 더 깊은 접두사의 더 가까운
+ *   일치("귀멀의칼" → 귀멸의칼날, 거리 1)가 얕은 거리(2)로 묶여 인기순에 밀린다.
+ *
+ * 메서드 개요
+ * - collect: q 로 시작하는 키의 문서를 점수순으로 picked 에 limit 까지
+ * - collectFuzzy: 편집 거리 maxDist 이하 접두사의 문서를 (거리, 점수)순으로 picked 에 limit 까지
+ */
+final class PrefixTable {
+
+    final String[] keys; // 정렬된 키
+    private final int[] keyDoc; // 키 → 문서
+    private final long[] keyScore; // 단계 × 문서 수 + 문서 번호(작을수록 앞)
+    private final int[] tree; // keyScore 최소 위치 구간 트리(리프 = 키 위치)
+    private final int leaves;
+    private final int maxKeyLength; // fuzzy DP 행 수
+
+    /**
+     * @param keyList 키들(정렬 전)
+     * @param keyMeta 키와 같은 순서의 {문서, 단계}
+     * @param docs 문서 수(점수 계산용)
+     */
+    PrefixTable(List<String> keyList, List<int[]> keyMeta, int docs) {
+        int m = keyList.size();
+        Integer[] order = new Integer[m];
+        for (int i = 0; i < m; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+        keys = new String[m];
+        keyDoc = new int[m];
+        keyScore = new long[m];
+        for (int i = 0; i < m; i++) {
+            int[] meta = keyMeta.get(order[i]);
+            keys[i] = keyList.get(order[i]);
+            keyDoc[i] = meta[0];
+            keyScore[i] = (long) meta[1] * docs + meta[0];
+        }
+        maxKeyLength = Arrays.stream(keys).mapToInt(String::length).max().orElse(0);
+
+        int size = 1;
+        while (size < Math.max(1, m)) size <<= 1;
+        leaves = size;
+        tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < m; i++) tree[size + i] = i;
+        for (int i = size - 1; i >= 1; i--) tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+    }
+
+    /**
+     * q 로 시작하는 키의 문서를 점수순으로 picked 에 더한다(이미 있는 문서는 건너뛴다). picked 가 limit 이 되면 멈춘다.
+     */
+    void collect(String q, int limit, Set<Integer> picked) {
+        int from = lowerBound(q, 0);
+        drain(List.of(new int[] {from, lowerBound(q + Character.MAX_VALUE, from)}), limit, picked);
+    }
+
+    /**
+     * 접두사가 q 와 편집 거리 maxDist 이하인 키의 문서를 (거리, 점수)순으로 picked 에 더한다.
+     */
+    void collectFuzzy(String q, int maxDist, int limit, Set<Integer> picked) {
+        if (picked.size() >= limit || keys.length == 0) return;
+        List<List<int[]>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxDist; d++) byDistance.add(new ArrayList<>());
+
+        int qLen = q.length();
+        int[][] rows = new int[maxKeyLength + 1][qLen + 1]; // rows[depth][j] = 키 앞 depth 글자와 q 앞 j 글자의 편집 거리
+        for (int j = 0; j <= qLen; j++) rows[0][j] = j;
+        int[] best = new int[maxKeyLength + 1]; // best[depth] = 키 앞 1..depth 글자 접두사와 q 의 최소 거리(maxDist + 1 = 없음)
+        best[0] = maxDist + 1;
+
+        String first = q.substring(0, 1); // 첫 글자는 맞게 쳤다고 본다 — 도는 범위가 첫 글자 구간으로 줄어든다
+        int last = lowerBound(first + Character.MAX_VALUE, 0);
+        String prev = "";
+        int valid = 0; // prev 에 대해 rows 가 채워진 깊이
+        int i = lowerBound(first, 0);
+        while (i < last) {
+            String key = keys[i];
+            int depth = Math.min(valid, commonPrefix(prev, key));
+            int stop = -1; // 판정이 난 깊이
+            while (depth < key.length()) {
+                int[] up = rows[depth];
+                int[] row = rows[++depth];
+                char c = key.charAt(depth - 1);
+                int lo = Math.max(1, depth - maxDist); // 대각선에서 maxDist 넘게 벗어난 칸은 어차피 maxDist 를 넘는다
+                int hi = Math.min(qLen, depth + maxDist);
+                row[0] = depth;
+                if (lo > 1) row[lo - 1] = maxDist + 1;
+                int min = lo == 1 ? row[0] : maxDist + 1;
+                for (int j = lo; j <= hi; j++) {
+                    int cost = q.charAt(j - 1) == c ? 0 : 1;
+                    int v = up[j - 1] + cost;
+                    if (j < depth + maxDist) v = Math.min(v, up[j] + 1); // up[j] 는 윗줄 띠 안일 때만
+                    v = Math.min(v, row[j - 1] + 1);
+                    row[j] = Math.min(v, maxDist + 1);
+                    min = Math.min(min, row[j]);
+                }
+                if (hi < qLen) row[hi + 1] = maxDist + 1;
+                best[depth] = Math.min(best[depth - 1], hi == qLen ? row[qLen] : maxDist + 1);
+                if (min >= best[depth]) { // 더 내려가도 best 보다 가까워지지 않는다
+                    stop = depth;
+                    break;
+                }
+            }
+            prev = key;
+            valid = depth;
+            if (stop < 0) { // 키 끝까지 내려갔다 — 이 키 하나만 판정이 났다(뒤 키는 같은 접두사 행을 이어 쓴다)
+                if (best[depth] <= maxDist) byDistance.get(best[depth]).add(new int[] {i, i + 1});
+                i++;
+                continue;
+            }
+            int end = lowerBound(key.substring(0, stop) + Character.MAX_VALUE, i + 1); // 같은 접두사 구간의 끝
+            if (best[stop] <= maxDist) byDistance.get(best[stop]).add(new int[] {i, end});
+            i = end;
+        }
+        for (List<int[]> ranges : byDistance) {
+            if (picked.size() >= limit) break;
+            drain(ranges, limit, picked);
+        }
+    }
+
+    /** 여러 키 구간 {from, to} 을 합쳐 점수 최소부터 picked 에 넣는다. */
+    private void drain(List<int[]> spans, int limit, Set<Integer> picked) {
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingLong((int[] r) -> keyScore[r[2]]));
+        for (int[] s : spans) offer(ranges, s[0], s[1]);
+        while (!ranges.isEmpty() && picked.size() < limit) {
+            int[] r = ranges.poll(); // {from, to, argmin}
+            picked.add(keyDoc[r[2]]); // 같은 문서의 다른 키가 또 나오면 Set 이 걸러 준다
+            offer(ranges, r[0], r[2]);
+            offer(ranges, r[2] + 1, r[1]);
+        }
+    }
+
+    private void offer(PriorityQueue<int[]> ranges, int from, int to) {
+        if (from >= to) return;
+        ranges.add(new int[] {from, to, argmin(from, to)});
+    }
+
+    /** [from, to) 에서 점수가 가장 작은 키 위치. */
+    private int argmin(int from, int to) {
+        int best = -1;
+        for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) best = better(best, tree[l++]);
+            if ((r & 1) == 1) best = better(best, tree[--r]);
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return keyScore[a] <= keyScore[b] ? a : b;
+    }
+
+    /** from 이후에서 key 이상인 첫 키 위치. */
+    private int lowerBound(String key, int from) {
+        int lo = from;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ottproject.ottbackend.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * ProgressBufferCodec
+ *
+ * 큰 흐름
+ * - 진행률 버퍼의 해시 필드와 값을 고정 폭 바이너리로 인코딩/디코딩한다.
+ *   필드 16바이트 = userId(long) + episodeId(long)
+ *   값   16바이트 = 위치초(int) + 길이초(int) + 기록시각 epoch millis(long)
+ *
+ * 왜 문자열이 아닌가
+ * - 진행률 저장은 전체 트래픽의 약 72%다(loadtest/RESULTS.md). 예전 형식("위치:길이:시각", "userId:episodeId")은
+ *   쓰기마다 문자열 연결, 읽기·flush 마다 split 으로 String 배열과 박싱된 Integer 를 만들었다.
+ * - 여기서는 VarHandle 로 바이트 배열을 long/int 로 직접 읽고 쓴다. 디코딩은 할당이 없고,
+ *   인코딩은 Redis 로 보낼 바이트 배열 하나만 만든다.
+ * - 바이트 순서는 빅엔디언으로 고정한다. redis-cli 로 봤을 때 앞자리부터 읽히는 편이 낫다.
+ *
+ * 표식 필드(since)
+ * - 버퍼 해시마다 하나, 그 해시에 처음 실린 시각(epoch millis 8바이트)을 둔다. HSETNX 로만 쓰므로 첫 값이 남는다.
+ * - 해시 안에 있어 rename 으로 스냅샷과 함께 옮겨지고 스냅샷을 지울 때 함께 지워진다. 그래서 이 값이 곧
+ *   "아직 DB 로 내려가지 않은 가장 오래된 항목의 나이" 다(항목은 flush 로만 빠진다).
+ * - 길이가 FIELD_BYTES 와 달라 진행률 항목으로 읽히지 않는다.
+ */
+final class ProgressBufferCodec {
+
+    static final int FIELD_BYTES = 16;
+    static final int VALUE_BYTES = 16;
+    static final int SINCE_BYTES = 8;
+    private static final byte[] SINCE_FIELD = {'s', 'i', 'n', 'c', 'e'};
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private ProgressBufferCodec() {}
+
+    static byte[] field(long userId, long episodeId) {
+        byte[] b = new byte[FIELD_BYTES];
+        LONG.set(b, 0, userId);
+        LONG.set(b, 8, episodeId);
+        return b;
+    }
+
+    static long userId(byte[] field) {
+        return (long) LONG.get(field, 0);
+    }
+
+    static long episodeId(byte[] field) {
+        return (long) LONG.get(field, 8);
+    }
+
+    static byte[] value(int positionSec, int durationSec, long updatedAtMillis) {
+        byte[] b = new byte[VALUE_BYTES];
+        INT.set(b, 0, positionSec);
+        INT.set(b, 4, durationSec);
+        LONG.set(b, 8, updatedAtMillis);
+        return b;
+    }
+
+    static int positionSec(byte[] value) {
+        return (int) INT.get(value, 0);
+    }
+
+    static int durationSec(byte[] value) {
+        return (int) INT.get(value, 4);
+    }
+
+    static long updatedAtMillis(byte[] value) {
+        return (long) LONG.get(value, 8);
+    }
+
+    static byte[] sinceField() {
+        return SINCE_FIELD.clone();
+    }
+
+    static boolean isSinceField(byte[] field) {
+        return Arrays.equals(field, SINCE_FIELD);
+    }
+
+    static byte[] since(long epochMillis) {
+        byte[] b = new byte[SINCE_BYTES];
+        LONG.set(b, 0, epochMillis);
+        return b;
+    }
+
+    /**
+     * 표식 값의 시각. 형식이 맞지 않으면 -1.
+     */
+    static long sinceMillis(byte[] value) {
+        return value != null && value.length == SINCE_BYTES ? (long) LONG.get(value, 0) : -1;
+    }
+
+    /**
+     * 형식이 맞는지(길이만 본다). 다른 형식의 값이 섞이면 디코딩이 예외 대신 엉뚱한 숫자를 낼 수 있다.
+     */
+    static boolean isValid(byte[] field, byte[] value) {
+        return field != null && field.length == FIELD_BYTES && value != null && value.length == VALUE_BYTES;
+    }
+}
@@ -2,7 +2,17 @@ package com.ottproject.ottbackend.service;
 
 import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
 import com.ottproject.ottbackend.dto.EpisodeProgressResponseDto;
+import com.ottproject.ottbackend.dto.StagedProgressResultDto;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -12,11 +22,28 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,6 +52,8 @@ import org.springframework.stereotype.Service;
  * 큰 흐름
  * - 시청 진행률 쓰기를 Redis 버퍼에 받아 두고, 스케줄러가 주기적으로 DB 에 배치 반영한다(write-back).
  * - 요청 경로에서 DB 트랜잭션이 사라지므로 커넥션 점유가 없어진다.
+ * - 요청 경로에서는 Redis 왕복도 없다. 쓰기는 인스턴스 로컬 버퍼(ProgressWriteCoalescer)에 모였다가
+ *   수백 ms 주기로 파이프라인 HSET 으로 실린다. 읽기는 로컬 → Redis 버퍼 → 스냅샷 순으로 본다.
  *
  * 왜 이 구조인가
  * - 진행률은 전체 트래픽의 대부분을 차지하는데 요청 1건마다 SELECT + UPDATE + 커밋을 했다.
@@ -32,64 +61,201 @@ import org.springframework.stereotype.Service;
  * - 시청 위치는 몇 초 어긋나도 되는 데이터라 마지막 flush 이후 구간의 유실을 감수할 수 있다.
  *   결제·주문처럼 유실이 불가한 데이터에는 쓸 수 없는 패턴이다.
  *
+ * 샤딩
+ * - 버퍼는 userId 해시로 나눈 N 개의 해시로 쪼갠다(ott.progress.shards). 해시 하나에 모든 시청자가 몰리면
+ *   그 키가 Redis 슬롯 하나의 핫키가 되고, flush 도 한 스레드가 전부 upsert 해야 한다.
+ * - 샤드마다 rename/반영 주기와 락이 따로다. 인스턴스 여러 개, 또는 한 인스턴스의 반영 워커 여러 개가
+ *   서로 다른 샤드를 동시에 반영한다(ott.progress.flush-workers).
+ * - 한 사용자의 진행률은 항상 같은 샤드에 있으므로 read/readAll/evict 는 샤드 하나만 본다. 호출측은 샤딩을 모른다.
+ * - 키는 {샤드번호} 해시태그를 단다. 클러스터에서도 버퍼와 스냅샷이 같은 슬롯에 있어야 rename 이 된다.
+ * - 샤드 수를 바꾸면 사용자→샤드 대응이 바뀐다. 줄일 때는 남는 샤드가 반영되지 않으므로 버퍼를 비운 뒤 배포한다.
+ *
+ * 형식(v2)
+ * - 필드·값 모두 16바이트 고정 폭 바이너리다(ProgressBufferCodec). 문자열 연결·split·박싱 없이 읽고 쓴다.
+ * - v1(문자열 "userId:episodeId" → "위치:길이:시각")은 더 이상 쓰지 않는다. 배포된 적 있는 v1 은 샤딩 이전의 단일 키
+ *   (ott:progress-buffer:v1) 하나라, 그 키만 매 주기 DB 로 반영해 비우는 것으로 이관한다.
+ *   롤링 배포 중 구 인스턴스가 쓴 v1 값은 읽기에서 보이지 않는 대신 한 주기 안에 DB 로 내려간다.
+ *
  * 유실·정합성 메모
  * - Redis 다운 또는 flush 전 종료 시 그 구간 진행률은 사라진다(최대 flush 주기만큼).
  * - DB 는 항상 최신이 아니다. 진행률을 DB 에서 직접 읽는 경로(시청 기록 등)는 flush 주기만큼 뒤처진다.
  * - 조회는 버퍼를 먼저 보고 없을 때만 DB 로 내려가므로 사용자 관점에서는 즉시 반영으로 보인다.
  *
+ * 지표(/actuator/prometheus, Grafana "OTT Backend Overview")
+ * - progress.buffer.depth{tier=redis|local}: Redis 버퍼+스냅샷 항목 수(flush 시작 시 표본), 로컬 버퍼 항목 수
+ * - progress.buffer.oldest.age.seconds: Redis 버퍼+스냅샷에서 가장 오래 머문 항목의 나이(flush 시작 시, 들어내기 전 표본).
+ *   해시마다 단 표식 필드(ProgressBufferCodec.sinceField)로 잰다. 반영이 계속 실패해 쌓이는 샤드도 그대로 보인다.
+ * - progress.flush.duration / progress.flush.rows: flush 1회 소요 시간, 1회 실제 반영 행 수(히스토그램)
+ *   DB 쪽이 더 최신이라 덮지 않은 행은 반영 수에도, 버린 행 수에도 들어가지 않는다.
+ * - progress.flush.fallback{stage=copy|batch}: COPY → 배치 upsert, 배치 → 행 단위로 내려간 청크 수
+ * - progress.flush.dropped.rows{reason=malformed|rejected|orphan}: 형식 오류·행 단위 반영 실패·사용자/에피소드 삭제로 버린 행 수
+ * 주기(ott.progress.flush-interval-ms)와 청크 크기를 실제 부하에서 맞추기 위한 것이다.
+ *
  * 메서드 개요
  * - write/read/readAll/evict: 버퍼 입출력
- * - flush: 버퍼를 비우며 DB 배치 upsert
+ * - flush: 샤드별로 버퍼를 비우며 DB 배치 upsert(워커 풀에서 병렬, 스냅샷은 HSCAN 으로 청크씩)
+ *   청크마다 파생 조회 테이블도 함께 갱신한다. 완주 집계는 COPY 트랜잭션 안에서 스테이징으로(ProgressBulkLoader),
+ *   이어보기 목록은 반영 뒤에(ProgressReadModelUpdater)
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProgressBufferService {
 
-    private final StringRedisTemplate redisTemplate;
+    private final StringRedisTemplate redisTemplate; // v1(문자열 형식) 버퍼 이관 전용
+    private final RedisTemplate<byte[], byte[]> byteRedisTemplate; // v2(바이너리 형식) 버퍼
     private final PlayerProgressQueryMapper progressQueryMapper;
+    private final ProgressWriteCoalescer coalescer; // 요청 경로 쓰기를 모아 Redis 로 싣는 인스턴스 로컬 버퍼
+    private final ProgressBulkLoader bulkLoader; // 청크 반영 기본 경로(COPY → 스테이징 → 집합 upsert)
+    private final LockProvider lockProvider; // 샤드별 반영 락(ShedLock 과 같은 저장소)
+    private final ProgressReadModelUpdater readModels; // 청크 반영 뒤 정주행 집계·이어보기 목록 갱신
+    private final MeterRegistry meterRegistry; // 반영 파이프라인 지표 등록용
+
+    // 쓰기가 들어오는 버퍼. flush 시작 시 "<버퍼>:flushing" 으로 이름을 바꿔 통째로 들어낸다.
+    // 이름 변경 뒤 들어오는 쓰기는 새 버퍼로 가므로 유실되지 않는다.
+    private static final String SHARD_KEY_PREFIX = "ott:progress-buffer:v2:{";
+    private static final String FLUSHING_SUFFIX = ":flushing";
+    private static final String SHARD_LOCK_PREFIX = "ProgressBufferService_flush_v2_";
+    // v1 버퍼(문자열 형식). 롤링 배포 중 구 인스턴스가 쓰는 키라 비워질 때까지 계속 반영한다.
+    // 락 이름은 구 인스턴스가 쓰던 것 그대로다 — 같은 키를 신·구 인스턴스가 함께 반영하지 않는다.
+    private static final String LEGACY_BUFFER_KEY = "ott:progress-buffer:v1"; // 샤딩 이전의 단일 버퍼
+    private static final String LEGACY_FLUSHING_KEY = LEGACY_BUFFER_KEY + FLUSHING_SUFFIX;
+    private static final String LEGACY_LOCK_NAME = "ProgressBufferService_flush";
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(1);
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(1);
+    private static final int CHUNK_SIZE = 500; // 한 번에 적재·반영할 행 수(= HSCAN COUNT)
+
+    @Value("${ott.progress.shards:8}")
+    private int shardCount; // 버퍼 샤드 수(사용자 해시 기준)
+
+    @Value("${ott.progress.flush-workers:4}")
+    private int flushWorkers; // 동시에 반영하는 샤드 수 = 반영 중 점유하는 DB 커넥션 수 상한
+
+    private ExecutorService flushExecutor;
+    // 샤드 키는 요청마다 문자열을 만들지 않도록 미리 바이트로 만들어 둔다
+    private byte[][] bufferKeys;
+    private byte[][] flushingKeys;
+
+    // Redis 버퍼 깊이는 공유 값이라 어느 인스턴스가 재도 같다. 대시보드는 인스턴스 간 max 로 본다.
+    private final AtomicLong redisDepth = new AtomicLong();
+    // 이 인스턴스가 반영한 게 없으면 0 이다(다른 인스턴스가 반영했거나 비어 있음). 대시보드는 max 로 본다.
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private Timer flushTimer;
+    private DistributionSummary flushRows;
+    private Counter copyFallbacks;
+    private Counter batchFallbacks;
+    private Counter malformedRows;
+    private Counter rejectedRows;
+    private Counter orphanRows;
+    private final byte[] sinceField = ProgressBufferCodec.sinceField();
+
+    @PostConstruct
+    void init() {
+        bufferKeys = new byte[shardCount][];
+        flushingKeys = new byte[shardCount][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            String key = SHARD_KEY_PREFIX + shard + "}";
+            bufferKeys[shard] = key.getBytes(StandardCharsets.UTF_8);
+            flushingKeys[shard] = (key + FLUSHING_SUFFIX).getBytes(StandardCharsets.UTF_8);
+        }
+        flushExecutor = Executors.newFixedThreadPool(flushWorkers, new CustomizableThreadFactory("progress-flush-"));
+        registerMeters();
+    }
 
-    // 쓰기가 들어오는 버퍼. flush 시작 시 FLUSHING_KEY 로 이름을 바꿔 통째로 들어낸다.
-    private static final String BUFFER_KEY = "ott:progress-buffer:v1";
-    // 반영 중인 스냅샷. 이름 변경 뒤 들어오는 쓰기는 새 BUFFER_KEY 로 가므로 유실되지 않는다.
-    private static final String FLUSHING_KEY = "ott:progress-buffer:v1:flushing";
-    private static final int CHUNK_SIZE = 500; // 한 문장에 넣을 행 수
+    private void registerMeters() {
+        Gauge.builder("progress.buffer.depth", redisDepth, AtomicLong::get)
+                .tag("tier", "redis")
+                .description("Redis 진행률 버퍼+스냅샷 항목 수(flush 시작 시 표본)")
+                .register(meterRegistry);
+        Gauge.builder("progress.buffer.depth", coalescer, ProgressWriteCoalescer::size)
+                .tag("tier", "local")
+                .description("아직 Redis 로 싣지 않은 로컬 버퍼 항목 수")
+                .register(meterRegistry);
+        Gauge.builder("progress.buffer.oldest.age.seconds", oldestAgeMillis, v -> v.get() / 1000.0)
+                .description("Redis 진행률 버퍼+스냅샷에서 가장 오래 머문 항목의 나이(flush 시작 시 표본)")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("progress.flush.duration")
+                .description("진행률 버퍼 flush 1회 소요 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushRows = DistributionSummary.builder("progress.flush.rows")
+                .description("진행률 버퍼 flush 1회에 실제로 반영한 행 수(반영한 게 있을 때만)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        copyFallbacks = Counter.builder("progress.flush.fallback")
+                .tag("stage", "copy")
+                .description("COPY 적재가 실패해 배치 upsert 로 내려간 청크 수")
+                .register(meterRegistry);
+        batchFallbacks = Counter.builder("progress.flush.fallback")
+                .tag("stage", "batch")
+                .description("배치 upsert 가 실패해 행 단위 재시도로 내려간 청크 수")
+                .register(meterRegistry);
+        malformedRows = Counter.builder("progress.flush.dropped.rows")
+                .tag("reason", "malformed")
+                .description("형식 오류로 버린 버퍼 항목 수")
+                .register(meterRegistry);
+        rejectedRows = Counter.builder("progress.flush.dropped.rows")
+                .tag("reason", "rejected")
+                .description("행 단위 반영에서도 실패해 버린 행 수(FK 위반 등)")
+                .register(meterRegistry);
+        orphanRows = Counter.builder("progress.flush.dropped.rows")
+                .tag("reason", "orphan")
+                .description("사용자·에피소드가 삭제돼 COPY 반영 조인이 거른 행 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        flushExecutor.shutdown();
+    }
 
     /**
-     * 진행률 버퍼 기록(DB 접근 없음)
+     * 진행률 버퍼 기록(DB·Redis 접근 없음 — 로컬 버퍼에 넣고 끝난다. Redis 로는 coalescer 가 모아서 싣는다)
      */
     public void write(Long userId, Long episodeId, int positionSec, int durationSec) {
-        redisTemplate
-                .opsForHash()
-                .put(
-                        BUFFER_KEY,
-                        field(userId, episodeId),
-                        positionSec + ":" + durationSec + ":" + System.currentTimeMillis());
+        coalescer.put(
+                userId,
+                episodeId,
+                bufferKeys[shardOf(userId)],
+                ProgressBufferCodec.field(userId, episodeId),
+                ProgressBufferCodec.value(positionSec, durationSec, System.currentTimeMillis()));
     }
 
     /**
      * 버퍼에 있는 진행률 조회(없으면 empty — 호출측이 DB 로 내려간다)
      */
     public Optional<EpisodeProgressResponseDto> read(Long userId, Long episodeId) {
-        String f = field(userId, episodeId);
-        Object v = redisTemplate.opsForHash().get(BUFFER_KEY, f);
+        byte[] local = coalescer.get(userId, episodeId); // 아직 Redis 로 싣지 않은 값이 가장 최신이다
+        if (local != null) return Optional.of(toResponse(local));
+
+        int shard = shardOf(userId);
+        byte[] f = ProgressBufferCodec.field(userId, episodeId);
+        HashOperations<byte[], byte[], byte[]> ops = byteRedisTemplate.opsForHash();
+        byte[] v = ops.get(bufferKeys[shard], f);
         if (v == null) {
-            v = redisTemplate.opsForHash().get(FLUSHING_KEY, f); // 반영 중인 스냅샷도 아직 DB 에 없을 수 있다
+            v = ops.get(flushingKeys[shard], f); // 반영 중인 스냅샷도 아직 DB 에 없을 수 있다
         }
-        return v == null ? Optional.empty() : Optional.of(parse(v.toString()));
+        return v == null ? Optional.empty() : Optional.of(toResponse(v));
     }
 
     /**
      * 버퍼에 있는 진행률 일괄 조회(에피소드 ID 기준, 없는 것은 결과에서 빠진다)
      */
     public Map<Long, EpisodeProgressResponseDto> readAll(Long userId, Collection<Long> episodeIds) {
-        List<Object> fields =
-                episodeIds.stream().map(id -> (Object) field(userId, id)).toList();
+        int shard = shardOf(userId);
+        List<byte[]> fields = episodeIds.stream()
+                .map(id -> ProgressBufferCodec.field(userId, id))
+                .toList();
         List<Long> ids = new ArrayList<>(episodeIds);
+        HashOperations<byte[], byte[], byte[]> ops = byteRedisTemplate.opsForHash();
 
         Map<Long, EpisodeProgressResponseDto> result = new HashMap<>();
-        collectInto(result, ids, redisTemplate.opsForHash().multiGet(FLUSHING_KEY, fields));
-        collectInto(result, ids, redisTemplate.opsForHash().multiGet(BUFFER_KEY, fields)); // 최신값이 이기도록 나중에 덮는다
+        collectInto(result, ids, ops.multiGet(flushingKeys[shard], fields));
+        collectInto(result, ids, ops.multiGet(bufferKeys[shard], fields)); // 최신값이 이기도록 나중에 덮는다
+        for (Long id : ids) {
+            byte[] local = coalescer.get(userId, id); // 로컬 버퍼가 가장 최신이라 마지막에 덮는다
+            if (local != null) result.put(id, toResponse(local));
+        }
         return result;
     }
 
@@ -97,99 +263,295 @@ public class ProgressBufferService {
      * 버퍼에서 제거(진행률 삭제 시 — 남아 있으면 다음 flush 가 되살린다)
      */
     public void evict(Long userId, Collection<Long> episodeIds) {
-        Object[] fields =
-                episodeIds.stream().map(id -> (Object) field(userId, id)).toArray();
+        Object[] fields = episodeIds.stream()
+                .map(id -> (Object) ProgressBufferCodec.field(userId, id))
+                .toArray();
         if (fields.length == 0) return;
-        redisTemplate.opsForHash().delete(BUFFER_KEY, fields);
-        redisTemplate.opsForHash().delete(FLUSHING_KEY, fields);
+        int shard = shardOf(userId);
+        // 로컬에 남아 있으면 다음 전송이 Redis 에 되살리므로 로컬도 지운다. 진행 중인 전송 뒤에 Redis 를 지워야
+        // 전송이 이미 모은 옛 값이 삭제 뒤에 실리지 않는다(순서는 coalescer 가 맞춘다).
+        coalescer.remove(userId, episodeIds, () -> {
+            byteRedisTemplate.opsForHash().delete(bufferKeys[shard], fields);
+            byteRedisTemplate.opsForHash().delete(flushingKeys[shard], fields);
+        });
     }
 
     /**
      * 버퍼 → DB 배치 반영
      * - 기본 10 초 주기(ott.progress.flush-interval-ms 로 조정)
-     * - 인스턴스가 여러 개면 같은 스냅샷을 동시에 반영하려 하므로 ShedLock 으로 한 번만 돌게 한다.
+     * - 샤드마다 락을 따로 잡는다. 락을 못 잡은 샤드는 다른 인스턴스가 반영 중이므로 건너뛴다.
+     * - 시작 샤드를 무작위로 골라, 같은 순간에 깨어난 인스턴스들이 같은 샤드 락부터 다투지 않게 한다.
+     * - v1 단일 버퍼도 함께 반영한다(이관). 비어 있으면 락 1회와 EXISTS 2회로 끝난다.
      */
     @Scheduled(fixedDelayString = "${ott.progress.flush-interval-ms:10000}")
-    @SchedulerLock(name = "ProgressBufferService_flush", lockAtMostFor = "PT1M", lockAtLeastFor = "PT1S")
     public void flush() {
-        Map<Object, Object> snapshot = drain();
-        if (snapshot.isEmpty()) return;
+        long started = System.nanoTime();
+        sampleBuffer(); // 들어내기 전에 잰다
+        int offset = ThreadLocalRandom.current().nextInt(shardCount);
+        List<Future<Integer>> results = new ArrayList<>(shardCount + 1);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (offset + i) % shardCount;
+            results.add(flushExecutor.submit(() -> flushShard(
+                    byteRedisTemplate,
+                    bufferKeys[shard],
+                    flushingKeys[shard],
+                    SHARD_LOCK_PREFIX + shard,
+                    this::toRow)));
+        }
+        results.add(flushExecutor.submit(() ->
+                flushShard(redisTemplate, LEGACY_BUFFER_KEY, LEGACY_FLUSHING_KEY, LEGACY_LOCK_NAME, this::toRowV1)));
 
-        List<EpisodeProgressFlushDto> rows = new ArrayList<>(snapshot.size());
-        for (Map.Entry<Object, Object> e : snapshot.entrySet()) {
-            String[] key = e.getKey().toString().split(":");
-            EpisodeProgressResponseDto value = parse(e.getValue().toString());
-            rows.add(EpisodeProgressFlushDto.builder()
-                    .userId(Long.valueOf(key[0]))
-                    .episodeId(Long.valueOf(key[1]))
-                    .positionSec(value.getPositionSec())
-                    .durationSec(value.getDurationSec())
-                    .updatedAt(value.getUpdatedAt())
-                    .build());
+        int total = 0;
+        for (Future<Integer> result : results) {
+            try {
+                total += result.get();
+            } catch (ExecutionException ex) {
+                // 스냅샷이 남으므로 다음 주기에 그 샤드부터 다시 반영된다
+                log.warn("진행률 샤드 반영 실패 - 다음 주기에 재시도한다", ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (total > 0) {
+            flushRows.record(total);
+            log.debug("진행률 버퍼 반영 완료 - {}건", total);
+        }
+    }
 
-        for (int i = 0; i < rows.size(); i += CHUNK_SIZE) {
-            upsertChunk(rows.subList(i, Math.min(i + CHUNK_SIZE, rows.size())));
+    /**
+     * Redis 버퍼 표본(v2 샤드의 버퍼+스냅샷). 파이프라인 한 번으로 잰다. 지표용이라 실패해도 반영은 계속한다.
+     * - 깊이: HLEN 합에서 표식 필드를 뺀다.
+     * - 가장 오래된 항목의 나이: 표식 필드(처음 실린 시각) 중 가장 이른 것. 다른 인스턴스가 반영할 샤드도 포함한다.
+     */
+    private void sampleBuffer() {
+        try {
+            List<Object> replies = byteRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int shard = 0; shard < shardCount; shard++) {
+                    connection.hashCommands().hLen(bufferKeys[shard]);
+                    connection.hashCommands().hLen(flushingKeys[shard]);
+                    connection.hashCommands().hGet(bufferKeys[shard], sinceField);
+                    connection.hashCommands().hGet(flushingKeys[shard], sinceField);
+                }
+                return null;
+            });
+            long depth = 0;
+            long oldest = Long.MAX_VALUE;
+            for (Object reply : replies) {
+                if (reply instanceof Long n) {
+                    depth += n;
+                } else if (reply instanceof byte[] v) {
+                    depth--; // 표식 필드는 항목이 아니다
+                    long since = ProgressBufferCodec.sinceMillis(v);
+                    if (since >= 0) oldest = Math.min(oldest, since);
+                }
+            }
+            redisDepth.set(Math.max(depth, 0));
+            oldestAgeMillis.set(oldest == Long.MAX_VALUE ? 0 : Math.max(System.currentTimeMillis() - oldest, 0));
+        } catch (Exception ex) {
+            log.debug("진행률 버퍼 표본 측정 실패", ex);
         }
-        redisTemplate.delete(FLUSHING_KEY); // 반영이 끝난 스냅샷만 지운다
-        log.debug("진행률 버퍼 반영 완료 - {}건", rows.size());
     }
 
     /**
-     * 버퍼를 스냅샷으로 들어낸다.
-     * - 앞선 flush 가 실패해 남은 스냅샷이 있으면 그것을 먼저 처리한다.
+     * 샤드 하나를 락을 잡고 반영한다. 반영한 행 수를 돌려준다(락을 못 잡았으면 0).
+     *
+     * 스냅샷을 통째로 읽지 않는다
+     * - HGETALL 은 스냅샷 전체를 한 응답으로 받아 Map 하나에 올린다. Redis 장애나 DB 지연으로 버퍼가
+     *   수십만 건 쌓이면 그만큼 힙이 튀고, Redis 도 그 명령 하나에 묶인다.
+     * - HSCAN 커서로 CHUNK_SIZE 씩 걸으며 청크가 차는 대로 반영한다. 메모리는 청크 하나 크기로 고정된다.
+     * - 반영한 청크는 곧바로 스냅샷에서 HDEL 한다. 도중에 죽어도 남은 행만 다음 주기가 이어서 반영한다.
+     *   반영과 HDEL 사이에 죽으면 그 청크가 한 번 더 반영되는데, upsert 의 updated_at 가드가 있어 결과는 같다.
+     * - SCAN 은 순회 내내 남아 있는 필드는 반드시 돌려준다. 이미 돌려받은 필드를 지우는 것은 순회에 영향이 없다.
+     * - 해석할 수 없는 항목은 버리고 지운다. 남겨 두면 그 샤드가 매 주기 같은 자리에서 실패한다.
+     * - 표식 필드(ProgressBufferCodec.sinceField)는 항목이 아니므로 반영하지 않고 청크와 함께 지운다.
+     *
+     * 템플릿을 인자로 받는 이유: v2(바이너리)와 v1(문자열, 이관) 버퍼가 형식만 다르고 절차가 같다.
+     */
+    private <K> int flushShard(
+            RedisTemplate<K, ?> template,
+            K bufferKey,
+            K flushingKey,
+            String lockName,
+            Function<Map.Entry<Object, Object>, EpisodeProgressFlushDto> toRow) {
+        Optional<SimpleLock> lock = lockProvider.lock(
+                new LockConfiguration(Instant.now(), lockName, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR));
+        if (lock.isEmpty()) return 0;
+        try {
+            if (!drain(template, bufferKey, flushingKey)) return 0;
+
+            HashOperations<K, Object, Object> ops = template.opsForHash();
+            int total = 0;
+            List<EpisodeProgressFlushDto> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<Object> chunkFields = new ArrayList<>(CHUNK_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().count(CHUNK_SIZE).build();
+            try (Cursor<Map.Entry<Object, Object>> cursor = ops.scan(flushingKey, options)) {
+                while (cursor.hasNext()) {
+                    Map.Entry<Object, Object> e = cursor.next();
+                    if (e.getKey() instanceof byte[] f && ProgressBufferCodec.isSinceField(f)) {
+                        chunkFields.add(f);
+                        continue;
+                    }
+                    EpisodeProgressFlushDto row = toRow.apply(e);
+                    if (row != null) {
+                        chunk.add(row);
+                    } else {
+                        malformedRows.increment();
+                    }
+                    chunkFields.add(e.getKey());
+                    if (chunkFields.size() == CHUNK_SIZE) {
+                        total += applyChunk(ops, flushingKey, chunk, chunkFields);
+                        chunk = new ArrayList<>(CHUNK_SIZE); // 넘긴 목록은 반영 쪽이 쥘 수 있어 비워 쓰지 않는다
+                        chunkFields = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+            }
+            if (!chunkFields.isEmpty()) total += applyChunk(ops, flushingKey, chunk, chunkFields);
+
+            template.delete(flushingKey); // 순회 중 evict 등으로 남은 것이 없도록 스냅샷을 정리한다
+            return total;
+        } finally {
+            lock.get().unlock();
+        }
+    }
+
+    /**
+     * 버퍼를 스냅샷으로 들어낸다. 반영할 스냅샷이 있으면 true.
+     * - 앞선 flush 가 실패해 남은 스냅샷이 있으면 그것을 먼저 처리한다(반영된 청크는 이미 빠져 있다).
      * - rename 은 원자적이라 "읽고 지우는" 방식과 달리 그 사이에 들어온 쓰기를 잃지 않는다.
      */
-    private Map<Object, Object> drain() {
-        if (Boolean.FALSE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
-            if (Boolean.FALSE.equals(redisTemplate.hasKey(BUFFER_KEY))) return Map.of();
-            redisTemplate.rename(BUFFER_KEY, FLUSHING_KEY);
+    private <K> boolean drain(RedisTemplate<K, ?> template, K bufferKey, K flushingKey) {
+        if (Boolean.FALSE.equals(template.hasKey(flushingKey))) {
+            if (Boolean.FALSE.equals(template.hasKey(bufferKey))) return false;
+            template.rename(bufferKey, flushingKey);
+        }
+        return true;
+    }
+
+    /**
+     * 청크 하나를 반영하고 스냅샷에서 지운다. 실제로 반영한 행 수를 돌려준다.
+     */
+    private <K> int applyChunk(
+            HashOperations<K, Object, Object> ops,
+            K flushingKey,
+            List<EpisodeProgressFlushDto> chunk,
+            List<Object> chunkFields) {
+        int written = chunk.isEmpty() ? 0 : loadChunk(chunk);
+        ops.delete(flushingKey, chunkFields.toArray());
+        return written;
+    }
+
+    /**
+     * 청크 반영과 파생 조회 테이블 갱신. COPY 적재가 기본이고, 그 경로 자체가 실패할 때만(스테이징 테이블 문제,
+     * 드라이버 교체 등) 예전 배치 upsert 로 내려간다. 고아 행은 COPY 경로의 조인이 거르므로 그것 때문에 폴백하지는 않는다.
+     * COPY 경로는 완주 집계를 적재 트랜잭션 안에서 끝내므로 여기서는 이어보기만 갱신한다.
+     * 실제로 반영한 행 수를 돌려준다. COPY 조인이 거른 고아 행은 버린 행(reason=orphan)으로 센다.
+     */
+    private int loadChunk(List<EpisodeProgressFlushDto> chunk) {
+        StagedProgressResultDto result;
+        try {
+            result = bulkLoader.load(chunk);
+        } catch (Exception ex) {
+            log.warn("진행률 COPY 적재 실패({}건) - 배치 upsert 로 반영한다", chunk.size(), ex);
+            copyFallbacks.increment();
+            int written = upsertChunk(chunk);
+            readModels.apply(chunk);
+            return written;
+        }
+        int orphans = chunk.size() - result.getMatchedRows();
+        if (orphans > 0) {
+            orphanRows.increment(orphans);
+            log.debug("진행률 고아 행 {}건 버림(사용자·에피소드 삭제)", orphans);
         }
-        return redisTemplate.<Object, Object>opsForHash().entries(FLUSHING_KEY);
+        readModels.applyRecent(chunk);
+        return result.getAppliedRows();
     }
 
     /**
-     * 청크 단위 upsert. 한 행이 FK 위반(에피소드/사용자 삭제 등)이면 청크 전체가 실패하므로
-     * 그때만 행 단위로 다시 시도해 문제 행만 버린다.
+     * 청크 단위 upsert(폴백 경로). 한 행이 FK 위반(에피소드/사용자 삭제 등)이면 청크 전체가 실패하므로
+     * 그때만 행 단위로 다시 시도해 문제 행만 버린다. 실제로 반영한 행 수를 돌려준다.
      */
-    private void upsertChunk(List<EpisodeProgressFlushDto> chunk) {
+    private int upsertChunk(List<EpisodeProgressFlushDto> chunk) {
         try {
-            progressQueryMapper.upsertProgressBatch(chunk);
+            return progressQueryMapper.upsertProgressBatch(chunk);
         } catch (Exception ex) {
             log.warn("진행률 배치 반영 실패({}건) - 행 단위로 재시도한다", chunk.size(), ex);
+            batchFallbacks.increment();
+            int written = 0;
             for (EpisodeProgressFlushDto row : chunk) {
                 try {
-                    progressQueryMapper.upsertProgressBatch(List.of(row));
+                    written += progressQueryMapper.upsertProgressBatch(List.of(row));
                 } catch (Exception rowEx) {
+                    rejectedRows.increment();
                     log.error("진행률 반영 실패 - userId: {}, episodeId: {} (버림)", row.getUserId(), row.getEpisodeId(), rowEx);
                 }
             }
+            return written;
         }
     }
 
-    private void collectInto(Map<Long, EpisodeProgressResponseDto> target, List<Long> ids, List<Object> values) {
+    private void collectInto(Map<Long, EpisodeProgressResponseDto> target, List<Long> ids, List<byte[]> values) {
         if (values == null) return;
         for (int i = 0; i < values.size(); i++) {
-            Object v = values.get(i);
-            if (v != null) target.put(ids.get(i), parse(v.toString()));
+            byte[] v = values.get(i);
+            if (v != null) target.put(ids.get(i), toResponse(v));
         }
     }
 
-    private String field(Long userId, Long episodeId) {
-        return userId + ":" + episodeId;
+    private int shardOf(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), shardCount);
+    }
+
+    private EpisodeProgressResponseDto toResponse(byte[] value) {
+        return EpisodeProgressResponseDto.builder()
+                .positionSec(ProgressBufferCodec.positionSec(value))
+                .durationSec(ProgressBufferCodec.durationSec(value))
+                .updatedAt(toLocalDateTime(ProgressBufferCodec.updatedAtMillis(value)))
+                .build();
     }
 
     /**
-     * 버퍼 값 형식: "위치:길이:기록시각(epoch millis)"
-     * JSON 대신 구분자를 쓴다 — 요청마다 직렬화가 도는 자리라 비용을 최소화한다.
+     * v2 항목 → 반영 행. 형식이 맞지 않으면 null(버린다).
      */
-    private EpisodeProgressResponseDto parse(String raw) {
-        String[] parts = raw.split(":");
-        return EpisodeProgressResponseDto.builder()
-                .positionSec(Integer.valueOf(parts[0]))
-                .durationSec(Integer.valueOf(parts[1]))
-                .updatedAt(
-                        LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[2])), ZoneId.systemDefault()))
+    private EpisodeProgressFlushDto toRow(Map.Entry<Object, Object> e) {
+        byte[] field = (byte[]) e.getKey();
+        byte[] value = (byte[]) e.getValue();
+        if (!ProgressBufferCodec.isValid(field, value)) {
+            log.error("진행률 버퍼 항목 형식 오류 - 필드 {}바이트 (버림)", field == null ? 0 : field.length);
+            return null;
+        }
+        return EpisodeProgressFlushDto.builder()
+                .userId(ProgressBufferCodec.userId(field))
+                .episodeId(ProgressBufferCodec.episodeId(field))
+                .positionSec(ProgressBufferCodec.positionSec(value))
+                .durationSec(ProgressBufferCodec.durationSec(value))
+                .updatedAt(toLocalDateTime(ProgressBufferCodec.updatedAtMillis(value)))
                 .build();
     }
+
+    /**
+     * v1 항목 → 반영 행. 필드 "userId:episodeId", 값 "위치:길이:기록시각(epoch millis)". 해석할 수 없으면 null.
+     * 이관 전용이다. v1 키가 모두 비워진 뒤에는 이 경로가 돌지 않는다.
+     */
+    private EpisodeProgressFlushDto toRowV1(Map.Entry<Object, Object> e) {
+        try {
+            String[] key = e.getKey().toString().split(":");
+            String[] parts = e.getValue().toString().split(":");
+            return EpisodeProgressFlushDto.builder()
+                    .userId(Long.valueOf(key[0]))
+                    .episodeId(Long.valueOf(key[1]))
+                    .positionSec(Integer.valueOf(parts[0]))
+                    .durationSec(Integer.valueOf(parts[1]))
+                    .updatedAt(toLocalDateTime(Long.parseLong(parts[2])))
+                    .build();
+        } catch (RuntimeException ex) {
+            log.error("진행률 버퍼(v1) 항목 형식 오류 - field: {} (버림)", e.getKey(), ex);
+            return null;
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
 }
@@ -0,0 +1,140 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import com.ottproject.ottbackend.dto.StagedProgressResultDto;
+import com.ottproject.ottbackend.mybatis.BingeWatchMapper;
+import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ProgressBulkLoader
+ *
+ * 큰 흐름
+ * - 버퍼 flush 의 청크 하나를 PostgreSQL COPY 로 스테이징 테이블(episode_progress_staging)에 흘려 넣고,
+ *   집합 연산 한 문장으로 episode_progress 에 반영한다. 같은 트랜잭션에서 같은 스테이징으로
+ *   정주행 완주 집계(user_anime_completion)도 다시 센다.
+ *
+ * 왜 이 구조인가
+ * - 예전 배치 upsert 는 청크마다 VALUES 목록이 다른 문장을 만들어 매번 파싱·계획했다. COPY 는 문장이 고정이고
+ *   행은 데이터 스트림으로만 간다.
+ * - 한 행이라도 FK 위반이면 청크가 통째로 실패해 행 단위 재시도로 떨어졌다. 반영 문장이 users/episodes 와
+ *   조인하므로 고아 행은 조용히 빠지고 나머지는 한 번에 들어간다.
+ * - "DB 값이 더 최신이면 덮지 않는다" 가드는 배치 upsert 와 같은 ON CONFLICT ... WHERE 로 유지한다.
+ *
+ * 스테이징 테이블
+ * - 세션 임시 테이블(ON COMMIT DELETE ROWS)이다. 커넥션마다 처음 한 번 만들어지고, 커밋 때 비워진다.
+ * - 공유 테이블에 배치 번호를 달아 넣고 DELETE 하던 방식은 flush 마다 죽은 튜플을 남겨 vacuum 을 불렀다.
+ *   임시 테이블은 세션 전용이라 배치 번호가 필요 없고, 커밋 시 비우기는 truncate 라 죽은 튜플이 없다. WAL 도 남기지 않는다.
+ *
+ * 완주 집계
+ * - 청크를 VALUES 목록으로 다시 보내지 않고 스테이징을 그대로 읽는다. 문장이 고정이라 청크마다 만들고 파싱할 것이 없다.
+ * - 집계 실패가 진행률 반영까지 되돌리면 안 되므로 세이브포인트 안에서 돌리고, 실패하면 그 문장만 되돌린다
+ *   (PostgreSQL 은 문장 하나가 실패하면 트랜잭션 전체가 중단 상태가 된다). 값은 그 쌍을 다음에 건드릴 때 바로잡힌다.
+ *
+ * 쓰기 수단 메모
+ * - episode_progress 쓰기는 여전히 매퍼 한 곳에서만 나간다(ARCHITECTURE 3). 여기서 JDBC 로 직접 쓰는 것은
+ *   스테이징 테이블뿐이다. MyBatis 에는 COPY 를 실을 방법이 없다.
+ * - COPY 와 매퍼 문장이 같은 커넥션을 써야 하므로 트랜잭션에 묶인 커넥션을 DataSourceUtils 로 받는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressBulkLoader {
+
+    // 풀의 커넥션(세션)마다 처음 한 번만 만들어진다. 이후 호출은 이미 있어 건너뛴다.
+    private static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE IF NOT EXISTS episode_progress_staging ("
+            + "user_id BIGINT NOT NULL, episode_id BIGINT NOT NULL, position_sec INTEGER NOT NULL,"
+            + " duration_sec INTEGER NOT NULL, updated_at TIMESTAMP NOT NULL) ON COMMIT DELETE ROWS";
+    private static final String COPY_SQL = "COPY episode_progress_staging"
+            + " (user_id, episode_id, position_sec, duration_sec, updated_at) FROM STDIN";
+
+    private final DataSource dataSource;
+    private final PlayerProgressQueryMapper progressQueryMapper;
+    private final BingeWatchMapper bingeWatchMapper;
+
+    /**
+     * 청크 하나를 적재·반영하고 완주 집계를 갱신한다. 반영 대상 행 수와 실제로 반영(삽입 또는 갱신)된 행 수를 돌려준다.
+     * 고아 행은 대상 수에서, DB 쪽이 더 최신인 행은 반영 수에서 빠진다.
+     */
+    @Transactional
+    public StagedProgressResultDto load(List<EpisodeProgressFlushDto> rows) {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            copyIn(con, rows);
+        } catch (SQLException ex) {
+            throw new UncategorizedSQLException("진행률 COPY 적재", COPY_SQL, ex); // 롤백되도록 런타임 예외로 바꾼다
+        }
+        StagedProgressResultDto result = progressQueryMapper.applyStagedProgress();
+        refreshCompletion(con, rows.size()); // 스테이징은 커밋 때 비워지므로 그 전에 센다
+        return result;
+    }
+
+    /**
+     * 스테이징으로 완주 집계를 다시 센다. 실패하면 세이브포인트까지만 되돌려 진행률 반영은 살린다.
+     */
+    private void refreshCompletion(Connection con, int size) {
+        Savepoint savepoint;
+        try {
+            savepoint = con.setSavepoint();
+        } catch (SQLException ex) {
+            throw new UncategorizedSQLException("진행률 완주 집계 세이브포인트", null, ex);
+        }
+        try {
+            bingeWatchMapper.refreshCompletionFromStaging();
+            con.releaseSavepoint(savepoint);
+        } catch (RuntimeException | SQLException ex) {
+            log.warn("정주행 완주 집계 갱신 실패({}건) - 다음 반영 때 바로잡힌다", size, ex);
+            try {
+                con.rollback(savepoint);
+            } catch (SQLException rollbackEx) {
+                throw new UncategorizedSQLException("진행률 완주 집계 세이브포인트 복구", null, rollbackEx);
+            }
+        }
+    }
+
+    /**
+     * COPY 텍스트 형식(탭 구분, 행마다 줄바꿈)으로 흘려 넣는다.
+     * 값이 전부 숫자·ISO 시각이라 이스케이프할 문자가 나오지 않는다.
+     */
+    private void copyIn(Connection con, List<EpisodeProgressFlushDto> rows) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(CREATE_STAGING_SQL);
+        }
+        CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder line = new StringBuilder(64);
+            for (EpisodeProgressFlushDto r : rows) {
+                line.setLength(0);
+                line.append(r.getUserId())
+                        .append('\t')
+                        .append(r.getEpisodeId())
+                        .append('\t')
+                        .append(r.getPositionSec())
+                        .append('\t')
+                        .append(r.getDurationSec())
+                        .append('\t')
+                        .append(r.getUpdatedAt()) // ISO-8601(2026-10-17T12:00:00.123) 은 timestamp 입력으로 그대로 받는다
+                        .append('\n');
+                byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+                copy.writeToCopy(bytes, 0, bytes.length);
+            }
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) copy.cancelCopy(); // 도중 실패 시 커넥션을 COPY 상태로 남기지 않는다
+        }
+    }
+}
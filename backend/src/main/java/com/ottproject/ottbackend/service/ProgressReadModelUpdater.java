@@ -0,0 +1,73 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import com.ottproject.ottbackend.mybatis.BingeWatchMapper;
+import com.ottproject.ottbackend.mybatis.RecentAnimeMapper;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * ProgressReadModelUpdater
+ *
+ * 큰 흐름
+ * - 진행률 flush 가 청크 하나를 episode_progress 에 반영한 직후, 진행률에서 파생되는 조회용 테이블을 갱신한다.
+ *   - user_anime_completion: 정주행 판정용 사용자×작품 완주 에피소드 수
+ *   - user_recent_anime: 이어보기 목록((사용자, 작품)당 최신 회차 한 행, 사용자당 상한)
+ *
+ * 왜 flush 에서 하는가
+ * - 두 목록 모두 예전에는 조회 때마다 사용자의 진행률 전체를 집계했다. 진행률이 바뀌는 곳은 flush 한 곳이라
+ *   거기서 건드린 키만 고치면 조회는 인덱스 한 번으로 끝난다.
+ *
+ * 경로별 분담
+ * - COPY 경로: 완주 집계는 ProgressBulkLoader 가 반영과 같은 트랜잭션에서 스테이징을 읽어 센다. 여기서는 이어보기만 한다(applyRecent).
+ * - 폴백(배치 upsert) 경로: 스테이징이 없으므로 여기서 청크를 넘겨 둘 다 갱신한다(apply).
+ *
+ * 실패 처리
+ * - 진행률은 이미 반영됐으므로 여기서 실패해도 청크를 다시 반영하지 않는다(경고만 남긴다).
+ *   완주 집계는 그 쌍을 다음에 건드릴 때, 이어보기는 그 작품을 다음에 볼 때 바로잡힌다.
+ * - 두 갱신은 서로 독립이다. 하나가 실패해도 다른 하나는 진행한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressReadModelUpdater {
+
+    private final BingeWatchMapper bingeWatchMapper;
+    private final RecentAnimeMapper recentAnimeMapper;
+
+    @Value("${ott.progress.recent-anime-cap:100}")
+    private int recentAnimeCap; // 사용자당 이어보기 행 수 상한
+
+    /**
+     * 폴백 경로로 반영이 끝난 청크로 두 파생 테이블을 갱신한다.
+     */
+    public void apply(List<EpisodeProgressFlushDto> chunk) {
+        if (chunk.isEmpty()) return;
+        try {
+            bingeWatchMapper.refreshCompletion(chunk);
+        } catch (Exception ex) {
+            log.warn("정주행 완주 집계 갱신 실패({}건) - 다음 반영 때 바로잡힌다", chunk.size(), ex);
+        }
+        applyRecent(chunk);
+    }
+
+    /**
+     * COPY 경로로 반영이 끝난 청크로 이어보기 목록을 갱신한다(완주 집계는 적재 트랜잭션에서 끝났다).
+     */
+    public void applyRecent(List<EpisodeProgressFlushDto> chunk) {
+        if (chunk.isEmpty()) return;
+        try {
+            recentAnimeMapper.upsertFromProgress(chunk);
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (EpisodeProgressFlushDto row : chunk) userIds.add(row.getUserId());
+            recentAnimeMapper.trimToCap(userIds, recentAnimeCap);
+        } catch (Exception ex) {
+            log.warn("이어보기 목록 갱신 실패({}건) - 다음 반영 때 바로잡힌다", chunk.size(), ex);
+        }
+    }
+}
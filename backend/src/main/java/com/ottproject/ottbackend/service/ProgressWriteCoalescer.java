@@ -0,0 +1,158 @@
+package com.ottproject.ottbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * ProgressWriteCoalescer
+ *
+ * 큰 흐름
+ * - 진행률 하트비트를 인스턴스 메모리에 (사용자, 에피소드) 단위로 모아 두었다가, 짧은 주기로 Redis 버퍼에
+ *   파이프라인 HSET 으로 한꺼번에 싣는다. 요청 스레드는 Redis 왕복 없이 맵에 넣고 끝난다.
+ *
+ * 왜 이 구조인가
+ * - 시청자는 5초마다 하트비트를 보내고 의미 있는 것은 마지막 값뿐이다. 요청마다 HSET 한 번씩 동기로 보내면
+ *   진행률 저장 응답 시간에 Redis 왕복이 그대로 얹힌다.
+ * - 같은 키의 값이 주기 안에 여러 번 오면 마지막 것만 남는다(ConcurrentHashMap 이 키별로 잠금을 나눠 경합이 적다).
+ *
+ * 유실·정합성 메모
+ * - 인스턴스가 비정상 종료되면 아직 싣지 못한 구간(최대 ott.progress.coalesce-interval-ms)이 사라진다.
+ *   정상 종료는 @PreDestroy 에서 남은 것을 모두 싣는다.
+ * - 같은 인스턴스의 읽기는 get 으로 로컬 값을 먼저 본다. 다른 인스턴스는 주기만큼 늦게 본다.
+ * - Redis 전송이 실패하면 맵에서 지우지 않고 다음 주기에 다시 싣는다. 맵 크기는 활성 (사용자, 에피소드) 수가 상한이다.
+ * - 전송이 끝난 항목은 "보낸 그 값일 때만" 지운다. 그 사이 새 하트비트가 왔으면 남겨 다음 주기에 싣는다.
+ * - 삭제(remove)와 전송(ship)은 같은 락으로 순서를 맞춘다. 전송은 항목을 모으는 순간부터 HSET 이 끝날 때까지 락을 쥔다.
+ *   삭제가 그 사이에 끼면 이미 모은 옛 값이 삭제 뒤에 Redis 로 되살아나기 때문이다. 삭제는 전송 앞이면 로컬에서 빠져
+ *   실리지 않고, 뒤면 Redis 삭제가 실린 값을 지운다. 삭제는 드문 경로라 한 번의 전송을 기다리는 비용만 든다.
+ * - 묶음마다 대상 버퍼 해시에 표식 필드(ProgressBufferCodec.sinceField)를 HSETNX 로 단다. 버퍼가 비워진 뒤 처음 실은
+ *   시각만 남아 "가장 오래 머문 항목의 나이" 지표가 된다(ProgressBufferService).
+ *
+ * 메서드 개요
+ * - put/get/remove: 로컬 버퍼 입출력
+ * - ship: 모인 값을 파이프라인으로 Redis 버퍼에 싣는다(스케줄)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressWriteCoalescer {
+
+    private static final int PIPELINE_SIZE = 1000; // 파이프라인 한 번에 싣는 명령 수
+
+    private final RedisTemplate<byte[], byte[]> byteRedisTemplate;
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final byte[] sinceField = ProgressBufferCodec.sinceField();
+    private final ReentrantLock shipLock = new ReentrantLock(); // ship 과 remove 의 순서를 맞춘다
+
+    private record Key(long userId, long episodeId) {}
+
+    private record Pending(byte[] bufferKey, byte[] field, byte[] value) {}
+
+    /**
+     * 로컬 버퍼에 기록(같은 키의 이전 값은 덮는다)
+     */
+    public void put(long userId, long episodeId, byte[] bufferKey, byte[] field, byte[] value) {
+        pending.put(new Key(userId, episodeId), new Pending(bufferKey, field, value));
+    }
+
+    /**
+     * 아직 Redis 로 보내지 않은 값(없으면 null)
+     */
+    public byte[] get(long userId, long episodeId) {
+        Pending p = pending.get(new Key(userId, episodeId));
+        return p == null ? null : p.value();
+    }
+
+    /**
+     * 아직 싣지 않은 항목 수(지표용)
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 로컬 버퍼에서 제거하고 이어서 Redis 쪽 삭제(redisDelete)를 부른다(진행률 삭제 시).
+     * 진행 중인 전송이 있으면 끝날 때까지 기다린다. 그래야 전송이 이미 모은 옛 값이 삭제 뒤에 되살아나지 않는다.
+     */
+    public void remove(long userId, Collection<Long> episodeIds, Runnable redisDelete) {
+        shipLock.lock();
+        try {
+            for (Long episodeId : episodeIds) {
+                pending.remove(new Key(userId, episodeId));
+            }
+            redisDelete.run();
+        } finally {
+            shipLock.unlock();
+        }
+    }
+
+    /**
+     * 로컬 버퍼 → Redis 버퍼(파이프라인 HSET). 기본 200ms 주기.
+     * 인스턴스마다 자기 메모리를 비우는 작업이라 분산락을 걸지 않는다. 로컬 락(shipLock)은 remove 와의 순서용이다.
+     */
+    @Scheduled(fixedDelayString = "${ott.progress.coalesce-interval-ms:200}")
+    public void ship() {
+        if (pending.isEmpty()) return;
+        shipLock.lock();
+        try {
+            List<Map.Entry<Key, Pending>> batch = new ArrayList<>(Math.min(pending.size(), PIPELINE_SIZE));
+            for (Map.Entry<Key, Pending> e : pending.entrySet()) {
+                batch.add(Map.entry(e.getKey(), e.getValue()));
+                if (batch.size() == PIPELINE_SIZE) {
+                    if (!send(batch)) return; // Redis 가 안 되면 이번 주기는 접는다
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) send(batch);
+        } finally {
+            shipLock.unlock();
+        }
+    }
+
+    /**
+     * 정상 종료 시 남은 값을 모두 싣는다.
+     */
+    @PreDestroy
+    void drain() {
+        ship();
+    }
+
+    private boolean send(List<Map.Entry<Key, Pending>> batch) {
+        byte[] since = ProgressBufferCodec.since(System.currentTimeMillis());
+        // 버퍼 키 배열은 샤드마다 하나를 같이 쓰므로 동일성으로 묶는다(샤드 수만큼만 HSETNX)
+        Set<byte[]> bufferKeys = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            byteRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Key, Pending> e : batch) {
+                    Pending p = e.getValue();
+                    if (bufferKeys.add(p.bufferKey())) {
+                        connection.hashCommands().hSetNX(p.bufferKey(), sinceField, since);
+                    }
+                    connection.hashCommands().hSet(p.bufferKey(), p.field(), p.value());
+                }
+                return null;
+            });
+        } catch (Exception ex) {
+            log.warn("진행률 로컬 버퍼 전송 실패({}건) - 다음 주기에 재시도한다", batch.size(), ex);
+            return false;
+        }
+        for (Map.Entry<Key, Pending> e : batch) {
+            pending.remove(e.getKey(), e.getValue()); // 그 사이 새 값이 왔으면 남긴다
+        }
+        return true;
+    }
+}
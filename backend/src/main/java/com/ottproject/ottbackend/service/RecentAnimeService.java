@@ -1,7 +1,10 @@
 package com.ottproject.ottbackend.service;
 
+import com.ottproject.ottbackend.mybatis.BingeWatchMapper;
 import com.ottproject.ottbackend.mybatis.EpisodeMapper;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
+import com.ottproject.ottbackend.mybatis.RecentAnimeMapper;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,7 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
  *
  * 큰 흐름
  * - 사용자의 최근본 목록을 관리한다.
- * - 삭제 시 시청 기록은 유지하고 최근본 목록에서만 숨김 처리한다.
+ * - 숨김 시 시청 기록은 유지하고 이어보기 목록(user_recent_anime)의 그 작품 행만 숨긴다.
  *
  * 메서드 개요
  * - hideFromRecent: 최근본 목록에서 숨김 처리
@@ -27,31 +30,20 @@ public class RecentAnimeService {
     private final PlayerProgressQueryMapper progressQueryMapper;
     private final EpisodeMapper episodeMapper;
     private final ProgressBufferService progressBuffer;
+    private final BingeWatchMapper bingeWatchMapper;
+    private final RecentAnimeMapper recentAnimeMapper;
 
     /**
      * 최근본 목록에서 숨김 처리
-     * 해당 애니메이션의 모든 에피소드 진행률을 hidden_in_recent = true로 설정
+     * 이어보기 목록(user_recent_anime)의 그 작품 한 행만 숨긴다. 시청 기록(episode_progress)은 그대로다.
+     * 숨긴 뒤에 그 작품을 다시 보면 다음 flush 에서 목록에 돌아온다.
      *
      * @param userId 사용자 ID
      * @param aniId 애니메이션 ID
      */
     @Transactional
     public void hideFromRecent(Long userId, Long aniId) {
-        System.out.println("🔧 [SERVICE] RecentAnimeService.hideFromRecent 시작");
-        System.out.println("🔧 [SERVICE] 파라미터 - userId: " + userId + ", aniId: " + aniId);
-
-        // 해당 애니메이션의 모든 에피소드 ID 조회
-        List<Long> episodeIds = episodeMapper.findEpisodesByAnimeId(aniId).stream()
-                .map(episode -> episode.getId())
-                .toList();
-
-        System.out.println("🔧 [SERVICE] 숨김 처리할 에피소드 수: " + episodeIds.size());
-
-        if (!episodeIds.isEmpty()) {
-            // 해당 에피소드들의 진행률을 hidden_in_recent = true로 업데이트
-            progressQueryMapper.updateHiddenInRecent(userId, episodeIds, true);
-            System.out.println("🔧 [SERVICE] 최근본 목록에서 숨김 처리 완료");
-        }
+        recentAnimeMapper.hide(userId, aniId, LocalDateTime.now());
     }
 
     /**
@@ -78,6 +70,9 @@ public class RecentAnimeService {
             progressQueryMapper.deleteProgressByUserAndEpisodes(userId, episodeIds);
             // 아직 DB 에 반영되지 않은 버퍼 값이 남아 있으면 다음 flush 가 삭제한 행을 되살린다
             progressBuffer.evict(userId, episodeIds);
+            // 완주 집계는 진행률이 모두 지워졌으니 행째 지운다(남기면 정주행 목록에 계속 나온다)
+            bingeWatchMapper.deleteCompletion(userId, aniId);
+            recentAnimeMapper.delete(userId, aniId); // 기록이 없어졌으니 이어보기에서도 뺀다
             System.out.println("🔧 [SERVICE] 정주행 목록에서 완전 삭제 완료");
         }
     }
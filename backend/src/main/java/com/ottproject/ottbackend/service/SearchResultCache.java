@@ -0,0 +1,251 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.PagedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * SearchResultCache
+ *
+ * 큰 흐름
+ * - 본검색(SearchService.search) 결과 페이지를 인스턴스 메모리에 캐시한다. 키는 SearchService 가 만든 정규화 키
+ *   (키워드 NFC + 소문자 + 공백 정리, 정렬된 장르/태그, 정렬, 페이지, 크기)다.
+ * - 검색 트래픽은 소수의 인기 키워드에 몰린다. 같은 키워드가 수천 번 들어와도 목록 쿼리 + COUNT 가 매번 나가던 것을
+ *   첫 한 번으로 줄인다.
+ *
+ * 무효화
+ * - 카탈로그 버전(CatalogVersionService)이 바뀌면 통째로 비운다. 버전은 관리자 쓰기가 커밋 후 올린다.
+ * - 평점처럼 버전을 올리지 않는 변경(관련도 순서에 들어간다)은 ttl-seconds 가 오차 상한이다.
+ * - 버전을 못 읽으면(Redis 장애) 캐시를 건너뛴다 — 바뀐 걸 알 수 없는 동안 옛 결과를 주지 않는다.
+ *
+ * 입장(admission) — 빈도 기반
+ * - 키마다 최근 요청 빈도를 count-min 스케치(FrequencySketch)로 센다. 히트/미스 모두 센다.
+ * - 자리가 남으면 그냥 넣는다. 가득 찼으면 캐시 안에서 빈도가 가장 낮은 항목(희생자)과 비교해
+ *   새 키의 빈도가 더 높을 때만 희생자를 내보내고 넣는다(TinyLFU 입장 규칙).
+ *   한 번 들어오고 마는 키워드가 인기 키워드를 밀어내지 못한다.
+ * - 스케치는 일정 횟수마다 모든 칸을 반으로 줄인다. 어제의 인기 키워드도 시간이 지나면 새 키워드에 자리를 내준다.
+ *
+ * 왜 이 구조인가
+ * - NearCache 와 같은 이유로 캐시 라이브러리 없이 ConcurrentHashMap 이다. 읽기(히트)는 잠금 없이 맵 조회 한 번이고,
+ *   입장/축출만 잠근다(미스는 어차피 DB 를 다녀온 뒤라 잠금 비용이 보이지 않는다).
+ * - 희생자는 가득 찼을 때 전체를 한 번 훑어 고른다. 항목 수가 max-size(기본 2000)로 작아 DB 왕복보다 훨씬 싸다.
+ * - 같은 PagedResponse 객체를 여러 요청이 받는다. 호출부(SearchController)는 그대로 직렬화만 한다 — 고치지 않는다.
+ *
+ * 지표
+ * - search.cache{result=hit|miss|bypass}: hit / (hit + miss) 가 적중률
+ * - search.cache.admission{result=admitted|rejected}
+ * - search.cache.saved.queries: 히트로 건너뛴 DB 쿼리 수(목록 + COUNT). SearchService 의 search.db.queries 와 합쳐
+ *   saved / (saved + db) 가 DB 쿼리 감소율이다.
+ * - search.cache.size
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchResultCache {
+
+    private final CatalogVersionService catalogVersionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.search.cache.max-size:2000}")
+    private int maxSize; // 0 이면 끈다
+
+    @Value("${ott.search.cache.ttl-seconds:60}")
+    private long ttlSeconds; // 버전을 올리지 않는 변경(평점)의 오차 상한
+
+    private LongSupplier nanoClock = System::nanoTime; // 테스트가 ReflectionTestUtils 로 바꾼다
+
+    /** DB 에서 읽은 한 페이지와 그걸 만드느라 나간 쿼리 수. */
+    public record Loaded(PagedResponse<AnimeListDto> page, int queries) {}
+
+    private record Entry(Loaded loaded, long expiresAt) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long version = Long.MIN_VALUE; // 지금 항목들을 채운 카탈로그 버전
+    private FrequencySketch sketch;
+
+    // 지표(init 에서 한 번 만든다)
+    private Counter hits;
+    private Counter misses;
+    private Counter bypasses;
+    private Counter admitted;
+    private Counter rejected;
+    private Counter savedQueries;
+
+    @PostConstruct
+    void init() {
+        sketch = new FrequencySketch(Math.max(maxSize, 1));
+        Gauge.builder("search.cache.size", entries, Map::size)
+                .description("본검색 결과 캐시 항목 수")
+                .register(meterRegistry);
+        hits = lookupCounter("hit");
+        misses = lookupCounter("miss");
+        bypasses = lookupCounter("bypass");
+        admitted = admissionCounter("admitted");
+        rejected = admissionCounter("rejected");
+        savedQueries = Counter.builder("search.cache.saved.queries")
+                .description("결과 캐시 히트로 건너뛴 DB 쿼리 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * key 의 결과 페이지. 없으면 loader 로 읽고 입장 규칙에 따라 넣는다.
+     */
+    public PagedResponse<AnimeListDto> get(String key, Supplier<Loaded> loader) {
+        CatalogVersionService.Version v = maxSize > 0 ? catalogVersionService.current() : null;
+        if (v == null) {
+            bypasses.increment();
+            return loader.get().page();
+        }
+        if (v.number() != version) {
+            synchronized (this) {
+                if (v.number() != version) {
+                    entries.clear();
+                    version = v.number();
+                    log.debug("[SearchCache] catalog version {} - cleared", version);
+                }
+            }
+        }
+        sketch.increment(key);
+
+        Entry e = entries.get(key);
+        if (e != null && e.expiresAt() - nanoClock.getAsLong() > 0) {
+            hits.increment();
+            savedQueries.increment(e.loaded().queries());
+            return e.loaded().page();
+        }
+        misses.increment();
+        Loaded loaded = loader.get();
+        admit(key, loaded, v.number());
+        return loaded.page();
+    }
+
+    private synchronized void admit(String key, Loaded loaded, long loadedVersion) {
+        if (loadedVersion != version) return; // 읽는 사이 버전이 바뀌었다 — 옛 결과일 수 있다
+        Entry entry = new Entry(loaded, nanoClock.getAsLong() + Duration.ofSeconds(ttlSeconds).toNanos());
+        if (entries.containsKey(key) || entries.size() < maxSize) {
+            entries.put(key, entry);
+            admitted.increment();
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        entries.values().removeIf(x -> x.expiresAt() - now <= 0);
+        if (entries.size() < maxSize) {
+            entries.put(key, entry);
+            admitted.increment();
+            return;
+        }
+        String victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (String k : entries.keySet()) {
+            int f = sketch.frequency(k);
+            if (f < victimFrequency) {
+                victim = k;
+                victimFrequency = f;
+            }
+        }
+        if (sketch.frequency(key) > victimFrequency) {
+            entries.remove(victim);
+            entries.put(key, entry);
+            admitted.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("search.cache")
+                .tag("result", result)
+                .description("본검색 결과 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+
+    private Counter admissionCounter(String result) {
+        return Counter.builder("search.cache.admission")
+                .tag("result", result)
+                .description("본검색 결과 캐시 입장 결과")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 키별 최근 빈도 추정(count-min 스케치, 4 줄). 칸은 15 에서 멈추고, 더한 횟수가 폭의 10 배가 되면 모든 칸을 반으로 줄인다.
+     * 추정은 실제보다 작지 않다(충돌은 크게만 센다).
+     */
+    static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX = 15;
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+
+        private final int[] table;
+        private final int width;
+        private final int sampleSize; // 이만큼 더하면 반으로 줄인다
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int w = 64;
+            while (w < capacity * 4) w <<= 1;
+            width = w;
+            table = new int[DEPTH * w];
+            sampleSize = 10 * w;
+        }
+
+        synchronized void increment(String key) {
+            int h = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int i = index(h, row);
+                if (table[i] < MAX) {
+                    table[i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        synchronized int frequency(String key) {
+            int h = spread(key.hashCode());
+            int min = MAX;
+            for (int row = 0; row < DEPTH; row++) min = Math.min(min, table[index(h, row)]);
+            return min;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) table[i] >>>= 1;
+            additions /= 2;
+        }
+
+        private int index(int h, int row) {
+            long x = (h + SEEDS[row]) * SEEDS[row];
+            x += x >>> 32;
+            return row * width + ((int) x & (width - 1));
+        }
+
+        private static int spread(int h) {
+            h ^= h >>> 17;
+            h *= 0xed5ad4bb;
+            h ^= h >>> 11;
+            return h;
+        }
+    }
+}
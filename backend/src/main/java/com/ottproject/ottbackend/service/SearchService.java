@@ -2,15 +2,30 @@ package com.ottproject.ottbackend.service;
 
 import com.ottproject.ottbackend.dto.AnimeListDto;
 import com.ottproject.ottbackend.dto.PagedResponse;
+import com.ottproject.ottbackend.dto.SearchAllAnimeDto;
+import com.ottproject.ottbackend.dto.SearchAllDto;
+import com.ottproject.ottbackend.dto.SearchAllEntityDto;
+import com.ottproject.ottbackend.dto.SearchSuggestPersonDto;
 import com.ottproject.ottbackend.dto.SearchSuggestTitleDto;
 import com.ottproject.ottbackend.mybatis.SearchQueryMapper;
 import com.ottproject.ottbackend.util.PageLimitUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,8 +35,27 @@ import org.springframework.transaction.annotation.Transactional;
  * - 자동완성/본검색을 위한 읽기 전용 서비스를 제공한다(MyBatis 연동).
  *
  * 메서드 개요
- * - suggest: 자동완성(제목만)
+ * - suggest: 자동완성(제목만). 메모리 인덱스(AnimeSuggestIndex)에서 풀고, 적재 전이면 SQL 로 간다.
+ *   트랜잭션을 열지 않는다(SUPPORTS) — 인덱스 경로는 커넥션을 빌리지 않는다.
+ *   초성("ㄱㅁㅇ")/조합 중 음절("귀며")/오타는 인덱스 경로에서만 풀린다(SQL 경로는 부분일치만).
+ * - suggestPeople: 인물(성우/감독) 자동완성. suggest 와 같은 경로.
  * - search: 본검색(키워드 + 장르 AND + 태그 OR + 정렬 + 페이지)
+ *   키워드는 전문 검색(search_tsv, 단어마다 접두 일치 tsquery)과 search_text 부분일치로 찾는다 — 붙여 쓴 한국어
+ *   합성어 안의 중간 일치("피스" → 원피스)는 tsvector 가 못 잡는다. 부분일치는 3글자 이상이면 트라이그램 GIN 을 타고,
+ *   1~2글자는 트라이그램 조각이 없어 순차 필터다(카탈로그 규모라 허용). 3글자 이상이면 오타(단어 유사도)도 더한다.
+ *   sort=relevance 는 ts_rank(+ 유사도) × 인기 가중 순이다.
+ *   총 개수: 이번 페이지가 덜 찼으면 세지 않고(offset + 받은 수가 곧 전체), 아니면 countCap 까지만 센다.
+ *   흔한 단어로 수만 건이 걸려도 COUNT 가 전부를 훑지 않는다(상한이면 total 은 "그 이상"의 뜻).
+ *   결과 페이지는 SearchResultCache 에 정규화 키로 캐시한다(인기 키워드가 몰릴 때 목록 + COUNT 를 한 번으로).
+ *   suggest 처럼 트랜잭션을 열지 않는다(SUPPORTS) — 미스일 때의 목록/COUNT 는 각자 자동 커밋으로 읽는다.
+ *   키워드 정규화: NFC(macOS 등에서 오는 풀어 쓴 한글을 모아 쓴 한글로) + 연속 공백을 하나로. DB 에도 이 값을 넘기므로
+ *   같은 키가 같은 결과를 낸다. 키에서는 소문자로도 맞춘다(조건이 모두 대소문자를 가리지 않는다).
+ * - searchAll: 통합 검색(작품 + 성우/캐릭터/감독/제작사, 종류별 상위 limit). 메모리 인덱스(AnimeSuggestIndex)가 풀고,
+ *   연결된 엔티티로 작품도 찾는다. 적재 전이면 SQL(본검색 첫 페이지 + 엔티티 이름 부분일치)로 가고, 이때는 연결 작품을 풀지 않는다.
+ *
+ * 지표
+ * - search.duration{endpoint=title|all, path=db|cache|index|sql}: 본검색과 통합 검색의 처리 시간. 통합 검색이 본검색 예산 안인지 여기서 비교한다.
+ * - search.db.queries: 본검색이 실제로 DB 에 보낸 쿼리 수(목록 + COUNT). 캐시 지표는 SearchResultCache 참고.
  */
 @Slf4j
 @Service // 스프링 서비스 컴포넌트
@@ -29,31 +63,169 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true) // 읽기 전용 트랜잭션
 public class SearchService {
     private final SearchQueryMapper mapper; // Mybatis 매퍼 의존성
+    private final AnimeSuggestIndex suggestIndex; // 메모리 자동완성 인덱스
+    private final MeterRegistry meterRegistry; // 검색 처리 시간
+    private final SearchResultCache resultCache; // 본검색 결과 페이지 캐시
+
+    static final int TRIGRAM_MIN_LENGTH = 3; // 오타 유사도를 켜는 최소 길이(트라이그램 조각을 뽑을 수 있어야 한다)
+
+    @Value("${ott.search.count-cap:1000}")
+    private long countCap; // 총 개수를 이 수에서 멈춘다(다음 페이지 유무를 알 만큼은 항상 센다)
+
+    // 지표(init 에서 한 번 만든다)
+    private Timer titleFromDb;
+    private Timer titleFromCache;
+    private Timer allFromIndex;
+    private Timer allFromSql;
+    private Counter dbQueries;
 
+    @PostConstruct
+    void init() {
+        titleFromDb = durationTimer("title", "db");
+        titleFromCache = durationTimer("title", "cache");
+        allFromIndex = durationTimer("all", "index");
+        allFromSql = durationTimer("all", "sql");
+        dbQueries = Counter.builder("search.db.queries")
+                .description("본검색이 DB 에 보낸 쿼리 수")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS) // 클래스의 readOnly 트랜잭션이 키 입력마다 커넥션을 잡지 않게
     public List<SearchSuggestTitleDto> suggest(String q, int limit) { // 자동완성 메서드
         String query = (q == null) ? "" : q.trim(); // 공백 트림
         if (query.isEmpty()) return List.of(); // 최소 1자 보장
         int safeLimit = (limit <= 0 || limit > 50) ? 10 : limit; // 기본 10, 상한 50
-        return mapper.suggestTitles(query, safeLimit); // 매퍼 호출
+        List<SearchSuggestTitleDto> fromIndex = suggestIndex.suggest(query, safeLimit); // 적재 전이면 null
+        return fromIndex != null ? fromIndex : mapper.suggestTitles(query, safeLimit); // 매퍼 호출
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SearchSuggestPersonDto> suggestPeople(String q, int limit) { // 인물 자동완성
+        String query = (q == null) ? "" : q.trim();
+        if (query.isEmpty()) return List.of();
+        int safeLimit = (limit <= 0 || limit > 50) ? 10 : limit; // suggest 와 같은 한도
+        List<SearchSuggestPersonDto> fromIndex = suggestIndex.suggestPeople(query, safeLimit); // 적재 전이면 null
+        return fromIndex != null ? fromIndex : mapper.suggestPeople(query, safeLimit);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS) // 인덱스가 풀면 커넥션이 필요 없다
+    public SearchAllDto searchAll(String q, int limit) { // 통합 검색
+        String query = (q == null) ? "" : q.trim();
+        if (query.isEmpty()) return new SearchAllDto(List.of(), List.of(), List.of(), List.of(), List.of());
+        int safeLimit = (limit <= 0 || limit > 20) ? 5 : limit; // 그룹마다 기본 5, 상한 20
+        long started = System.nanoTime();
+        SearchAllDto fromIndex = suggestIndex.searchAll(query, safeLimit); // 적재 전이면 null
+        SearchAllDto result = fromIndex != null ? fromIndex : searchAllFromSql(query, safeLimit);
+        record(fromIndex != null ? allFromIndex : allFromSql, started);
+        return result;
     }
 
+    /** 인덱스 적재 전 경로: 작품은 본검색 첫 페이지(관련도순), 엔티티는 이름 부분일치. */
+    private SearchAllDto searchAllFromSql(String q, int limit) {
+        List<SearchAllAnimeDto> animes = mapper.searchAnimes(
+                        q, toPrefixTsQuery(q), usesTrigram(q), null, 0, null, "relevance", limit, 0)
+                .stream()
+                .map(a -> new SearchAllAnimeDto(a.getAniId(), a.getTitle(), a.getPosterUrl(), "TITLE", null))
+                .toList();
+        Map<String, List<SearchAllEntityDto>> byKind = mapper.searchEntities(q, limit).stream()
+                .collect(Collectors.groupingBy(SearchAllEntityDto::getKind));
+        return new SearchAllDto(animes,
+                byKind.getOrDefault("VOICE_ACTOR", List.of()),
+                byKind.getOrDefault("CHARACTER", List.of()),
+                byKind.getOrDefault("DIRECTOR", List.of()),
+                byKind.getOrDefault("STUDIO", List.of()));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS) // 캐시 히트는 커넥션도 트랜잭션도 잡지 않는다
     public PagedResponse<AnimeListDto> search(
             String query, List<Long> genreIds, List<Long> tagIds, String sort, int page, int size) { // 본검색 메서드
-        String q = (query == null) ? "" : query.trim(); // 트림
+        long started = System.nanoTime();
+        String q = normalizeQuery(query); // NFC + 공백 정리
         List<Long> distinctGenres = (genreIds == null)
                 ? null
-                : genreIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()); // 장르 정제
-        Integer genreCount = (distinctGenres == null) ? 0 : distinctGenres.size(); // AND 개수
+                : genreIds.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList()); // 장르 정제
         List<Long> distinctTags = (tagIds == null)
                 ? null
-                : tagIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()); // 태그 정제
-        size = PageLimitUtil.clampSize(size); // 상한 강제. 아래 limit/offset 과 응답의 size 가 모두 이 값에서 나온다
+                : tagIds.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList()); // 태그 정제
+        int clamped = PageLimitUtil.clampSize(size); // 상한 강제. 아래 limit/offset 과 응답의 size 가 모두 이 값에서 나온다
+        String key = q.toLowerCase(Locale.ROOT) + '\0' + distinctGenres + '\0' + distinctTags + '\0' + sort
+                + '\0' + page + '\0' + clamped; // 장르/태그는 정렬해 둬서 순서만 다른 요청이 같은 키다
+        boolean[] fromDb = {false};
+        PagedResponse<AnimeListDto> result = resultCache.get(key, () -> {
+            fromDb[0] = true;
+            return load(q, distinctGenres, distinctTags, sort, page, clamped);
+        });
+        record(fromDb[0] ? titleFromDb : titleFromCache, started);
+        return result;
+    }
+
+    /** 본검색 한 페이지를 DB 에서 읽는다(목록 + 필요하면 COUNT). */
+    private SearchResultCache.Loaded load(
+            String q, List<Long> distinctGenres, List<Long> distinctTags, String sort, int page, int size) {
+        Integer genreCount = (distinctGenres == null) ? 0 : distinctGenres.size(); // AND 개수
         int limit = size; // LIMIT 계산
         int offset = Math.max(page, 0) * size; // OFFSET 계산
 
-        List<AnimeListDto> items =
-                mapper.searchAnimes(q, distinctGenres, genreCount, distinctTags, sort, limit, offset); // 목록 조회
-        long total = mapper.countSearchAnimes(q, distinctGenres, genreCount, distinctTags); // 총 개수 조회
-        return new PagedResponse<>(items, total, page, size); // 페이지 응답 생성
+        String tsQuery = toPrefixTsQuery(q); // 단어 접두 tsquery(토큰이 없으면 null)
+        boolean trigram = usesTrigram(q); // 짧은 키워드는 오타 유사도를 끈다(중간 일치는 항상)
+
+        List<AnimeListDto> items = mapper.searchAnimes(
+                q, tsQuery, trigram, distinctGenres, genreCount, distinctTags, sort, limit, offset); // 목록 조회
+        long total;
+        int queries = 1;
+        if (items.size() < limit && (offset == 0 || !items.isEmpty())) {
+            total = (long) offset + items.size(); // 마지막 페이지: 세지 않아도 안다
+        } else {
+            long cap = Math.max(countCap, (long) offset + limit + 1); // 지금 페이지 뒤가 더 있는지는 알 만큼
+            total = mapper.countSearchAnimes(q, tsQuery, trigram, distinctGenres, genreCount, distinctTags, cap);
+            queries++;
+        }
+        dbQueries.increment(queries);
+        return new SearchResultCache.Loaded(new PagedResponse<>(items, total, page, size), queries); // 페이지 응답 생성
+    }
+
+    /** 키워드 정규화: NFC + 앞뒤 공백 제거 + 연속 공백을 하나로. null 이면 빈 문자열. */
+    static String normalizeQuery(String query) {
+        if (query == null) return "";
+        return Normalizer.normalize(query, Normalizer.Form.NFC).trim().replaceAll("\\s+", " ");
+    }
+
+    private static boolean usesTrigram(String q) {
+        return q.codePointCount(0, q.length()) >= TRIGRAM_MIN_LENGTH;
+    }
+
+    private static void record(Timer timer, long started) {
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer durationTimer(String endpoint, String path) {
+        return Timer.builder("search.duration")
+                .tag("endpoint", endpoint)
+                .tag("path", path)
+                .description("검색 처리 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 키워드 → 단어마다 접두 일치인 tsquery("진격의 거인" → "진격의:* & 거인:*").
+     * NFKC + 소문자 뒤 글자/숫자가 아닌 문자에서 자르므로 tsquery 문법 문자(& | ! : ' 등)가 들어가지 않는다.
+     * @return 토큰이 하나도 없으면 null
+     */
+    static String toPrefixTsQuery(String q) {
+        String n = Normalizer.normalize(q, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < n.length(); ) {
+            int cp = n.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isLetterOrDigit(cp)) {
+                token.appendCodePoint(cp);
+            } else if (token.length() > 0) {
+                terms.add(token + ":*");
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) terms.add(token + ":*");
+        return terms.isEmpty() ? null : String.join(" & ", terms);
     }
 }
@@ -47,6 +47,11 @@ public class SimpleAnimeDataCollectorService {
     private final CharacterRepository characterRepository;
     private final DirectorRepository directorRepository;
     private final AnimeBatchProcessor animeBatchProcessor;
+    private final AnimeListCountCache animeListCountCache;
+    private final AnimeFilterIndex animeFilterIndex;
+    private final AnimeCacheService animeCacheService;
+    private final CatalogVersionService catalogVersionService;
+    private final AnimeSuggestIndex animeSuggestIndex;
     private final PlatformTransactionManager transactionManager;
     // 자기 자신을 프록시로 얻기 위한 provider.
     // 같은 클래스 안에서 collectAnime(...) 을 직접 호출하면 프록시를 타지 않아 @Transactional 이 적용되지 않는다.
@@ -177,6 +182,12 @@ public class SimpleAnimeDataCollectorService {
                 throw new RuntimeException("연관 엔티티 처리 중 오류 발생", e);
             }
 
+            animeListCountCache.invalidate(); // 새 작품이 들어왔으니 목록 개수 캐시를 커밋 후에 비운다
+            animeFilterIndex.refresh(anime.getId()); // 필터 인덱스에도 커밋 후 이 한 건을 더한다
+            animeSuggestIndex.refresh(anime.getId()); // 자동완성 인덱스도 같다
+            animeCacheService.evictFacets(); // 새 시즌/연도/태그가 옵션 목록에 들어올 수 있다
+            catalogVersionService.bump(); // 공개 목록 ETag 를 커밋 후 새 번호로
+
             long duration = System.currentTimeMillis() - startTime;
             log.info("🎉 애니메이션 수집 완료: {} (MAL ID: {}, 소요시간: {}ms)", anime.getTitle(), malId, duration);
 
@@ -0,0 +1,170 @@
+package com.ottproject.ottbackend.service;
+
+import com.ottproject.ottbackend.dto.SkipHistogramBucketDto;
+import com.ottproject.ottbackend.dto.SkipUsageEventDto;
+import com.ottproject.ottbackend.enums.SkipType;
+import com.ottproject.ottbackend.mybatis.SkipUsageMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * SkipUsageIngestor
+ *
+ * 큰 흐름
+ * - 스킵 사용 이벤트를 요청 스레드에서 고정 크기 큐에 넣고 끝낸다. 백그라운드 적재기가 주기적으로 큐를 비워
+ *   배치 INSERT 한 문장씩 skip_usage 에 적재하고, 같은 배치로 에피소드별 스킵 시점 히스토그램을 누적한다.
+ *
+ * 왜 이 구조인가
+ * - 예전에는 스킵 버튼 한 번마다 쓰기 트랜잭션을 열고 User·Episode 엔티티를 findById 로 읽은 뒤 한 행을 넣었다.
+ *   통계성 로그 한 줄에 커넥션 점유와 SELECT 두 번이 붙었다.
+ * - 이제 요청 경로에는 DB 접근이 없다. 적재는 외래 키 값만 쓰고, 없는 에피소드·사용자는 INSERT 문의 조인이 거른다.
+ *
+ * 유실·역압 메모
+ * - 스킵 로그는 통계용이라 유실을 감수한다. 큐가 차면 새 이벤트를 버리고 센다(요청 스레드를 막지 않는다).
+ *   적재 실패한 배치도 다시 넣지 않고 센다. 비정상 종료 시 큐에 남은 것은 사라진다. 정상 종료는 @PreDestroy 에서 비운다.
+ * - 지표: skip.ingest.queue.depth(큐 길이), skip.ingest.queue.remaining(남은 자리),
+ *   skip.ingest.written(적재 행), skip.ingest.dropped{reason=queue_full|orphan|write_failed},
+ *   skip.ingest.batch.duration(배치 1회 적재 시간).
+ *
+ * 메서드 개요
+ * - offer: 이벤트 접수(요청 스레드)
+ * - drain: 큐를 비워 배치 적재 + 히스토그램 누적(스케줄)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SkipUsageIngestor {
+
+    private static final int BATCH_SIZE = 500; // INSERT 한 문장에 싣는 행 수
+    private static final int BUCKET_SEC = 5; // 히스토그램 구간 폭(초)
+
+    private final SkipUsageMapper skipUsageMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ott.skip.queue-capacity:10000}")
+    private int queueCapacity; // 큐 크기. 적재가 밀려도 힙이 이 이상 늘지 않는다
+
+    private BlockingQueue<SkipUsageEventDto> queue;
+    private Counter written;
+    private Counter droppedQueueFull;
+    private Counter droppedOrphan;
+    private Counter droppedWriteFailed;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("skip.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("적재를 기다리는 스킵 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("skip.ingest.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("스킵 이벤트 큐의 남은 자리(0 이면 새 이벤트를 버린다)")
+                .register(meterRegistry);
+        written = Counter.builder("skip.ingest.written")
+                .description("적재한 스킵 이벤트 수")
+                .register(meterRegistry);
+        droppedQueueFull = dropped("queue_full", "큐가 가득 차 버린 스킵 이벤트 수");
+        droppedOrphan = dropped("orphan", "없는 에피소드·사용자라 적재에서 빠진 스킵 이벤트 수");
+        droppedWriteFailed = dropped("write_failed", "적재 실패로 버린 스킵 이벤트 수");
+        batchTimer = Timer.builder("skip.ingest.batch.duration")
+                .description("스킵 이벤트 배치 1회 적재 시간(히스토그램 누적 포함)")
+                .register(meterRegistry);
+    }
+
+    private Counter dropped(String reason, String description) {
+        return Counter.builder("skip.ingest.dropped")
+                .tag("reason", reason)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이벤트 접수. 큐가 가득 차면 버리고 false(요청은 그대로 202 로 끝난다).
+     */
+    public boolean offer(Long userId, Long episodeId, SkipType type, int atSec) {
+        SkipUsageEventDto event = SkipUsageEventDto.builder()
+                .userId(userId)
+                .episodeId(episodeId)
+                .skipType(type.name())
+                .atSec(atSec)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (queue.offer(event)) return true;
+        droppedQueueFull.increment();
+        return false;
+    }
+
+    /**
+     * 큐 → DB. 기본 1초 주기. 배치 크기만큼씩 큐가 빌 때까지 적재한다.
+     * 인스턴스마다 자기 메모리를 비우는 작업이라 분산락을 걸지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${ott.skip.flush-interval-ms:1000}")
+    public void drain() {
+        List<SkipUsageEventDto> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            write(batch);
+            batch = new ArrayList<>(BATCH_SIZE); // 넘긴 목록은 매퍼 쪽이 쥘 수 있어 비워 쓰지 않는다
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        drain();
+    }
+
+    private void write(List<SkipUsageEventDto> batch) {
+        long started = System.nanoTime();
+        try {
+            int inserted = skipUsageMapper.insertBatch(batch);
+            written.increment(inserted);
+            if (inserted < batch.size()) droppedOrphan.increment(batch.size() - inserted);
+        } catch (Exception ex) {
+            droppedWriteFailed.increment(batch.size());
+            log.warn("스킵 사용 로그 적재 실패({}건) - 버린다", batch.size(), ex);
+            return;
+        } finally {
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        try {
+            skipUsageMapper.addHistogram(histogram(batch));
+        } catch (Exception ex) {
+            log.warn("스킵 시점 히스토그램 누적 실패({}건)", batch.size(), ex);
+        }
+    }
+
+    /**
+     * 배치 하나를 (에피소드, 유형, 구간)별 건수로 접는다.
+     */
+    static List<SkipHistogramBucketDto> histogram(List<SkipUsageEventDto> batch) {
+        record Key(Long episodeId, String skipType, int bucketSec) {}
+        Map<Key, Long> counts = new HashMap<>();
+        for (SkipUsageEventDto e : batch) {
+            counts.merge(new Key(e.getEpisodeId(), e.getSkipType(), e.getAtSec() / BUCKET_SEC * BUCKET_SEC), 1L, Long::sum);
+        }
+        List<SkipHistogramBucketDto> buckets = new ArrayList<>(counts.size());
+        counts.forEach((k, hits) -> buckets.add(SkipHistogramBucketDto.builder()
+                .episodeId(k.episodeId())
+                .skipType(k.skipType())
+                .bucketSec(k.bucketSec())
+                .hits(hits)
+                .build()));
+        return buckets;
+    }
+}
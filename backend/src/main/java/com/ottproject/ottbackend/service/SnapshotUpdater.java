@@ -0,0 +1,150 @@
+package com.ottproject.ottbackend.service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * SnapshotUpdater
+ *
+ * 큰 흐름
+ * - 메모리 인덱스(AnimeFilterIndex, AnimeSuggestIndex)의 스냅샷 갱신 절차를 한 곳에 둔다.
+ *   인덱스는 "전체 적재"와 "한 건 부분 갱신" 두 함수만 넘기고, 어느 스레드에서·언제·누구에게 알리며 부를지는 여기서 정한다.
+ *
+ * 절차
+ * - 갱신은 인덱스마다 전용 단일 스레드에서만 돈다. 스냅샷 교체 순서가 꼬이지 않는다.
+ * - refresh/rebuild 요청은 트랜잭션 안이면 커밋 후에, 밖이면 바로 큐에 넣고 Redis 채널로 다른 인스턴스에 알린다.
+ *   본문은 "보낸 인스턴스|aniId" 또는 "보낸 인스턴스|*" 이고, 보낸 인스턴스는 자기 메시지를 건너뛴다.
+ *   알림이 실패해도 다른 인스턴스는 주기 재적재 때 따라잡는다.
+ * - 기동 적재(loadBlocking)가 시간 안에 못 끝나도 그 적재는 계속 돈다. 기동 완료 후의 뒷받침(loadIfNotReady)은
+ *   그 적재가 아직 돌고 있으면 하나 더 넣지 않는다(전체 적재가 연달아 두 번 돌지 않게).
+ *
+ * 인덱스 쪽에 남는 것
+ * - enabled 검사, 주기(@Scheduled)·기동 완료(@EventListener) 훅, 적재/부분 갱신 본문과 그 실패 처리.
+ */
+@Slf4j
+final class SnapshotUpdater {
+
+    static final String ALL = "*"; // 전체 재적재 대상
+
+    private final String name; // 로그 머리말
+    private final String channel;
+    private final Runnable rebuild; // 전체 적재(실패 처리는 인덱스가 한다)
+    private final LongConsumer refresh; // 한 건 부분 갱신
+    private final BooleanSupplier ready; // 스냅샷이 있는가
+    private final BiConsumer<String, String> publisher; // (채널, 본문) 발행
+
+    private final String instanceId = UUID.randomUUID().toString(); // 자기 브로드캐스트 식별용
+    private final ExecutorService executor; // 스냅샷 교체는 이 스레드에서만
+    private volatile Future<?> startupLoad; // loadBlocking 이 넣은 적재
+
+    SnapshotUpdater(
+            String name,
+            String threadName,
+            String channel,
+            Runnable rebuild,
+            LongConsumer refresh,
+            BooleanSupplier ready,
+            BiConsumer<String, String> publisher) {
+        this.name = name;
+        this.channel = channel;
+        this.rebuild = rebuild;
+        this.refresh = refresh;
+        this.ready = ready;
+        this.publisher = publisher;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 전체 적재를 넣고 끝나거나 timeout 이 지날 때까지 기다린다.
+     * @return 적재돼 있으면 true
+     */
+    boolean loadBlocking(Duration timeout) throws InterruptedException {
+        Future<?> load = executor.submit(rebuild);
+        startupLoad = load;
+        try {
+            load.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("[{}] startup load not finished in {}ms - 요청은 SQL 경로로 받다가 적재되면 넘어간다",
+                    name, timeout.toMillis());
+        }
+        return ready.getAsBoolean();
+    }
+
+    /** 적재 전이고 기동 적재가 돌고 있지도 않으면 전체 적재를 넣는다. */
+    void loadIfNotReady() {
+        Future<?> load = startupLoad;
+        if (ready.getAsBoolean() || (load != null && !load.isDone())) return;
+        executor.execute(rebuild);
+    }
+
+    /** 주기 전체 재적재. 인스턴스마다 따로 돌므로 알리지 않는다. */
+    void rebuildLocally() {
+        executor.execute(rebuild);
+    }
+
+    /** 한 건 갱신(커밋 후 반영 + 알림). */
+    void refresh(long aniId) {
+        afterCommit(String.valueOf(aniId));
+    }
+
+    /** 전체 재적재(커밋 후 반영 + 알림). */
+    void rebuild() {
+        afterCommit(ALL);
+    }
+
+    /** 다른 인스턴스가 보낸 갱신. 자기 메시지는 이미 반영했으므로 건너뛴다. */
+    void onRemote(String body) {
+        int sep = body.indexOf('|');
+        if (sep < 0 || body.substring(0, sep).equals(instanceId)) return;
+        submit(body.substring(sep + 1));
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void afterCommit(String target) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitAndBroadcast(target);
+                }
+            });
+        } else {
+            submitAndBroadcast(target);
+        }
+    }
+
+    private void submitAndBroadcast(String target) {
+        submit(target);
+        try {
+            publisher.accept(channel, instanceId + "|" + target);
+        } catch (Exception e) {
+            log.warn("[{}] broadcast failed target={} - 다른 인스턴스는 주기 재적재 때 따라잡는다", name, target, e);
+        }
+    }
+
+    private void submit(String target) {
+        executor.execute(() -> {
+            if (ALL.equals(target)) rebuild.run();
+            else refresh.accept(Long.parseLong(target));
+        });
+    }
+}
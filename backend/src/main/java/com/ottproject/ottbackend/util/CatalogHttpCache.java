@@ -0,0 +1,116 @@
+package com.ottproject.ottbackend.util;
+
+import com.ottproject.ottbackend.service.CatalogVersionService;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * CatalogHttpCache
+ *
+ * 큰 흐름
+ * - 공개 카탈로그 읽기 응답에 HTTP 캐시 헤더를 붙인다: 엔드포인트별 Cache-Control, Surrogate-Key(CDN 퍼지용 태그),
+ *   카탈로그 버전(CatalogVersionService) 기반의 강한 ETag + Last-Modified.
+ * - If-None-Match 가 지금 ETag 와 같으면 본문을 만들지 않고(DB/캐시를 읽지 않고) 304 를 준다.
+ *   If-Modified-Since 만 온 경우는 응답의 Last-Modified 를 보고 Spring(HttpEntityMethodProcessor)이 304 로 바꾼다.
+ *
+ * ETag 규칙
+ * - "c{버전}-{rollover 구간}-{정책}" 이다. ETag 는 URL 마다 따로 비교되므로 쿼리 파라미터를 넣을 필요가 없다.
+ * - rollover 구간(etag-rollover-seconds, 기본 10분)을 섞는 이유: bump 를 부르지 않는 쓰기(배치 보강 등)가 있어도
+ *   옛 본문을 304 로 계속 확인해 주는 기간이 그 구간을 넘지 않게 한다(AnimeListCountCache 의 TTL 과 같은 생각).
+ * - 미리 만든 gzip 본문(PreparedJsonBody)은 내용 해시 ETag 를 그대로 쓰고, 여기서는 헤더만 보탠다.
+ *   압축하지 않은 응답의 버전 ETag 와 값이 겹치지 않으므로 표현별 ETag 가 섞이지 않는다.
+ *
+ * 사용자별 값
+ * - 로그인 사용자의 상세(isFavorited 포함)는 personal(): private, no-cache 이고 Surrogate-Key 가 없다.
+ *   공유 캐시(CDN/프록시)에 남지 않는다.
+ * - 비로그인 상세는 공유 캐시에 둘 수 있지만 같은 URL 을 로그인 사용자도 부르므로 Vary: Cookie 를 단다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogHttpCache {
+
+    static final String SURROGATE_KEY = "Surrogate-Key";
+    static final String CATALOG_TAG = "catalog"; // 모든 공개 카탈로그 응답에 붙는 태그(버전이 오르면 이걸로 통째 퍼지)
+
+    private final CatalogVersionService catalogVersionService;
+
+    @Value("${ott.catalog.etag-rollover-seconds:600}")
+    private long rolloverSeconds; // bump 밖의 쓰기가 옛 본문으로 확인되는 기간 상한
+
+    /**
+     * 엔드포인트별 공유 캐시 정책. 브라우저 max-age 는 짧게, CDN s-maxage 는 원본 캐시 TTL 을 넘지 않게 둔다.
+     */
+    public enum Policy {
+        LIST(Duration.ofSeconds(30), Duration.ofMinutes(5), false), // 목록/스크롤
+        DETAIL(Duration.ofSeconds(60), Duration.ofMinutes(10), true), // 비로그인 상세
+        POPULAR(Duration.ofSeconds(60), Duration.ofMinutes(5), false), // 원본 캐시 TTL 5분
+        WEEKLY(Duration.ofMinutes(5), Duration.ofMinutes(10), false),
+        OPTIONS(Duration.ofMinutes(5), Duration.ofHours(1), false), // 장르/필터 옵션
+        SUGGEST(Duration.ofSeconds(60), Duration.ofMinutes(5), false); // 자동완성
+
+        private final Duration maxAge;
+        private final Duration sharedMaxAge;
+        private final boolean varyCookie;
+
+        Policy(Duration maxAge, Duration sharedMaxAge, boolean varyCookie) {
+            this.maxAge = maxAge;
+            this.sharedMaxAge = sharedMaxAge;
+            this.varyCookie = varyCookie;
+        }
+    }
+
+    /**
+     * 공개 응답 헤더: Cache-Control + Surrogate-Key("catalog {key}") + Vary.
+     */
+    public HttpHeaders headers(Policy policy, String surrogateKey) {
+        HttpHeaders h = new HttpHeaders();
+        h.setCacheControl(CacheControl.maxAge(policy.maxAge)
+                .sMaxAge(policy.sharedMaxAge)
+                .staleWhileRevalidate(Duration.ofSeconds(60))
+                .cachePublic());
+        h.set(SURROGATE_KEY, CATALOG_TAG + " " + surrogateKey);
+        h.set(HttpHeaders.VARY, policy.varyCookie
+                ? HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.COOKIE
+                : HttpHeaders.ACCEPT_ENCODING);
+        return h;
+    }
+
+    /**
+     * 사용자별 응답 헤더: 공유 캐시 저장 금지, 브라우저는 매번 재검증.
+     */
+    public HttpHeaders personal() {
+        HttpHeaders h = new HttpHeaders();
+        h.setCacheControl(CacheControl.noCache().cachePrivate());
+        h.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.COOKIE);
+        return h;
+    }
+
+    /**
+     * 버전 기반 조건부 응답. If-None-Match 가 맞으면 body 를 부르지 않고 304.
+     * 버전을 못 읽으면(Redis 장애) ETag 없이 본문을 준다 — 틀린 304 를 내지 않는다.
+     */
+    public <T> ResponseEntity<T> conditional(String ifNoneMatch, Policy policy, String surrogateKey, Supplier<T> body) {
+        HttpHeaders h = headers(policy, surrogateKey);
+        CatalogVersionService.Version v = catalogVersionService.current();
+        if (v == null) return ResponseEntity.ok().headers(h).body(body.get());
+
+        long now = System.currentTimeMillis();
+        long rolloverMs = Duration.ofSeconds(rolloverSeconds).toMillis();
+        long bucket = rolloverMs > 0 ? now / rolloverMs : 0;
+        String etag = "\"c" + v.number() + "-" + bucket + "-" + policy.name().toLowerCase() + "\"";
+        if (PreparedJsonBody.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(h).eTag(etag).build();
+        }
+        h.setETag(etag);
+        long modifiedAt = Math.max(v.modifiedAt(), bucket * rolloverMs); // rollover 도 "바뀐 시각"으로 친다
+        if (modifiedAt > 0) h.setLastModified(modifiedAt);
+        return ResponseEntity.ok().headers(h).body(body.get());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ottproject.ottbackend.util;
+
+/**
+ * HangulJamo
+ *
+ * 큰 흐름
+ * - 한글을 "자판에서 누르는 순서"의 자모열로 편다. 자동완성 인덱스(AnimeSuggestIndex)가 키와 쿼리를 같은 모양으로 맞추는 데 쓴다.
+ *   예) "귀멸" → "ㄱㅜㅣㅁㅕㄹ", "닭" → "ㄷㅏㄹㄱ"
+ *
+ * 왜 자모열인가
+ * - 입력 중인 글자는 완성형 음절과 접두 관계가 아니다: "귀며" 는 "귀멸" 의 접두사가 아니지만 자모열로는 접두사다.
+ *   받침이 다음 음절 초성으로 넘어가는 중간 상태("진" → "지나")도 자모열에서는 접두 관계가 된다.
+ * - 겹받침(ㄳ ㄺ …)과 겹모음(ㅘ ㅢ …)은 두 번 누르는 글자라 둘로 나눈다. 쌍자음(ㄲ ㄸ …)은 한 번(Shift)이라 그대로 둔다.
+ * - 초성열: 음절마다 초성 하나만 남긴다("귀멸의 칼날" → "ㄱㅁㅇ ㅋㄴ"). 초성만 치는 검색("ㄱㅁㅇ")의 키다.
+ *
+ * 입력 형태
+ * - 완성형 음절(U+AC00~), 호환 자모(U+3131~, 자판 입력), 조합형 자모(U+1100~)를 모두 받는다.
+ *   NFKC 정규화는 호환 자모를 조합형 자모로 바꾸므로(ㄱ U+3131 → U+1100) 정규화 뒤에 불러도 결과가 같다.
+ * - 한글이 아닌 글자는 그대로 둔다.
+ *
+ * 메서드 개요
+ * - decompose: 자모열(겹자모 분리)
+ * - initials: 초성열(한글이 아닌 글자는 decompose 와 같게 둔다)
+ * - isInitialsOnly: 자음 자모로만 이뤄졌는지(decompose 결과에 대해)
+ * - containsHangul: 음절이나 자모가 하나라도 있는지
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_FIRST = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+    private static final int VOWELS_TIMES_FINALS = 21 * 28;
+
+    private static final char COMPAT_FIRST = 0x3131; // ㄱ
+    private static final char COMPAT_CONSONANT_LAST = 0x314E; // ㅎ
+    private static final char COMPAT_LAST = 0x3163; // ㅣ
+
+    private static final String CHO = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ"; // 초성 19, 조합형 U+1100~ 순서와 같다
+    private static final String JUNG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ"; // 중성 21, U+1161~
+    private static final String JONG = " ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ"; // 종성 28(0 = 없음), U+11A7~
+
+    private static final String[] SPLIT = new String[COMPAT_LAST - COMPAT_FIRST + 1]; // 호환 자모 → 누르는 순서
+
+    static {
+        String[][] pairs = {
+            {"ㄳ", "ㄱㅅ"}, {"ㄵ", "ㄴㅈ"}, {"ㄶ", "ㄴㅎ"}, {"ㄺ", "ㄹㄱ"}, {"ㄻ", "ㄹㅁ"}, {"ㄼ", "ㄹㅂ"},
+            {"ㄽ", "ㄹㅅ"}, {"ㄾ", "ㄹㅌ"}, {"ㄿ", "ㄹㅍ"}, {"ㅀ", "ㄹㅎ"}, {"ㅄ", "ㅂㅅ"},
+            {"ㅘ", "ㅗㅏ"}, {"ㅙ", "ㅗㅐ"}, {"ㅚ", "ㅗㅣ"}, {"ㅝ", "ㅜㅓ"}, {"ㅞ", "ㅜㅔ"}, {"ㅟ", "ㅜㅣ"}, {"ㅢ", "ㅡㅣ"}
+        };
+        for (int i = 0; i < SPLIT.length; i++) SPLIT[i] = String.valueOf((char) (COMPAT_FIRST + i));
+        for (String[] p : pairs) SPLIT[p[0].charAt(0) - COMPAT_FIRST] = p[1];
+    }
+
+    private HangulJamo() {}
+
+    /**
+     * 자모열. 한글이 아닌 글자는 그대로 둔다.
+     */
+    public static String decompose(String s) {
+        StringBuilder out = new StringBuilder(s.length() * 3);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isSyllable(c)) {
+                int idx = c - SYLLABLE_FIRST;
+                appendSplit(out, CHO.charAt(idx / VOWELS_TIMES_FINALS));
+                appendSplit(out, JUNG.charAt(idx % VOWELS_TIMES_FINALS / 28));
+                if (idx % 28 > 0) appendSplit(out, JONG.charAt(idx % 28));
+            } else {
+                appendSplit(out, toCompat(c));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * 초성열. 음절은 초성 하나, 그 밖의 글자는 decompose 와 같게 바꾼다(쿼리 쪽 decompose 결과와 비교하기 때문).
+     */
+    public static String initials(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isSyllable(c)) out.append(CHO.charAt((c - SYLLABLE_FIRST) / VOWELS_TIMES_FINALS));
+            else appendSplit(out, toCompat(c));
+        }
+        return out.toString();
+    }
+
+    /**
+     * decompose 결과가 자음 자모로만 이뤄졌는지. 초성 검색("ㄱㅁㅇ")인지 가른다. 빈 문자열은 false.
+     */
+    public static boolean isInitialsOnly(String decomposed) {
+        if (decomposed.isEmpty()) return false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c < COMPAT_FIRST || c > COMPAT_CONSONANT_LAST) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 음절이나 자모(호환/조합형)가 하나라도 있는지.
+     */
+    public static boolean containsHangul(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isSyllable(c) || toCompat(c) != c || (c >= COMPAT_FIRST && c <= COMPAT_LAST)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST;
+    }
+
+    /** 조합형 자모(현대 한글 범위)를 호환 자모로. 그 밖의 글자는 그대로. */
+    private static char toCompat(char c) {
+        if (c >= 0x1100 && c < 0x1100 + CHO.length()) return CHO.charAt(c - 0x1100);
+        if (c >= 0x1161 && c < 0x1161 + JUNG.length()) return JUNG.charAt(c - 0x1161);
+        if (c >= 0x11A8 && c < 0x11A7 + JONG.length()) return JONG.charAt(c - 0x11A7);
+        return c;
+    }
+
+    /** 호환 자모의 겹자모는 누르는 순서로 나눠 붙이고, 그 밖의 글자는 그대로 붙인다. */
+    private static void appendSplit(StringBuilder out, char c) {
+        if (c >= COMPAT_FIRST && c <= COMPAT_LAST) out.append(SPLIT[c - COMPAT_FIRST]);
+        else out.append(c);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ottproject.ottbackend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+/**
+ * PreparedJsonBody
+ *
+ * 큰 흐름
+ * - 응답 본문을 미리 JSON 직렬화 + gzip 압축한 바이트와 그 ETag 를 한 묶음으로 들고 있다.
+ * - 캐시가 이 묶음을 값 옆에 두면, 컨트롤러는 gzip 을 받는 클라이언트에게 바이트를 그대로 내보낸다
+ *   (요청마다 DTO 를 다시 직렬화하지 않는다).
+ *
+ * ETag 메모
+ * - 압축 전 JSON 바이트의 MD5 를 강한 ETag 로 쓴다. 같은 값이면 인스턴스가 달라도 같은 ETag 가 나온다.
+ * - 이 본문은 gzip 표현으로만 나간다. 압축하지 않은 응답 경로는 ETag 를 붙이지 않으므로 표현별 ETag 가 섞이지 않는다.
+ */
+public record PreparedJsonBody(byte[] gzip, String etag) {
+
+    /**
+     * 값 → JSON → gzip. 직렬화는 Boot 가 구성한 ObjectMapper(컨트롤러 응답과 같은 설정)로 한다.
+     */
+    public static PreparedJsonBody of(ObjectMapper objectMapper, Object value) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 메모리 스트림이라 실제로는 나지 않는다
+        }
+        return new PreparedJsonBody(out.toByteArray(), "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+    }
+
+    /**
+     * Accept-Encoding 에 gzip(또는 *)이 q=0 이 아닌 값으로 들어 있는지.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0{0,3}")) refused = true;
+            }
+            if (!refused) return true;
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match 가 맞으면 304, 아니면 gzip 바이트 그대로 200.
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch) {
+        return toResponse(ifNoneMatch, new HttpHeaders());
+    }
+
+    /**
+     * 같은 응답 + 캐시 헤더(Cache-Control/Surrogate-Key 등, CatalogHttpCache). 304 에도 같은 헤더를 싣는다.
+     * headers 에 Vary 가 없으면 Accept-Encoding 으로 채운다.
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, HttpHeaders headers) {
+        HttpHeaders h = new HttpHeaders();
+        h.addAll(headers);
+        if (!h.containsKey(HttpHeaders.VARY)) h.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(h).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .headers(h)
+                .eTag(etag)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(gzip);
+    }
+
+    /**
+     * If-None-Match 값이 etag 를 담고 있거나 * 인지.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag));
+    }
+}
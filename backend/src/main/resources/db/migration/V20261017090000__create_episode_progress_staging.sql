@@ -0,0 +1,17 @@
+-- 진행률 flush 적재용 스테이징 테이블
+-- 버퍼에서 꺼낸 행을 COPY 로 여기에 흘려 넣은 뒤, 집합 연산 한 문장(INSERT ... SELECT ... ON CONFLICT)으로
+-- episode_progress 에 반영하고 지운다. 행은 한 트랜잭션 안에서만 산다.
+--
+-- UNLOGGED 인 이유: 트랜잭션이 끝나면 비어 있는 테이블이라 WAL 을 남길 이유가 없다. 크래시 뒤 비워져도 잃는 것이 없다.
+-- batch_id 인 이유: 반영 워커 여러 개(샤드별)가 같은 테이블에 동시에 적재한다. 각자 자기 배치만 반영·삭제한다.
+-- 외래 키를 걸지 않는다: 고아 행(사용자·에피소드 삭제)은 반영 문장의 조인이 거른다. 여기서 막으면 COPY 전체가 실패한다.
+CREATE UNLOGGED TABLE episode_progress_staging (
+    batch_id UUID NOT NULL,          -- 적재 단위(한 청크)
+    user_id BIGINT NOT NULL,
+    episode_id BIGINT NOT NULL,
+    position_sec INTEGER NOT NULL,
+    duration_sec INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL    -- 버퍼 기록 시각. 반영 시 "더 최신이 이긴다" 비교에 쓴다
+);
+
+CREATE INDEX idx_episode_progress_staging_batch_id ON episode_progress_staging (batch_id);
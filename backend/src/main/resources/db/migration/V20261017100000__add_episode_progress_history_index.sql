@@ -0,0 +1,17 @@
+-- 전체 시청 기록 키셋 페이지네이션용 인덱스.
+-- 시청 기록은 (updated_at DESC, episode_id DESC) 로 정렬하고 그 두 값을 커서로 쓴다.
+-- 기존 (user_id, updated_at DESC) 는 updated_at 이 같은 행들의 순서를 정하지 못해
+-- 커서 위치를 찾은 뒤 정렬을 한 번 더 했다. episode_id 를 셋째 키로 붙이면 인덱스 순서가 곧 응답 순서다.
+--
+-- 새 인덱스가 기존 인덱스의 앞부분을 그대로 포함하므로 기존 것은 지운다(최근 본 조회도 새 인덱스를 쓴다).
+-- 쓰기가 잦은 테이블이라 인덱스 하나를 줄이는 것도 갱신 비용을 줄인다.
+--
+-- CONCURRENTLY 를 쓰므로 이 파일은 트랜잭션 밖에서 실행된다
+-- (같은 이름의 .sql.conf 에 executeInTransaction=false).
+-- 중단되면 무효 인덱스가 남을 수 있다. 재적용 전에 확인할 것:
+--   SELECT indexrelid::regclass FROM pg_index WHERE NOT indisvalid;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_episode_progress_user_updated_episode
+  ON episode_progress (user_id, updated_at DESC, episode_id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_episode_progress_user_updated;
@@ -0,0 +1,26 @@
+-- 사용자×작품 완주 에피소드 수(정주행 판정용 집계 테이블)
+-- 예전 정주행 조회는 마이페이지를 열 때마다 그 사용자의 episode_progress 전체를 episodes·anime 와 조인해
+-- GROUP BY ... HAVING COUNT(DISTINCT) = total_episodes 로 셌다. 비용이 시청 기록 크기에 비례했다.
+-- 이제 진행률 flush 가 청크마다 "건드린 (사용자, 작품)" 의 완주 수를 다시 세어 여기에 반영하고,
+-- 정주행 조회는 이 테이블을 PK 로 읽는다.
+--
+-- 완주 = duration_sec > 0 AND position_sec >= duration_sec * 0.9 (예전 조회와 같은 기준)
+-- completed_episodes 는 "지금" 완주 상태인 에피소드 수다. 다시 보기로 위치가 앞으로 가면 줄어든다(예전 조회와 같다).
+CREATE TABLE user_anime_completion (
+    user_id BIGINT NOT NULL,
+    anime_id BIGINT NOT NULL,
+    completed_episodes INTEGER NOT NULL DEFAULT 0,
+    last_completed_at TIMESTAMP,                 -- 완주 에피소드 중 가장 최근 시청 시각(정주행 완료 시각)
+    PRIMARY KEY (user_id, anime_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (anime_id) REFERENCES anime(id) ON DELETE CASCADE
+);
+
+-- 기존 진행률로 한 번 채운다. 이후로는 flush 가 유지한다.
+INSERT INTO user_anime_completion (user_id, anime_id, completed_episodes, last_completed_at)
+SELECT ep.user_id, e.anime_id, COUNT(*), MAX(ep.updated_at)
+FROM episode_progress ep
+JOIN episodes e ON e.id = ep.episode_id
+WHERE ep.duration_sec > 0
+  AND ep.position_sec >= ep.duration_sec * 0.9
+GROUP BY ep.user_id, e.anime_id;
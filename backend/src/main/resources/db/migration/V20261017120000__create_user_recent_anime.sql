@@ -0,0 +1,46 @@
+-- 사용자별 "이어보기"(최근 본 작품) 목록
+-- 예전 최근 본 조회는 홈 화면을 열 때마다 그 사용자의 episode_progress 전체에 ROW_NUMBER() OVER (PARTITION BY anime)
+-- 를 돌려 작품마다 최신 1건을 골랐다. 숨김은 그 작품의 모든 회차 행에 hidden_in_recent 를 썼다.
+-- 이제 진행률 flush 가 (사용자, 작품)당 한 행을 유지하고, 조회는 인덱스 순서대로 limit 만큼 읽는다.
+--
+-- hidden_at: 숨긴 시각. 이보다 나중의 시청이 반영되면 다시 보이게 된다(숨김 전 버퍼에 있던 값은 숨김을 풀지 않는다).
+-- 사용자당 행 수는 상한(ott.progress.recent-anime-cap, 기본 100)으로 자른다. flush 가 새 행을 넣을 때마다 오래된 것을 지운다.
+CREATE TABLE user_recent_anime (
+    user_id BIGINT NOT NULL,
+    anime_id BIGINT NOT NULL,
+    episode_id BIGINT NOT NULL,      -- 그 작품에서 가장 최근에 본 회차
+    position_sec INTEGER NOT NULL,
+    duration_sec INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL,   -- 그 회차의 마지막 시청 시각(정렬·커서 키)
+    hidden_at TIMESTAMP,
+    PRIMARY KEY (user_id, anime_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (anime_id) REFERENCES anime(id) ON DELETE CASCADE,
+    FOREIGN KEY (episode_id) REFERENCES episodes(id) ON DELETE CASCADE
+);
+
+-- 이어보기 조회: 숨기지 않은 행을 최신순으로(커서 (updated_at, anime_id))
+CREATE INDEX idx_user_recent_anime_user_updated
+  ON user_recent_anime (user_id, updated_at DESC, anime_id DESC)
+  WHERE hidden_at IS NULL;
+
+-- 상한 정리(숨긴 행 포함 최신순 순위)용
+CREATE INDEX idx_user_recent_anime_user_all_updated
+  ON user_recent_anime (user_id, updated_at DESC);
+
+-- 기존 진행률로 한 번 채운다(작품별 최신 1건, 사용자당 100건). 예전에 숨긴 작품은 숨긴 채로 옮긴다.
+INSERT INTO user_recent_anime (user_id, anime_id, episode_id, position_sec, duration_sec, updated_at, hidden_at)
+SELECT t.user_id, t.anime_id, t.episode_id, t.position_sec, t.duration_sec, t.updated_at,
+       CASE WHEN t.hidden THEN t.updated_at END
+FROM (
+    SELECT l.*, ROW_NUMBER() OVER (PARTITION BY l.user_id ORDER BY l.updated_at DESC) AS rn
+    FROM (
+        SELECT DISTINCT ON (ep.user_id, e.anime_id)
+            ep.user_id, e.anime_id, ep.episode_id, ep.position_sec, ep.duration_sec, ep.updated_at,
+            COALESCE(ep.hidden_in_recent, false) AS hidden
+        FROM episode_progress ep
+        JOIN episodes e ON e.id = ep.episode_id
+        ORDER BY ep.user_id, e.anime_id, ep.updated_at DESC
+    ) l
+) t
+WHERE t.rn <= 100;
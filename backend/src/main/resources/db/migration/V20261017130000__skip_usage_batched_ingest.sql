@@ -0,0 +1,19 @@
+-- 스킵 사용 로그 일괄 적재 준비
+--
+-- 1) skip_usage.user_id 를 NULL 허용으로 바꾼다.
+--    비로그인 스킵도 기록하는 것이 API 계약(엔티티도 user 를 optional 로 선언)인데 스키마만 NOT NULL 이라
+--    비로그인 요청의 INSERT 가 전부 실패하고 있었다. 일괄 적재에서는 그 한 행이 배치 전체를 실패시킨다.
+ALTER TABLE skip_usage ALTER COLUMN user_id DROP NOT NULL;
+
+-- 2) 에피소드별 스킵 시점 분포(히스토그램)
+--    적재기가 배치마다 (에피소드, 유형, 구간)별 건수를 더한다. 구간은 bucket_sec 초 단위 시작점이다(기본 5초 폭).
+--    원본 로그를 다시 훑지 않고 EpisodeSkipMeta(오프닝/엔딩 구간)를 보정할 근거로 쓴다.
+CREATE TABLE skip_usage_histogram (
+    episode_id BIGINT NOT NULL,
+    skip_type VARCHAR(20) NOT NULL,
+    bucket_sec INTEGER NOT NULL,
+    hits BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (episode_id, skip_type, bucket_sec),
+    FOREIGN KEY (episode_id) REFERENCES episodes(id) ON DELETE CASCADE
+);
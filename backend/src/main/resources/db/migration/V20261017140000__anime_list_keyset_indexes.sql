@@ -0,0 +1,23 @@
+-- 애니 목록 커서(키셋) 페이지용 인덱스
+--
+-- findAniList 의 정렬/커서 조건이 (COALESCE(키), id) 행 비교로 바뀌었다. NULL 키를 마지막으로 보내고
+-- 커서 비교가 NULL 에서 끊기지 않게 하려는 것이다. 식이 달라져 기존 (is_active, rating DESC, id DESC) 류 인덱스로는
+-- 순서를 못 읽으므로, 같은 식의 부분 인덱스를 둔다(목록은 항상 is_active = TRUE).
+-- 인기순(is_popular, id)은 NULL 이 없는 컬럼이라 기존 idx_anime_active_popular_desc_id_desc 를 그대로 쓴다.
+
+-- 평점순
+CREATE INDEX IF NOT EXISTS idx_anime_list_rating_keyset
+  ON anime ((COALESCE(rating, -1)) DESC, id DESC)
+  WHERE is_active = TRUE;
+
+-- 연도순
+CREATE INDEX IF NOT EXISTS idx_anime_list_year_keyset
+  ON anime ((COALESCE(year, 0)) DESC, id DESC)
+  WHERE is_active = TRUE;
+
+-- 제목순
+CREATE INDEX IF NOT EXISTS idx_anime_list_title_keyset
+  ON anime ((COALESCE(title, title_en, '')), id)
+  WHERE is_active = TRUE;
+
+ANALYZE anime;
@@ -0,0 +1,36 @@
+-- 본검색 전문 검색(tsvector) + 트라이그램 보조 컬럼
+--
+-- 본검색(SearchQueryMapper.searchAnimes)은 title/title_en/title_jp 세 컬럼에 ILIKE '%q%' 를 OR 로 걸었다.
+-- 컬럼마다 트라이그램 인덱스가 있어도 OR 세 갈래를 합친 뒤 고정 컬럼으로 정렬했고, 관련도 순서는 없었다.
+--
+-- 1) search_tsv: 세 제목의 tsvector(생성 컬럼, 행이 바뀌면 DB 가 다시 계산한다 — 애플리케이션 쪽 갱신 코드가 없다).
+--    'simple' 설정: 한국어 사전이 없고 영문 어간 추출은 한국어/일본어 토큰과 섞이면 예측이 어려워 소문자화만 한다.
+--    가중치: 한글 제목 A, 영문 B, 일문 C — ts_rank 가 한글 제목 일치를 더 높게 친다.
+--    쿼리는 단어마다 접두 일치("진격:* & 거인:*")라 조사가 붙은 토큰("진격의")에도 걸린다.
+-- 2) search_text: 세 제목을 소문자로 이은 문자열 + 트라이그램 GIN 하나.
+--    tsvector 가 못 하는 것(붙여 쓴 한국어 합성어 안의 중간 일치 "작은거인", 오타 유사도)을 이 한 인덱스로 받는다.
+--    예전 컬럼별 트라이그램 인덱스(V2025_08_22)는 자동완성 SQL 경로가 계속 쓰므로 그대로 둔다.
+--
+-- 생성 컬럼 추가는 테이블을 다시 쓴다. anime 는 카탈로그 크기(수만 행 이하)라 짧은 잠금으로 끝난다.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE anime
+  ADD COLUMN IF NOT EXISTS search_tsv tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', COALESCE(title, '')), 'A')
+    || setweight(to_tsvector('simple', COALESCE(title_en, '')), 'B')
+    || setweight(to_tsvector('simple', COALESCE(title_jp, '')), 'C')
+  ) STORED;
+
+ALTER TABLE anime
+  ADD COLUMN IF NOT EXISTS search_text text GENERATED ALWAYS AS (
+    lower(COALESCE(title, '') || ' | ' || COALESCE(title_en, '') || ' | ' || COALESCE(title_jp, ''))
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_anime_search_tsv
+  ON anime USING gin (search_tsv);
+
+CREATE INDEX IF NOT EXISTS idx_anime_search_text_trgm
+  ON anime USING gin (search_text gin_trgm_ops);
+
+ANALYZE anime;
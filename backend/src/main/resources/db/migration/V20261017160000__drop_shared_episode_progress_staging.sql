@@ -0,0 +1,7 @@
+-- 진행률 flush 스테이징을 공유 테이블에서 세션 임시 테이블로 옮긴다
+-- ProgressBulkLoader 가 커넥션마다 CREATE TEMP TABLE IF NOT EXISTS ... ON COMMIT DELETE ROWS 로 만든다.
+--
+-- 공유 테이블을 지우는 이유: 배치마다 DELETE 로 비우던 테이블이라 flush 주기마다 죽은 튜플이 쌓여 vacuum 을 불렀다.
+-- 임시 테이블은 세션 전용이라 batch_id 가 필요 없고, 커밋 시 비우기는 truncate 라 죽은 튜플을 남기지 않는다.
+-- 롤링 배포 중 아직 공유 테이블을 쓰는 구 인스턴스는 COPY 가 실패해 배치 upsert 폴백으로 반영한다(유실 없음).
+DROP TABLE IF EXISTS episode_progress_staging;
@@ -0,0 +1,98 @@
+package com.ottproject.ottbackend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ottproject.ottbackend.config.SecurityConfig;
+import com.ottproject.ottbackend.handler.OAuth2AuthFailureHandler;
+import com.ottproject.ottbackend.handler.OAuth2AuthSuccessHandler;
+import com.ottproject.ottbackend.repository.UserRepository;
+import com.ottproject.ottbackend.security.SessionAuthenticationFilter;
+import com.ottproject.ottbackend.service.AdminStatsService;
+import com.ottproject.ottbackend.service.LocalUserDetailsService;
+import com.ottproject.ottbackend.service.OAuth2UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * 헬스체크 경로 인가 규칙 테스트
+ *
+ * 지키려는 규칙
+ * - /actuator/health 와 그 아래 그룹(/actuator/health/readiness, liveness)은 익명으로 열린다
+ * - 그 밖의 actuator 경로는 열리지 않는다
+ *
+ * 회귀 배경
+ * - 롤링 배포(deploy-rolling.ps1)가 /actuator/health/readiness 를 기다리는데, 정확히 /actuator/health 만 열려 있어
+ *   401 이 돌아오고 배포가 매번 제한 시간까지 기다리다 중단됐다.
+ *
+ * 웹 계층만 로드하므로 actuator 엔드포인트 자체는 없다. 그래서 응답 본문이 아니라 인가 단계에서 막혔는지(401/403)만 본다.
+ */
+@WebMvcTest(controllers = AdminStatsController.class)
+@Import({SecurityConfig.class, SessionAuthenticationFilter.class, WebSliceTestSupport.class})
+@TestPropertySource(
+        properties = {
+            "spring.security.oauth2.client.registration.google.client-id=test",
+            "spring.security.oauth2.client.registration.google.client-secret=test",
+            "spring.security.oauth2.client.registration.kakao.client-id=test",
+            "spring.security.oauth2.client.registration.kakao.client-secret=test",
+            "spring.security.oauth2.client.registration.naver.client-id=test",
+            "spring.security.oauth2.client.registration.naver.client-secret=test"
+        })
+class ActuatorHealthAccessTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    // 컨트롤러 의존성
+    @MockitoBean
+    private AdminStatsService adminStatsService;
+
+    // SecurityConfig / 필터 의존성
+    @MockitoBean
+    private LocalUserDetailsService localUserDetailsService;
+
+    @MockitoBean
+    private OAuth2UserService oAuth2UserService;
+
+    @MockitoBean
+    private OAuth2AuthSuccessHandler oAuth2AuthSuccessHandler;
+
+    @MockitoBean
+    private OAuth2AuthFailureHandler oAuth2AuthFailureHandler;
+
+    @MockitoBean
+    private UserRepository userRepository; // SessionAuthenticationFilter 가 사용
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository; // oauth2Login 구성에 필요
+
+    @Test
+    @DisplayName("롤링 배포가 기다리는 readiness 그룹은 익명으로 열린다")
+    @WithAnonymousUser
+    void readinessIsAnonymous() throws Exception {
+        mvc.perform(get("/actuator/health/readiness")).andExpect(passesAuthorization());
+        mvc.perform(get("/actuator/health/liveness")).andExpect(passesAuthorization());
+        mvc.perform(get("/actuator/health")).andExpect(passesAuthorization());
+    }
+
+    private static ResultMatcher passesAuthorization() {
+        return result -> assertThat(result.getResponse().getStatus()).isNotIn(401, 403);
+    }
+
+    @Test
+    @DisplayName("헬스체크 밖의 actuator 경로는 익명으로 열리지 않는다")
+    @WithAnonymousUser
+    void otherActuatorPathsStayClosed() throws Exception {
+        mvc.perform(get("/actuator/env")).andExpect(status().isUnauthorized());
+    }
+}
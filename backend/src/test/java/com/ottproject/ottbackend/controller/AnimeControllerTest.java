@@ -1,6 +1,7 @@
 package com.ottproject.ottbackend.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
@@ -8,15 +9,24 @@ import static org.mockito.Mockito.verify;
 
 import com.ottproject.ottbackend.dto.AnimeDetailDto;
 import com.ottproject.ottbackend.service.AnimeCacheService;
+import com.ottproject.ottbackend.service.CatalogVersionService;
 import com.ottproject.ottbackend.service.FavoriteAnimeService;
+import com.ottproject.ottbackend.util.CatalogHttpCache;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
 import com.ottproject.ottbackend.util.SecurityUtil;
 import jakarta.servlet.http.HttpSession;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * AnimeController.detail 단위 테스트
@@ -24,7 +34,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
  * 여기서 고정하는 규칙(캐시 도입 후 상세 조회 계약)
  * - 공용부는 캐시(getDetailPublic)에서 가져오고, isFavorited 는 요청마다 따로 합성한다.
  * - 찜한 유저와 안 한 유저는 값이 다르고, 비로그인은 false 다(userId=null 을 그대로 넘긴다).
- * - 작품이 없으면(공용부 null) 찜 조회 없이 null 을 돌려준다.
+ * - 작품이 없으면(공용부 null) 찜 조회 없이 빈 본문을 돌려준다.
+ * - gzip 을 받는 클라이언트에는 캐시가 만든 본문 바이트를 그대로 내보내고, ETag 가 같으면 304 를 준다.
+ * - 로그인 사용자의 응답은 private(Surrogate-Key 없음), 비로그인 응답은 public + Surrogate-Key 다.
+ * - 비로그인 객체 경로는 카탈로그 버전 ETag 가 맞으면 상세를 읽지 않고 304 를 준다.
  */
 @ExtendWith(MockitoExtension.class)
 class AnimeControllerTest {
@@ -41,11 +54,21 @@ class AnimeControllerTest {
     @Mock
     private HttpSession session;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @InjectMocks
     private AnimeController controller;
 
     private static final Long ANI_ID = 1L;
 
+    @BeforeEach
+    void setUp() {
+        CatalogHttpCache catalogHttpCache = new CatalogHttpCache(catalogVersionService); // 헤더 규칙은 실물로 검증
+        ReflectionTestUtils.setField(catalogHttpCache, "rolloverSeconds", 0L);
+        ReflectionTestUtils.setField(controller, "catalogHttpCache", catalogHttpCache);
+    }
+
     private AnimeDetailDto publicDto() {
         return AnimeDetailDto.builder().aniId(ANI_ID).title("제목").build();
     }
@@ -57,7 +80,7 @@ class AnimeControllerTest {
         given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
         given(favoriteAnimeService.isFavorited(ANI_ID, 10L)).willReturn(true);
 
-        AnimeDetailDto result = controller.detail(ANI_ID, session);
+        AnimeDetailDto result = (AnimeDetailDto) controller.detail(ANI_ID, session, null, null).getBody();
 
         assertThat(result).isNotNull();
         assertThat(result.getIsFavorited()).isTrue();
@@ -70,7 +93,7 @@ class AnimeControllerTest {
         given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
         given(favoriteAnimeService.isFavorited(ANI_ID, 20L)).willReturn(false);
 
-        AnimeDetailDto result = controller.detail(ANI_ID, session);
+        AnimeDetailDto result = (AnimeDetailDto) controller.detail(ANI_ID, session, null, null).getBody();
 
         assertThat(result.getIsFavorited()).isFalse();
     }
@@ -82,21 +105,110 @@ class AnimeControllerTest {
         given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
         given(favoriteAnimeService.isFavorited(ANI_ID, null)).willReturn(false); // 서비스가 null 을 값싼 false 로 처리
 
-        AnimeDetailDto result = controller.detail(ANI_ID, session);
+        AnimeDetailDto result = (AnimeDetailDto) controller.detail(ANI_ID, session, null, null).getBody();
 
         assertThat(result.getIsFavorited()).isFalse();
         verify(favoriteAnimeService).isFavorited(eq(ANI_ID), eq((Long) null));
     }
 
     @Test
-    @DisplayName("작품이 없으면 찜 조회 없이 null 을 돌려준다")
+    @DisplayName("작품이 없으면 찜 조회 없이 빈 본문을 돌려준다")
     void missingAnimeReturnsNull() {
         given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(10L);
         given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(null);
 
-        AnimeDetailDto result = controller.detail(ANI_ID, session);
+        AnimeDetailDto result = (AnimeDetailDto) controller.detail(ANI_ID, session, null, null).getBody();
 
         assertThat(result).isNull();
         verify(favoriteAnimeService, never()).isFavorited(ANI_ID, 10L);
     }
+
+    @Test
+    @DisplayName("gzip 을 받으면 캐시가 만든 본문을 그대로 내보내고, 찜 여부는 작품이 있을 때 묻는다")
+    void gzipClientGetsPreparedBody() {
+        PreparedJsonBody body = new PreparedJsonBody(new byte[] {31, -117, 8}, "\"etag-1\"");
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(10L);
+        given(favoriteAnimeService.isFavorited(ANI_ID, 10L)).willReturn(true);
+        given(animeCacheService.getDetailBody(eq(ANI_ID), any())).willAnswer(inv -> {
+            assertThat(inv.<BooleanSupplier>getArgument(1).getAsBoolean()).isTrue();
+            return body;
+        });
+
+        ResponseEntity<?> result = controller.detail(ANI_ID, session, "gzip, deflate, br", null);
+
+        assertThat(result.getBody()).isSameAs(body.gzip());
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(result.getHeaders().getETag()).isEqualTo(body.etag());
+        verify(animeCacheService, never()).getDetailPublic(ANI_ID);
+    }
+
+    @Test
+    @DisplayName("If-None-Match 가 ETag 와 같으면 본문 없이 304")
+    void matchingEtagGetsNotModified() {
+        PreparedJsonBody body = new PreparedJsonBody(new byte[] {31, -117, 8}, "\"etag-1\"");
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(null);
+        given(animeCacheService.getDetailBody(eq(ANI_ID), any())).willReturn(body);
+
+        ResponseEntity<?> result = controller.detail(ANI_ID, session, "gzip", body.etag());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(result.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("gzip 을 q=0 으로 거절한 클라이언트는 객체 경로로 간다")
+    void gzipRefusedFallsBackToObject() {
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(null);
+        given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
+
+        ResponseEntity<?> result = controller.detail(ANI_ID, session, "gzip;q=0, identity", null);
+
+        assertThat(result.getBody()).isInstanceOf(AnimeDetailDto.class);
+        verify(animeCacheService, never()).getDetailBody(eq(ANI_ID), any());
+    }
+
+    @Test
+    @DisplayName("로그인 사용자의 상세는 private 이고 Surrogate-Key 가 없다 - 찜 여부가 공유 캐시에 남지 않는다")
+    void loggedInDetailIsPrivate() {
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(10L);
+        given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
+
+        ResponseEntity<?> result = controller.detail(ANI_ID, session, null, null);
+
+        assertThat(result.getHeaders().getCacheControl()).contains("private").doesNotContain("public");
+        assertThat(result.getHeaders().getFirst("Surrogate-Key")).isNull();
+        assertThat(result.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    @DisplayName("비로그인 gzip 상세는 public + Surrogate-Key 를 달고, Vary 에 Cookie 가 있다")
+    void anonymousGzipDetailIsShared() {
+        PreparedJsonBody body = new PreparedJsonBody(new byte[] {31, -117, 8}, "\"etag-1\"");
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(null);
+        given(animeCacheService.getDetailBody(eq(ANI_ID), any())).willReturn(body);
+
+        ResponseEntity<?> result = controller.detail(ANI_ID, session, "gzip", null);
+
+        assertThat(result.getHeaders().getCacheControl()).contains("public", "s-maxage=");
+        assertThat(result.getHeaders().getFirst("Surrogate-Key")).isEqualTo("catalog anime-" + ANI_ID);
+        assertThat(result.getHeaders().getFirst(HttpHeaders.VARY)).contains("Cookie");
+        assertThat(result.getHeaders().getETag()).isEqualTo(body.etag());
+    }
+
+    @Test
+    @DisplayName("비로그인 객체 경로는 카탈로그 버전 ETag 가 맞으면 상세를 읽지 않고 304")
+    void anonymousVersionEtagSkipsLookup() {
+        given(securityUtil.getCurrentUserIdOrNull(session)).willReturn(null);
+        given(catalogVersionService.current()).willReturn(new CatalogVersionService.Version(7L, 1_000L));
+        given(animeCacheService.getDetailPublic(ANI_ID)).willReturn(publicDto());
+
+        ResponseEntity<?> first = controller.detail(ANI_ID, session, null, null);
+        String etag = first.getHeaders().getETag();
+        ResponseEntity<?> second = controller.detail(ANI_ID, session, null, etag);
+
+        assertThat(etag).isNotNull();
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+        verify(animeCacheService).getDetailPublic(ANI_ID); // 첫 요청에서만
+    }
 }
@@ -0,0 +1,226 @@
+package com.ottproject.ottbackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.mybatis.SearchQueryMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 본검색 SQL 실행 계획·순위 검증 (실제 PostgreSQL, 10만 행)
+ *
+ * 왜 이 테스트가 필요한가
+ * - 본검색의 속도는 "tsvector/트라이그램 GIN 을 타는가" 하나로 갈린다. 목으로는 계획을 볼 수 없고,
+ *   작은 표에서는 플래너가 인덱스가 있어도 순차 스캔을 고르므로 카탈로그보다 큰 10만 행을 넣고 본다.
+ * - GIN 은 Index Only Scan 을 하지 못한다(행의 가시성·정렬 값을 힙에서 읽는다). 그래서 "인덱스 비트맵으로
+ *   후보를 좁히고 anime 순차 스캔이 없다"를 고정한다.
+ *
+ * 여기서 고정하는 규칙
+ * - 3글자 이상은 tsvector 인덱스와 트라이그램 인덱스를 둘 다 타고(BitmapOr), 순차 스캔이 없다.
+ * - 2글자 이하도 단어 안 중간 일치("은거" → "작은거인")를 찾는다. 트라이그램 조각이 없어 이 갈래는 순차 필터다.
+ * - 관련도: 단어 접두 일치가 먼저, 붙여 쓴 합성어 안의 중간 일치("은거인" → "작은거인")와 오타도 잡힌다.
+ *   관련도가 같으면 인기작이 앞선다.
+ * - COUNT 는 countCap 에서 멈춘다.
+ *
+ * 슬라이스 구성(명시)
+ * - 스키마는 Hibernate(ddl-auto=create)가 만들고, 생성 컬럼·인덱스는 Flyway 대신 같은 마이그레이션 파일을 직접 실행한다.
+ * - 매퍼 XML 은 EpisodeProgressWritePathTest 와 같은 방식으로 컨테이너 DataSource 에 붙인다.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) // 컨테이너 URL 을 쓰기 위해 자동 대체를 끈다
+@Import(SearchQueryMapperPlanTest.MyBatisTestConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("testcontainers") // testFast 가 제외하는 태그
+@TestPropertySource(
+        properties = {
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create",
+            "spring.jpa.properties.hibernate.hbm2ddl.halt_on_error=true"
+        })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 적재한 행을 테스트마다 되돌리지 않는다
+class SearchQueryMapperPlanTest {
+
+    @Container
+    @SuppressWarnings("resource") // 컨테이너 수명은 Testcontainers 가 관리한다
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    /** 매퍼 XML 을 컨테이너 DataSource 에 붙인다(운영 설정과 같은 위치·네이밍 규칙). */
+    @TestConfiguration
+    static class MyBatisTestConfig {
+
+        @Bean
+        SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+            SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setMapperLocations(
+                    new PathMatchingResourcePatternResolver().getResources("classpath*:mappers/**/*.xml"));
+            org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+            configuration.setMapUnderscoreToCamelCase(true);
+            factory.setConfiguration(configuration);
+            factory.setTypeAliasesPackage("com.ottproject.ottbackend.dto");
+            return factory.getObject();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    private static final int CATALOG = 100_000;
+    private static final String MIGRATION = "db/migration/V20261017150000__anime_search_fulltext.sql";
+    private static final String MAPPER = SearchQueryMapper.class.getName() + ".";
+
+    private static boolean seeded; // 클래스 안에서 한 번만 적재한다
+
+    @Autowired
+    private SearchQueryMapper searchQueryMapper;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() throws Exception {
+        if (seeded) return;
+        jdbc.execute(new ClassPathResource(MIGRATION).getContentAsString(StandardCharsets.UTF_8));
+
+        // 무작위 두 음절 단어 둘 + 번호: 한글 토큰이 고르게 퍼져 특정 접두사에 몰리지 않는다
+        jdbc.update("""
+                INSERT INTO anime (title, title_en, status, age_rating, is_exclusive, is_new, is_popular, is_completed,
+                                   is_subtitle, is_dub, is_simulcast, current_episodes, is_active, curated,
+                                   created_at, updated_at)
+                SELECT chr(44032 + ((i::bigint * 7919) % 11172)::int) || chr(44032 + ((i::bigint * 104729) % 11172)::int)
+                       || ' ' || chr(44032 + ((i::bigint * 15485863) % 11172)::int) || chr(44032 + ((i::bigint * 31) % 11172)::int)
+                       || ' ' || i,
+                       'title ' || md5(i::text),
+                       'ONGOING', '15세이상', false, false, i % 10 = 0, false, true, false, false, 0, true, false,
+                       now(), now()
+                FROM generate_series(1, ?) AS i
+                """, CATALOG);
+        insert("진격의 거인", "Attack on Titan", true);
+        insert("작은거인", null, false);
+        insert("거인 전설 2", null, false);
+        insert("거인 전설 1", null, true);
+        jdbc.execute("ANALYZE anime");
+        seeded = true;
+    }
+
+    private void insert(String title, String titleEn, boolean popular) {
+        jdbc.update("""
+                INSERT INTO anime (title, title_en, status, age_rating, is_exclusive, is_new, is_popular, is_completed,
+                                   is_subtitle, is_dub, is_simulcast, current_episodes, is_active, curated,
+                                   created_at, updated_at)
+                VALUES (?, ?, 'ONGOING', '15세이상', false, false, ?, false, true, false, false, 0, true, false, now(), now())
+                """, title, titleEn, popular);
+    }
+
+    /** 매퍼 XML 이 만든 SQL 그대로 EXPLAIN 한다. tsQuery 는 SearchService 가 만들 값을 그대로 적는다(SearchServiceTest 가 고정). */
+    private String explain(String statement, String query, String tsQuery, long countCap) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        params.put("tsQuery", tsQuery);
+        params.put("trigram", query.codePointCount(0, query.length()) >= 3);
+        params.put("genreIds", null);
+        params.put("genreCount", 0);
+        params.put("tagIds", null);
+        params.put("sort", "relevance");
+        params.put("limit", 20);
+        params.put("offset", 0);
+        params.put("countCap", countCap);
+        MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement(MAPPER + statement);
+        BoundSql bound = ms.getBoundSql(params);
+        Object[] args = bound.getParameterMappings().stream()
+                .map(pm -> bound.hasAdditionalParameter(pm.getProperty())
+                        ? bound.getAdditionalParameter(pm.getProperty())
+                        : params.get(pm.getProperty()))
+                .toArray();
+        return jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + bound.getSql(), String.class, args);
+    }
+
+    private List<String> titles(String query, String tsQuery) {
+        String q = query.trim();
+        List<AnimeListDto> rows = searchQueryMapper.searchAnimes(q, tsQuery,
+                q.codePointCount(0, q.length()) >= 3, null, 0, null, "relevance", 10, 0);
+        return rows.stream().map(AnimeListDto::getTitle).toList();
+    }
+
+    @Test
+    @DisplayName("3글자 이상: tsvector·트라이그램 GIN 을 함께 타고 순차 스캔이 없다")
+    void longQueryUsesBothIndexes() {
+        String plan = explain("searchAnimes", "진격의 거인", "진격의:* & 거인:*", 1000);
+
+        assertThat(plan).contains("idx_anime_search_tsv", "idx_anime_search_text_trgm").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("2글자: 단어 안 중간 일치도 찾고, 단어 접두 일치가 앞선다")
+    void shortQueryMatchesInsideWords() {
+        assertThat(titles("은거", "은거:*")).contains("작은거인"); // 붙여 쓴 합성어 안
+        assertThat(titles("거인", "거인:*")) // 중간 일치만 한 작품은 ts_rank 가 0 이라 접두 일치 뒤
+                .containsExactlyInAnyOrder("진격의 거인", "거인 전설 1", "거인 전설 2", "작은거인")
+                .endsWith("작은거인");
+    }
+
+    @Test
+    @DisplayName("COUNT 도 같은 인덱스를 타고, 흔한 단어는 상한에서 멈춘다")
+    void countUsesIndexAndStopsAtCap() {
+        assertThat(explain("countSearchAnimes", "진격의 거인", "진격의:* & 거인:*", 1000))
+                .contains("idx_anime_search_tsv")
+                .doesNotContain("Seq Scan");
+
+        long count = searchQueryMapper.countSearchAnimes("title", "title:*", true, null, 0, null, 1000);
+        assertThat(count).isEqualTo(1000); // 10만 행 전부 걸리는 단어
+    }
+
+    @Test
+    @DisplayName("관련도: 접두 일치·중간 일치·오타, 같은 점수면 인기작이 앞")
+    void ranksByRelevance() {
+        assertThat(titles("진격의 거인", "진격의:* & 거인:*")).first().isEqualTo("진격의 거인");
+        assertThat(titles("진격", "진격:*")).first().isEqualTo("진격의 거인"); // 조사 붙은 토큰의 접두 일치
+        assertThat(titles("attack tit", "attack:* & tit:*")).first().isEqualTo("진격의 거인"); // 영문 제목 접두 일치
+        assertThat(titles("은거인", "은거인:*")).contains("작은거인"); // 붙여 쓴 합성어 안의 중간 일치(트라이그램)
+        assertThat(titles("진격의 거잉", "진격의:* & 거잉:*")).contains("진격의 거인"); // 오타(word_similarity)
+        assertThat(titles("거인 전설", "거인:* & 전설:*")).startsWith("거인 전설 1", "거인 전설 2"); // 인기작 가중
+    }
+}
@@ -51,6 +51,9 @@ class AdminEpisodeServiceTest {
     @Mock
     private AnimeCacheService animeCacheService;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
     @InjectMocks
     private AdminEpisodeService service;
 
@@ -1,30 +1,52 @@
 package com.ottproject.ottbackend.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ottproject.ottbackend.dto.AnimeDetailDto;
 import com.ottproject.ottbackend.dto.GenreSimpleDto;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
@@ -36,12 +58,17 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  * - 널(작품 없음) 상세는 캐시에 넣지 않는다.
  * - LocalDate/LocalDateTime 을 담은 DTO 도 주입 ObjectMapper 로 무사히 직렬화된다(RedisConfig 함정 회피).
  * - 무효화는 활성 트랜잭션에서 afterCommit 에 예약되고, 트랜잭션 밖이면 즉시 삭제된다.
+ * - L1 히트는 Redis 를 타지 않고, 상세는 호출부가 고쳐도 L1 안의 값이 오염되지 않는다(찜 여부 누수 방지).
+ * - 무효화는 L2 삭제 후 다른 인스턴스에 키를 전파하고 자기 L1 도 비운다.
+ * - 같은 키의 동시 미스는 DB 를 한 번만 친다(인스턴스 안 single-flight, 인스턴스 간 락 + L2 대기).
+ * - 채우기 실패는 DB 를 다시 치지 않는다. L2 저장만 실패하면 읽은 값을, 로더가 실패하면 그 예외를 돌려준다.
+ * - gzip 응답 본문은 L1 항목마다(상세는 찜 여부 변형마다) 한 번만 만들고, 무효화되면 다시 만든다.
  */
 @ExtendWith(MockitoExtension.class)
 class AnimeCacheServiceTest {
 
-    private static final String GENRES_KEY = "ott:anime:genres:v1";
-    private static final String POPULAR_KEY = "ott:anime:popular:v1";
+    private static final String GENRES_KEY = "ott:anime:genres:v2";
+    private static final String POPULAR_KEY = "ott:anime:popular:v2";
 
     @Mock
     private StringRedisTemplate stringRedisTemplate;
@@ -57,9 +84,63 @@ class AnimeCacheServiceTest {
 
     private AnimeCacheService service;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    // 인스턴스 간 채우기 락. 기본은 항상 잡힌다(단일 인스턴스). 테스트별로 바꿔 끼운다
+    private LockProvider lockProvider = config -> Optional.<SimpleLock>of(() -> {});
+
     @BeforeEach
     void setUp() {
-        service = new AnimeCacheService(stringRedisTemplate, objectMapper, animeQueryService);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AnimeCacheService(
+                stringRedisTemplate, objectMapper, animeQueryService, meterRegistry, config -> lockProvider.lock(config));
+        ReflectionTestUtils.setField(service, "localMaxSize", 100);
+        ReflectionTestUtils.setField(service, "localTtlSeconds", 30L);
+        ReflectionTestUtils.setField(service, "fillWaitMillis", 1000L);
+        ReflectionTestUtils.setField(service, "refreshAheadRatio", 0.8);
+        ReflectionTestUtils.setField(service, "staleGraceRatio", 1.0);
+        ReflectionTestUtils.setField(service, "refreshMinHits", 3);
+        service.init();
+    }
+
+    /**
+     * L2 봉투. refreshIn/expireIn 은 지금 기준 남은 시간(음수면 이미 지남).
+     */
+    private String envelope(Object value, Duration refreshIn, Duration expireIn) throws Exception {
+        long now = System.currentTimeMillis();
+        ObjectNode node = objectMapper.createObjectNode();
+        node.set("v", objectMapper.valueToTree(value));
+        node.put("r", now + refreshIn.toMillis());
+        node.put("e", now + expireIn.toMillis());
+        return objectMapper.writeValueAsString(node);
+    }
+
+    private String fresh(Object value) throws Exception {
+        return envelope(value, Duration.ofHours(1), Duration.ofHours(2));
+    }
+
+    /** 배경 갱신이 끝날 때까지 기다린다(실행기를 닫고 남은 작업을 비운다). */
+    private void awaitRefreshes() throws InterruptedException {
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(service, "refreshExecutor");
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private double fills(String cache, String result) {
+        return meterRegistry.get("anime.cache.fill").tags("cache", cache, "result", result).counter().count();
+    }
+
+    private double requests(String cache, String tier, String result) {
+        return meterRegistry.get("anime.cache.requests")
+                .tags("cache", cache, "tier", tier, "result", result)
+                .counter()
+                .count();
+    }
+
+    private static String gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
     }
 
     private GenreSimpleDto genre() {
@@ -71,7 +152,7 @@ class AnimeCacheServiceTest {
     class Genres {
 
         @Test
-        @DisplayName("미스면 DB 를 타고 TTL 6시간으로 채운다")
+        @DisplayName("미스면 DB 를 타고 신선 6시간 + 유예 6시간으로 채운다")
         void missLoadsFromDbAndSets() {
             given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
             given(valueOps.get(GENRES_KEY)).willReturn(null);
@@ -81,15 +162,14 @@ class AnimeCacheServiceTest {
 
             assertThat(result).hasSize(1);
             verify(animeQueryService).getAllGenres();
-            verify(valueOps).set(eq(GENRES_KEY), anyString(), eq(Duration.ofHours(6)));
+            verify(valueOps).set(eq(GENRES_KEY), anyString(), eq(Duration.ofHours(12)));
         }
 
         @Test
         @DisplayName("히트면 DB 를 타지 않고 캐시 값을 역직렬화해 돌려준다")
         void hitSkipsDb() throws Exception {
-            String json = objectMapper.writeValueAsString(List.of(genre()));
             given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
-            given(valueOps.get(GENRES_KEY)).willReturn(json);
+            given(valueOps.get(GENRES_KEY)).willReturn(fresh(List.of(genre())));
 
             List<GenreSimpleDto> result = service.getGenres();
 
@@ -117,7 +197,7 @@ class AnimeCacheServiceTest {
         @DisplayName("널(작품 없음)은 캐시에 넣지 않고 null 을 돌려준다")
         void nullIsNotCached() {
             given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
-            given(valueOps.get("ott:anime:detail:v1:5")).willReturn(null);
+            given(valueOps.get("ott:anime:detail:v2:5")).willReturn(null);
             given(animeQueryService.detail(5L)).willReturn(null);
 
             AnimeDetailDto result = service.getDetailPublic(5L);
@@ -130,7 +210,7 @@ class AnimeCacheServiceTest {
         @DisplayName("LocalDate/LocalDateTime 을 담은 상세도 폴백 없이 한 번의 DB 조회로 캐시에 채운다")
         void serializesJavaTimeAndCaches() {
             given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
-            given(valueOps.get("ott:anime:detail:v1:5")).willReturn(null);
+            given(valueOps.get("ott:anime:detail:v2:5")).willReturn(null);
             given(animeQueryService.detail(5L)).willReturn(detailWithDates());
 
             AnimeDetailDto result = service.getDetailPublic(5L);
@@ -139,7 +219,295 @@ class AnimeCacheServiceTest {
             assertThat(result.getAniId()).isEqualTo(5L);
             // 직렬화가 터졌다면 catch 폴백이 detail 을 한 번 더 불렀을 것 — times(1) 로 함정 회피를 고정한다
             verify(animeQueryService, times(1)).detail(5L);
-            verify(valueOps).set(eq("ott:anime:detail:v1:5"), anyString(), eq(Duration.ofMinutes(30)));
+            verify(valueOps).set(eq("ott:anime:detail:v2:5"), anyString(), eq(Duration.ofMinutes(60)));
+        }
+    }
+
+    @Nested
+    @DisplayName("L1(인스턴스 메모리)")
+    class NearTier {
+
+        @Test
+        @DisplayName("한 번 채운 뒤에는 Redis 를 타지 않고 L1 에서 돌려준다")
+        void secondReadIsServedFromL1() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(fresh(List.of(genre())));
+
+            service.getGenres();
+            List<GenreSimpleDto> second = service.getGenres();
+
+            assertThat(second).hasSize(1);
+            verify(valueOps, times(1)).get(GENRES_KEY);
+            assertThat(requests("genres", "l1", "hit")).isEqualTo(1.0);
+            assertThat(requests("genres", "l2", "hit")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("상세를 호출부가 고쳐도 L1 값은 그대로다 - 찜 여부가 다른 사용자에게 새지 않는다")
+        void detailCopiesAreIsolated() {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get("ott:anime:detail:v2:5")).willReturn(null);
+            given(animeQueryService.detail(5L)).willReturn(AnimeDetailDto.builder().aniId(5L).build());
+
+            service.getDetailPublic(5L).setIsFavorited(true);
+            AnimeDetailDto second = service.getDetailPublic(5L);
+            second.setIsFavorited(true);
+            AnimeDetailDto third = service.getDetailPublic(5L);
+
+            assertThat(third.getIsFavorited()).isNull();
+            verify(animeQueryService, times(1)).detail(5L);
+        }
+
+        @Test
+        @DisplayName("무효화는 L2 삭제 후 키를 전파하고 자기 L1 도 비운다")
+        void evictBroadcastsAndClearsL1() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(POPULAR_KEY)).willReturn(fresh(List.of()));
+            service.getPopular();
+
+            service.evictPopular();
+            service.getPopular();
+
+            InOrder order = inOrder(stringRedisTemplate);
+            order.verify(stringRedisTemplate).delete(POPULAR_KEY);
+            order.verify(stringRedisTemplate).convertAndSend(AnimeCacheService.INVALIDATION_CHANNEL, POPULAR_KEY);
+            verify(valueOps, times(2)).get(POPULAR_KEY); // 무효화 뒤 읽기는 다시 L2 로 간다
+        }
+
+        @Test
+        @DisplayName("다른 인스턴스가 보낸 무효화는 L1 만 비운다")
+        void remoteEvictClearsOnlyL1() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(fresh(List.of(genre())));
+            service.getGenres();
+
+            service.evictLocal(GENRES_KEY);
+            service.getGenres();
+
+            verify(valueOps, times(2)).get(GENRES_KEY);
+            verify(stringRedisTemplate, never()).delete(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("미리 만든 응답 본문(gzip + ETag)")
+    class PreparedBody {
+
+        @Test
+        @DisplayName("같은 L1 항목의 본문은 한 번만 만들고, 풀면 객체 경로와 같은 JSON 이다")
+        void bodyIsPreparedOnceAndMatchesObjectJson() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(fresh(List.of(genre())));
+
+            PreparedJsonBody first = service.getGenresBody();
+            PreparedJsonBody second = service.getGenresBody();
+
+            assertThat(second).isSameAs(first);
+            assertThat(gunzip(first.gzip())).isEqualTo(objectMapper.writeValueAsString(service.getGenres()));
+            assertThat(first.etag()).startsWith("\"").endsWith("\"");
+            assertThat(meterRegistry.get("anime.cache.body.prepared").tags("cache", "genres").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("상세는 찜 여부 변형별로 본문을 만들고 L1 값은 고치지 않는다")
+        void detailVariantsPerFavorite() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get("ott:anime:detail:v2:5")).willReturn(null);
+            given(animeQueryService.detail(5L)).willReturn(AnimeDetailDto.builder().aniId(5L).build());
+
+            PreparedJsonBody favorited = service.getDetailBody(5L, () -> true);
+            PreparedJsonBody unfavorited = service.getDetailBody(5L, () -> false);
+
+            assertThat(objectMapper.readTree(gunzip(favorited.gzip())).get("isFavorited").asBoolean()).isTrue();
+            assertThat(objectMapper.readTree(gunzip(unfavorited.gzip())).get("isFavorited").asBoolean()).isFalse();
+            assertThat(favorited.etag()).isNotEqualTo(unfavorited.etag());
+            assertThat(service.getDetailPublic(5L).getIsFavorited()).isNull();
+            verify(animeQueryService, times(1)).detail(5L);
+        }
+
+        @Test
+        @DisplayName("작품이 없으면 찜 여부를 묻지 않고 null")
+        void missingDetailSkipsFavoriteLookup() {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get("ott:anime:detail:v2:9")).willReturn(null);
+            given(animeQueryService.detail(9L)).willReturn(null);
+
+            PreparedJsonBody body = service.getDetailBody(9L, () -> {
+                throw new AssertionError("찜 조회가 불리면 안 된다");
+            });
+
+            assertThat(body).isNull();
+        }
+
+        @Test
+        @DisplayName("무효화 뒤에는 새 값으로 본문을 다시 만든다")
+        void evictionDropsBody() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(fresh(List.of(genre())), fresh(List.of()));
+
+            PreparedJsonBody before = service.getGenresBody();
+            service.evictLocal(GENRES_KEY);
+            PreparedJsonBody after = service.getGenresBody();
+
+            assertThat(gunzip(after.gzip())).isEqualTo("[]");
+            assertThat(after.etag()).isNotEqualTo(before.etag());
+        }
+    }
+
+    @Nested
+    @DisplayName("미스 몰림 방어")
+    class SingleFlight {
+
+        @Test
+        @DisplayName("같은 키의 동시 미스는 DB 를 한 번만 치고, 기다린 쪽은 각자 복사본을 받는다")
+        void concurrentMissesShareOneLoad() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get("ott:anime:detail:v2:5")).willReturn(null);
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            given(animeQueryService.detail(5L)).willAnswer(inv -> {
+                loading.countDown();
+                release.await();
+                return AnimeDetailDto.builder().aniId(5L).build();
+            });
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                Future<AnimeDetailDto> first = pool.submit(() -> service.getDetailPublic(5L));
+                loading.await();
+                Future<AnimeDetailDto> second = pool.submit(() -> service.getDetailPublic(5L));
+                while (fills("detail", "coalesced_local") == 0) {
+                    Thread.sleep(5); // 두 번째 호출이 먼저 온 채우기에 붙을 때까지
+                }
+                release.countDown();
+
+                assertThat(first.get(5, TimeUnit.SECONDS)).isNotSameAs(second.get(5, TimeUnit.SECONDS));
+            } finally {
+                pool.shutdownNow();
+            }
+            verify(animeQueryService, times(1)).detail(5L);
+        }
+
+        @Test
+        @DisplayName("다른 인스턴스가 채우는 중이면 DB 대신 L2 가 채워지길 기다려 쓴다")
+        void waitsForRemoteFill() throws Exception {
+            lockProvider = config -> Optional.empty();
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY))
+                    .willReturn(null)
+                    .willReturn(fresh(List.of(genre())));
+
+            List<GenreSimpleDto> result = service.getGenres();
+
+            assertThat(result).hasSize(1);
+            verify(animeQueryService, never()).getAllGenres();
+            assertThat(fills("genres", "coalesced_remote")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("기다려도 안 채워지면 직접 DB 를 친다 - 기다림이 요청 실패로 번지지 않는다")
+        void loadsItselfAfterWaitTimeout() {
+            lockProvider = config -> Optional.empty();
+            ReflectionTestUtils.setField(service, "fillWaitMillis", 0L);
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(null);
+            given(animeQueryService.getAllGenres()).willReturn(List.of(genre()));
+
+            List<GenreSimpleDto> result = service.getGenres();
+
+            assertThat(result).hasSize(1);
+            assertThat(fills("genres", "lock_timeout")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("L2 저장만 실패하면 DB 를 다시 치지 않고 읽은 값을 돌려준다")
+        void storeFailureReturnsLoadedValue() {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(null);
+            doThrow(new RedisConnectionFailureException("redis down"))
+                    .when(valueOps).set(eq(GENRES_KEY), anyString(), any(Duration.class));
+            given(animeQueryService.getAllGenres()).willReturn(List.of(genre()));
+
+            List<GenreSimpleDto> result = service.getGenres();
+
+            assertThat(result).hasSize(1);
+            verify(animeQueryService, times(1)).getAllGenres();
+        }
+
+        @Test
+        @DisplayName("DB 조회가 실패하면 다시 부르지 않고 그 예외를 그대로 던진다")
+        void loaderFailureIsNotRetried() {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY)).willReturn(null);
+            given(animeQueryService.getAllGenres()).willThrow(new IllegalStateException("db down"));
+
+            assertThatThrownBy(() -> service.getGenres()).hasMessage("db down");
+            verify(animeQueryService, times(1)).getAllGenres();
+        }
+    }
+
+    @Nested
+    @DisplayName("만료 전 갱신 / stale-while-revalidate")
+    class RefreshAhead {
+
+        @Test
+        @DisplayName("신선 만료가 지난 값은 그대로 내주고 배경에서 다시 채운다")
+        void servesStaleAndRefreshesInBackground() throws Exception {
+            GenreSimpleDto renamed = GenreSimpleDto.builder().id(1L).name("액션2").color("#f00").build();
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY))
+                    .willReturn(envelope(List.of(genre()), Duration.ofMinutes(-20), Duration.ofMinutes(-1)));
+            given(animeQueryService.getAllGenres()).willReturn(List.of(renamed));
+
+            List<GenreSimpleDto> result = service.getGenres();
+            awaitRefreshes();
+
+            assertThat(result.get(0).getName()).isEqualTo("액션"); // 요청은 갱신을 기다리지 않는다
+            verify(valueOps).set(eq(GENRES_KEY), anyString(), eq(Duration.ofHours(12)));
+            assertThat(meterRegistry.get("anime.cache.stale.served").tag("cache", "genres").counter().count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry.get("anime.cache.refresh").tags("cache", "genres", "result", "refreshed")
+                            .counter()
+                            .count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("갱신이 실패해도 캐시를 지우지 않는다 - 옛 값이 계속 나간다")
+        void keepsStaleValueWhenRefreshFails() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY))
+                    .willReturn(envelope(List.of(genre()), Duration.ofMinutes(-20), Duration.ofMinutes(-1)));
+            given(animeQueryService.getAllGenres()).willThrow(new RuntimeException("db slow"));
+
+            service.getGenres();
+            awaitRefreshes();
+            List<GenreSimpleDto> again = service.getGenres();
+
+            assertThat(again).hasSize(1);
+            verify(stringRedisTemplate, never()).delete(anyString());
+            assertThat(meterRegistry.get("anime.cache.refresh").tags("cache", "genres", "result", "failed")
+                            .counter()
+                            .count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("갱신 구간에서는 자주 읽힌 키만 미리 갱신한다")
+        void refreshesAheadOnlyHotKeys() throws Exception {
+            given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
+            given(valueOps.get(GENRES_KEY))
+                    .willReturn(envelope(List.of(genre()), Duration.ofMinutes(-1), Duration.ofMinutes(30)));
+            given(animeQueryService.getAllGenres()).willReturn(List.of(genre()));
+
+            service.getGenres();
+            service.getGenres(); // 여기까지 2회 — 아직 기준(3회) 미만
+            verify(animeQueryService, never()).getAllGenres();
+
+            service.getGenres();
+            awaitRefreshes();
+
+            verify(animeQueryService, times(1)).getAllGenres();
         }
     }
 
@@ -164,7 +532,7 @@ class AnimeCacheServiceTest {
         @DisplayName("상세: Redis 조회가 터져도 예외를 던지지 않고 DB 값을 돌려준다")
         void detailFallsBackToDbOnRedisFailure() {
             given(stringRedisTemplate.opsForValue()).willReturn(valueOps);
-            given(valueOps.get("ott:anime:detail:v1:5")).willThrow(new RuntimeException("redis down"));
+            given(valueOps.get("ott:anime:detail:v2:5")).willThrow(new RuntimeException("redis down"));
             given(animeQueryService.detail(5L))
                     .willReturn(AnimeDetailDto.builder().aniId(5L).build());
 
@@ -206,7 +574,7 @@ class AnimeCacheServiceTest {
                     s.afterCommit();
                 }
 
-                verify(stringRedisTemplate).delete("ott:anime:detail:v1:7");
+                verify(stringRedisTemplate).delete("ott:anime:detail:v2:7");
             } finally {
                 TransactionSynchronizationManager.clearSynchronization();
             }
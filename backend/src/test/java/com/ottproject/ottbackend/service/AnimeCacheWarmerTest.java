@@ -0,0 +1,134 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * AnimeCacheWarmer 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - 장르 → 인기 → 필터 인덱스 → 자동완성 인덱스 → 필터 옵션 → trend:24h 상위 상세 순으로 평소 읽기 경로를 한 번씩 탄다.
+ * - 어느 단계가 실패해도 기동(run)은 예외 없이 끝나고 다음 단계로 넘어간다.
+ * - 예산이 이미 끝났으면 남은 단계는 건너뛴다(skipped 로만 센다).
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeCacheWarmerTest {
+
+    @Mock
+    private AnimeCacheService animeCacheService;
+
+    @Mock
+    private AnimeFilterIndex animeFilterIndex;
+
+    @Mock
+    private AnimeFacetService animeFacetService;
+
+    @Mock
+    private AnimeSuggestIndex animeSuggestIndex;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, Object> zSetOps;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AnimeCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        warmer = new AnimeCacheWarmer(
+                animeCacheService, animeFilterIndex, animeFacetService, animeSuggestIndex, redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(warmer, "enabled", true);
+        ReflectionTestUtils.setField(warmer, "budgetMs", 5000L);
+        ReflectionTestUtils.setField(warmer, "topDetails", 3);
+        ReflectionTestUtils.setField(warmer, "parallelism", 2);
+        warmer.init();
+    }
+
+    private double items(String step, String result) {
+        var counter = meterRegistry.find("anime.cache.warmup.items").tag("step", step).tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("장르·인기·필터 인덱스·자동완성 인덱스·필터 옵션·상위 상세를 모두 채우고 진행률이 1 이 된다")
+    void warmsEveryStep() throws Exception {
+        given(redisTemplate.opsForZSet()).willReturn(zSetOps);
+        given(zSetOps.reverseRange(AnimeCacheWarmer.TREND_24H, 0, 2))
+                .willReturn(new LinkedHashSet<>(List.of("11", "x", "12")));
+        given(animeFilterIndex.isEnabled()).willReturn(true);
+        given(animeFilterIndex.loadBlocking(any(Duration.class))).willReturn(true);
+        given(animeSuggestIndex.isEnabled()).willReturn(true);
+        given(animeSuggestIndex.loadBlocking(any(Duration.class))).willReturn(true);
+
+        warmer.run(null);
+
+        verify(animeCacheService).getGenresBody();
+        verify(animeCacheService).getPopularBody();
+        verify(animeSuggestIndex).loadBlocking(any(Duration.class));
+        verify(animeFacetService).facetsBody();
+        verify(animeCacheService).getDetailBody(eq(11L), any(BooleanSupplier.class));
+        verify(animeCacheService).getDetailBody(eq(12L), any(BooleanSupplier.class));
+        assertThat(items("detail", "ok")).isEqualTo(2);
+        assertThat(meterRegistry.get("anime.cache.warmup.progress").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("anime.cache.warmup.duration").tag("result", "complete").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("단계가 실패해도 예외 없이 다음 단계로 넘어가고 partial 로 기록한다")
+    void failingStepDoesNotBlockStartup() {
+        given(redisTemplate.opsForZSet()).willThrow(new RedisConnectionFailureException("down"));
+        given(animeCacheService.getGenresBody()).willThrow(new IllegalStateException("db down"));
+        given(animeFilterIndex.isEnabled()).willReturn(false);
+
+        assertThatCode(() -> warmer.run(null)).doesNotThrowAnyException();
+
+        verify(animeCacheService).getPopularBody();
+        verify(animeCacheService, never()).getDetailBody(anyLong(), any(BooleanSupplier.class));
+        assertThat(items("genres", "error")).isEqualTo(1);
+        assertThat(meterRegistry.get("anime.cache.warmup.duration").tag("result", "partial").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("예산이 끝났으면 남은 단계는 건너뛴다")
+    void exhaustedBudgetSkipsSteps() throws Exception {
+        ReflectionTestUtils.setField(warmer, "budgetMs", 0L);
+        given(redisTemplate.opsForZSet()).willReturn(zSetOps);
+        given(zSetOps.reverseRange(AnimeCacheWarmer.TREND_24H, 0, 2)).willReturn(new LinkedHashSet<>(List.of("11")));
+        given(animeFilterIndex.isEnabled()).willReturn(true);
+
+        warmer.run(null);
+
+        verify(animeCacheService, never()).getGenresBody();
+        verify(animeFilterIndex, never()).loadBlocking(any(Duration.class));
+        assertThat(items("popular", "skipped")).isEqualTo(1);
+        assertThat(items("detail", "skipped")).isEqualTo(1);
+    }
+}
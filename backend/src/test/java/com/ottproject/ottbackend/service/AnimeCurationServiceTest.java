@@ -53,6 +53,18 @@ class AnimeCurationServiceTest {
     @Mock
     private AnimeCacheService animeCacheService;
 
+    @Mock
+    private AnimeListCountCache animeListCountCache;
+
+    @Mock
+    private AnimeFilterIndex animeFilterIndex;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private AnimeSuggestIndex animeSuggestIndex;
+
     @InjectMocks
     private AnimeCurationService animeCurationService;
 
@@ -150,6 +162,18 @@ class AnimeCurationServiceTest {
             verify(animeRepository, never()).save(any(Anime.class));
         }
 
+        @Test
+        @DisplayName("수정하면 카탈로그 버전을 올린다 - 공개 응답의 ETag 가 바뀐다")
+        void bumpsCatalogVersion() {
+            givenAnimeExists();
+            AnimeCurationUpdateRequest request = emptyRequest();
+            request.setIsActive(false);
+
+            animeCurationService.update(ANIME_ID, request);
+
+            verify(catalogVersionService).bump();
+        }
+
         @Test
         @DisplayName("없는 작품을 수정하면 404")
         void rejectsUnknownAnime() {
@@ -0,0 +1,99 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ottproject.ottbackend.dto.AnimeFacetCountsDto;
+import com.ottproject.ottbackend.dto.AnimeFacetsDto;
+import com.ottproject.ottbackend.dto.GenreSimpleDto;
+import com.ottproject.ottbackend.util.PreparedJsonBody;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * AnimeFacetService 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - 필터 없는 요청은 캐시 본문을 "counts:스냅샷 번호" 변형으로 받는다(같은 카탈로그 버전 동안 한 번만 만든다).
+ *   그 변형을 만드는 shape 는 캐시 안의 옵션 객체를 고치지 않는다.
+ * - 인덱스 적재 전이면 "plain" 변형이고 counts 는 null 이다.
+ * - 필터가 있는 요청은 캐시 본문을 메모하지 않고 요청마다 만든다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeFacetServiceTest {
+
+    @Mock
+    private AnimeCacheService animeCacheService;
+
+    @Mock
+    private AnimeFilterIndex animeFilterIndex;
+
+    private AnimeFacetService service;
+
+    private final AnimeFacetCountsDto counts = AnimeFacetCountsDto.builder().total(3).build();
+
+    @BeforeEach
+    void setUp() {
+        service = new AnimeFacetService(animeCacheService, animeFilterIndex, new ObjectMapper());
+    }
+
+    private static AnimeFacetsDto options() {
+        return AnimeFacetsDto.builder()
+                .genres(List.of(GenreSimpleDto.builder().id(1L).name("액션").build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("필터 없는 요청은 스냅샷 번호 변형의 캐시 본문을 받고, 캐시 안의 옵션은 고치지 않는다")
+    @SuppressWarnings("unchecked")
+    void unfilteredUsesMemoizedVariant() {
+        given(animeFilterIndex.facets(any())).willReturn(new AnimeFilterIndex.Facets(7L, counts));
+        PreparedJsonBody cached = new PreparedJsonBody(new byte[0], "\"e\"");
+        given(animeCacheService.getFacetsBody(eq("counts:7"), any())).willReturn(cached);
+
+        assertThat(service.facetsBody()).isSameAs(cached);
+
+        ArgumentCaptor<UnaryOperator<AnimeFacetsDto>> shape = ArgumentCaptor.forClass(UnaryOperator.class);
+        verify(animeCacheService).getFacetsBody(eq("counts:7"), shape.capture());
+        AnimeFacetsDto inCache = options();
+        AnimeFacetsDto shaped = shape.getValue().apply(inCache);
+        assertThat(shaped.getCounts()).isSameAs(counts);
+        assertThat(inCache.getCounts()).isNull();
+    }
+
+    @Test
+    @DisplayName("인덱스 적재 전이면 plain 변형으로 받는다")
+    void notReadyUsesPlainVariant() {
+        given(animeFilterIndex.facets(any())).willReturn(null);
+
+        service.facetsBody();
+
+        verify(animeCacheService).getFacetsBody(eq("plain"), any());
+    }
+
+    @Test
+    @DisplayName("필터가 있는 요청은 옵션에 개수를 붙여 요청마다 본문을 만든다")
+    void filteredBuildsPerRequest() {
+        given(animeFilterIndex.facets(any())).willReturn(new AnimeFilterIndex.Facets(7L, counts));
+        given(animeCacheService.getFacetOptions()).willReturn(options());
+
+        PreparedJsonBody body = service.facetsBody(null, List.of(1L), null, null, null, null,
+                null, null, null, null, null, null, null);
+
+        assertThat(body.etag()).isNotBlank();
+        verify(animeCacheService, never()).getFacetsBody(anyString(), any());
+    }
+}
@@ -0,0 +1,277 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import com.ottproject.ottbackend.dto.AnimeFacetCountsDto;
+import com.ottproject.ottbackend.dto.AnimeFilterIndexRow;
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.enums.AnimeStatus;
+import com.ottproject.ottbackend.mybatis.AnimeQueryMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * AnimeFilterIndex 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - 비트맵 필터/정렬 결과는 같은 조건을 행 단위로 그대로 푼 결과(목록 SQL 의 의미)와 같다: 장르 AND, 태그 OR,
+ *   NULL 정렬 키는 맨 뒤, 평점 없는 작품은 minRating 에 걸리지 않는다.
+ * - 커서로 이어 읽은 순서는 offset 으로 읽은 순서와 같다.
+ * - 적재 전이면 null(호출부가 SQL 로 간다).
+ * - 부분 갱신은 그 한 건만 DB 에서 다시 읽고, 비활성이 되면 결과에서 빠진다.
+ * - 옵션별 개수는 "그 옵션을 골랐을 때의 결과 수"다. 상태/타입/연도·분기/태그는 자기 차원의 선택을 빼고 세고,
+ *   장르는 현재 선택에 더해 센다. 스냅샷이 바뀌면 version 이 오른다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeFilterIndexTest {
+
+    private static final List<String> SORTS = List.of("id", "rating", "year", "popular", "title");
+
+    @Mock
+    private AnimeQueryMapper mapper;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private AnimeFilterIndex index;
+
+    private List<AnimeFilterIndexRow> catalog;
+
+    @BeforeEach
+    void setUp() {
+        index = new AnimeFilterIndex(mapper, stringRedisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.init();
+        catalog = syntheticCatalog(3000, new Random(42));
+    }
+
+    /** 무작위 합성 카탈로그. NULL 평점/연도/제목과 같은 정렬 키가 충분히 섞이도록 값 범위를 좁게 둔다. */
+    private static List<AnimeFilterIndexRow> syntheticCatalog(int n, Random rnd) {
+        List<AnimeFilterIndexRow> rows = new ArrayList<>();
+        AnimeStatus[] statuses = AnimeStatus.values();
+        String[] types = {"TV", "MOVIE", "OVA"};
+        for (long id = 1; id <= n; id++) {
+            rows.add(AnimeFilterIndexRow.builder()
+                    .aniId(id)
+                    .status(statuses[rnd.nextInt(statuses.length)])
+                    .type(types[rnd.nextInt(types.length)])
+                    .year(rnd.nextInt(8) == 0 ? null : 2015 + rnd.nextInt(10))
+                    .quarter(rnd.nextInt(6) == 0 ? null : 1 + rnd.nextInt(4))
+                    .rating(rnd.nextInt(5) == 0 ? null : rnd.nextInt(10) / 2.0 + 0.5)
+                    .sortTitle(rnd.nextInt(10) == 0 ? "" : "제목" + rnd.nextInt(200))
+                    .isDub(rnd.nextBoolean())
+                    .isSubtitle(rnd.nextBoolean())
+                    .isExclusive(rnd.nextInt(4) == 0)
+                    .isCompleted(rnd.nextBoolean())
+                    .isNew(rnd.nextInt(5) == 0)
+                    .isPopular(rnd.nextInt(6) == 0)
+                    .genreIds(ids(rnd, 12, 3))
+                    .tagIds(ids(rnd, 30, 4))
+                    .build());
+        }
+        return rows;
+    }
+
+    private static String ids(Random rnd, int range, int max) {
+        Set<Long> set = new HashSet<>();
+        int count = rnd.nextInt(max + 1);
+        for (int i = 0; i < count; i++) set.add(1L + rnd.nextInt(range));
+        return set.isEmpty() ? null : set.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private void load() {
+        given(mapper.findFilterIndexRows(isNull())).willReturn(catalog);
+        index.rebuildNow();
+    }
+
+    private static Set<Long> idSet(String csv) {
+        if (csv == null) return Set.of();
+        return java.util.Arrays.stream(csv.split(",")).map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    /** 목록 SQL(base_list_where + 장르 HAVING + 태그 DISTINCT)의 의미를 행 단위로 그대로 옮긴 기준 구현. */
+    private static Predicate<AnimeFilterIndexRow> reference(AnimeListFilter f) {
+        return r -> (f.status() == null || f.status() == r.getStatus())
+                && (f.genreIds() == null || idSet(r.getGenreIds()).containsAll(f.genreIds()))
+                && (f.tagIds() == null || f.tagIds().stream().anyMatch(idSet(r.getTagIds())::contains))
+                && (f.minRating() == null || (r.getRating() != null && r.getRating() >= f.minRating()))
+                && (f.year() == null || f.year().equals(r.getYear()))
+                && (f.quarter() == null || f.quarter().equals(r.getQuarter()))
+                && (f.type() == null || f.type().equals(r.getType()))
+                && (f.isDub() == null || f.isDub().equals(r.getIsDub()))
+                && (f.isNew() == null || f.isNew().equals(r.getIsNew()))
+                && (f.isPopular() == null || f.isPopular().equals(r.getIsPopular()));
+    }
+
+    private static Comparator<AnimeFilterIndexRow> referenceOrder(String sort) {
+        Comparator<AnimeFilterIndexRow> idDesc = Comparator.comparing(AnimeFilterIndexRow::getAniId).reversed();
+        return switch (sort) {
+            case "rating" -> Comparator.<AnimeFilterIndexRow>comparingDouble(
+                    r -> r.getRating() == null ? -1 : r.getRating()).reversed().thenComparing(idDesc);
+            case "year" -> Comparator.<AnimeFilterIndexRow>comparingInt(
+                    r -> r.getYear() == null ? 0 : r.getYear()).reversed().thenComparing(idDesc);
+            case "popular" -> Comparator.comparing(AnimeFilterIndexRow::getIsPopular).reversed().thenComparing(idDesc);
+            case "title" -> Comparator.comparing(AnimeFilterIndexRow::getSortTitle)
+                    .thenComparing(AnimeFilterIndexRow::getAniId);
+            default -> idDesc;
+        };
+    }
+
+    private List<AnimeListFilter> filters() {
+        return List.of(
+                AnimeListFilter.of(null, null, null, null, null, null, null, null, null, null, null, null, null),
+                AnimeListFilter.of(null, List.of(3L, 1L), null, null, null, null, null, null, null, null, null, null, null),
+                AnimeListFilter.of(null, null, 3.0, null, 2, "TV", null, null, null, null, null, null, List.of(4L, 9L, 17L)),
+                AnimeListFilter.of(AnimeStatus.values()[0], null, null, 2020, null, null, true, null, null, null, false, null, null),
+                AnimeListFilter.of(null, List.of(5L), null, null, null, null, null, null, null, null, null, true, List.of(2L)),
+                AnimeListFilter.of(null, List.of(999L), null, null, null, null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("비트맵 필터·정렬·총 개수가 행 단위 기준 구현과 같다")
+    void matchesReferenceForEveryFilterAndSort() {
+        load();
+        for (AnimeListFilter f : filters()) {
+            List<AnimeFilterIndexRow> expected = catalog.stream().filter(reference(f)).toList();
+            for (String sort : SORTS) {
+                List<Long> expectedIds = expected.stream().sorted(referenceOrder(sort))
+                        .map(AnimeFilterIndexRow::getAniId).toList();
+
+                AnimeFilterIndex.Page first = index.query(f, sort, 0, 20, null);
+                AnimeFilterIndex.Page deep = index.query(f, sort, 40, 20, null);
+
+                assertThat(first.total()).as("%s %s", f, sort).isEqualTo(expected.size());
+                assertThat(first.ids()).as("%s %s", f, sort)
+                        .isEqualTo(expectedIds.subList(0, Math.min(20, expectedIds.size())));
+                assertThat(deep.ids()).as("%s %s", f, sort)
+                        .isEqualTo(expectedIds.subList(Math.min(40, expectedIds.size()), Math.min(60, expectedIds.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("커서로 끝까지 이어 읽으면 전체 정렬 결과와 같다(겹침·누락 없음)")
+    void cursorWalkCoversWholeResult() {
+        load();
+        AnimeListFilter f = filters().get(2);
+        for (String sort : SORTS) {
+            List<Long> expected = catalog.stream().filter(reference(f)).sorted(referenceOrder(sort))
+                    .map(AnimeFilterIndexRow::getAniId).toList();
+            List<Long> walked = new ArrayList<>();
+            AnimeListCursor cursor = null;
+            while (true) {
+                AnimeFilterIndex.Page page = index.query(f, sort, 0, 7, cursor);
+                walked.addAll(page.ids());
+                if (page.ids().size() < 7) break;
+                cursor = page.cursors().get(6);
+                AnimeFilterIndexRow last = catalog.get((int) (page.ids().get(6) - 1));
+                assertThat(cursor).as(sort).isEqualTo(AnimeListCursor.after(sort, AnimeListDto.builder() // SQL 경로 커서와 같은 모양
+                        .aniId(last.getAniId())
+                        .rating(last.getRating())
+                        .year(last.getYear())
+                        .isPopular(last.getIsPopular())
+                        .title(last.getSortTitle())
+                        .build()));
+            }
+            assertThat(walked).as(sort).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("적재 전이면 null 을 돌려 SQL 경로로 보낸다")
+    void notReadyReturnsNull() {
+        AnimeListFilter all = filters().get(0);
+
+        assertThat(index.query(all, "id", 0, 20, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("부분 갱신은 그 한 건만 다시 읽고, 비활성이 된 작품은 결과에서 빠진다")
+    void refreshRemovesDeactivatedAnime() {
+        load();
+        given(mapper.findFilterIndexRows(eq(3000L))).willReturn(List.of());
+
+        index.refreshNow(3000L);
+
+        AnimeFilterIndex.Page page = index.query(filters().get(0), "id", 0, 1, null);
+        assertThat(page.ids()).containsExactly(2999L);
+        assertThat(page.total()).isEqualTo(2999L);
+        verify(mapper).findFilterIndexRows(3000L);
+    }
+
+    /** 조건을 만족하는 행을 key 별로 센다(0 건은 빠진다). */
+    private <K> Map<K, Long> countBy(AnimeListFilter f, java.util.function.Function<AnimeFilterIndexRow, List<K>> keys) {
+        Map<K, Long> out = new TreeMap<>();
+        catalog.stream().filter(reference(f)).forEach(r -> keys.apply(r).forEach(k -> out.merge(k, 1L, Long::sum)));
+        return out;
+    }
+
+    private static List<Long> idList(String csv) {
+        return List.copyOf(idSet(csv));
+    }
+
+    @Test
+    @DisplayName("옵션별 개수가 기준 구현과 같다(자기 차원 선택은 빼고, 장르는 더해서 센다)")
+    void facetCountsMatchReference() {
+        load();
+        AnimeListFilter f = AnimeListFilter.of(AnimeStatus.values()[0], List.of(1L), null, 2020, 2, "TV",
+                null, null, null, null, null, null, List.of(4L, 9L));
+        AnimeListFilter noStatus = AnimeListFilter.of(null, List.of(1L), null, 2020, 2, "TV",
+                null, null, null, null, null, null, List.of(4L, 9L));
+        AnimeListFilter noTag = AnimeListFilter.of(AnimeStatus.values()[0], List.of(1L), null, 2020, 2, "TV",
+                null, null, null, null, null, null, null);
+        AnimeListFilter noYear = AnimeListFilter.of(AnimeStatus.values()[0], List.of(1L), null, null, null, "TV",
+                null, null, null, null, null, null, List.of(4L, 9L));
+        AnimeListFilter noType = AnimeListFilter.of(AnimeStatus.values()[0], List.of(1L), null, 2020, 2, null,
+                null, null, null, null, null, null, List.of(4L, 9L));
+
+        AnimeFacetCountsDto counts = index.facets(f).counts();
+
+        assertThat(counts.getTotal()).isEqualTo(catalog.stream().filter(reference(f)).count());
+        assertThat(counts.getGenres()).isEqualTo(countBy(f, r -> idList(r.getGenreIds())));
+        assertThat(counts.getTags()).isEqualTo(countBy(noTag, r -> idList(r.getTagIds())));
+        assertThat(counts.getStatuses()).isEqualTo(countBy(noStatus, r -> List.of(r.getStatus().name())));
+        assertThat(counts.getTypes()).isEqualTo(countBy(noType, r -> List.of(r.getType())));
+        assertThat(counts.getYears()).isEqualTo(countBy(noYear,
+                r -> r.getYear() == null ? List.of() : List.of(String.valueOf(r.getYear()))));
+        assertThat(counts.getQuarters()).isEqualTo(countBy(noYear,
+                r -> r.getYear() == null || r.getQuarter() == null
+                        ? List.of() : List.of(r.getYear() + "-Q" + r.getQuarter())));
+    }
+
+    @Test
+    @DisplayName("스냅샷을 바꿀 때마다 version 이 오르고, 적재 전이면 개수는 null 이다")
+    void facetsVersionAdvancesWithSnapshot() {
+        AnimeListFilter all = filters().get(0);
+        assertThat(index.facets(all)).isNull();
+
+        load();
+        long first = index.facets(all).version();
+        given(mapper.findFilterIndexRows(eq(1L))).willReturn(List.of());
+        index.refreshNow(1L);
+
+        assertThat(index.facets(all).version()).isGreaterThan(first);
+        assertThat(index.facets(all).counts().getTotal()).isEqualTo(2999L);
+    }
+}
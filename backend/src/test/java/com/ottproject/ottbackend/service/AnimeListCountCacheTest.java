@@ -0,0 +1,110 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AnimeListCountCache 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - TTL 안의 캐시 값이면 COUNT 를 돌리지 않는다.
+ * - 없거나 TTL 이 지난 값이면 COUNT 로 다시 세어 "개수:시각" 으로 채운다.
+ * - Redis 가 터져도 목록은 DB 개수로 응답한다.
+ * - 무효화는 활성 트랜잭션이면 커밋 후에 해시째 지운다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeListCountCacheTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    private AnimeListCountCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnimeListCountCache(stringRedisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "countTtlSeconds", 600L);
+        cache.init();
+    }
+
+    private long countQuery() {
+        loads.incrementAndGet();
+        return 42L;
+    }
+
+    @Test
+    @DisplayName("TTL 안의 캐시 값이면 COUNT 없이 돌려준다")
+    void freshValueSkipsCount() {
+        given(stringRedisTemplate.opsForHash()).willReturn(hashOps);
+        given(hashOps.get(AnimeListCountCache.KEY, "f1")).willReturn("7:" + System.currentTimeMillis());
+
+        assertThat(cache.get("f1", this::countQuery)).isEqualTo(7L);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("TTL 이 지난 값이면 다시 세어 채운다")
+    void staleValueReloads() {
+        long old = System.currentTimeMillis() - Duration.ofMinutes(11).toMillis();
+        given(stringRedisTemplate.opsForHash()).willReturn(hashOps);
+        given(hashOps.get(AnimeListCountCache.KEY, "f1")).willReturn("7:" + old);
+
+        assertThat(cache.get("f1", this::countQuery)).isEqualTo(42L);
+        assertThat(loads).hasValue(1);
+        verify(hashOps).put(eq(AnimeListCountCache.KEY), eq("f1"), any());
+        verify(stringRedisTemplate).expire(AnimeListCountCache.KEY, Duration.ofSeconds(1200));
+    }
+
+    @Test
+    @DisplayName("Redis 오류면 DB 개수로 응답하고 채우지 않는다")
+    void redisFailureFallsBackToDb() {
+        given(stringRedisTemplate.opsForHash()).willThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(cache.get("f1", this::countQuery)).isEqualTo(42L);
+        verify(stringRedisTemplate, never()).expire(anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("활성 트랜잭션이면 커밋 후에 해시를 지운다")
+    void invalidatesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate();
+            verify(stringRedisTemplate, never()).delete(anyString());
+
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.afterCommit();
+            }
+
+            verify(stringRedisTemplate).delete(AnimeListCountCache.KEY);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ottproject.ottbackend.dto.AnimeDetailDto;
+import com.ottproject.ottbackend.dto.AnimeDetailRow;
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.CursorPagedResponse;
+import com.ottproject.ottbackend.mybatis.AnimeQueryMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.server.ResponseStatusException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * AnimeQueryService 단위 테스트(상세 조립, 커서 목록)
+ *
+ * 여기서 고정하는 규칙(상세 한 번에 조립)
+ * - 상세는 매퍼 한 문장(findAniDetailBundle)만 호출한다 — 연관 목록을 따로 읽지 않는다.
+ * - json_agg 로 받은 연관 목록이 DTO 목록으로 풀린다(PostgreSQL 이 내보내는 마이크로초 timestamp 포함).
+ * - 결과는 JSON 컬럼이 없는 순수 AnimeDetailDto 다(캐시에 그대로 직렬화된다). 공용 상세는 찜 여부를 담지 않는다.
+ *
+ * 여기서 고정하는 규칙(커서 목록)
+ * - size+1 개를 OFFSET 0 으로 읽어 다음 페이지 유무를 알고, 다음 커서는 마지막 행의 (정렬 키, id) 다.
+ * - NULL 정렬 키는 SQL 의 COALESCE 값과 같은 값으로 커서에 담긴다.
+ * - 다른 정렬의 커서나 깨진 커서는 400 이다.
+ * - 총 개수는 개수 캐시를 거치고, 순서만 다른 장르 조합은 같은 지문을 쓴다.
+ * - 필터 인덱스가 준비돼 있으면 페이지 ID 순서대로 카드만 읽고, 목록/COUNT SQL 은 타지 않는다.
+ *   다음 페이지 유무와 커서는 카드가 아니라 스냅샷에서 나온다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeQueryServiceTest {
+
+    @Mock
+    private AnimeQueryMapper mapper;
+
+    @Mock
+    private AnimeListCountCache countCache;
+
+    @Mock
+    private AnimeFilterIndex filterIndex; // 목 기본값 null = 인덱스 준비 전(SQL 경로)
+
+    private AnimeQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnimeQueryService(mapper, new ObjectMapper().registerModule(new JavaTimeModule()), countCache, filterIndex);
+    }
+
+    private AnimeDetailRow row() {
+        AnimeDetailRow row = new AnimeDetailRow();
+        row.setAniId(7L);
+        row.setTitle("제목");
+        row.setIsFavorited(false);
+        row.setEpisodesJson("[{\"id\":70,\"episodeNumber\":1,\"title\":\"1화\",\"isReleased\":true,"
+                + "\"createdAt\":\"2025-08-20T12:34:56.123456\",\"updatedAt\":\"2025-08-20T12:34:56\"}]");
+        row.setGenresJson("[{\"id\":1,\"name\":\"액션\",\"color\":\"#f00\"}]");
+        row.setStudiosJson("[]");
+        row.setTagsJson("[\"가족\",\"일상\"]");
+        return row;
+    }
+
+    @Test
+    @DisplayName("연관 목록 JSON 을 풀어 한 번의 조회로 상세를 만든다")
+    void assemblesDetailFromSingleRow() {
+        given(mapper.findAniDetailBundle(7L, 10L)).willReturn(row());
+
+        AnimeDetailDto dto = service.detail(7L, 10L);
+
+        assertThat(dto.getClass()).isEqualTo(AnimeDetailDto.class);
+        assertThat(dto.getTitle()).isEqualTo("제목");
+        assertThat(dto.getEpisodes()).singleElement().satisfies(ep -> {
+            assertThat(ep.getEpisodeNumber()).isEqualTo(1);
+            assertThat(ep.getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 8, 20, 12, 34, 56, 123_456_000));
+        });
+        assertThat(dto.getGenres()).extracting("name").containsExactly("액션");
+        assertThat(dto.getStudios()).isEmpty();
+        assertThat(dto.getTags()).containsExactly("가족", "일상");
+        assertThat(dto.getIsFavorited()).isFalse();
+        verify(mapper).findAniDetailBundle(7L, 10L);
+        verifyNoMoreInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("공용 상세는 찜 여부를 비워 둔다")
+    void publicDetailLeavesFavoriteEmpty() {
+        given(mapper.findAniDetailBundle(7L, null)).willReturn(row());
+
+        AnimeDetailDto dto = service.detail(7L);
+
+        assertThat(dto.getIsFavorited()).isNull();
+    }
+
+    @Test
+    @DisplayName("작품이 없으면 null")
+    void missingAnimeReturnsNull() {
+        given(mapper.findAniDetailBundle(7L, null)).willReturn(null);
+
+        assertThat(service.detail(7L)).isNull();
+    }
+
+    private List<AnimeListDto> items(int n) {
+        List<AnimeListDto> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(AnimeListDto.builder().aniId(100L - i).rating(i == 1 ? null : 4.5).build());
+        }
+        return list;
+    }
+
+    private CursorPagedResponse<AnimeListDto> scroll(String sort, String cursor, int size, List<Long> genreIds) {
+        return service.scroll(null, genreIds, null, null, null, null, null, null, null, null, null, null,
+                sort, cursor, size, null);
+    }
+
+    @Test
+    @DisplayName("size+1 개를 읽어 다음 페이지가 있으면 마지막 행으로 커서를 만든다(NULL 평점은 -1)")
+    void scrollBuildsNextCursorFromLastRow() {
+        given(mapper.findAniList(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), eq("rating"), eq(3), eq(0), isNull(), isNull(), isNull(), isNull(), isNull()))
+                .willReturn(items(3));
+        given(countCache.get(anyString(), any())).willReturn(50L);
+
+        CursorPagedResponse<AnimeListDto> page = scroll("rating", null, 2, null);
+
+        assertThat(page.getItems()).extracting("aniId").containsExactly(100L, 99L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotal()).isEqualTo(50L);
+        AnimeListCursor next = AnimeListCursor.decode(page.getNextCursor(), "rating");
+        assertThat(next.id()).isEqualTo(99L);
+        assertThat(next.rating()).isEqualTo(-1.0); // SQL 의 COALESCE(a.rating, -1) 과 같은 값
+    }
+
+    @Test
+    @DisplayName("커서를 넘기면 OFFSET 0 으로 그 뒤를 읽고, 마지막 페이지는 커서가 없다")
+    void scrollContinuesFromCursor() {
+        String cursor = new AnimeListCursor("rating", 99L, -1.0, null, null, null).encode();
+        given(mapper.findAniList(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), eq("rating"), eq(3), eq(0), eq(99L), eq(-1.0), isNull(), isNull(), isNull()))
+                .willReturn(items(1));
+
+        CursorPagedResponse<AnimeListDto> page = scroll("rating", cursor, 2, null);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("다른 정렬의 커서나 깨진 커서는 400")
+    void rejectsForeignOrBrokenCursor() {
+        String ratingCursor = new AnimeListCursor("rating", 99L, 4.5, null, null, null).encode();
+
+        assertThatThrownBy(() -> scroll("title", ratingCursor, 20, null)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> scroll("rating", "%%%", 20, null)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    @DisplayName("제목 커서는 '|' 가 들어간 제목도 그대로 되돌린다")
+    void titleCursorRoundTrips() {
+        AnimeListCursor cursor = AnimeListCursor.after("title",
+                AnimeListDto.builder().aniId(5L).title("Re|Zero").build());
+
+        assertThat(AnimeListCursor.decode(cursor.encode(), "title").title()).isEqualTo("Re|Zero");
+    }
+
+    @Test
+    @DisplayName("순서만 다른 장르 조합은 같은 개수 캐시 지문을 쓴다")
+    void genreOrderDoesNotChangeFingerprint() {
+        given(countCache.get(anyString(), any())).willReturn(0L);
+
+        scroll("id", null, 20, List.of(2L, 1L));
+        scroll("latest", null, 20, List.of(1L, 2L, 2L));
+
+        ArgumentCaptor<String> fingerprints = ArgumentCaptor.forClass(String.class);
+        verify(countCache, times(2)).get(fingerprints.capture(), any());
+        assertThat(fingerprints.getAllValues().get(0)).isEqualTo(fingerprints.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("필터 인덱스가 준비돼 있으면 페이지 ID 순서대로 카드만 읽고 총 개수도 인덱스 값을 쓴다")
+    void indexHitHydratesPageOnly() {
+        given(filterIndex.query(any(), eq("rating"), eq(0), eq(3), isNull()))
+                .willReturn(indexPage(List.of(5L, 9L, 7L), List.of(4.0, 3.5, 3.0), 120L));
+        given(mapper.findAniListByIds(List.of(5L, 9L))).willReturn(new ArrayList<>(List.of(
+                AnimeListDto.builder().aniId(9L).rating(3.5).build(),
+                AnimeListDto.builder().aniId(5L).rating(4.0).build())));
+
+        CursorPagedResponse<AnimeListDto> page = scroll("rating", null, 2, null);
+
+        assertThat(page.getItems()).extracting("aniId").containsExactly(5L, 9L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotal()).isEqualTo(120L);
+        verify(mapper).findAniListByIds(List.of(5L, 9L)); // 다음 페이지 확인용 한 건은 카드를 읽지 않는다
+        verifyNoMoreInteractions(mapper, countCache);
+    }
+
+    @Test
+    @DisplayName("인덱스 경로의 다음 페이지 유무와 커서는 스냅샷 값이다(카드가 빠지거나 평점이 달라도)")
+    void indexCursorComesFromSnapshot() {
+        given(filterIndex.query(any(), eq("rating"), eq(0), eq(3), isNull()))
+                .willReturn(indexPage(List.of(5L, 9L, 7L), List.of(4.0, 3.5, 3.0), 120L));
+        given(mapper.findAniListByIds(List.of(5L, 9L))).willReturn(new ArrayList<>(List.of(
+                AnimeListDto.builder().aniId(9L).rating(4.8).build()))); // 5 는 그새 비활성, 9 의 평점은 재적재 전에 올랐다
+
+        CursorPagedResponse<AnimeListDto> page = scroll("rating", null, 2, null);
+
+        assertThat(page.getItems()).extracting("aniId").containsExactly(9L);
+        assertThat(page.isHasNext()).isTrue();
+        AnimeListCursor next = AnimeListCursor.decode(page.getNextCursor(), "rating");
+        assertThat(next.id()).isEqualTo(9L);
+        assertThat(next.rating()).isEqualTo(3.5); // 스냅샷 순열에서의 자리
+    }
+
+    private static AnimeFilterIndex.Page indexPage(List<Long> ids, List<Double> ratings, long total) {
+        List<AnimeListCursor> cursors = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            cursors.add(new AnimeListCursor("rating", ids.get(i), ratings.get(i), null, null, null));
+        }
+        return new AnimeFilterIndex.Page(ids, total, cursors);
+    }
+}
@@ -0,0 +1,315 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import com.ottproject.ottbackend.dto.AnimeSuggestIndexRow;
+import com.ottproject.ottbackend.dto.PersonSuggestIndexRow;
+import com.ottproject.ottbackend.dto.SearchAllAnimeDto;
+import com.ottproject.ottbackend.dto.SearchAllDto;
+import com.ottproject.ottbackend.dto.SearchAllEntityDto;
+import com.ottproject.ottbackend.dto.SearchEntityLinkRow;
+import com.ottproject.ottbackend.dto.SearchSuggestPersonDto;
+import com.ottproject.ottbackend.dto.SearchSuggestTitleDto;
+import com.ottproject.ottbackend.mybatis.SearchQueryMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * AnimeSuggestIndex 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - limit 이 충분하면 결과 집합은 자동완성 SQL(세 제목 중 하나에 q 가 들어 있는 작품, 대소문자 무시)과 같다
+ *   (완성된 음절만 치고, 받침이 다음 음절로 넘어가는 겹침이 없는 카탈로그에서).
+ * - 순서: 제목 첫머리 일치 → 단어 첫머리 일치 → 중간 일치, 같은 단계 안에서는 is_popular → rating → id 내림차순.
+ * - 띄어쓰기와 전각/반각 차이는 무시한다.
+ * - 초성만 친 쿼리는 제목/단어 첫머리의 초성열로, 조합 중인 음절은 자모열 접두사로 찾는다.
+ * - 오타(자모 편집 거리 1, 긴 쿼리는 2)는 정확한 결과가 하나도 없을 때만 찾고, 거리 → 인기 순이다.
+ * - 인물은 같은 규칙으로 찾고, 연결 작품 수가 많은 순이다. 캐릭터/제작사는 인물 자동완성에 섞이지 않는다.
+ * - 통합 검색은 종류별로 따로 순위를 매기고, 작품은 제목 일치 뒤에 이름이 맞은 엔티티의 연결 작품을 인기순으로 잇는다.
+ * - 적재 전이면 null(호출부가 SQL 로 간다).
+ * - 부분 갱신은 그 한 건만 DB 에서 다시 읽고, 비활성이 되면 결과에서 빠진다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnimeSuggestIndexTest {
+
+    @Mock
+    private SearchQueryMapper mapper;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private AnimeSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AnimeSuggestIndex(mapper, stringRedisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.init();
+    }
+
+    private static AnimeSuggestIndexRow row(long id, String title, String titleEn, boolean popular, Double rating) {
+        return AnimeSuggestIndexRow.builder()
+                .aniId(id)
+                .title(title)
+                .titleEn(titleEn)
+                .isPopular(popular)
+                .rating(rating)
+                .build();
+    }
+
+    private List<String> titles(String q, int limit) {
+        return index.suggest(q, limit).stream().map(SearchSuggestTitleDto::getTitle).toList();
+    }
+
+    @Test
+    @DisplayName("적재 전이면 null")
+    void notReadyReturnsNull() {
+        assertThat(index.suggest("진격", 10)).isNull();
+    }
+
+    @Test
+    @DisplayName("제목 첫머리 → 단어 첫머리 → 중간 일치 순이고, 같은 단계는 인기순이다")
+    void ranksByMatchTierThenPopularity() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "거인의 별", null, false, 3.0), // 제목 첫머리
+                row(2, "진격의 거인", "Attack on Titan", true, 4.5), // 단어 첫머리
+                row(3, "작은거인", null, true, 5.0), // 중간
+                row(4, "거인 이야기", null, true, 2.0), // 제목 첫머리, 인기
+                row(5, "하늘", null, true, 5.0))); // 무관
+        index.rebuildNow();
+
+        assertThat(titles("거인", 10)).containsExactly("거인 이야기", "거인의 별", "진격의 거인", "작은거인");
+        assertThat(titles("거인", 2)).containsExactly("거인 이야기", "거인의 별");
+    }
+
+    @Test
+    @DisplayName("대소문자·띄어쓰기·전각 차이를 무시하고 영문 제목으로도 찾는다")
+    void normalizesCaseSpacesAndWidth() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "진격의 거인", "Attack on Titan", true, 4.5)));
+        index.rebuildNow();
+
+        assertThat(titles("진격의거", 10)).containsExactly("진격의 거인");
+        assertThat(titles("TITAN", 10)).containsExactly("진격의 거인");
+        assertThat(titles("ａｔｔａｃｋ", 10)).containsExactly("진격의 거인");
+        assertThat(titles("없는말", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("limit 이 충분하면 결과 집합은 부분일치 SQL 과 같다")
+    void matchesSubstringSemantics() {
+        Random rnd = new Random(7);
+        String[] syllables = {"진", "격", "의", "거", "인", "하", "늘", "별", "바", "다"};
+        List<AnimeSuggestIndexRow> catalog = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            StringBuilder t = new StringBuilder();
+            int len = 2 + rnd.nextInt(6);
+            for (int i = 0; i < len; i++) {
+                if (i > 0 && rnd.nextInt(4) == 0) t.append(' ');
+                t.append(syllables[rnd.nextInt(syllables.length)]);
+            }
+            catalog.add(row(id, t.toString(), rnd.nextInt(3) == 0 ? "title " + id : null,
+                    rnd.nextInt(5) == 0, rnd.nextInt(4) == 0 ? null : rnd.nextInt(10) / 2.0));
+        }
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(catalog);
+        index.rebuildNow();
+
+        for (String q : List.of("진", "거인", "의거", "별바다", "title 1", "다진격")) {
+            String needle = AnimeSuggestIndex.normalize(q);
+            List<String> expected = catalog.stream()
+                    .filter(r -> Stream.of(r.getTitle(), r.getTitleEn())
+                            .anyMatch(t -> t != null && AnimeSuggestIndex.normalize(t).contains(needle)))
+                    .map(AnimeSuggestIndexRow::getTitle)
+                    .toList();
+            assertThat(titles(q, 5000)).as("q=%s", q).containsExactlyInAnyOrderElementsOf(expected); // 작품당 한 번
+        }
+    }
+
+    @Test
+    @DisplayName("초성만 친 쿼리는 제목/단어 첫머리 초성으로 찾는다")
+    void matchesInitialConsonants() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "귀멸의 칼날", "Demon Slayer", true, 4.8),
+                row(2, "진격의 거인", null, true, 4.5),
+                row(3, "강철의 연금술사", null, false, 4.9)));
+        index.rebuildNow();
+
+        assertThat(titles("ㄱㅁㅇ", 10)).containsExactly("귀멸의 칼날");
+        assertThat(titles("ㅋㄴ", 10)).containsExactly("귀멸의 칼날"); // 단어 첫머리
+        assertThat(titles("ㄱ", 10)).containsExactly("귀멸의 칼날", "강철의 연금술사", "진격의 거인"); // "거인" 은 단어 첫머리
+        assertThat(titles("ㅈㄱㅇㄱㅇ", 10)).containsExactly("진격의 거인");
+    }
+
+    @Test
+    @DisplayName("조합 중인 음절도 접두 일치로 찾는다")
+    void matchesPartialSyllables() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "귀멸의 칼날", null, true, 4.8),
+                row(2, "귀여운 여친", null, false, 3.0)));
+        index.rebuildNow();
+
+        assertThat(titles("귀며", 10)).containsExactly("귀멸의 칼날");
+        assertThat(titles("귀멸ㅇ", 10)).containsExactly("귀멸의 칼날");
+        assertThat(titles("귀", 10)).containsExactly("귀멸의 칼날", "귀여운 여친");
+    }
+
+    @Test
+    @DisplayName("오타는 정확한 결과가 없을 때만 자모 편집 거리로 찾는다")
+    void toleratesOneJamoTypo() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "귀멸의 칼날", null, true, 4.8),
+                row(2, "주술회전", null, true, 4.6),
+                row(3, "주술사", null, false, 3.0)));
+        index.rebuildNow();
+
+        assertThat(titles("귀멀의", 10)).containsExactly("귀멸의 칼날"); // ㅕ → ㅓ
+        assertThat(titles("주슬회전", 10)).containsExactly("주술회전"); // ㅜ → ㅡ
+        assertThat(titles("주술", 10)).containsExactly("주술회전", "주술사"); // 정확한 결과가 있으면 오타 단계 없음
+        assertThat(titles("궈", 10)).isEmpty(); // 자모 4개 미만은 오타를 허용하지 않는다
+    }
+
+    @Test
+    @DisplayName("오타 결과는 거리순이다 — 더 가까운 키가 더 인기 있는 먼 키보다 앞선다")
+    void fuzzyRanksByDistanceBeforePopularity() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "귀멸의 칼날", null, false, 3.0), // 거리 1(ㅓ → ㅕ)
+                row(2, "귀멸의 카드", null, true, 5.0))); // 거리 2, 같은 얕은 접두사("귀멸의카")를 공유
+        index.rebuildNow();
+
+        assertThat(titles("귀멀의칼", 10)).containsExactly("귀멸의 칼날", "귀멸의 카드"); // 자모 8개 이상: 거리 2 까지
+    }
+
+    @Test
+    @DisplayName("인물은 이름/영문 이름/초성으로 찾고 작품 수 많은 순이다")
+    void suggestsPeople() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of());
+        given(mapper.findSearchEntityRows()).willReturn(List.of(
+                person("VOICE_ACTOR", 1, "하나에 나츠키", "Natsuki Hanae", 12),
+                person("DIRECTOR", 2, "하야시 유이치로", null, 3),
+                person("VOICE_ACTOR", 3, "카지 유키", "Yuki Kaji", 20),
+                person("CHARACTER", 4, "하츠네 미쿠", null, 40))); // 인물 자동완성 대상이 아니다
+        index.rebuildNow();
+
+        assertThat(people("하")).containsExactly("하나에 나츠키", "하야시 유이치로");
+        assertThat(people("ㅎㄴㅇ")).containsExactly("하나에 나츠키");
+        assertThat(people("yuki")).containsExactly("카지 유키"); // 영문 이름
+        assertThat(people("유")).containsExactly("카지 유키", "하야시 유이치로");
+        assertThat(index.suggestPeople("ㅋㅈ", 10)).singleElement()
+                .satisfies(p -> {
+                    assertThat(p.getKind()).isEqualTo("VOICE_ACTOR");
+                    assertThat(p.getPersonId()).isEqualTo(3L);
+                    assertThat(p.getWorkCount()).isEqualTo(20);
+                });
+    }
+
+    private static PersonSuggestIndexRow person(String kind, long id, String name, String nameEn, int works) {
+        return PersonSuggestIndexRow.builder()
+                .kind(kind)
+                .personId(id)
+                .name(name)
+                .nameEn(nameEn)
+                .workCount(works)
+                .build();
+    }
+
+    private List<String> people(String q) {
+        return index.suggestPeople(q, 10).stream().map(SearchSuggestPersonDto::getName).toList();
+    }
+
+    private static SearchEntityLinkRow link(String kind, long entityId, long aniId) {
+        return SearchEntityLinkRow.builder().kind(kind).entityId(entityId).aniId(aniId).build();
+    }
+
+    @Test
+    @DisplayName("통합 검색은 종류별로 묶고, 이름이 맞은 엔티티의 작품을 제목 일치 뒤에 잇는다")
+    void searchesAllEntityKinds() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "진격의 거인", "Attack on Titan", true, 4.5),
+                row(2, "귀멸의 칼날", null, true, 4.8),
+                row(3, "카지와 친구들", null, false, 3.0),
+                row(4, "바이올렛 에버가든", null, false, 4.9)));
+        given(mapper.findSearchEntityRows()).willReturn(List.of(
+                person("VOICE_ACTOR", 10, "카지 유키", "Yuki Kaji", 2),
+                person("CHARACTER", 20, "카마도 탄지로", "Kamado Tanjiro", 1),
+                person("DIRECTOR", 30, "아라키 테츠로", null, 1),
+                person("STUDIO", 40, "쿄토 애니메이션", "Kyoto Animation", 1),
+                person("STUDIO", 41, "카도카와", null, 0)));
+        given(mapper.findSearchEntityLinks()).willReturn(List.of(
+                link("VOICE_ACTOR", 10, 1),
+                link("VOICE_ACTOR", 10, 3),
+                link("CHARACTER", 20, 2),
+                link("DIRECTOR", 30, 1),
+                link("STUDIO", 40, 4)));
+        index.rebuildNow();
+
+        SearchAllDto kaji = index.searchAll("카지", 5);
+        assertThat(kaji.getVoiceActors()).extracting(SearchAllEntityDto::getName).containsExactly("카지 유키");
+        assertThat(kaji.getCharacters()).isEmpty();
+        assertThat(kaji.getAnimes()).extracting(SearchAllAnimeDto::getTitle)
+                .containsExactly("카지와 친구들", "진격의 거인"); // 제목 일치가 먼저, 연결 작품은 그 뒤(이미 나온 작품은 한 번만)
+        assertThat(kaji.getAnimes().get(1)).satisfies(a -> {
+            assertThat(a.getMatchedBy()).isEqualTo("VOICE_ACTOR");
+            assertThat(a.getMatchedName()).isEqualTo("카지 유키");
+            assertThat(a.getAniId()).isEqualTo(1L);
+        });
+
+        SearchAllDto ka = index.searchAll("ㅋ", 5); // 초성: 종류마다 따로 순위
+        assertThat(ka.getCharacters()).extracting(SearchAllEntityDto::getName).containsExactly("카마도 탄지로");
+        assertThat(ka.getStudios()).extracting(SearchAllEntityDto::getName).containsExactly("쿄토 애니메이션", "카도카와");
+
+        SearchAllDto kyoto = index.searchAll("kyoto", 5); // 영문 이름 → 제작사 → 작품
+        assertThat(kyoto.getStudios()).extracting(SearchAllEntityDto::getId).containsExactly(40L);
+        assertThat(kyoto.getAnimes()).extracting(SearchAllAnimeDto::getTitle, SearchAllAnimeDto::getMatchedBy)
+                .containsExactly(tuple("바이올렛 에버가든", "STUDIO"));
+
+        assertThat(index.suggestPeople("카", 10)).extracting(SearchSuggestPersonDto::getName)
+                .containsExactly("카지 유키"); // 캐릭터/제작사는 인물 자동완성에 섞이지 않는다
+    }
+
+    @Test
+    @DisplayName("작품 부분 갱신 뒤에도 엔티티 연결은 새 순위로 풀린다")
+    void linkedWorksFollowTitleRefresh() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "진격의 거인", null, true, 4.5),
+                row(2, "거인의 별", null, false, 3.0)));
+        given(mapper.findSearchEntityRows()).willReturn(List.of(person("DIRECTOR", 30, "아라키 테츠로", null, 2)));
+        given(mapper.findSearchEntityLinks()).willReturn(List.of(link("DIRECTOR", 30, 1), link("DIRECTOR", 30, 2)));
+        index.rebuildNow();
+        given(mapper.findSuggestIndexRows(1L)).willReturn(List.of());
+
+        index.refreshNow(1L); // 1번 비활성
+
+        assertThat(index.searchAll("아라키", 5).getAnimes()).extracting(SearchAllAnimeDto::getTitle)
+                .containsExactly("거인의 별");
+    }
+
+    @Test
+    @DisplayName("부분 갱신은 한 건만 다시 읽고, 비활성이 되면 빠진다")
+    void refreshReadsOneRow() {
+        given(mapper.findSuggestIndexRows(isNull())).willReturn(List.of(
+                row(1, "진격의 거인", null, true, 4.5),
+                row(2, "거인의 별", null, false, 3.0)));
+        index.rebuildNow();
+        given(mapper.findSuggestIndexRows(1L)).willReturn(List.of());
+
+        index.refreshNow(1L);
+
+        verify(mapper).findSuggestIndexRows(1L);
+        assertThat(titles("거인", 10)).containsExactly("거인의 별");
+    }
+}
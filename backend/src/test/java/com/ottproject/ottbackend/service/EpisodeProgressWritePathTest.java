@@ -2,6 +2,8 @@ package com.ottproject.ottbackend.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
@@ -12,9 +14,11 @@ import com.ottproject.ottbackend.entity.EntityTestFixtures;
 import com.ottproject.ottbackend.entity.Episode;
 import com.ottproject.ottbackend.entity.User;
 import com.ottproject.ottbackend.enums.AnimeStatus;
+import com.ottproject.ottbackend.mybatis.BingeWatchMapper;
 import com.ottproject.ottbackend.mybatis.EpisodeMapper;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
 import com.ottproject.ottbackend.mybatis.PlayerQueryMapper;
+import com.ottproject.ottbackend.mybatis.RecentAnimeMapper;
 import com.ottproject.ottbackend.repository.AnimeRepository;
 import com.ottproject.ottbackend.repository.EpisodeRepository;
 import com.ottproject.ottbackend.repository.UserRepository;
@@ -159,6 +163,17 @@ class EpisodeProgressWritePathTest {
     @MockitoBean
     private PlayerQueryMapper playerQueryMapper;
 
+    /** 완주 집계·이어보기 테이블은 Flyway 마이그레이션에만 있고 ddl-auto 스키마에는 없다. 호출 여부만 본다. */
+    @MockitoBean
+    private BingeWatchMapper bingeWatchMapper;
+
+    @MockitoBean
+    private RecentAnimeMapper recentAnimeMapper;
+
+    /** 스킵 로그 적재기. 이 테스트는 스킵 경로를 다루지 않는다. */
+    @MockitoBean
+    private SkipUsageIngestor skipUsageIngestor;
+
     private Long userId;
     private Long animeId;
     private Long episodeId;
@@ -360,19 +375,21 @@ class EpisodeProgressWritePathTest {
     @DisplayName("최근본 목록 숨김·삭제")
     class RecentAnime {
 
+        /**
+         * 숨김은 이어보기 목록의 작품 한 행만 바꾼다. 회차별 진행률 행을 건드리면 행 수만큼 쓰기가 늘고
+         * 시청 기록(이어보기 위치)까지 흔들린다.
+         */
         @Test
-        @DisplayName("숨김은 그 작품의 회차만 표시에서 빼고 시청 기록은 남긴다")
-        void hideMarksOnlyRequestedEpisodes() {
+        @DisplayName("숨김은 이어보기 행만 바꾸고 진행률 행은 건드리지 않는다")
+        void hideTouchesOnlyRecentRow() {
             progressQueryMapper.upsertProgressBatch(
                     List.of(bufferedRow(episodeId, 100, EARLIER), bufferedRow(otherEpisodeId, 200, EARLIER)));
-            given(episodeMapper.findEpisodesByAnimeId(animeId))
-                    .willReturn(List.of(EpisodeDto.builder().id(episodeId).build()));
 
             recentAnimeService.hideFromRecent(userId, animeId);
 
-            assertThat(progressRow(episodeId)).containsEntry("hidden_in_recent", true);
+            verify(recentAnimeMapper).hide(eq(userId), eq(animeId), any(LocalDateTime.class));
+            assertThat(progressRow(episodeId)).containsEntry("hidden_in_recent", false);
             assertThat(progressRow(episodeId)).containsEntry("position_sec", 100); // 기록 자체는 그대로
-            assertThat(progressRow(otherEpisodeId)).containsEntry("hidden_in_recent", false);
         }
 
         @Test
@@ -389,6 +406,8 @@ class EpisodeProgressWritePathTest {
             assertThat(progressRow(otherEpisodeId)).containsEntry("position_sec", 200);
             // 버퍼에 남아 있으면 다음 flush 가 지운 행을 되살린다
             verify(progressBuffer).evict(userId, List.of(episodeId));
+            verify(bingeWatchMapper).deleteCompletion(userId, animeId);
+            verify(recentAnimeMapper).delete(userId, animeId);
         }
     }
 }
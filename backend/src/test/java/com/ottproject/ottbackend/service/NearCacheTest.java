@@ -0,0 +1,59 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * NearCache 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - TTL 은 pub/sub 무효화가 유실됐을 때의 stale 상한이다. 만료가 안 지켜지면 관리자 수정이 무기한 안 보인다.
+ * - 개수 상한이 안 지켜지면 상세 키가 늘어나는 만큼 힙이 계속 자란다.
+ */
+class NearCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("TTL 이 지난 값은 돌려주지 않는다")
+    void expiresAfterTtl() {
+        NearCache cache = new NearCache(10, Duration.ofSeconds(30), now::get);
+        cache.put("k", "v");
+
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(cache.get("k")).isEqualTo("v");
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get("k")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("개수 상한을 넘기지 않는다 - 만료된 것부터 치운다")
+    void staysWithinMaxSize() {
+        NearCache cache = new NearCache(2, Duration.ofSeconds(30), now::get);
+        cache.put("old", 1);
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.put("a", 2);
+
+        cache.put("b", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(2);
+        assertThat(cache.get("b")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("TTL 0 이면 L1 을 끈 것으로 보고 담지 않는다")
+    void disabledWithZeroTtl() {
+        NearCache cache = new NearCache(10, Duration.ZERO, now::get);
+
+        cache.put("k", "v");
+
+        assertThat(cache.get("k")).isNull();
+    }
+}
@@ -1,13 +1,18 @@
 package com.ottproject.ottbackend.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.ottproject.ottbackend.dto.EpisodeProgressResponseDto;
+import com.ottproject.ottbackend.dto.WatchHistoryRowDto;
 import com.ottproject.ottbackend.entity.EntityTestFixtures;
 import com.ottproject.ottbackend.entity.Episode;
 import com.ottproject.ottbackend.entity.EpisodeProgress;
@@ -17,15 +22,11 @@ import com.ottproject.ottbackend.mybatis.EpisodeMapper;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
 import com.ottproject.ottbackend.mybatis.PlayerQueryMapper;
 import com.ottproject.ottbackend.repository.EpisodeProgressRepository;
-import com.ottproject.ottbackend.repository.EpisodeRepository;
 import com.ottproject.ottbackend.repository.EpisodeSkipMetaRepository;
-import com.ottproject.ottbackend.repository.SkipUsageRepository;
 import com.ottproject.ottbackend.repository.SubtitleRepository;
-import com.ottproject.ottbackend.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -53,15 +54,6 @@ class PlayerServiceTest {
     @Mock
     private EpisodeSkipMetaRepository skipMetaRepository;
 
-    @Mock
-    private SkipUsageRepository skipUsageRepository;
-
-    @Mock
-    private UserRepository userRepository;
-
-    @Mock
-    private EpisodeRepository episodeRepository;
-
     @Mock
     private EpisodeProgressRepository progressRepository;
 
@@ -80,6 +72,9 @@ class PlayerServiceTest {
     @Mock
     private ProgressBufferService progressBuffer;
 
+    @Mock
+    private SkipUsageIngestor skipUsageIngestor;
+
     @InjectMocks
     private PlayerService playerService;
 
@@ -131,7 +126,6 @@ class PlayerServiceTest {
             verify(progressBuffer).write(USER_ID, EPISODE_ID, 500, 1400);
             verify(progressRepository, never()).findByUser_IdAndEpisode_Id(USER_ID, EPISODE_ID);
             verify(progressQueryMapper, never()).mergeProgress(any(), any(), any(), any(), any());
-            verify(userRepository, never()).findById(USER_ID);
         }
 
         @Test
@@ -190,20 +184,6 @@ class PlayerServiceTest {
 
             verifyMergedWith(null, null);
         }
-
-        /**
-         * 예전에는 행이 없으면 사용자·에피소드를 조회해 엔티티를 만들었다(JPA 쓰기).
-         * 지금은 존재 확인 없이 upsert 한 문장으로 끝내고, 없는 대상은 외래 키가 거른다
-         * (FK 거부는 EpisodeProgressWritePathTest 가 실제 DB 에서 확인한다).
-         */
-        @Test
-        @DisplayName("사용자·에피소드를 조회하지 않는다 - 없는 대상은 외래 키가 거른다")
-        void doesNotLookUpUserOrEpisode() {
-            playerService.saveProgress(USER_ID, EPISODE_ID, 300, null);
-
-            verify(userRepository, never()).findById(USER_ID);
-            verify(episodeRepository, never()).findById(EPISODE_ID);
-        }
     }
 
     @Nested
@@ -213,12 +193,9 @@ class PlayerServiceTest {
         @Test
         @DisplayName("대소문자와 무관하게 스킵 타입을 해석한다")
         void parsesTypeCaseInsensitively() {
-            given(episodeRepository.findById(EPISODE_ID)).willReturn(Optional.of(episode));
-            given(userRepository.findById(USER_ID)).willReturn(Optional.of(user));
-
             playerService.trackUsage(USER_ID, EPISODE_ID, "intro", 30);
 
-            verify(skipUsageRepository).save(org.mockito.ArgumentMatchers.any());
+            verify(skipUsageIngestor).offer(USER_ID, EPISODE_ID, SkipType.INTRO, 30);
         }
 
         @Test
@@ -226,8 +203,7 @@ class PlayerServiceTest {
         void ignoresUnknownType() {
             playerService.trackUsage(USER_ID, EPISODE_ID, "nonsense", 30);
 
-            verify(skipUsageRepository, never()).save(org.mockito.ArgumentMatchers.any());
-            verify(episodeRepository, never()).findById(EPISODE_ID);
+            verifyNoInteractions(skipUsageIngestor);
         }
 
         @Test
@@ -235,7 +211,7 @@ class PlayerServiceTest {
         void ignoresNullType() {
             playerService.trackUsage(USER_ID, EPISODE_ID, (String) null, 30);
 
-            verify(skipUsageRepository, never()).save(org.mockito.ArgumentMatchers.any());
+            verifyNoInteractions(skipUsageIngestor);
         }
     }
 
@@ -246,12 +222,18 @@ class PlayerServiceTest {
         @Test
         @DisplayName("비로그인 사용자의 스킵도 사용자 없이 기록한다")
         void recordsAnonymousUsage() {
-            given(episodeRepository.findById(EPISODE_ID)).willReturn(Optional.of(episode));
-
             playerService.trackUsage(null, EPISODE_ID, SkipType.INTRO, 30);
 
-            verify(skipUsageRepository).save(org.mockito.ArgumentMatchers.any());
-            verify(userRepository, never()).findById(org.mockito.ArgumentMatchers.any());
+            verify(skipUsageIngestor).offer(null, EPISODE_ID, SkipType.INTRO, 30);
+        }
+
+        @Test
+        @DisplayName("음수 시점은 큐에 넣기 전에 거부한다")
+        void rejectsNegativePosition() {
+            assertThatThrownBy(() -> playerService.trackUsage(USER_ID, EPISODE_ID, SkipType.INTRO, -1))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verifyNoInteractions(skipUsageIngestor);
         }
     }
 
@@ -288,4 +270,81 @@ class PlayerServiceTest {
                     .isEmpty();
         }
     }
+
+    @Nested
+    @DisplayName("getWatchHistory")
+    class WatchHistory {
+
+        private final LocalDateTime t1 = LocalDateTime.of(2026, 10, 17, 12, 0);
+        private final LocalDateTime t0 = t1.minusHours(1);
+
+        private WatchHistoryRowDto row(long episodeId, int positionSec, LocalDateTime updatedAt) {
+            return WatchHistoryRowDto.builder()
+                    .episodeId(episodeId)
+                    .animeId(100L)
+                    .episodeNumber((int) episodeId)
+                    .positionSec(positionSec)
+                    .durationSec(1400)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+
+        /**
+         * 한 개 더 읽은 행은 다음 페이지 유무 판단에만 쓰고 응답에서 뺀다. 커서는 보이는 마지막 행이다.
+         */
+        @Test
+        @DisplayName("size+1 개를 읽어 다음 페이지 유무와 커서를 만든다")
+        void buildsCursorFromExtraRow() {
+            given(playerQueryMapper.findWatchHistoryByUser(eq(USER_ID), any(), eq(3), eq(0), isNull(), isNull()))
+                    .willReturn(List.of(row(12L, 10, t1), row(11L, 20, t0), row(10L, 30, t0)));
+
+            Map<String, Object> result = playerService.getWatchHistory(USER_ID, 0, 2, null, null);
+
+            assertThat((List<?>) result.get("content")).hasSize(2);
+            assertThat(result.get("hasNext")).isEqualTo(true);
+            assertThat(result.get("nextCursorUpdatedAt")).isEqualTo(t0);
+            assertThat(result.get("nextCursorEpisodeId")).isEqualTo(11L);
+        }
+
+        @Test
+        @DisplayName("커서가 있으면 offset 없이 커서 뒤부터 읽는다")
+        void usesCursorInsteadOfOffset() {
+            given(playerQueryMapper.findWatchHistoryByUser(eq(USER_ID), any(), anyInt(), eq(0), eq(t0), eq(11L)))
+                    .willReturn(List.of(row(10L, 30, t0)));
+
+            Map<String, Object> result = playerService.getWatchHistory(USER_ID, 5, 2, t0, 11L);
+
+            assertThat((List<?>) result.get("content")).hasSize(1);
+            assertThat(result.get("hasNext")).isEqualTo(false);
+            assertThat(result).doesNotContainKey("nextCursorUpdatedAt");
+        }
+
+        /**
+         * 방금 본 위치가 flush 전까지 안 보이면 "이어보기 위치가 틀리다"는 신고로 돌아온다.
+         * 커서는 DB 값으로 만들어야 다음 페이지가 어긋나지 않는다.
+         */
+        @Test
+        @DisplayName("버퍼에 있는 값으로 위치를 덮고 커서는 DB 값으로 둔다")
+        void mergesBufferedProgress() {
+            given(playerQueryMapper.findWatchHistoryByUser(eq(USER_ID), any(), eq(2), eq(0), isNull(), isNull()))
+                    .willReturn(List.of(row(12L, 10, t1), row(11L, 20, t0)));
+            LocalDateTime now = t1.plusMinutes(5);
+            given(progressBuffer.readAll(USER_ID, List.of(12L)))
+                    .willReturn(Map.of(
+                            12L,
+                            EpisodeProgressResponseDto.builder()
+                                    .positionSec(900)
+                                    .durationSec(1400)
+                                    .updatedAt(now)
+                                    .build()));
+
+            Map<String, Object> result = playerService.getWatchHistory(USER_ID, 0, 1, null, null);
+
+            @SuppressWarnings("unchecked")
+            List<WatchHistoryRowDto> content = (List<WatchHistoryRowDto>) result.get("content");
+            assertThat(content.get(0).getPositionSec()).isEqualTo(900);
+            assertThat(content.get(0).getUpdatedAt()).isEqualTo(now);
+            assertThat(result.get("nextCursorUpdatedAt")).isEqualTo(t1);
+        }
+    }
 }
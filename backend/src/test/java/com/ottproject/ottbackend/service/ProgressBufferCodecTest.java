@@ -0,0 +1,70 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ProgressBufferCodec 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 버퍼에 남은 값은 배포를 건너 다음 버전이 읽는다. 자리 배치가 바뀌면 이전 버전이 쓴 진행률이 엉뚱한 숫자로 반영된다.
+ * - 형식 오류는 예외가 아니라 틀린 값으로 나타나므로, 경계값(최대 ID·0·음수 시각)을 왕복시켜 본다.
+ */
+class ProgressBufferCodecTest {
+
+    @Test
+    @DisplayName("필드와 값은 16바이트씩이고 왕복하면 원래 값이 나온다")
+    void roundTrip() {
+        byte[] field = ProgressBufferCodec.field(Long.MAX_VALUE, 42L);
+        byte[] value = ProgressBufferCodec.value(1_399, 1_400, 1_700_000_000_123L);
+
+        assertThat(field).hasSize(ProgressBufferCodec.FIELD_BYTES);
+        assertThat(value).hasSize(ProgressBufferCodec.VALUE_BYTES);
+        assertThat(ProgressBufferCodec.userId(field)).isEqualTo(Long.MAX_VALUE);
+        assertThat(ProgressBufferCodec.episodeId(field)).isEqualTo(42L);
+        assertThat(ProgressBufferCodec.positionSec(value)).isEqualTo(1_399);
+        assertThat(ProgressBufferCodec.durationSec(value)).isEqualTo(1_400);
+        assertThat(ProgressBufferCodec.updatedAtMillis(value)).isEqualTo(1_700_000_000_123L);
+    }
+
+    /**
+     * 이미 버퍼에 쌓인 값과의 호환 계약이다. 바이트 순서를 바꾸면 이 테스트가 먼저 깨져야 한다.
+     */
+    @Test
+    @DisplayName("빅엔디언으로 고정돼 있다")
+    void bigEndianLayout() {
+        byte[] field = ProgressBufferCodec.field(1L, 2L);
+
+        assertThat(field).containsExactly(0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 2);
+    }
+
+    @Test
+    @DisplayName("길이가 다른 값은 형식 오류로 본다")
+    void rejectsWrongLength() {
+        byte[] field = ProgressBufferCodec.field(1L, 2L);
+
+        assertThat(ProgressBufferCodec.isValid(field, ProgressBufferCodec.value(0, 0, 0L)))
+                .isTrue();
+        assertThat(ProgressBufferCodec.isValid(field, "500:1400:1700000000000".getBytes()))
+                .isFalse();
+        assertThat(ProgressBufferCodec.isValid(null, ProgressBufferCodec.value(0, 0, 0L)))
+                .isFalse();
+    }
+
+    /**
+     * 표식 필드는 항목 필드와 같은 해시에 산다. 길이가 달라 항목으로 읽히지 않아야 한다.
+     */
+    @Test
+    @DisplayName("표식 필드는 항목 필드와 구별되고 시각이 왕복한다")
+    void sinceFieldRoundTrip() {
+        byte[] since = ProgressBufferCodec.since(1_700_000_000_123L);
+
+        assertThat(ProgressBufferCodec.isSinceField(ProgressBufferCodec.sinceField())).isTrue();
+        assertThat(ProgressBufferCodec.isSinceField(ProgressBufferCodec.field(1L, 2L))).isFalse();
+        assertThat(ProgressBufferCodec.isValid(ProgressBufferCodec.sinceField(), since)).isFalse();
+        assertThat(ProgressBufferCodec.sinceMillis(since)).isEqualTo(1_700_000_000_123L);
+        assertThat(ProgressBufferCodec.sinceMillis(new byte[3])).isEqualTo(-1L);
+    }
+}
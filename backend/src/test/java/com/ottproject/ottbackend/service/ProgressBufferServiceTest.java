@@ -1,100 +1,218 @@
 package com.ottproject.ottbackend.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import com.ottproject.ottbackend.dto.StagedProgressResultDto;
 import com.ottproject.ottbackend.mybatis.PlayerProgressQueryMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * ProgressBufferService 검증
  *
  * 왜 이 테스트가 필요한가
- * - 버퍼 값 형식("위치:길이:기록시각")은 쓰기와 flush 가 암묵적으로 공유하는 계약이다. 깨지면 진행률이 통째로 유실된다.
+ * - 버퍼 필드·값 형식(ProgressBufferCodec)은 쓰기와 flush 가 암묵적으로 공유하는 계약이다. 깨지면 진행률이 통째로 유실된다.
  * - flush 는 버퍼를 rename 으로 들어낸다. 이 순서가 무너지면 반영 중에 들어온 쓰기가 사라진다.
+ * - 스냅샷은 HSCAN 으로 청크씩 반영하고 반영한 청크를 바로 지운다. 지우는 대상이 어긋나면 중단 뒤 재개가 깨진다.
+ * - 버퍼는 userId 기준 샤드로 나뉜다. 쓰기와 읽기·반영이 같은 샤드 키를 계산하지 못하면 값이 보이지 않거나 반영되지 않는다.
+ * - 청크는 COPY 적재가 기본이고 그 경로가 실패할 때만 배치 upsert 로 내려간다. 폴백이 빠지면 그 청크가 유실된다.
+ * - v1(문자열) 단일 버퍼는 반영으로 이관한다. 이 경로가 빠지면 배포 직전 구간의 진행률이 사라진다.
+ * - 반영 행 수는 실제로 쓴 행만 센다. 삭제된 사용자·에피소드 때문에 걸러진 행은 버린 행(orphan)이다.
+ * - 가장 오래된 항목 나이는 들어내기 전 버퍼의 표식 필드로 잰다. 표식 필드는 항목으로 반영하지 않는다.
+ *
+ * 바이트 배열 키는 equals 가 내용 비교가 아니라서 스텁·검증에 aryEq 를 쓴다.
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class ProgressBufferServiceTest {
 
-    private static final String BUFFER_KEY = "ott:progress-buffer:v1";
-    private static final String FLUSHING_KEY = "ott:progress-buffer:v1:flushing";
+    // 샤드 2개 기준 userId 1 의 샤드(1 mod 2)
+    private static final byte[] BUFFER_KEY = bytes("ott:progress-buffer:v2:{1}");
+    private static final byte[] FLUSHING_KEY = bytes("ott:progress-buffer:v2:{1}:flushing");
+    private static final String LEGACY_BUFFER_KEY = "ott:progress-buffer:v1";
+    private static final String LEGACY_FLUSHING_KEY = "ott:progress-buffer:v1:flushing";
 
     @Mock
     private StringRedisTemplate redisTemplate;
 
+    @Mock
+    private RedisTemplate<byte[], byte[]> byteRedisTemplate;
+
     @Mock
     private PlayerProgressQueryMapper progressQueryMapper;
 
+    @Mock
+    private ProgressBulkLoader bulkLoader;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private ProgressReadModelUpdater readModels;
+
+    @Mock
+    private SimpleLock lock;
+
     @Mock
     private HashOperations<String, Object, Object> hashOps;
 
-    @InjectMocks
+    @Mock
+    private HashOperations<byte[], Object, Object> byteHashOps;
+
+    private ProgressWriteCoalescer coalescer;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private ProgressBufferService service;
 
     @BeforeEach
     void setUp() {
         doReturn(hashOps).when(redisTemplate).opsForHash();
+        doReturn(byteHashOps).when(byteRedisTemplate).opsForHash();
+        given(lockProvider.lock(any(LockConfiguration.class))).willReturn(Optional.of(lock));
+        given(bulkLoader.load(anyList())).willAnswer(inv -> {
+            int n = ((List<?>) inv.getArgument(0)).size();
+            return new StagedProgressResultDto(n, n);
+        });
+
+        // 템플릿 두 개가 같은 상위 타입이라 목 주입에 맡기지 않고 직접 조립한다
+        coalescer = new ProgressWriteCoalescer(byteRedisTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ProgressBufferService(
+                redisTemplate,
+                byteRedisTemplate,
+                progressQueryMapper,
+                coalescer,
+                bulkLoader,
+                lockProvider,
+                readModels,
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "shardCount", 2);
+        ReflectionTestUtils.setField(service, "flushWorkers", 1);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("쓰기는 로컬 버퍼에만 남기고 Redis·DB 를 건드리지 않는다")
+    void writeGoesToLocalBufferOnly() {
+        service.write(1L, 10L, 500, 1400);
+
+        byte[] v = coalescer.get(1L, 10L);
+        assertThat(ProgressBufferCodec.positionSec(v)).isEqualTo(500);
+        assertThat(ProgressBufferCodec.durationSec(v)).isEqualTo(1400);
+        verify(byteHashOps, never()).put(any(), any(), any());
+        verify(bulkLoader, never()).load(anyList());
     }
 
     @Test
-    @DisplayName("쓰기는 Redis 해시에만 남기고 DB 를 건드리지 않는다")
-    void writeGoesToRedisOnly() {
+    @DisplayName("읽기는 아직 Redis 로 싣지 않은 로컬 값을 먼저 본다")
+    void readPrefersLocalBuffer() {
+        given(byteHashOps.get(aryEq(BUFFER_KEY), aryEq(ProgressBufferCodec.field(1L, 10L))))
+                .willReturn(ProgressBufferCodec.value(100, 1400, 1700000000000L));
         service.write(1L, 10L, 500, 1400);
 
-        ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
-        verify(hashOps)
-                .put(
-                        org.mockito.ArgumentMatchers.eq(BUFFER_KEY),
-                        org.mockito.ArgumentMatchers.eq("1:10"),
-                        value.capture());
-        assertThat(value.getValue().toString()).startsWith("500:1400:");
-        verify(progressQueryMapper, never()).upsertProgressBatch(org.mockito.ArgumentMatchers.anyList());
+        assertThat(service.read(1L, 10L))
+                .hasValueSatisfying(v -> assertThat(v.getPositionSec()).isEqualTo(500));
+        assertThat(service.readAll(1L, List.of(10L)).get(10L).getPositionSec())
+                .isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("삭제는 로컬 버퍼의 값도 함께 지운다")
+    void evictClearsLocalBuffer() {
+        service.write(1L, 10L, 500, 1400);
+
+        service.evict(1L, List.of(10L));
+
+        assertThat(coalescer.get(1L, 10L)).isNull();
+        verify(byteHashOps).delete(aryEq(BUFFER_KEY), any());
+        verify(byteHashOps).delete(aryEq(FLUSHING_KEY), any());
     }
 
     @Test
     @DisplayName("버퍼가 비어 있으면 아무것도 하지 않는다")
     void flushSkipsWhenEmpty() {
-        given(redisTemplate.hasKey(FLUSHING_KEY)).willReturn(false);
-        given(redisTemplate.hasKey(BUFFER_KEY)).willReturn(false);
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(false);
+        given(byteRedisTemplate.hasKey(aryEq(BUFFER_KEY))).willReturn(false);
 
         service.flush();
 
-        verify(progressQueryMapper, never()).upsertProgressBatch(org.mockito.ArgumentMatchers.anyList());
-        verify(redisTemplate, never()).rename(BUFFER_KEY, FLUSHING_KEY);
+        verify(bulkLoader, never()).load(anyList());
+        verify(byteRedisTemplate, never()).rename(aryEq(BUFFER_KEY), aryEq(FLUSHING_KEY));
+    }
+
+    @Test
+    @DisplayName("읽기는 쓰기와 같은 샤드의 버퍼와 스냅샷을 본다")
+    void readLooksAtOwnShard() {
+        given(byteHashOps.get(aryEq(FLUSHING_KEY), aryEq(ProgressBufferCodec.field(1L, 10L))))
+                .willReturn(ProgressBufferCodec.value(500, 1400, 1700000000000L));
+
+        assertThat(service.read(1L, 10L))
+                .hasValueSatisfying(v -> assertThat(v.getPositionSec()).isEqualTo(500));
+        verify(byteHashOps).get(aryEq(BUFFER_KEY), aryEq(ProgressBufferCodec.field(1L, 10L)));
     }
 
     @Test
     @DisplayName("버퍼를 rename 으로 들어낸 뒤 배치 반영하고 스냅샷만 지운다")
     void flushDrainsAndUpserts() {
-        given(redisTemplate.hasKey(FLUSHING_KEY)).willReturn(false);
-        given(redisTemplate.hasKey(BUFFER_KEY)).willReturn(true);
-        given(hashOps.entries(FLUSHING_KEY)).willReturn(Map.of("1:10", "500:1400:1700000000000"));
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(false);
+        given(byteRedisTemplate.hasKey(aryEq(BUFFER_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(
+                        Map.of(ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(500, 1400, 1700000000000L))));
 
         service.flush();
 
-        verify(redisTemplate).rename(BUFFER_KEY, FLUSHING_KEY);
+        verify(byteRedisTemplate).rename(aryEq(BUFFER_KEY), aryEq(FLUSHING_KEY));
 
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<EpisodeProgressFlushDto>> rows = ArgumentCaptor.forClass(List.class);
-        verify(progressQueryMapper).upsertProgressBatch(rows.capture());
+        verify(bulkLoader).load(rows.capture());
         EpisodeProgressFlushDto row = rows.getValue().get(0);
         assertThat(row.getUserId()).isEqualTo(1L);
         assertThat(row.getEpisodeId()).isEqualTo(10L);
@@ -103,8 +221,30 @@ class ProgressBufferServiceTest {
         assertThat(row.getUpdatedAt()).isNotNull();
 
         // 새로 들어온 쓰기가 담기는 BUFFER_KEY 는 건드리지 않는다
-        verify(redisTemplate).delete(FLUSHING_KEY);
-        verify(redisTemplate, never()).delete(BUFFER_KEY);
+        verify(byteRedisTemplate).delete(aryEq(FLUSHING_KEY));
+        verify(byteRedisTemplate, never()).delete(aryEq(BUFFER_KEY));
+    }
+
+    /**
+     * 정주행·이어보기 목록은 이제 파생 테이블만 읽는다. 반영 뒤 갱신이 빠지면 두 목록이 멈춘다.
+     */
+    @Test
+    @DisplayName("COPY 로 청크를 반영한 뒤 같은 행으로 이어보기를 갱신한다(완주 집계는 적재 트랜잭션 안에서)")
+    void flushUpdatesReadModelsAfterLoad() {
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(
+                        Map.of(ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(1300, 1400, 1700000000000L))));
+
+        service.flush();
+
+        InOrder order = inOrder(bulkLoader, readModels);
+        order.verify(bulkLoader).load(anyList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EpisodeProgressFlushDto>> rows = ArgumentCaptor.forClass(List.class);
+        order.verify(readModels).applyRecent(rows.capture());
+        assertThat(rows.getValue()).extracting(EpisodeProgressFlushDto::getEpisodeId).containsExactly(10L);
+        verify(readModels, never()).apply(anyList());
     }
 
     /**
@@ -113,12 +253,206 @@ class ProgressBufferServiceTest {
     @Test
     @DisplayName("이전 flush 가 남긴 스냅샷이 있으면 rename 없이 그것부터 반영한다")
     void flushResumesLeftoverSnapshot() {
-        given(redisTemplate.hasKey(FLUSHING_KEY)).willReturn(true);
-        given(hashOps.entries(FLUSHING_KEY)).willReturn(Map.of("2:20", "10:100:1700000000000"));
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(
+                        Map.of(ProgressBufferCodec.field(1L, 20L), ProgressBufferCodec.value(10, 100, 1700000000000L))));
 
         service.flush();
 
-        verify(redisTemplate, never()).rename(BUFFER_KEY, FLUSHING_KEY);
-        verify(progressQueryMapper).upsertProgressBatch(org.mockito.ArgumentMatchers.anyList());
+        verify(byteRedisTemplate, never()).rename(aryEq(BUFFER_KEY), aryEq(FLUSHING_KEY));
+        verify(bulkLoader).load(anyList());
+    }
+
+    /**
+     * 다른 인스턴스가 샤드 락을 쥐고 있으면 같은 스냅샷을 두 번 반영하게 된다.
+     */
+    @Test
+    @DisplayName("샤드 락을 못 잡으면 그 샤드는 건드리지 않는다")
+    void flushSkipsLockedShard() {
+        given(lockProvider.lock(any(LockConfiguration.class))).willReturn(Optional.empty());
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(false);
+        given(byteRedisTemplate.hasKey(aryEq(BUFFER_KEY))).willReturn(true);
+
+        service.flush();
+
+        verify(byteRedisTemplate, never()).rename(aryEq(BUFFER_KEY), aryEq(FLUSHING_KEY));
+        verify(bulkLoader, never()).load(anyList());
+    }
+
+    /**
+     * 반영한 청크의 필드를 스냅샷에서 지워야 도중에 죽었을 때 남은 행만 다시 반영된다.
+     */
+    @Test
+    @DisplayName("반영한 청크는 스냅샷에서 바로 지운다")
+    void flushDeletesAppliedChunkFromSnapshot() {
+        byte[] field = ProgressBufferCodec.field(1L, 10L);
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of(field, ProgressBufferCodec.value(500, 1400, 1700000000000L))));
+
+        service.flush();
+
+        verify(byteHashOps).delete(aryEq(FLUSHING_KEY), eq(field));
+    }
+
+    /**
+     * 형식이 어긋난 항목 하나 때문에 샤드 전체가 매 주기 같은 자리에서 실패하면 안 된다.
+     */
+    @Test
+    @DisplayName("형식이 맞지 않는 항목은 반영하지 않고 스냅샷에서 지운다")
+    void flushDropsMalformedEntry() {
+        byte[] field = bytes("garbage");
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of(field, bytes("x"))));
+
+        service.flush();
+
+        verify(bulkLoader, never()).load(anyList());
+        verify(byteHashOps).delete(aryEq(FLUSHING_KEY), eq(field));
+        assertThat(meterRegistry
+                        .get("progress.flush.dropped.rows")
+                        .tag("reason", "malformed")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    /**
+     * 롤링 배포 중에는 구 인스턴스가 v1 단일 키에 계속 쓴다. 그 키를 반영하지 않으면 그 구간이 유실된다.
+     */
+    @Test
+    @DisplayName("v1 단일 버퍼는 문자열 형식 그대로 읽어 반영하고, 그 밖의 v1 키는 보지 않는다")
+    void flushDrainsLegacyBuffer() {
+        given(redisTemplate.hasKey(LEGACY_FLUSHING_KEY)).willReturn(false);
+        given(redisTemplate.hasKey(LEGACY_BUFFER_KEY)).willReturn(true);
+        given(hashOps.scan(eq(LEGACY_FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of("3:30", "500:1400:1700000000000")));
+
+        service.flush();
+
+        verify(redisTemplate).rename(LEGACY_BUFFER_KEY, LEGACY_FLUSHING_KEY);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EpisodeProgressFlushDto>> rows = ArgumentCaptor.forClass(List.class);
+        verify(bulkLoader).load(rows.capture());
+        assertThat(rows.getValue().get(0).getPositionSec()).isEqualTo(500);
+        verify(redisTemplate).delete(LEGACY_FLUSHING_KEY);
+        verify(redisTemplate, times(2)).hasKey(anyString()); // 단일 키의 :flushing + 버퍼뿐(샤드별 v1 키 없음)
+    }
+
+    /**
+     * COPY 경로가 통째로 실패해도(스테이징 테이블 문제 등) 청크는 지워지므로, 폴백이 없으면 그대로 유실된다.
+     */
+    @Test
+    @DisplayName("COPY 적재가 실패하면 같은 청크를 배치 upsert 로 반영한다")
+    void flushFallsBackToBatchUpsert() {
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(
+                        Map.of(ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(500, 1400, 1700000000000L))));
+        given(bulkLoader.load(anyList())).willThrow(new DataAccessResourceFailureException("staging missing"));
+
+        service.flush();
+
+        verify(progressQueryMapper).upsertProgressBatch(anyList());
+        verify(readModels).apply(anyList()); // 스테이징이 없으므로 완주 집계도 청크로 갱신한다
+        assertThat(meterRegistry
+                        .get("progress.flush.fallback")
+                        .tag("stage", "copy")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("flush 1회의 소요 시간·반영 행 수·들어내기 전 버퍼 깊이와 가장 오래된 항목 나이를 기록한다")
+    void flushRecordsPipelineMetrics() {
+        long since = System.currentTimeMillis() - 30_000;
+        // 샤드마다 HLEN(버퍼), HLEN(스냅샷), HGET since(버퍼), HGET since(스냅샷)
+        given(byteRedisTemplate.executePipelined(any(RedisCallback.class))).willReturn(Arrays.asList(
+                0L, 0L, null, null,
+                0L, 2L, null, ProgressBufferCodec.since(since)));
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of(
+                        ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(500, 1400, since + 1_000))));
+
+        service.flush();
+
+        assertThat(meterRegistry.get("progress.flush.duration").timer().count())
+                .isEqualTo(1L);
+        assertThat(meterRegistry.get("progress.flush.rows").summary().totalAmount())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("progress.buffer.depth").tag("tier", "redis").gauge().value())
+                .isEqualTo(1.0); // 표식 필드는 항목이 아니다
+        assertThat(meterRegistry.get("progress.buffer.oldest.age.seconds").gauge().value())
+                .isGreaterThanOrEqualTo(30.0);
+    }
+
+    /**
+     * 사용자·에피소드가 지워진 행은 COPY 반영 조인이 거른다. 반영 수에 넣으면 지표가 실제보다 많이 쓴 것처럼 보인다.
+     */
+    @Test
+    @DisplayName("COPY 조인이 거른 고아 행은 반영 수가 아니라 버린 행(orphan)으로 센다")
+    void flushCountsOrphanRows() {
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of(
+                        ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(500, 1400, 1700000000000L),
+                        ProgressBufferCodec.field(1L, 11L), ProgressBufferCodec.value(600, 1400, 1700000000000L))));
+        given(bulkLoader.load(anyList())).willReturn(new StagedProgressResultDto(1, 1));
+
+        service.flush();
+
+        assertThat(meterRegistry.get("progress.flush.rows").summary().totalAmount())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry
+                        .get("progress.flush.dropped.rows")
+                        .tag("reason", "orphan")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    /**
+     * 표식 필드는 쓰기 쪽이 해시마다 붙이는 시각이다. 형식 오류로 세면 매 flush 마다 dropped 가 샤드 수만큼 튄다.
+     */
+    @Test
+    @DisplayName("스냅샷의 표식 필드는 반영하지도, 형식 오류로 세지도 않고 청크와 함께 지운다")
+    void flushSkipsSinceField() {
+        byte[] field = ProgressBufferCodec.field(1L, 10L);
+        given(byteRedisTemplate.hasKey(aryEq(FLUSHING_KEY))).willReturn(true);
+        given(byteHashOps.scan(aryEq(FLUSHING_KEY), any(ScanOptions.class)))
+                .willAnswer(inv -> cursorOf(Map.of(
+                        ProgressBufferCodec.sinceField(), ProgressBufferCodec.since(1700000000000L),
+                        field, ProgressBufferCodec.value(500, 1400, 1700000000000L))));
+
+        service.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EpisodeProgressFlushDto>> rows = ArgumentCaptor.forClass(List.class);
+        verify(bulkLoader).load(rows.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(meterRegistry
+                        .get("progress.flush.dropped.rows")
+                        .tag("reason", "malformed")
+                        .counter()
+                        .count())
+                .isZero();
+        verify(byteHashOps).delete(aryEq(FLUSHING_KEY), any(), any());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<Map.Entry<Object, Object>> cursorOf(Map<?, ?> entries) {
+        Iterator<? extends Map.Entry<?, ?>> it = entries.entrySet().iterator();
+        Cursor<Map.Entry<Object, Object>> cursor = mock(Cursor.class);
+        given(cursor.hasNext()).willAnswer(inv -> it.hasNext());
+        given(cursor.next()).willAnswer(inv -> it.next());
+        return cursor;
     }
 }
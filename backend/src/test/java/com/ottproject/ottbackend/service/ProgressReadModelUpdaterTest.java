@@ -0,0 +1,101 @@
+package com.ottproject.ottbackend.service;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.ottproject.ottbackend.dto.EpisodeProgressFlushDto;
+import com.ottproject.ottbackend.mybatis.BingeWatchMapper;
+import com.ottproject.ottbackend.mybatis.RecentAnimeMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * ProgressReadModelUpdater 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 두 파생 테이블은 서로 독립이다. 한쪽 실패가 다른 쪽 갱신을 막으면 정주행 집계 장애가 이어보기까지 멈춘다.
+ * - 상한 정리는 청크에 나온 사용자만 대상으로 한다. 대상이 어긋나면 다른 사용자의 목록이 잘린다.
+ * - COPY 경로의 완주 집계는 적재 트랜잭션이 스테이징으로 센다. 여기서 다시 세면 청크를 VALUES 목록으로 또 보낸다.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressReadModelUpdaterTest {
+
+    @Mock
+    private BingeWatchMapper bingeWatchMapper;
+
+    @Mock
+    private RecentAnimeMapper recentAnimeMapper;
+
+    @InjectMocks
+    private ProgressReadModelUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(updater, "recentAnimeCap", 100);
+    }
+
+    private static EpisodeProgressFlushDto row(long userId, long episodeId) {
+        return EpisodeProgressFlushDto.builder()
+                .userId(userId)
+                .episodeId(episodeId)
+                .positionSec(100)
+                .durationSec(1400)
+                .updatedAt(LocalDateTime.of(2026, 10, 17, 12, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("이어보기 상한 정리는 청크에 나온 사용자만 한 번씩 대상으로 한다")
+    void trimsOnlyChunkUsers() {
+        List<EpisodeProgressFlushDto> chunk = List.of(row(1L, 10L), row(1L, 11L), row(2L, 10L));
+
+        updater.apply(chunk);
+
+        verify(bingeWatchMapper).refreshCompletion(chunk);
+        verify(recentAnimeMapper).upsertFromProgress(chunk);
+        verify(recentAnimeMapper).trimToCap(Set.of(1L, 2L), 100);
+    }
+
+    @Test
+    @DisplayName("정주행 집계 갱신이 실패해도 이어보기는 갱신한다")
+    void recentAnimeSurvivesCompletionFailure() {
+        given(bingeWatchMapper.refreshCompletion(anyList())).willThrow(new QueryTimeoutException("slow"));
+
+        updater.apply(List.of(row(1L, 10L)));
+
+        verify(recentAnimeMapper).upsertFromProgress(anyList());
+        verify(recentAnimeMapper).trimToCap(eq(Set.of(1L)), eq(100));
+    }
+
+    @Test
+    @DisplayName("COPY 경로는 이어보기만 갱신하고 완주 집계는 다시 세지 않는다")
+    void stagedPathSkipsCompletion() {
+        List<EpisodeProgressFlushDto> chunk = List.of(row(1L, 10L));
+
+        updater.applyRecent(chunk);
+
+        verify(recentAnimeMapper).upsertFromProgress(chunk);
+        verifyNoInteractions(bingeWatchMapper);
+    }
+
+    @Test
+    @DisplayName("빈 청크는 아무것도 하지 않는다")
+    void skipsEmptyChunk() {
+        updater.apply(List.of());
+
+        verifyNoInteractions(bingeWatchMapper, recentAnimeMapper);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * ProgressWriteCoalescer 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 로컬 버퍼는 요청 경로와 Redis 사이의 유일한 다리다. 전송이 실패했을 때 값을 버리면 그 구간 진행률이 사라진다.
+ * - 같은 키의 하트비트는 마지막 것만 보내야 묶는 의미가 있다.
+ * - 삭제는 진행 중인 전송 뒤에 Redis 를 지운다. 앞서 지우면 전송이 이미 모은 옛 값이 삭제 뒤에 되살아난다.
+ * - 해시마다 처음 실린 시각(표식 필드)은 없을 때만 단다. 덮어쓰면 가장 오래된 항목 나이가 늘 0 으로 보인다.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProgressWriteCoalescerTest {
+
+    private static final byte[] BUFFER_KEY = "ott:progress-buffer:v2:{1}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RedisTemplate<byte[], byte[]> byteRedisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisHashCommands hashCommands;
+
+    private ProgressWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        given(connection.hashCommands()).willReturn(hashCommands);
+        given(byteRedisTemplate.executePipelined(any(RedisCallback.class))).willAnswer(inv -> {
+            RedisCallback<?> callback = inv.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+        coalescer = new ProgressWriteCoalescer(byteRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("같은 키에 여러 번 쓰면 마지막 값 하나만 싣는다")
+    void shipsLatestValueOnce() {
+        byte[] field = ProgressBufferCodec.field(1L, 10L);
+        coalescer.put(1L, 10L, BUFFER_KEY, field, ProgressBufferCodec.value(100, 1400, 1L));
+        byte[] latest = ProgressBufferCodec.value(105, 1400, 2L);
+        coalescer.put(1L, 10L, BUFFER_KEY, field, latest);
+
+        coalescer.ship();
+
+        verify(hashCommands, times(1)).hSet(any(), any(), any());
+        verify(hashCommands).hSet(aryEq(BUFFER_KEY), aryEq(field), aryEq(latest));
+        verify(hashCommands, times(1)).hSetNX(aryEq(BUFFER_KEY), aryEq(ProgressBufferCodec.sinceField()), any());
+        assertThat(coalescer.get(1L, 10L)).isNull();
+    }
+
+    @Test
+    @DisplayName("전송이 실패하면 값을 남겨 다음 주기에 다시 싣는다")
+    void keepsPendingOnFailure() {
+        byte[] value = ProgressBufferCodec.value(100, 1400, 1L);
+        coalescer.put(1L, 10L, BUFFER_KEY, ProgressBufferCodec.field(1L, 10L), value);
+        given(byteRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .willThrow(new QueryTimeoutException("redis down"));
+
+        coalescer.ship();
+
+        assertThat(coalescer.get(1L, 10L)).isEqualTo(value);
+    }
+
+    /**
+     * 전송이 항목을 모은 뒤 HSET 전에 삭제가 끼어드는 경합이다. 삭제가 먼저 끝나면 옛 값이 Redis 에 다시 실린다.
+     */
+    @Test
+    @DisplayName("전송 도중의 삭제는 전송이 끝난 뒤에 Redis 를 지운다")
+    void removeWaitsForInFlightShip() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch shipping = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(byteRedisTemplate.executePipelined(any(RedisCallback.class))).willAnswer(inv -> {
+            shipping.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            events.add("hset");
+            return List.of();
+        });
+        coalescer.put(1L, 10L, BUFFER_KEY, ProgressBufferCodec.field(1L, 10L), ProgressBufferCodec.value(100, 1400, 1L));
+
+        Thread shipper = new Thread(coalescer::ship);
+        shipper.start();
+        assertThat(shipping.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread remover = new Thread(() -> coalescer.remove(1L, List.of(10L), () -> events.add("hdel")));
+        remover.start();
+        remover.join(200);
+        assertThat(events).isEmpty(); // 전송이 끝나기 전에는 지우지 않는다
+
+        release.countDown();
+        shipper.join(5_000);
+        remover.join(5_000);
+
+        assertThat(events).containsExactly("hset", "hdel");
+        assertThat(coalescer.get(1L, 10L)).isNull();
+    }
+
+    @Test
+    @DisplayName("비어 있으면 Redis 를 부르지 않는다")
+    void skipsWhenEmpty() {
+        coalescer.ship();
+
+        verify(byteRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.PagedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * SearchResultCache 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 입장 규칙이 무너지면 한 번 들어오고 마는 키워드가 인기 키워드를 밀어내 적중률이 떨어진다.
+ * - 무효화가 무너지면 관리자 수정 뒤에도 옛 검색 결과가 나간다.
+ *
+ * 여기서 고정하는 규칙
+ * - 히트는 loader 를 부르지 않고, 건너뛴 쿼리 수를 search.cache.saved.queries 에 더한다.
+ * - 가득 찼을 때 새 키는 캐시 안 최저 빈도 항목보다 자주 요청됐을 때만 들어간다.
+ * - 카탈로그 버전이 바뀌면 비우고, 버전을 못 읽으면 캐시를 건너뛴다. TTL 이 지난 항목은 주지 않는다.
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(catalogVersionService, meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "nanoClock", (LongSupplier) now::get);
+        cache.init();
+    }
+
+    private PagedResponse<AnimeListDto> get(String key) {
+        return cache.get(key, () -> {
+            loads.incrementAndGet();
+            return new SearchResultCache.Loaded(new PagedResponse<>(List.of(), 0, 0, 20), 2);
+        });
+    }
+
+    private static CatalogVersionService.Version version(long number) {
+        return new CatalogVersionService.Version(number, 0);
+    }
+
+    @Test
+    @DisplayName("히트는 DB 를 다시 읽지 않고 건너뛴 쿼리 수를 센다")
+    void hitSkipsLoader() {
+        given(catalogVersionService.current()).willReturn(version(1));
+
+        PagedResponse<AnimeListDto> first = get("hot");
+        PagedResponse<AnimeListDto> second = get("hot");
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("search.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("search.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("search.cache.saved.queries").counter().count()).isEqualTo(2); // 목록 + COUNT
+    }
+
+    @Test
+    @DisplayName("가득 차면 한 번 본 키는 못 들어오고, 더 자주 본 키는 최저 빈도 항목을 밀어낸다")
+    void admitsByFrequency() {
+        given(catalogVersionService.current()).willReturn(version(1));
+        get("hot");
+        get("hot");
+        get("hot");
+        get("cold");
+
+        get("once"); // 빈도 1, 희생자 cold 도 1
+        assertThat(cache.contains("once")).isFalse();
+        assertThat(cache.contains("cold")).isTrue();
+
+        get("once"); // 빈도 2 > 1
+        assertThat(cache.contains("once")).isTrue();
+        assertThat(cache.contains("cold")).isFalse();
+        assertThat(cache.contains("hot")).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("search.cache.admission").tag("result", "rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("카탈로그 버전이 바뀌면 비우고 다시 읽는다")
+    void clearsOnVersionChange() {
+        given(catalogVersionService.current()).willReturn(version(1), version(1), version(2));
+
+        get("hot");
+        get("hot");
+        get("hot");
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("버전을 못 읽으면 캐시를 건너뛴다")
+    void bypassesWithoutVersion() {
+        get("hot");
+        get("hot");
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("search.cache").tag("result", "bypass").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("TTL 이 지난 항목은 주지 않는다")
+    void expiresAfterTtl() {
+        given(catalogVersionService.current()).willReturn(version(1));
+        get("hot");
+
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        get("hot");
+        assertThat(loads).hasValue(1);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        get("hot");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("빈도 스케치는 주기적으로 반으로 줄어 옛 인기 키가 영원히 남지 않는다")
+    void sketchAges() {
+        SearchResultCache.FrequencySketch sketch = new SearchResultCache.FrequencySketch(2); // 폭 64, 640 번마다 반감
+        for (int i = 0; i < 20; i++) sketch.increment("hot");
+        assertThat(sketch.frequency("hot")).isEqualTo(15); // 칸 상한
+
+        for (int i = 0; i < 640; i++) sketch.increment("k" + i);
+
+        assertThat(sketch.frequency("hot")).isLessThan(15);
+    }
+}
@@ -0,0 +1,187 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.ottproject.ottbackend.dto.AnimeListDto;
+import com.ottproject.ottbackend.dto.PagedResponse;
+import com.ottproject.ottbackend.dto.SearchAllDto;
+import com.ottproject.ottbackend.dto.SearchAllEntityDto;
+import com.ottproject.ottbackend.mybatis.SearchQueryMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * SearchService 본검색 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - 키워드는 글자/숫자 토큰마다 접두 일치 tsquery 가 된다. tsquery 문법 문자는 넘어가지 않는다.
+ * - 트라이그램 갈래는 3글자 이상일 때만 켠다.
+ * - 페이지가 덜 찼으면 COUNT 를 부르지 않는다. 부를 때는 countCap 과 "다음 페이지 유무" 중 큰 수에서 멈춘다.
+ * - 본검색 결과는 정규화 키(NFC, 공백, 대소문자, 장르/태그 순서)로 캐시한다. 같은 키는 DB 에 한 번만 가고,
+ *   카탈로그 버전이 바뀌면 다시 간다.
+ * - 통합 검색은 인덱스가 적재 전이면 SQL(본검색 첫 페이지 + 엔티티 이름 부분일치)로 가고, 결과를 종류별로 묶는다.
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private SearchQueryMapper mapper;
+
+    @Mock
+    private AnimeSuggestIndex suggestIndex;
+
+    @Mock
+    private CatalogVersionService catalogVersionService; // 스텁이 없으면 null → 결과 캐시를 건너뛴다
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        SearchResultCache resultCache = new SearchResultCache(catalogVersionService, meterRegistry);
+        ReflectionTestUtils.setField(resultCache, "maxSize", 100);
+        ReflectionTestUtils.setField(resultCache, "ttlSeconds", 60L);
+        resultCache.init();
+        searchService = new SearchService(mapper, suggestIndex, meterRegistry, resultCache);
+        ReflectionTestUtils.setField(searchService, "countCap", 1000L);
+        searchService.init();
+    }
+
+    private static List<AnimeListDto> items(int n) {
+        return Collections.nCopies(n, new AnimeListDto());
+    }
+
+    @Test
+    @DisplayName("토큰마다 접두 일치, 문법 문자는 버린다")
+    void buildsPrefixTsQuery() {
+        assertThat(SearchService.toPrefixTsQuery("진격의 거인")).isEqualTo("진격의:* & 거인:*");
+        assertThat(SearchService.toPrefixTsQuery("Re:Zero")).isEqualTo("re:* & zero:*");
+        assertThat(SearchService.toPrefixTsQuery("a & !b | 'c'")).isEqualTo("a:* & b:* & c:*");
+        assertThat(SearchService.toPrefixTsQuery("ＳＰＹ×ＦＡＭＩＬＹ")).isEqualTo("spy:* & family:*");
+        assertThat(SearchService.toPrefixTsQuery("!!! ")).isNull();
+    }
+
+    @Test
+    @DisplayName("3글자 미만은 트라이그램 갈래를 끈다")
+    void trigramOnlyFromThreeCharacters() {
+        given(mapper.searchAnimes(anyString(), any(), anyBoolean(), isNull(), anyInt(), isNull(), anyString(), anyInt(), anyInt()))
+                .willReturn(items(0));
+
+        searchService.search("거인", null, null, "relevance", 0, 20);
+        searchService.search("진격의", null, null, "relevance", 0, 20);
+
+        verify(mapper).searchAnimes("거인", "거인:*", false, null, 0, null, "relevance", 20, 0);
+        verify(mapper).searchAnimes("진격의", "진격의:*", true, null, 0, null, "relevance", 20, 0);
+    }
+
+    @Test
+    @DisplayName("페이지가 덜 찼으면 세지 않고 offset + 받은 수가 전체다")
+    void skipsCountOnLastPage() {
+        given(mapper.searchAnimes(anyString(), any(), anyBoolean(), isNull(), anyInt(), isNull(), anyString(), anyInt(), anyInt()))
+                .willReturn(items(7));
+
+        PagedResponse<AnimeListDto> result = searchService.search("거인", null, null, "relevance", 2, 20);
+
+        assertThat(result.getTotal()).isEqualTo(47);
+        verify(mapper, never()).countSearchAnimes(any(), any(), anyBoolean(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("가득 찬 페이지는 상한까지만 센다")
+    void countsUpToCap() {
+        given(mapper.searchAnimes(anyString(), any(), anyBoolean(), isNull(), anyInt(), isNull(), anyString(), anyInt(), anyInt()))
+                .willReturn(items(20));
+        given(mapper.countSearchAnimes(eq("a"), eq("a:*"), eq(false), isNull(), eq(0), isNull(), anyLong()))
+                .willReturn(1000L);
+
+        assertThat(searchService.search("a", null, null, "relevance", 0, 20).getTotal()).isEqualTo(1000);
+        verify(mapper).countSearchAnimes("a", "a:*", false, null, 0, null, 1000L);
+
+        searchService.search("a", null, null, "relevance", 60, 20); // offset 1200: 상한보다 뒤
+        verify(mapper).countSearchAnimes("a", "a:*", false, null, 0, null, 1221L);
+    }
+
+    @Test
+    @DisplayName("통합 검색: 인덱스 적재 전이면 SQL 결과를 종류별로 묶는다")
+    void searchAllFallsBackToSql() {
+        AnimeListDto anime = AnimeListDto.builder().aniId(3L).title("카지와 친구들").build();
+        given(mapper.searchAnimes("카지", "카지:*", false, null, 0, null, "relevance", 5, 0)).willReturn(List.of(anime));
+        given(mapper.searchEntities("카지", 5)).willReturn(List.of(
+                new SearchAllEntityDto(10L, "VOICE_ACTOR", "카지 유키", 2),
+                new SearchAllEntityDto(40L, "STUDIO", "카지 스튜디오", 1)));
+
+        SearchAllDto result = searchService.searchAll(" 카지 ", 0); // 한도 밖이면 기본 5
+
+        verify(suggestIndex).searchAll("카지", 5);
+        assertThat(result.getAnimes()).singleElement().satisfies(a -> {
+            assertThat(a.getAniId()).isEqualTo(3L);
+            assertThat(a.getMatchedBy()).isEqualTo("TITLE");
+        });
+        assertThat(result.getVoiceActors()).extracting(SearchAllEntityDto::getId).containsExactly(10L);
+        assertThat(result.getStudios()).extracting(SearchAllEntityDto::getId).containsExactly(40L);
+        assertThat(result.getCharacters()).isEmpty();
+        assertThat(meterRegistry.get("search.duration").tag("endpoint", "all").tag("path", "sql").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("정규화가 같은 요청은 결과 캐시에서 받고, 카탈로그 버전이 바뀌면 다시 읽는다")
+    void cachesByNormalizedKey() {
+        CatalogVersionService.Version v7 = new CatalogVersionService.Version(7, 0);
+        given(catalogVersionService.current())
+                .willReturn(v7, v7, v7, new CatalogVersionService.Version(8, 0));
+        given(mapper.searchAnimes(anyString(), any(), anyBoolean(), any(), anyInt(), isNull(), anyString(), anyInt(), anyInt()))
+                .willReturn(items(3));
+        String decomposed = Normalizer.normalize("진격의   거인", Normalizer.Form.NFD); // 풀어 쓴 한글 + 공백 여러 개
+
+        searchService.search("진격의 거인", List.of(2L, 1L), null, "relevance", 0, 20);
+        searchService.search("  " + decomposed + " ", List.of(1L, 2L, 1L), null, "relevance", 0, 20);
+        searchService.search("진격의 거인", List.of(1L, 2L), null, "relevance", 0, 20);
+        verify(mapper, times(1)).searchAnimes("진격의 거인", "진격의:* & 거인:*", true, List.of(1L, 2L), 2, null,
+                "relevance", 20, 0);
+
+        searchService.search("진격의 거인", List.of(1L, 2L), null, "relevance", 0, 20); // 버전 8: 비우고 다시 읽는다
+        verify(mapper, times(2)).searchAnimes("진격의 거인", "진격의:* & 거인:*", true, List.of(1L, 2L), 2, null,
+                "relevance", 20, 0);
+
+        assertThat(meterRegistry.get("search.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("search.cache.saved.queries").counter().count()).isEqualTo(2); // 짧은 페이지라 COUNT 없음
+        assertThat(meterRegistry.get("search.db.queries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("대소문자만 다른 키워드는 같은 키다")
+    void cacheKeyIgnoresCase() {
+        given(catalogVersionService.current()).willReturn(new CatalogVersionService.Version(1, 0));
+        given(mapper.searchAnimes(anyString(), any(), anyBoolean(), isNull(), anyInt(), isNull(), anyString(), anyInt(), anyInt()))
+                .willReturn(items(1));
+
+        searchService.search("Attack On", null, null, "relevance", 0, 20);
+        searchService.search("attack  ON", null, null, "relevance", 0, 20);
+
+        verify(mapper, times(1))
+                .searchAnimes(anyString(), any(), anyBoolean(), isNull(), anyInt(), isNull(), anyString(), anyInt(), anyInt());
+    }
+}
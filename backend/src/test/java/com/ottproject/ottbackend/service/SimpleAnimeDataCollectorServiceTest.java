@@ -61,6 +61,15 @@ class SimpleAnimeDataCollectorServiceTest {
     @Mock
     private AnimeBatchProcessor animeBatchProcessor;
 
+    @Mock
+    private AnimeListCountCache animeListCountCache;
+
+    @Mock
+    private AnimeFilterIndex animeFilterIndex;
+
+    @Mock
+    private AnimeCacheService animeCacheService;
+
     @Mock
     private PlatformTransactionManager transactionManager;
 
@@ -71,6 +80,12 @@ class SimpleAnimeDataCollectorServiceTest {
     @Mock
     private SimpleAnimeDataCollectorService self;
 
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private AnimeSuggestIndex animeSuggestIndex;
+
     @InjectMocks
     private SimpleAnimeDataCollectorService service;
 
@@ -0,0 +1,103 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.ottproject.ottbackend.dto.SkipHistogramBucketDto;
+import com.ottproject.ottbackend.dto.SkipUsageEventDto;
+import com.ottproject.ottbackend.enums.SkipType;
+import com.ottproject.ottbackend.mybatis.SkipUsageMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * SkipUsageIngestor 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 큐가 가득 찼을 때 요청 스레드가 막히면 스킵 버튼 하나가 재생 API 지연으로 번진다. 버리고 세는지 고정한다.
+ * - 배치 실패가 적재 스레드를 죽이거나 같은 배치를 무한히 재시도하면 큐가 다시 차 올라간다.
+ */
+@ExtendWith(MockitoExtension.class)
+class SkipUsageIngestorTest {
+
+    @Mock
+    private SkipUsageMapper skipUsageMapper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SkipUsageIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestor = new SkipUsageIngestor(skipUsageMapper, meterRegistry);
+        ReflectionTestUtils.setField(ingestor, "queueCapacity", 2);
+        ingestor.init();
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("skip.ingest.dropped").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 막지 않고 버린 뒤 센다")
+    void dropsWhenQueueIsFull() {
+        assertThat(ingestor.offer(1L, 10L, SkipType.INTRO, 30)).isTrue();
+        assertThat(ingestor.offer(1L, 10L, SkipType.INTRO, 31)).isTrue();
+
+        assertThat(ingestor.offer(1L, 10L, SkipType.INTRO, 32)).isFalse();
+
+        assertThat(dropped("queue_full")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("skip.ingest.queue.depth").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("한 배치로 적재하고 같은 구간의 스킵은 히스토그램에서 합친다")
+    @SuppressWarnings("unchecked")
+    void writesBatchAndFoldsHistogram() {
+        ingestor.offer(1L, 10L, SkipType.INTRO, 31);
+        ingestor.offer(null, 10L, SkipType.INTRO, 33);
+        given(skipUsageMapper.insertBatch(anyList())).willReturn(1);
+
+        ingestor.drain();
+
+        ArgumentCaptor<List<SkipUsageEventDto>> rows = ArgumentCaptor.forClass(List.class);
+        verify(skipUsageMapper).insertBatch(rows.capture());
+        assertThat(rows.getValue()).extracting(SkipUsageEventDto::getAtSec).containsExactly(31, 33);
+        ArgumentCaptor<List<SkipHistogramBucketDto>> buckets = ArgumentCaptor.forClass(List.class);
+        verify(skipUsageMapper).addHistogram(buckets.capture());
+        assertThat(buckets.getValue()).singleElement().satisfies(b -> {
+            assertThat(b.getBucketSec()).isEqualTo(30);
+            assertThat(b.getHits()).isEqualTo(2L);
+            assertThat(b.getSkipType()).isEqualTo("INTRO");
+        });
+        assertThat(meterRegistry.get("skip.ingest.written").counter().count()).isEqualTo(1.0);
+        assertThat(dropped("orphan")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("적재가 실패한 배치는 다시 넣지 않고 센다")
+    void dropsFailedBatch() {
+        ingestor.offer(1L, 10L, SkipType.OUTRO, 1300);
+        given(skipUsageMapper.insertBatch(anyList())).willThrow(new QueryTimeoutException("slow"));
+
+        ingestor.drain();
+        ingestor.drain();
+
+        verify(skipUsageMapper, times(1)).insertBatch(anyList());
+        verify(skipUsageMapper, never()).addHistogram(anyList());
+        assertThat(dropped("write_failed")).isEqualTo(1.0);
+    }
+}
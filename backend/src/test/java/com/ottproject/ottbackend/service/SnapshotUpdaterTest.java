@@ -0,0 +1,120 @@
+package com.ottproject.ottbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * SnapshotUpdater 검증
+ *
+ * 왜 이 테스트가 필요한가
+ * - 필터 인덱스와 자동완성 인덱스가 같은 갱신 절차를 쓴다. 여기가 무너지면 두 인덱스가 함께 틀린다.
+ *
+ * 여기서 고정하는 규칙
+ * - 트랜잭션 안의 갱신은 커밋 후에 반영하고 알린다. 밖이면 바로 한다.
+ * - 자기 인스턴스가 보낸 메시지는 건너뛰고, 다른 인스턴스 메시지는 반영한다.
+ * - 기동 적재가 시간 안에 못 끝나 아직 돌고 있으면, 기동 완료 후 뒷받침은 적재를 하나 더 넣지 않는다.
+ */
+class SnapshotUpdaterTest {
+
+    private final AtomicInteger rebuilds = new AtomicInteger();
+    private final List<Long> refreshed = new CopyOnWriteArrayList<>();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean ready = new AtomicBoolean();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockRebuild;
+
+    private SnapshotUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        updater = new SnapshotUpdater("Test", "snapshot-updater-test", "ch",
+                () -> {
+                    if (blockRebuild) await(release);
+                    rebuilds.incrementAndGet();
+                    ready.set(true);
+                },
+                refreshed::add, ready::get,
+                (channel, body) -> published.add(channel + ":" + body));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        updater.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** 갱신 스레드에 들어간 일이 모두 끝날 때까지 기다린다(단일 스레드라 뒤에 넣은 적재가 끝나면 앞의 일도 끝났다). */
+    private void drain() throws InterruptedException {
+        updater.loadBlocking(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 갱신은 커밋 후에 반영하고 알린다")
+    void refreshWaitsForCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            updater.refresh(7L);
+            assertThat(published).isEmpty();
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        drain();
+
+        assertThat(refreshed).containsExactly(7L);
+        assertThat(published).singleElement().satisfies(m -> assertThat(m).startsWith("ch:").endsWith("|7"));
+    }
+
+    @Test
+    @DisplayName("자기 메시지는 건너뛰고 다른 인스턴스 메시지는 반영한다")
+    void skipsOwnBroadcast() throws Exception {
+        updater.refresh(1L);
+        String own = published.get(0).substring("ch:".length());
+
+        updater.onRemote(own);
+        updater.onRemote("other|2");
+        updater.onRemote("other|" + SnapshotUpdater.ALL);
+        drain();
+
+        assertThat(refreshed).containsExactly(1L, 2L);
+        assertThat(rebuilds).hasValue(2); // other|* + drain
+    }
+
+    @Test
+    @DisplayName("기동 적재가 아직 돌고 있으면 기동 완료 후 적재를 하나 더 넣지 않는다")
+    void noDuplicateStartupLoad() throws Exception {
+        blockRebuild = true;
+        assertThat(updater.loadBlocking(Duration.ofMillis(50))).isFalse(); // 시간 초과, 적재는 계속 돈다
+
+        updater.loadIfNotReady();
+        blockRebuild = false;
+        release.countDown();
+        drain();
+
+        assertThat(rebuilds).hasValue(2); // 기동 적재 + drain
+    }
+}
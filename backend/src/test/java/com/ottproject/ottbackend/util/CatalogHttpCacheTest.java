@@ -0,0 +1,100 @@
+package com.ottproject.ottbackend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import com.ottproject.ottbackend.service.CatalogVersionService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * CatalogHttpCache 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - If-None-Match 가 버전 ETag 와 같으면 본문 공급자를 부르지 않고 304 를 준다(304 에도 캐시 헤더가 실린다).
+ * - 버전이 오르면 ETag 가 바뀌어 200 이 나간다.
+ * - 버전을 못 읽으면(null) ETag 없이 본문을 준다 — 틀린 304 를 내지 않는다.
+ * - 사용자별 헤더는 private 이고 Surrogate-Key 가 없다.
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogHttpCacheTest {
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private CatalogHttpCache cache;
+
+    private final AtomicInteger bodyCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogHttpCache(catalogVersionService);
+        ReflectionTestUtils.setField(cache, "rolloverSeconds", 0L); // 구간 없음: ETag 가 버전에만 달린다
+    }
+
+    private String body() {
+        bodyCalls.incrementAndGet();
+        return "body";
+    }
+
+    @Test
+    @DisplayName("ETag 가 맞으면 본문을 만들지 않고 304, 캐시 헤더는 그대로")
+    void matchingEtagSkipsBody() {
+        given(catalogVersionService.current()).willReturn(new CatalogVersionService.Version(3L, 1_000L));
+        String etag = cache.conditional(null, CatalogHttpCache.Policy.LIST, "anime-list", this::body)
+                .getHeaders().getETag();
+
+        ResponseEntity<String> result = cache.conditional(etag, CatalogHttpCache.Policy.LIST, "anime-list", this::body);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(bodyCalls).hasValue(1);
+        assertThat(result.getHeaders().getFirst("Surrogate-Key")).isEqualTo("catalog anime-list");
+        assertThat(result.getHeaders().getCacheControl()).contains("public");
+    }
+
+    @Test
+    @DisplayName("버전이 오르면 옛 ETag 로는 304 가 아니다")
+    void bumpedVersionChangesEtag() {
+        given(catalogVersionService.current()).willReturn(new CatalogVersionService.Version(3L, 1_000L));
+        String old = cache.conditional(null, CatalogHttpCache.Policy.LIST, "anime-list", this::body)
+                .getHeaders().getETag();
+        given(catalogVersionService.current()).willReturn(new CatalogVersionService.Version(4L, 2_000L));
+
+        ResponseEntity<String> result = cache.conditional(old, CatalogHttpCache.Policy.LIST, "anime-list", this::body);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isNotEqualTo(old);
+        assertThat(result.getHeaders().getLastModified()).isEqualTo(2_000L);
+    }
+
+    @Test
+    @DisplayName("버전을 못 읽으면 ETag 없이 본문을 준다")
+    void missingVersionServesBodyWithoutEtag() {
+        given(catalogVersionService.current()).willReturn(null);
+
+        ResponseEntity<String> result = cache.conditional("\"c3-0-list\"", CatalogHttpCache.Policy.LIST, "anime-list", this::body);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo("body");
+        assertThat(result.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    @DisplayName("사용자별 헤더는 private 이고 Surrogate-Key 가 없다")
+    void personalHeadersStayPrivate() {
+        HttpHeaders h = cache.personal();
+
+        assertThat(h.getCacheControl()).contains("private", "no-cache");
+        assertThat(h.getFirst("Surrogate-Key")).isNull();
+        assertThat(h.getFirst(HttpHeaders.VARY)).contains("Cookie");
+    }
+}
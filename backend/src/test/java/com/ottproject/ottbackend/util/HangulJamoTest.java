@@ -0,0 +1,62 @@
+package com.ottproject.ottbackend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.Normalizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * HangulJamo 단위 테스트
+ *
+ * 여기서 고정하는 규칙
+ * - 음절은 초성·중성·종성 순의 호환 자모로 펴고, 겹받침/겹모음은 누르는 순서대로 둘로 나눈다(쌍자음은 그대로).
+ * - 조합 중인 입력("귀며", "귀멸ㅇ")은 완성된 제목의 자모열 접두사가 된다.
+ * - 호환 자모와 NFKC 가 만든 조합형 자모는 같은 결과를 낸다.
+ * - 초성열은 음절마다 초성 하나, 한글이 아닌 글자는 그대로다.
+ */
+class HangulJamoTest {
+
+    @Test
+    @DisplayName("겹받침/겹모음은 둘로, 쌍자음은 하나로 편다")
+    void decomposesInTypingOrder() {
+        assertThat(HangulJamo.decompose("닭")).isEqualTo("ㄷㅏㄹㄱ");
+        assertThat(HangulJamo.decompose("의")).isEqualTo("ㅇㅡㅣ");
+        assertThat(HangulJamo.decompose("까")).isEqualTo("ㄲㅏ");
+        assertThat(HangulJamo.decompose("ㄳㅘ")).isEqualTo("ㄱㅅㅗㅏ");
+        assertThat(HangulJamo.decompose("a1 b")).isEqualTo("a1 b");
+    }
+
+    @Test
+    @DisplayName("조합 중인 입력은 완성 제목의 자모열 접두사다")
+    void partialSyllableIsPrefix() {
+        String title = HangulJamo.decompose("귀멸의칼날");
+
+        assertThat(title).startsWith(HangulJamo.decompose("귀며"));
+        assertThat(title).startsWith(HangulJamo.decompose("귀멸ㅇ"));
+        assertThat(title).doesNotStartWith(HangulJamo.decompose("귀먈"));
+    }
+
+    @Test
+    @DisplayName("NFKC 로 바뀐 조합형 자모도 호환 자모와 같게 편다")
+    void acceptsConjoiningJamo() {
+        String typed = "ㄱㅁㅇ";
+        String nfkc = Normalizer.normalize(typed, Normalizer.Form.NFKC);
+
+        assertThat(nfkc).isNotEqualTo(typed); // U+3131 → U+1100
+        assertThat(HangulJamo.decompose(nfkc)).isEqualTo(typed);
+        assertThat(HangulJamo.isInitialsOnly(HangulJamo.decompose(nfkc))).isTrue();
+    }
+
+    @Test
+    @DisplayName("초성열과 초성 쿼리 판별")
+    void initials() {
+        assertThat(HangulJamo.initials("귀멸의 칼날")).isEqualTo("ㄱㅁㅇ ㅋㄴ");
+        assertThat(HangulJamo.initials("진격2기")).isEqualTo("ㅈㄱ2ㄱ");
+        assertThat(HangulJamo.isInitialsOnly("ㄱㅁㅇ")).isTrue();
+        assertThat(HangulJamo.isInitialsOnly(HangulJamo.decompose("귀"))).isFalse();
+        assertThat(HangulJamo.isInitialsOnly("")).isFalse();
+        assertThat(HangulJamo.containsHangul("Attack on Titan")).isFalse();
+        assertThat(HangulJamo.containsHangul("진격 Titan")).isTrue();
+    }
+}
@@ -49,6 +49,9 @@ $Instances = @('ott-app', 'ott-app-2')
 # upstream. That keeps the property the loopback ports existed for: we still know WHICH
 # instance answered, so sequential replacement stays controllable. (cd.yml already probed
 # the backend this exact way.)
+# It polls the READINESS group, not plain /actuator/health: readiness stays OUT_OF_SERVICE
+# until the catalog cache warm-up (AnimeCacheWarmer) has finished or run out of budget, so
+# the next instance is not taken down while this one would still answer from a cold cache.
 function Wait-Healthy {
     param([string]$Name, [int]$TimeoutSec = 180)
 
@@ -57,7 +60,7 @@ function Wait-Healthy {
         $body = ''
         # A backend that is not listening yet makes wget write to stderr, which is a
         # terminating error under $ErrorActionPreference='Stop' - hence the try/catch.
-        try { $body = "$(docker exec ott-nginx wget -qO- -T3 "http://${Name}:8090/actuator/health" 2>$null)" } catch { $body = '' }
+        try { $body = "$(docker exec ott-nginx wget -qO- -T3 "http://${Name}:8090/actuator/health/readiness" 2>$null)" } catch { $body = '' }
         if ($body -match '"status"\s*:\s*"UP"') {
             Write-Host "  $Name is healthy"
             return
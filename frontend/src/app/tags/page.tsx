@@ -7,12 +7,7 @@ import FilterSidebar from "@/components/search/FilterSidebar";
 import AnimeGrid from "@/components/search/AnimeGrid";
 import { searchContent } from "@/lib/api/search";
 import {
-  getGenres,
-  getTags,
-  getSeasons,
-  getYearOptions,
-  getStatuses,
-  getTypes,
+  getFacets,
   getAnimeList,
   listAnime,
 } from "@/lib/api/anime";
@@ -82,14 +77,14 @@ function TagsPageContent() {
         setError(null);
 
         // 필터 옵션은 항상 로드 (검색어 유무와 무관)
-        const [gs, ts, ss, yos, sts, tps] = await Promise.all([
-          getGenres(),
-          getTags(),
-          getSeasons(),
-          getYearOptions(),
-          getStatuses(),
-          getTypes(),
-        ]);
+        // 옵션 6종을 한 요청으로 받는다(백엔드가 캐시 + ETag 로 내준다)
+        const facets = await getFacets();
+        const gs = facets?.genres;
+        const ts = facets?.tags;
+        const ss = facets?.seasons;
+        const yos = facets?.yearOptions;
+        const sts = facets?.statuses;
+        const tps = facets?.types;
 
         // API 응답 로그
         console.log("필터 옵션 로딩 완료:", {
@@ -563,6 +563,30 @@ export async function getTags() {
   // 모든 URL은 기본적으로 경로를 가지고 쿼리파라미터가 필요하면 쿼리 파라미터를 붙여서 사용하는것
 }
 
+// 필터 옵션 묶음: 장르/태그/시즌/연도·분기/상태/타입을 한 요청으로 받는다
+// counts 는 옵션별 작품 수(백엔드 집계 준비 전이면 null)
+export interface AnimeFacets {
+  genres: { id: number; name: string; color?: string }[];
+  tags: { id: number; name: string; color?: string }[];
+  seasons: string[];
+  yearOptions: { value: string; label: string; type: string }[];
+  statuses: { key: string; label: string }[];
+  types: { key: string; label: string }[];
+  counts: {
+    total: number;
+    genres: Record<string, number>;
+    tags: Record<string, number>;
+    statuses: Record<string, number>;
+    types: Record<string, number>;
+    years: Record<string, number>;
+    quarters: Record<string, number>;
+  } | null;
+}
+
+export async function getFacets() {
+  return apiCall<AnimeFacets>("/anime/facets") as Promise<AnimeFacets>;
+}
+
 // 필터 옵션 목록
 export async function getSeasons() {
   // import해서 사용하는 비동기 함수 getSeasons 선언
@@ -3,6 +3,7 @@
 // 플레이어 관련 API 함수들
 
 import type { Episode } from "@/types/anime";
+import type { WatchHistoryPage } from "@/types/mypage";
 import type {
   StreamUrlResponse,
   EpisodeProgress,
@@ -204,9 +205,19 @@ export async function getNextEpisode(
   return apiCall<Episode | null>(`/api/episodes/${episodeId}/next`);
 }
 
-// 마이페이지 시청 기록 조회
-export async function getWatchHistory(page: number = 0, size: number = 20) {
-  return apiCall(
-    `/api/episodes/mypage/watch-history?page=${page}&size=${size}`,
+// 마이페이지 시청 기록 조회 (최신순). 다음 페이지는 직전 응답의 nextCursor* 를 넘긴다
+export async function getWatchHistory(params?: {
+  size?: number;
+  cursorUpdatedAt?: string;
+  cursorEpisodeId?: number;
+}): Promise<WatchHistoryPage> {
+  const qp = new URLSearchParams();
+  qp.append("size", String(params?.size ?? 20));
+  if (params?.cursorUpdatedAt)
+    qp.append("cursorUpdatedAt", params.cursorUpdatedAt);
+  if (params?.cursorEpisodeId != null)
+    qp.append("cursorEpisodeId", String(params.cursorEpisodeId));
+  return apiCall<WatchHistoryPage>(
+    `/api/episodes/mypage/watch-history?${qp.toString()}`,
   );
 }
@@ -90,7 +90,7 @@ export async function searchContent(
   query: string,
   genreIds?: number[],
   tagIds?: number[],
-  sort: string = "id",
+  sort: string = "relevance",
   page: number = 0,
   size: number = 20,
 ): Promise<SearchResultItem[] | PagedResponse<SearchResultItem>> {
@@ -112,6 +112,48 @@ export async function searchContent(
   );
 }
 
+// 작품·성우·캐릭터·감독·제작사 통합 검색 (종류별 상위 결과)
+export interface SearchAllAnime {
+  aniId: number;
+  title: string;
+  posterUrl?: string;
+  matchedBy: "TITLE" | "VOICE_ACTOR" | "CHARACTER" | "DIRECTOR" | "STUDIO";
+  matchedName?: string | null;
+}
+
+export interface SearchAllEntity {
+  id: number;
+  kind: "VOICE_ACTOR" | "CHARACTER" | "DIRECTOR" | "STUDIO";
+  name: string;
+  workCount: number;
+}
+
+export interface SearchAllResult {
+  animes: SearchAllAnime[];
+  voiceActors: SearchAllEntity[];
+  characters: SearchAllEntity[];
+  directors: SearchAllEntity[];
+  studios: SearchAllEntity[];
+}
+
+export async function searchAll(
+  query: string,
+  limit: number = 5,
+): Promise<SearchAllResult> {
+  if (!query || query.trim().length === 0) {
+    return {
+      animes: [],
+      voiceActors: [],
+      characters: [],
+      directors: [],
+      studios: [],
+    };
+  }
+  return apiCall<SearchAllResult>(
+    `/api/search/all?q=${encodeURIComponent(query.trim())}&limit=${limit}`,
+  );
+}
+
 // 애니메이션 전용 검색 (기존 anime.ts와 중복 방지)
 export async function searchAnimeOnly(
   query: string,
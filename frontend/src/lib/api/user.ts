@@ -13,6 +13,7 @@ import type {
   MyRating,
   MyReview,
   MyComment,
+  WatchHistoryEntry,
   WatchHistoryPage,
 } from "@/types/mypage";
 
@@ -76,30 +77,29 @@ export async function updateUserSettings(settings: Record<string, unknown>) {
   });
 }
 
-// 사용자 시청 기록 조회
-export async function getUserWatchHistory(
-  page: number = 0,
-  size: number = 20,
-): Promise<WatchHistoryPage> {
+// 사용자 시청 기록 조회 (최신순). 다음 페이지는 직전 응답의 nextCursor* 를 넘긴다(OFFSET 없이 이어 읽는다)
+export async function getUserWatchHistory(params?: {
+  size?: number;
+  cursorUpdatedAt?: string;
+  cursorEpisodeId?: number;
+}): Promise<WatchHistoryPage> {
+  const size = params?.size ?? 20;
   try {
-    // 캐시 방지를 위해 타임스탬프 추가
-    const timestamp = Date.now();
+    const qp = new URLSearchParams();
+    qp.append("size", String(size));
+    if (params?.cursorUpdatedAt)
+      qp.append("cursorUpdatedAt", params.cursorUpdatedAt);
+    if (params?.cursorEpisodeId != null)
+      qp.append("cursorEpisodeId", String(params.cursorEpisodeId));
+    qp.append("t", String(Date.now())); // 캐시 방지
     return await apiCall<WatchHistoryPage>(
-      `/api/episodes/mypage/watch-history?page=${page}&size=${size}&t=${timestamp}`,
+      `/api/episodes/mypage/watch-history?${qp.toString()}`,
     );
   } catch (error: unknown) {
     // 401 에러인 경우 로그인하지 않은 상태로 간주하고 빈 결과 반환
     if (getErrorStatus(error) === 401) {
       console.log("🔍 시청 기록 조회 실패: 로그인 필요 (401)");
-      return {
-        content: [],
-        totalElements: 0,
-        totalPages: 0,
-        size,
-        number: page,
-        first: true,
-        last: true,
-      };
+      return { content: [], currentPage: 0, size, hasNext: false };
     }
     throw error;
   }
@@ -140,12 +140,19 @@ export async function getUserRecentAnime(params?: {
 export async function getAnimeWatchHistory(animeId: number) {
   // Promise<number>를 명시하는게 더 편의성을 높이기 가능
   try {
-    // 캐시 방지를 위해 타임스탬프 추가
-    const history = await getUserWatchHistory(0, 1000);
-    console.log("🔍 전체 시청 기록:", history);
-
-    const animeHistory =
-      history.content?.filter((item) => item.animeId === animeId) || [];
+    // 최신순으로 커서를 따라 읽다가 이 작품 기록이 나온 페이지에서 멈춘다(첫 일치가 가장 최근)
+    let animeHistory: WatchHistoryEntry[] = [];
+    let cursor: { cursorUpdatedAt?: string; cursorEpisodeId?: number } = {};
+    for (;;) {
+      const history = await getUserWatchHistory({ size: 100, ...cursor });
+      animeHistory =
+        history.content?.filter((item) => item.animeId === animeId) || [];
+      if (animeHistory.length > 0 || !history.hasNext) break;
+      cursor = {
+        cursorUpdatedAt: history.nextCursorUpdatedAt,
+        cursorEpisodeId: history.nextCursorEpisodeId,
+      };
+    }
     console.log("🔍 해당 애니메이션 시청 기록:", animeHistory);
     console.log(
       "🔍 시청 기록 상세:",
@@ -54,15 +54,14 @@ export interface WatchHistoryEntry {
   episode?: { episodeNumber?: number };
 }
 
-// 전체 시청 기록 페이지 (Spring Page 형태)
+// 전체 시청 기록 페이지 (최신순 커서 페이지: 다음 페이지는 nextCursor* 를 그대로 돌려보낸다)
 export interface WatchHistoryPage {
   content: WatchHistoryEntry[];
-  totalElements?: number;
-  totalPages?: number;
+  currentPage?: number;
   size?: number;
-  number?: number;
-  first?: boolean;
-  last?: boolean;
+  hasNext?: boolean;
+  nextCursorUpdatedAt?: string; // hasNext 일 때만
+  nextCursorEpisodeId?: number; // hasNext 일 때만
 }
 
 // 최근 시청 화면용(상세 조인으로 aniId/title/posterUrl 보강)